@@ -8,13 +8,21 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 public class CMSApplication {
 
 	public static void main(String[] args) {
-        Dotenv dotenv = Dotenv.load();
-        System.setProperty("DB_URL", dotenv.get("DB_URL"));
-        System.setProperty("DB_USERNAME", dotenv.get("DB_USERNAME"));
-        System.setProperty("DB_PASSWORD", dotenv.get("DB_PASSWORD"));
-        System.setProperty("JWT_SECRET_KEY", dotenv.get("JWT_SECRET_KEY"));
+        // The embedded profile needs no database settings, so a missing .env file or entry is not an error.
+        Dotenv dotenv = Dotenv.configure().ignoreIfMissing().load();
+        setIfPresent("DB_URL", dotenv.get("DB_URL"));
+        setIfPresent("DB_USERNAME", dotenv.get("DB_USERNAME"));
+        setIfPresent("DB_PASSWORD", dotenv.get("DB_PASSWORD"));
+        setIfPresent("R2DBC_URL", dotenv.get("R2DBC_URL"));
+        setIfPresent("JWT_SECRET_KEY", dotenv.get("JWT_SECRET_KEY"));
 
 		SpringApplication.run(CMSApplication.class, args);
 	}
 
+    private static void setIfPresent(String key, String value) {
+        if (value != null) {
+            System.setProperty(key, value);
+        }
+    }
+
 }
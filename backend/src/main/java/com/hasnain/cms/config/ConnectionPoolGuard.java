@@ -0,0 +1,126 @@
+package com.hasnain.cms.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps requests from queueing without limit behind a saturated connection pool.
+ * <p>
+ * Hikari already bounds how long one caller waits for a connection ({@code spring.datasource.hikari.connection-timeout}).
+ * It does not bound how many callers wait. This guard refuses a connection outright once
+ * {@code contacts.datasource.max-pending-acquires} threads are already waiting. Refusals and acquire timeouts
+ * surface as {@link SQLTransientConnectionException}, which the API answers with 503. Each one is counted in
+ * {@code contacts.datasource.rejected{reason}}. A warning with the pool's state is logged at most every few seconds.
+ */
+@Slf4j
+@Component
+public class ConnectionPoolGuard implements BeanPostProcessor, Ordered {
+
+    private static final long WARN_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final int maxPendingAcquires;
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    private final AtomicLong lastWarning = new AtomicLong(System.nanoTime() - WARN_INTERVAL_NANOS);
+
+    public ConnectionPoolGuard(@Value("${contacts.datasource.max-pending-acquires:200}") int maxPendingAcquires,
+                               ObjectProvider<MeterRegistry> meterRegistry) {
+        this.maxPendingAcquires = maxPendingAcquires;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+
+        if (bean instanceof HikariDataSource dataSource) {
+            return guard(dataSource);
+        }
+        return bean;
+    }
+
+    /**
+     * Guards a pool that is not a bean of its own, such as a read replica's (see {@link ReadReplicaRouting}).
+     */
+    public DataSource guard(HikariDataSource dataSource) {
+
+        log.info("Guarding connection pool '{}': at most {} pending acquires, {} ms acquire timeout.",
+                dataSource.getPoolName(), maxPendingAcquires, dataSource.getConnectionTimeout());
+        return new GuardedDataSource(dataSource);
+    }
+
+    // Wraps the pool before anything else does, while it is still a HikariDataSource.
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    private void rejected(HikariDataSource dataSource, String reason) {
+
+        meterRegistry.ifAvailable(registry -> Counter.builder("contacts.datasource.rejected")
+                .description("Connection requests refused because the pool was saturated")
+                .tag("pool", String.valueOf(dataSource.getPoolName()))
+                .tag("reason", reason)
+                .register(registry)
+                .increment());
+
+        long now = System.nanoTime();
+        long last = lastWarning.get();
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        if (pool != null && now - last >= WARN_INTERVAL_NANOS && lastWarning.compareAndSet(last, now)) {
+            log.warn("Connection pool '{}' saturated ({}): {} active, {} idle, {} pending of {} connections.",
+                    dataSource.getPoolName(), reason, pool.getActiveConnections(), pool.getIdleConnections(),
+                    pool.getThreadsAwaitingConnection(), dataSource.getMaximumPoolSize());
+        }
+    }
+
+    // Closeable, so the pool is still shut down with the context.
+    final class GuardedDataSource extends DelegatingDataSource implements Closeable {
+
+        private final HikariDataSource dataSource;
+
+        GuardedDataSource(HikariDataSource dataSource) {
+            super(dataSource);
+            this.dataSource = dataSource;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            if (pool != null && pool.getThreadsAwaitingConnection() >= maxPendingAcquires) {
+                rejected(dataSource, "pending");
+                throw new SQLTransientConnectionException("Connection pool '" + dataSource.getPoolName()
+                        + "' has " + maxPendingAcquires + " requests waiting already.");
+            }
+            try {
+                return dataSource.getConnection();
+            } catch (SQLTransientConnectionException exception) {
+                rejected(dataSource, "timeout");
+                throw exception;
+            }
+        }
+
+        @Override
+        public void close() {
+            dataSource.close();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.hasnain.cms.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.Map;
+
+/**
+ * Moves the contact id sequences past the ids already in use. Contacts, emails and phones were keyed by identity
+ * columns before their ids were drawn from pooled sequences, and a sequence created on upgrade would start again at 1.
+ * Runs once Hibernate has created or updated the schema, and leaves a sequence that is already ahead alone.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "spring.datasource.url")
+public class ContactIdSequences implements InitializingBean {
+
+    /**
+     * Ids drawn per sequence round trip; matches {@code allocationSize} on the entities.
+     */
+    static final int ALLOCATION_SIZE = 50;
+
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "contacts", "contacts_seq",
+            "contact_emails", "contact_emails_seq",
+            "contact_phones", "contact_phones_seq");
+
+    private final DataSource dataSource;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // The EntityManagerFactory is only taken so that the schema exists before this runs.
+    public ContactIdSequences(DataSource dataSource, EntityManagerFactory entityManagerFactory) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+
+        boolean nativeSequences = usesNativeSequences();
+        SEQUENCES.forEach((table, sequence) -> align(table, sequence, nativeSequences));
+    }
+
+    private boolean usesNativeSequences() {
+
+        try {
+            return "H2".equals(JdbcUtils.extractDatabaseMetaData(dataSource,
+                    DatabaseMetaData::getDatabaseProductName));
+        } catch (MetaDataAccessException exception) {
+            return false;
+        }
+    }
+
+    private void align(String table, String sequence, boolean nativeSequences) {
+
+        try {
+            Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+            if (maxId == null) {
+                return;
+            }
+            // Hibernate's pooled optimizer hands out the block of ids that ends at the value it reads, so that value
+            // has to clear the highest id in use by a whole block.
+            long next = maxId + ALLOCATION_SIZE;
+            if (nativeSequences) {
+                Long current = jdbcTemplate.queryForObject("SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES "
+                        + "WHERE UPPER(SEQUENCE_NAME) = ?", Long.class, sequence.toUpperCase());
+                if (current != null && current < next) {
+                    jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + next);
+                    log.info("Moved {} from {} to {}, past the highest id in {}.", sequence, current, next, table);
+                }
+            } else if (jdbcTemplate.update("UPDATE " + sequence + " SET next_val = ? WHERE next_val < ?", next,
+                    next) > 0) {
+                // Databases without sequences, such as MySQL, keep the next value in a one-row table.
+                log.info("Moved {} to {}, past the highest id in {}.", sequence, next, table);
+            }
+        } catch (DataAccessException exception) {
+            log.warn("Could not move {} past the ids in {}; new rows may collide with existing ones: {}", sequence,
+                    table, exception.getMessage());
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.hasnain.cms.config;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufMapper;
+import com.fasterxml.jackson.dataformat.protobuf.schema.NativeProtobufSchema;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchema;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchemaLoader;
+import com.hasnain.cms.dto.ContactDTO;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.net.URL;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes {@link ContactDTO} and lists of them as Protobuf, following {@code proto/contacts.proto}. Lists
+ * are wrapped in a {@code ContactList} message, since a Protobuf body has to be a single message. Also writes the
+ * error maps of {@link com.hasnain.cms.exception.GlobalExceptionHandler}, so failures reach Protobuf-only clients.
+ */
+public class ContactProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final String APPLICATION_PROTOBUF_VALUE = "application/x-protobuf";
+
+    public static final MediaType APPLICATION_PROTOBUF = MediaType.parseMediaType(APPLICATION_PROTOBUF_VALUE);
+
+    private static final String SCHEMA_LOCATION = "proto/contacts.proto";
+
+    private record ContactList(List<ContactDTO> contacts) {
+    }
+
+    private record ErrorResponse(List<ErrorEntry> errors) {
+    }
+
+    private record ErrorEntry(String key, String value) {
+    }
+
+    private final ProtobufMapper mapper = new ProtobufMapper();
+
+    private final ProtobufSchema contactSchema;
+
+    private final ProtobufSchema contactListSchema;
+
+    private final ProtobufSchema errorSchema;
+
+    public ContactProtobufHttpMessageConverter() {
+
+        super(APPLICATION_PROTOBUF, new MediaType("application", "protobuf"));
+        mapper.setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE);
+        mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        URL schema = getClass().getClassLoader().getResource(SCHEMA_LOCATION);
+        if (schema == null) {
+            throw new IllegalStateException("Protobuf schema " + SCHEMA_LOCATION + " is missing.");
+        }
+        try {
+            NativeProtobufSchema nativeSchema = ProtobufSchemaLoader.std.loadNative(schema);
+            this.contactSchema = nativeSchema.forType("Contact");
+            this.contactListSchema = nativeSchema.forType("ContactList");
+            this.errorSchema = nativeSchema.forType("ErrorResponse");
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Failed to load Protobuf schema " + SCHEMA_LOCATION + ".", exception);
+        }
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ContactDTO.class == clazz;
+    }
+
+    // Spring asks canWrite(Type, ...) first, which checks a list's element type; this only sees the raw class.
+    @Override
+    public List<MediaType> getSupportedMediaTypes(Class<?> clazz) {
+        return ContactDTO.class == clazz || List.class.isAssignableFrom(clazz) || Map.class.isAssignableFrom(clazz)
+                ? getSupportedMediaTypes() : List.of();
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return ContactDTO.class == type && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return (isContact(type) || isContactList(type) || isErrorMap(type)) && canWrite(mediaType);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        return readInternal(ContactDTO.class, inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+
+        try {
+            return mapper.readerFor(ContactDTO.class).with(contactSchema).readValue(inputMessage.getBody());
+        } catch (IOException exception) {
+            throw new HttpMessageNotReadableException("Invalid Protobuf contact: " + exception.getMessage(),
+                    exception, inputMessage);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage) throws IOException {
+
+        if (body instanceof ContactDTO) {
+            mapper.writer(contactSchema).writeValue(outputMessage.getBody(), body);
+        } else if (body instanceof Map<?, ?> errors) {
+            mapper.writer(errorSchema).writeValue(outputMessage.getBody(), new ErrorResponse(errors.entrySet()
+                    .stream()
+                    .map(entry -> new ErrorEntry((String) entry.getKey(), (String) entry.getValue()))
+                    .toList()));
+        } else {
+            mapper.writer(contactListSchema).writeValue(outputMessage.getBody(),
+                    new ContactList((List<ContactDTO>) body));
+        }
+    }
+
+    private static boolean isContact(Type type) {
+        return ContactDTO.class == type;
+    }
+
+    private static boolean isErrorMap(Type type) {
+
+        ResolvableType resolved = ResolvableType.forType(type);
+        return resolved.resolve() != null && Map.class.isAssignableFrom(resolved.resolve())
+                && resolved.getGeneric(0).resolve() == String.class && resolved.getGeneric(1).resolve() == String.class;
+    }
+
+    private static boolean isContactList(Type type) {
+
+        ResolvableType resolved = ResolvableType.forType(type);
+        return resolved.resolve() != null && List.class.isAssignableFrom(resolved.resolve())
+                && resolved.getGeneric(0).resolve() == ContactDTO.class;
+    }
+}
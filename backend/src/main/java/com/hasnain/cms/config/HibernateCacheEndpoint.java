@@ -0,0 +1,65 @@
+package com.hasnain.cms.config;
+
+import com.hasnain.cms.dto.CacheRegionStatisticsDTO;
+import com.hasnain.cms.dto.CacheStatisticsDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Hit, miss and put counts of the Hibernate second-level cache, overall and per region, for sizing the regions in
+ * {@code ehcache.xml}. Served at {@code /actuator/hibernatecache} and {@code /actuator/hibernatecache/{region}}.
+ */
+@Component
+@Endpoint(id = "hibernatecache")
+@ConditionalOnProperty(name = "spring.jpa.properties.hibernate.generate_statistics", havingValue = "true")
+public class HibernateCacheEndpoint {
+
+    private final Statistics statistics;
+
+    public HibernateCacheEndpoint(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ReadOperation
+    public CacheStatisticsDTO statistics() {
+
+        List<CacheRegionStatisticsDTO> regions = Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(this::region)
+                .filter(Objects::nonNull)
+                .toList();
+        return new CacheStatisticsDTO(statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount(), statistics.getSecondLevelCachePutCount(),
+                statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount(),
+                statistics.getQueryCachePutCount(), regions);
+    }
+
+    // A null result is answered with 404 by the actuator.
+    @ReadOperation
+    public CacheRegionStatisticsDTO region(@Selector String region) {
+
+        // Asking Hibernate about an unknown region would try to create it.
+        if (!Arrays.asList(statistics.getSecondLevelCacheRegionNames()).contains(region)) {
+            return null;
+        }
+        CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+        if (regionStatistics == null) {
+            return null;
+        }
+        long hits = regionStatistics.getHitCount();
+        long misses = regionStatistics.getMissCount();
+        double hitRatio = hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+        return new CacheRegionStatisticsDTO(region, hits, misses, regionStatistics.getPutCount(), hitRatio);
+    }
+}
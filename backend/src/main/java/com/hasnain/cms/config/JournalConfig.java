@@ -0,0 +1,59 @@
+package com.hasnain.cms.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hasnain.cms.journal.ContactChangeJournal;
+import com.hasnain.cms.journal.ContactChangeJournalListener;
+import com.hasnain.cms.journal.FsyncPolicy;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Journals committed contact changes when {@code contacts.journal.enabled} is true. AOT builds decide this at build
+ * time, so they include the journal only when it is enabled for the AOT processing run.
+ */
+@Configuration
+@ConditionalOnProperty(name = "contacts.journal.enabled", havingValue = "true")
+public class JournalConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public ContactChangeJournal contactChangeJournal(
+            @Value("${contacts.journal.directory:${user.home}/cms/journal}") String directory,
+            @Value("${contacts.journal.segment-size-bytes:67108864}") int segmentSizeBytes,
+            @Value("${contacts.journal.ring-buffer-size:8192}") int ringBufferSize,
+            @Value("${contacts.journal.fsync-policy:INTERVAL}") FsyncPolicy fsyncPolicy,
+            @Value("${contacts.journal.fsync-interval-ms:50}") long fsyncIntervalMs,
+            @Value("${contacts.journal.retention-segments:16}") int retentionSegments,
+            @Value("${contacts.journal.retention-hours:168}") long retentionHours,
+            ObjectMapper objectMapper) {
+
+        return new ContactChangeJournal(new ContactChangeJournal.Settings(Path.of(directory).toAbsolutePath(),
+                segmentSizeBytes, ringBufferSize, fsyncPolicy, Duration.ofMillis(fsyncIntervalMs), retentionSegments,
+                Duration.ofHours(retentionHours)), objectMapper);
+    }
+
+    @Bean
+    public MeterBinder contactChangeJournalMetrics(ContactChangeJournal contactChangeJournal) {
+        return registry -> {
+            FunctionCounter.builder("contacts.journal.appended", contactChangeJournal,
+                            ContactChangeJournal::appendedCount)
+                    .description("Contact changes written to the journal")
+                    .register(registry);
+            FunctionCounter.builder("contacts.journal.dropped", contactChangeJournal,
+                            ContactChangeJournal::droppedCount)
+                    .description("Contact changes that never reached the journal")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public ContactChangeJournalListener contactChangeJournalListener(ContactChangeJournal contactChangeJournal) {
+        return new ContactChangeJournalListener(contactChangeJournal);
+    }
+}
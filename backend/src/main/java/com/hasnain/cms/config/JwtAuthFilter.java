@@ -1,5 +1,7 @@
 package com.hasnain.cms.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -22,6 +24,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final MeterRegistry meterRegistry;
 
     @Override
     protected void doFilterInternal(
@@ -40,11 +43,18 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         jwt = authHeader.substring(7); //length of "Bearer "
 
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "rejected";
+        String authenticatedUser = null;
         try {
             username = jwtService.extractUsername(jwt);
 
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+                UserDetails userDetails;
+                // Sees a registration or password change that a replica may not have yet.
+                try (ReadYourWrites.Scope ignored = ReadYourWrites.forUser(username)) {
+                    userDetails = this.userDetailsService.loadUserByUsername(username);
+                }
 
                 if (jwtService.isTokenValid(jwt, userDetails)) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
@@ -57,12 +67,25 @@ public class JwtAuthFilter extends OncePerRequestFilter {
                     );
 
                     SecurityContextHolder.getContext().setAuthentication(authToken);
+                    outcome = "authenticated";
+                    authenticatedUser = userDetails.getUsername();
                 }
             }
         } catch (Exception e) {
             logger.warn("JWT token processing error: " + e.getMessage());
         }
+        sample.stop(Timer.builder("cms.auth.filter")
+                .description("Time spent authenticating a bearer token")
+                .tag("outcome", outcome)
+                .register(meterRegistry));
 
-        filterChain.doFilter(request, response);
+        if (authenticatedUser == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        // The user's reads see their own writes for the rest of the request (see ReadYourWrites).
+        try (ReadYourWrites.Scope ignored = ReadYourWrites.forUser(authenticatedUser)) {
+            filterChain.doFilter(request, response);
+        }
     }
 }
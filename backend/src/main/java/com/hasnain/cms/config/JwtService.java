@@ -4,6 +4,7 @@ import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
@@ -23,6 +24,7 @@ public class JwtService {
     @Value("${jwt.expiration-ms}")
     private long expirationMs;
 
+    @Timed(value = "cms.jwt", extraTags = {"operation", "parse"})
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -32,10 +34,12 @@ public class JwtService {
         return claimsResolver.apply(claims);
     }
 
+    @Timed(value = "cms.jwt", extraTags = {"operation", "generate"})
     public String generateToken(UserDetails userDetails) {
         return generateToken(new HashMap<>(), userDetails);
     }
 
+    @Timed(value = "cms.jwt", extraTags = {"operation", "generate"})
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
 
         return Jwts.builder()
@@ -47,6 +51,7 @@ public class JwtService {
                 .compact();
     }
 
+    @Timed(value = "cms.jwt", extraTags = {"operation", "verify"})
     public boolean isTokenValid(String token, UserDetails userDetails) {
         final String username = extractUsername(token);
         return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
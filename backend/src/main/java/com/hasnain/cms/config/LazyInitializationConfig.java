@@ -0,0 +1,31 @@
+package com.hasnain.cms.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hasnain.cms.journal.ContactChangeJournal;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.Filter;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.SecurityFilterChain;
+
+import javax.sql.DataSource;
+
+/**
+ * With {@code spring.main.lazy-initialization=true} (off by default), beans are created on first use instead of at
+ * startup, so an instance starts serving sooner. The beans below stay eager: every request needs them, and creating
+ * the connection pool or Hibernate on the first request would only move the wait onto a user. Bulk, dedupe, sync,
+ * stream and tag services, the reactive API and the caches are then created when first called.
+ */
+@Configuration
+public class LazyInitializationConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter eagerRequestPathBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(DataSource.class, EntityManagerFactory.class,
+                AbstractEntityManagerFactoryBean.class, SecurityFilterChain.class, Filter.class, JwtService.class,
+                PasswordEncoder.class, ObjectMapper.class, ContactChangeJournal.class);
+    }
+}
@@ -0,0 +1,33 @@
+package com.hasnain.cms.config;
+
+import ch.qos.logback.classic.LoggerContext;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.NonNull;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes how many log events {@link LogSamplingTurboFilter} dropped, as {@code cms.logging.sampled.out}, so that
+ * thinned-out logs are never invisible.
+ */
+@Component
+public class LogSamplingMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+            return;
+        }
+        context.getTurboFilterList().stream()
+                .filter(LogSamplingTurboFilter.class::isInstance)
+                .map(LogSamplingTurboFilter.class::cast)
+                .findFirst()
+                .ifPresent(filter -> FunctionCounter.builder("cms.logging.sampled.out", filter,
+                                LogSamplingTurboFilter::getSampledOut)
+                        .description("Log events dropped by sampling")
+                        .register(registry));
+    }
+}
@@ -0,0 +1,86 @@
+package com.hasnain.cms.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thins out high-volume INFO and DEBUG logging from the request path before any message is formatted. Within each
+ * second, the first {@code maxPerSecond} events from the configured loggers pass; after that only one in
+ * {@code sampleRate} does (0 drops them all). Warnings and errors, and loggers outside the configured prefixes, are
+ * never sampled.
+ * <p>
+ * Configured in {@code logback-spring.xml}. The budget is shared by all sampled loggers.
+ */
+public class LogSamplingTurboFilter extends TurboFilter {
+
+    private String[] loggers = new String[0];
+
+    private int maxPerSecond = 100;
+
+    private int sampleRate = 100;
+
+    private final AtomicLong window = new AtomicLong();
+
+    private final AtomicInteger eventsInWindow = new AtomicInteger();
+
+    private final AtomicLong sampledOut = new AtomicLong();
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+                              Throwable throwable) {
+
+        // A null format is an isXxxEnabled() check rather than an event, and must not spend the budget.
+        if (format == null || level.isGreaterOrEqual(Level.WARN) || !level.isGreaterOrEqual(logger.getEffectiveLevel())
+                || !isSampled(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+
+        long second = System.currentTimeMillis() / 1000;
+        long current = window.get();
+        if (second != current && window.compareAndSet(current, second)) {
+            eventsInWindow.set(0);
+        }
+        int event = eventsInWindow.incrementAndGet();
+        if (event <= maxPerSecond || (sampleRate > 0 && (event - maxPerSecond) % sampleRate == 0)) {
+            return FilterReply.NEUTRAL;
+        }
+        sampledOut.incrementAndGet();
+        return FilterReply.DENY;
+    }
+
+    private boolean isSampled(String loggerName) {
+
+        for (String prefix : loggers) {
+            if (loggerName.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public long getSampledOut() {
+        return sampledOut.get();
+    }
+
+    public void setLoggers(String loggers) {
+        this.loggers = Arrays.stream(loggers.split(","))
+                .map(String::strip)
+                .filter(prefix -> !prefix.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    public void setMaxPerSecond(int maxPerSecond) {
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    public void setSampleRate(int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+}
@@ -0,0 +1,112 @@
+package com.hasnain.cms.config;
+
+import jakarta.persistence.Entity;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.core.type.filter.TypeFilter;
+import org.springframework.util.ClassUtils;
+
+import java.util.List;
+
+/**
+ * Reflection and resource hints for the native image, read by Spring AOT processing at build time and ignored on the
+ * JVM. Spring already covers beans, controller payloads and JPA repositories, and the GraalVM reachability metadata
+ * repository covers Hibernate, H2, Jackson and Ehcache. What is left is what the application or its libraries reach by
+ * name: jjwt's implementation classes, entity and Lombok-generated DTO members used outside controllers (the journal,
+ * the JSON cache, the protobuf converter), the Logback components in {@code logback-spring.xml} and classpath files.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeImageConfig.Hints.class)
+public class NativeImageConfig {
+
+    static final String ENTITY_PACKAGE = "com.hasnain.cms.entity";
+
+    static final String DTO_PACKAGE = "com.hasnain.cms.dto";
+
+    // jjwt-api creates these through Classes.newInstance and Classes.invokeStatic; jjwt-impl is only on the runtime
+    // classpath. The Jackson (de)serializers are found through ServiceLoader.
+    static final List<String> JJWT_TYPES = List.of(
+            "io.jsonwebtoken.impl.DefaultClaimsBuilder$Supplier",
+            "io.jsonwebtoken.impl.DefaultJwtBuilder$Supplier",
+            "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder$Supplier",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder$Supplier",
+            "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+            "io.jsonwebtoken.impl.security.DefaultDynamicJwkBuilder$Supplier",
+            "io.jsonwebtoken.impl.security.DefaultJwkParserBuilder$Supplier",
+            "io.jsonwebtoken.impl.security.DefaultJwkSetBuilder$Supplier",
+            "io.jsonwebtoken.impl.security.DefaultJwkSetParserBuilder$Supplier",
+            "io.jsonwebtoken.impl.security.DefaultKeyOperationBuilder$Supplier",
+            "io.jsonwebtoken.impl.security.DefaultKeyOperationPolicyBuilder$Supplier",
+            "io.jsonwebtoken.impl.security.JwksBridge",
+            "io.jsonwebtoken.impl.security.KeysBridge",
+            "io.jsonwebtoken.impl.security.StandardCurves",
+            "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyOperations",
+            "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+            "io.jsonwebtoken.impl.compression.DeflateCompressionAlgorithm",
+            "io.jsonwebtoken.impl.compression.GzipCompressionAlgorithm",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+    // Created and configured by Logback's Joran from logback-spring.xml.
+    static final List<String> LOGBACK_TYPES = List.of(
+            "com.hasnain.cms.config.LogSamplingTurboFilter",
+            "net.logstash.logback.encoder.LogstashEncoder",
+            "net.logstash.logback.appender.LoggingEventAsyncDisruptorAppender");
+
+    // Private records the protobuf converter hands to Jackson.
+    static final List<String> CONVERTER_PAYLOADS = List.of(
+            "com.hasnain.cms.config.ContactProtobufHttpMessageConverter$ContactList",
+            "com.hasnain.cms.config.ContactProtobufHttpMessageConverter$ErrorResponse",
+            "com.hasnain.cms.config.ContactProtobufHttpMessageConverter$ErrorEntry");
+
+    // dotenv-java reads .env from the working directory, which needs no hint, and falls back to the classpath.
+    static final List<String> RESOURCES = List.of("proto/contacts.proto", "ehcache.xml", ".env");
+
+    static class Hints implements RuntimeHintsRegistrar {
+
+        private final BindingReflectionHintsRegistrar bindings = new BindingReflectionHintsRegistrar();
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+
+            for (Class<?> entity : classesIn(ENTITY_PACKAGE, new AnnotationTypeFilter(Entity.class), classLoader)) {
+                hints.reflection().registerType(entity, MemberCategory.DECLARED_FIELDS,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS);
+            }
+            bindings.registerReflectionHints(hints.reflection(),
+                    classesIn(DTO_PACKAGE, (reader, factory) -> true, classLoader).toArray(Class<?>[]::new));
+            for (String payload : CONVERTER_PAYLOADS) {
+                bindings.registerReflectionHints(hints.reflection(), ClassUtils.resolveClassName(payload, classLoader));
+            }
+
+            for (String type : JJWT_TYPES) {
+                hints.reflection().registerType(TypeReference.of(type), MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.INVOKE_PUBLIC_METHODS, MemberCategory.INVOKE_DECLARED_METHODS);
+            }
+            for (String type : LOGBACK_TYPES) {
+                hints.reflection().registerType(TypeReference.of(type), MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+                        MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+            RESOURCES.forEach(hints.resources()::registerPattern);
+        }
+
+        private static List<Class<?>> classesIn(String basePackage, TypeFilter filter, ClassLoader classLoader) {
+
+            ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+            scanner.addIncludeFilter(filter);
+            return scanner.findCandidateComponents(basePackage).stream()
+                    .<Class<?>>map(candidate -> ClassUtils.resolveClassName(candidate.getBeanClassName(), classLoader))
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.hasnain.cms.config;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.util.StringUtils;
+
+import java.util.Map;
+
+/**
+ * Points the reactive read API at the JDBC database when {@code spring.r2dbc.url} (or {@code R2DBC_URL}) is not set,
+ * so a deployment that only configures {@code spring.datasource.url} needs nothing more. The URL is the JDBC one with
+ * {@code jdbc:} swapped for {@code r2dbc:} and its query string, the JDBC driver's options, dropped. Only URLs of the
+ * {@code jdbc:driver://host/database} form are derived; others, such as H2's, need {@code R2DBC_URL}.
+ * <p>
+ * Runs after the configuration files are loaded, so profiles that set their own R2DBC URL keep it.
+ */
+public class R2dbcUrlEnvironmentPostProcessor implements EnvironmentPostProcessor, Ordered {
+
+    static final String R2DBC_URL = "spring.r2dbc.url";
+
+    static final String JDBC_URL = "spring.datasource.url";
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+
+        if (StringUtils.hasText(environment.getProperty(R2DBC_URL))) {
+            return;
+        }
+        String r2dbcUrl = r2dbcUrl(environment.getProperty(JDBC_URL));
+        if (r2dbcUrl != null) {
+            environment.getPropertySources().addFirst(new MapPropertySource("r2dbcUrlFromJdbcUrl",
+                    Map.of(R2DBC_URL, r2dbcUrl)));
+        }
+    }
+
+    static String r2dbcUrl(String jdbcUrl) {
+
+        if (jdbcUrl == null || !jdbcUrl.matches("^jdbc:[a-z0-9]+://.*")) {
+            return null;
+        }
+        return jdbcUrl.replaceFirst("^jdbc:", "r2dbc:").replaceFirst("\\?.*$", "");
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+}
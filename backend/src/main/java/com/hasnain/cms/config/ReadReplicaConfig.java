@@ -0,0 +1,53 @@
+package com.hasnain.cms.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Sends read-only transactions to read replicas, listed as JDBC URLs in {@code contacts.datasource.replicas}. Without
+ * replicas nothing changes: every connection comes from the primary pool. See {@link ReplicaRoutingDataSource} for
+ * how a connection is routed and how replicas are checked.
+ * <p>
+ * The beans are always registered and look at the replica list when the context starts, so that builds whose beans
+ * are fixed ahead of time (the {@code aot-cds} and {@code native} profiles) can still turn routing on.
+ */
+@Configuration(proxyBeanMethods = false)
+public class ReadReplicaConfig {
+
+    @Bean
+    static ReadReplicaRouting readReplicaRouting(
+            @Value("${contacts.datasource.replicas:}") List<String> replicaUrls,
+            @Value("${contacts.datasource.replica-username:}") String username,
+            @Value("${contacts.datasource.replica-password:}") String password,
+            @Value("${contacts.datasource.replica-pool-size:0}") int poolSize,
+            @Value("${contacts.datasource.replica-check-interval-ms:1000}") long checkIntervalMs,
+            @Value("${contacts.datasource.replica-max-lag-ms:3000}") long maxLagMs,
+            @Value("${contacts.datasource.read-your-writes-window-ms:5000}") long readYourWritesWindowMs,
+            ConnectionPoolGuard connectionPoolGuard,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ReadReplicaRouting(replicaUrls, username, password, poolSize, Duration.ofMillis(checkIntervalMs),
+                maxLagMs, Duration.ofMillis(readYourWritesWindowMs), connectionPoolGuard, meterRegistry);
+    }
+
+    // Under open-session-in-view, Hibernate would otherwise keep a request's first connection for every transaction
+    // after it, so a write following a read could land on a replica.
+    @Bean
+    HibernatePropertiesCustomizer releaseConnectionsAfterTransaction(
+            @Value("${contacts.datasource.replicas:}") List<String> replicaUrls) {
+        return properties -> {
+            if (replicaUrls.stream().anyMatch(url -> !url.isBlank())) {
+                properties.put(AvailableSettings.CONNECTION_HANDLING,
+                        PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+            }
+        };
+    }
+}
@@ -0,0 +1,144 @@
+package com.hasnain.cms.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.BeanInitializationException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.DestructionAwareBeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Puts the primary pool behind a {@link ReplicaRoutingDataSource} with one pool per replica URL. Each replica pool
+ * copies the primary's settings, is read-only, starts even while its replica is down, and is guarded like the primary
+ * (see {@link ConnectionPoolGuard}).
+ * <p>
+ * The router sits behind a {@link LazyConnectionDataSourceProxy}, so a transaction only takes a physical connection at
+ * its first statement, when the transaction's read-only flag is known. Ordered right after the guard, and so before
+ * {@link SqlStatementMonitor}, which sees the statements of every route.
+ * <p>
+ * The context closes the primary pool it created itself, not what wraps it, so the replica pools and their checks are
+ * stopped here, just before.
+ */
+@Slf4j
+class ReadReplicaRouting implements DestructionAwareBeanPostProcessor, Ordered {
+
+    private final List<String> replicaUrls;
+
+    private final String username;
+
+    private final String password;
+
+    private final int poolSize;
+
+    private final Duration checkInterval;
+
+    private final long maxLagMillis;
+
+    private final Duration readYourWritesWindow;
+
+    private final ConnectionPoolGuard connectionPoolGuard;
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    private final Map<String, ReplicaRoutingDataSource> routers = new ConcurrentHashMap<>();
+
+    ReadReplicaRouting(List<String> replicaUrls, String username, String password, int poolSize,
+                       Duration checkInterval, long maxLagMillis, Duration readYourWritesWindow,
+                       ConnectionPoolGuard connectionPoolGuard, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.replicaUrls = replicaUrls.stream().map(String::strip).filter(url -> !url.isEmpty()).toList();
+        this.username = username;
+        this.password = password;
+        this.poolSize = poolSize;
+        this.checkInterval = checkInterval;
+        this.maxLagMillis = maxLagMillis;
+        this.readYourWritesWindow = readYourWritesWindow;
+        this.connectionPoolGuard = connectionPoolGuard;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+
+        if (!(bean instanceof DataSource primary) || replicaUrls.isEmpty()) {
+            return bean;
+        }
+        HikariDataSource primaryPool;
+        try {
+            if (!primary.isWrapperFor(HikariDataSource.class)) {
+                return bean;
+            }
+            primaryPool = primary.unwrap(HikariDataSource.class);
+        } catch (SQLException exception) {
+            throw new BeanInitializationException("Cannot reach the pool of '" + beanName + "'", exception);
+        }
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int index = 0; index < replicaUrls.size(); index++) {
+            String name = "replica-" + (index + 1);
+            replicas.put(name, connectionPoolGuard.guard(replicaPool(primaryPool, name, replicaUrls.get(index))));
+        }
+        if (maxLagMillis >= 0 && readYourWritesWindow.toMillis() < maxLagMillis + checkInterval.toMillis()) {
+            log.warn("The read-your-writes window ({} ms) is shorter than the replica lag allowed plus the check "
+                            + "interval ({} ms); users may not see their own writes.", readYourWritesWindow.toMillis(),
+                    maxLagMillis + checkInterval.toMillis());
+        }
+
+        ReplicaRoutingDataSource router = new ReplicaRoutingDataSource(primary, replicas,
+                new ReadYourWrites(readYourWritesWindow), maxLagMillis, meterRegistry);
+        router.start(checkInterval);
+        routers.put(beanName, router);
+        log.info("Routing read-only transactions to {} replica(s), checked every {} ms with at most {} ms lag; "
+                        + "users read their own writes from the primary for {} ms.", replicas.size(),
+                checkInterval.toMillis(), maxLagMillis, readYourWritesWindow.toMillis());
+        return new LazyConnectionDataSourceProxy(router);
+    }
+
+    @Override
+    public boolean requiresDestruction(Object bean) {
+        return bean instanceof DataSource && !routers.isEmpty();
+    }
+
+    @Override
+    public void postProcessBeforeDestruction(Object bean, String beanName) {
+
+        ReplicaRoutingDataSource router = routers.remove(beanName);
+        if (router != null) {
+            router.close();
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 1;
+    }
+
+    private HikariDataSource replicaPool(HikariDataSource primaryPool, String name, String url) {
+
+        HikariConfig config = new HikariConfig();
+        primaryPool.copyStateTo(config);
+        config.setJdbcUrl(url);
+        config.setPoolName(primaryPool.getPoolName() + "-" + name);
+        config.setReadOnly(true);
+        // A replica that is down at startup is taken out of rotation by its first check instead.
+        config.setInitializationFailTimeout(-1);
+        if (!username.isBlank()) {
+            config.setUsername(username);
+            config.setPassword(password);
+        }
+        if (poolSize > 0) {
+            config.setMaximumPoolSize(poolSize);
+        }
+        return new HikariDataSource(config);
+    }
+}
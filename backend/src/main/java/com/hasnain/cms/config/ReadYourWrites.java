@@ -0,0 +1,96 @@
+package com.hasnain.cms.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.time.Duration;
+
+/**
+ * Which users wrote recently, so that their own reads skip the replicas until those have caught up (see
+ * {@link ReplicaRoutingDataSource}). A write counts once its transaction commits, and for {@code window} after that.
+ * <p>
+ * The user a thread works for is bound with {@link #forUser}: for the rest of the request by {@link JwtAuthFilter},
+ * and around registration and login, which have no token yet, by the auth controller. The window is kept per
+ * instance, so a user whose next request lands on another instance may still read from a replica there. Reads that
+ * must see a write the user may not have made themselves, such as a change stream catching up, pin their thread to
+ * the primary with {@link #onPrimary}.
+ * <p>
+ * Users only read their own data, so the window also keeps Hibernate's second-level and query caches from being
+ * filled from a replica that has not yet caught up with the write, as long as it is longer than the lag allowed.
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<String> CURRENT_USER = new ThreadLocal<>();
+
+    private static final ThreadLocal<Boolean> ON_PRIMARY = new ThreadLocal<>();
+
+    // Beyond this, the users who wrote longest ago lose their window early.
+    private static final long MAX_USERS = 100_000;
+
+    /**
+     * Restores the user bound before, if any.
+     */
+    public interface Scope extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+
+    private final Cache<String, Boolean> recentWriters;
+
+    private final Duration window;
+
+    public ReadYourWrites(Duration window) {
+        this(window, Ticker.systemTicker());
+    }
+
+    ReadYourWrites(Duration window, Ticker ticker) {
+        this.window = window;
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(MAX_USERS)
+                .expireAfterWrite(window)
+                .ticker(ticker)
+                .build();
+    }
+
+    /**
+     * Binds {@code user}, an email or phone number as in the token subject, to the calling thread.
+     */
+    public static Scope forUser(String user) {
+
+        String previous = CURRENT_USER.get();
+        CURRENT_USER.set(user);
+        return previous == null ? CURRENT_USER::remove : () -> CURRENT_USER.set(previous);
+    }
+
+    /**
+     * Sends the calling thread's read-only transactions to the primary, whoever they are for.
+     */
+    public static Scope onPrimary() {
+
+        Boolean previous = ON_PRIMARY.get();
+        ON_PRIMARY.set(Boolean.TRUE);
+        return previous == null ? ON_PRIMARY::remove : () -> ON_PRIMARY.set(previous);
+    }
+
+    static String currentUser() {
+        return CURRENT_USER.get();
+    }
+
+    static boolean onPrimaryOnly() {
+        return ON_PRIMARY.get() != null;
+    }
+
+    Duration window() {
+        return window;
+    }
+
+    void recordWrite(String user) {
+        recentWriters.put(user, Boolean.TRUE);
+    }
+
+    boolean wroteRecently(String user) {
+        return recentWriters.getIfPresent(user) != null;
+    }
+}
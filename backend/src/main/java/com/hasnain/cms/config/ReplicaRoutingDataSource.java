@@ -0,0 +1,385 @@
+package com.hasnain.cms.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out connections to the primary or to a replica, decided when a connection is actually needed: read-only
+ * transactions get a replica, everything else the primary. Read-only reads still go to the primary for a user within
+ * their {@link ReadYourWrites} window, on a thread pinned with {@link ReadYourWrites#onPrimary}, and when no replica is
+ * healthy or the chosen one refuses a connection. Each
+ * connection handed out is timed in {@code contacts.datasource.route{route,target}}.
+ * <p>
+ * Replicas are checked every interval. The primary's row in {@value #HEARTBEAT_TABLE} is updated with the time, and
+ * each replica's lag is how far its copy of that row is behind the last update, in steps of the interval. A replica
+ * that cannot be reached, or lags more than {@code maxLagMillis}, takes no reads until a later check passes; a negative
+ * {@code maxLagMillis} checks only that it can be reached. Replicas start out of rotation until their first check.
+ * Lag and health are published per replica as {@code contacts.datasource.replica.lag} and
+ * {@code contacts.datasource.replica.healthy}.
+ */
+@Slf4j
+final class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    static final String HEARTBEAT_TABLE = "replication_heartbeat";
+
+    private static final int CHECK_TIMEOUT_SECONDS = 2;
+
+    enum Route {
+
+        PRIMARY("primary"),
+        REPLICA("replica"),
+        READ_YOUR_WRITES("read-your-writes"),
+        PINNED("pinned"),
+        FALLBACK("fallback");
+
+        private final String tag;
+
+        Route(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    static final class Replica {
+
+        private final String name;
+
+        private final DataSource dataSource;
+
+        private volatile boolean healthy;
+
+        private volatile long lagMillis = -1;
+
+        private volatile boolean checked;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        boolean healthy() {
+            return healthy;
+        }
+
+        long lagMillis() {
+            return lagMillis;
+        }
+    }
+
+    private final DataSource primary;
+
+    private final List<Replica> replicas;
+
+    private final ReadYourWrites readYourWrites;
+
+    private final long maxLagMillis;
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    private volatile long lastBeat;
+
+    private volatile boolean metricsBound;
+
+    private ScheduledExecutorService scheduler;
+
+    ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, ReadYourWrites readYourWrites,
+                             long maxLagMillis, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicas.entrySet().stream()
+                .map(replica -> new Replica(replica.getKey(), replica.getValue()))
+                .toList();
+        this.readYourWrites = readYourWrites;
+        this.maxLagMillis = maxLagMillis;
+        this.meterRegistry = meterRegistry;
+    }
+
+    List<Replica> replicas() {
+        return replicas;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            recordWriter();
+            return connect(Route.PRIMARY, "primary", primary);
+        }
+        if (ReadYourWrites.onPrimaryOnly()) {
+            return connect(Route.PINNED, "primary", primary);
+        }
+        String user = ReadYourWrites.currentUser();
+        if (user != null && readYourWrites.wroteRecently(user)) {
+            return connect(Route.READ_YOUR_WRITES, "primary", primary);
+        }
+        for (int attempt = 0; attempt < replicas.size(); attempt++) {
+            Replica replica = nextHealthy();
+            if (replica == null) {
+                break;
+            }
+            try {
+                return connect(Route.REPLICA, replica.name, replica.dataSource);
+            } catch (SQLException exception) {
+                markDown(replica, exception.getMessage());
+            }
+        }
+        return connect(Route.FALLBACK, "primary", primary);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Credentials are set per pool.");
+    }
+
+    // Lets Boot find the primary's pool, for its metrics and health.
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(this) ? (T) this : primary.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || primary.isWrapperFor(iface);
+    }
+
+    // The user's window starts when the transaction commits, not when it starts writing. Reads outside transactions,
+    // such as lazy loading while a response is rendered, go to the primary but do not start one.
+    private void recordWriter() {
+
+        String user = ReadYourWrites.currentUser();
+        if (user == null || !TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                readYourWrites.recordWrite(user);
+            }
+        });
+    }
+
+    private Connection connect(Route route, String target, DataSource dataSource) throws SQLException {
+
+        long start = System.nanoTime();
+        Connection connection = dataSource.getConnection();
+        Timer timer = timer(route, target);
+        if (timer != null) {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        return connection;
+    }
+
+    private Timer timer(Route route, String target) {
+
+        Timer timer = timers.get(route.tag + '/' + target);
+        if (timer != null) {
+            return timer;
+        }
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry == null) {
+            return null;
+        }
+        return timers.computeIfAbsent(route.tag + '/' + target, key -> Timer.builder("contacts.datasource.route")
+                .description("Connections handed out by the read/write routing, and the time to get them")
+                .tag("route", route.tag)
+                .tag("target", target)
+                .register(registry));
+    }
+
+    private Replica nextHealthy() {
+
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int offset = 0; offset < replicas.size(); offset++) {
+            Replica replica = replicas.get((start + offset) % replicas.size());
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Creates the heartbeat table on the primary if needed, writes the first beat, and checks the replicas every
+     * {@code interval} from then on.
+     */
+    void start(Duration interval) {
+
+        try {
+            new JdbcTemplate(primary).execute("CREATE TABLE IF NOT EXISTS " + HEARTBEAT_TABLE
+                    + " (id INT PRIMARY KEY, beat_at BIGINT NOT NULL)");
+        } catch (DataAccessException exception) {
+            log.warn("Could not create {} on the primary, so replica lag cannot be measured: {}", HEARTBEAT_TABLE,
+                    exception.getMessage());
+        }
+        beat();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::checkReplicas, interval.toMillis(), interval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Checks every replica against the last beat, then writes the next one, which the next check expects to find.
+     */
+    void checkReplicas() {
+
+        try {
+            bindMetrics();
+            long expected = lastBeat;
+            for (Replica replica : replicas) {
+                check(replica, expected);
+            }
+            beat();
+        } catch (RuntimeException exception) {
+            // Keeps the schedule alive.
+            log.warn("Replica check failed.", exception);
+        }
+    }
+
+    private void beat() {
+
+        long now = System.currentTimeMillis();
+        try {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(primary);
+            if (jdbcTemplate.update("UPDATE " + HEARTBEAT_TABLE + " SET beat_at = ? WHERE id = 1", now) == 0) {
+                jdbcTemplate.update("INSERT INTO " + HEARTBEAT_TABLE + " (id, beat_at) VALUES (1, ?)", now);
+            }
+            lastBeat = now;
+        } catch (DataAccessException exception) {
+            // Replicas keep serving against the last beat that got through.
+            log.warn("Could not write the replication heartbeat to the primary: {}", exception.getMessage());
+        }
+    }
+
+    private void check(Replica replica, long expected) {
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(replica.dataSource);
+        jdbcTemplate.setQueryTimeout(CHECK_TIMEOUT_SECONDS);
+        try {
+            if (maxLagMillis < 0) {
+                jdbcTemplate.execute((Connection connection) -> connection.isValid(CHECK_TIMEOUT_SECONDS));
+                markUp(replica, -1);
+                return;
+            }
+            List<Long> beats = jdbcTemplate.queryForList("SELECT beat_at FROM " + HEARTBEAT_TABLE
+                    + " WHERE id = 1", Long.class);
+            if (beats.isEmpty()) {
+                markDown(replica, "no heartbeat replicated yet");
+                return;
+            }
+            long lag = Math.max(0, expected - beats.get(0));
+            replica.lagMillis = lag;
+            if (lag > maxLagMillis) {
+                markDown(replica, "lagging " + lag + " ms behind the primary");
+            } else {
+                markUp(replica, lag);
+            }
+        } catch (DataAccessException exception) {
+            markDown(replica, exception.getMessage());
+        }
+    }
+
+    private void markUp(Replica replica, long lag) {
+
+        replica.lagMillis = lag;
+        replica.checked = true;
+        if (!replica.healthy) {
+            replica.healthy = true;
+            log.info("Replica '{}' is taking reads ({} ms behind the primary).", replica.name, lag);
+        }
+    }
+
+    // Also logs a replica that fails its first check, which was never in rotation.
+    private void markDown(Replica replica, String reason) {
+
+        boolean first = !replica.checked;
+        replica.checked = true;
+        if (replica.healthy || first) {
+            replica.healthy = false;
+            log.warn("Replica '{}' is out of rotation, reads go to the primary until it recovers: {}", replica.name,
+                    reason);
+        }
+    }
+
+    // Once there is a registry: the replicas' gauges, and the pool metrics Boot binds for the primary only.
+    private void bindMetrics() {
+
+        MeterRegistry registry;
+        if (metricsBound || (registry = meterRegistry.getIfAvailable()) == null) {
+            return;
+        }
+        for (Replica replica : replicas) {
+            Gauge.builder("contacts.datasource.replica.lag", replica, Replica::lagMillis)
+                    .description("How far the replica was behind the primary at its last check, -1 if unknown")
+                    .baseUnit("milliseconds")
+                    .tag("replica", replica.name)
+                    .register(registry);
+            Gauge.builder("contacts.datasource.replica.healthy", replica, candidate -> candidate.healthy ? 1 : 0)
+                    .description("1 while the replica takes reads")
+                    .tag("replica", replica.name)
+                    .register(registry);
+            try {
+                if (replica.dataSource.isWrapperFor(HikariDataSource.class)) {
+                    HikariDataSource pool = replica.dataSource.unwrap(HikariDataSource.class);
+                    if (pool.getMetricRegistry() == null && pool.getMetricsTrackerFactory() == null) {
+                        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+                    }
+                }
+            } catch (SQLException exception) {
+                log.debug("No pool metrics for replica '{}': {}", replica.name, exception.getMessage());
+            }
+        }
+        metricsBound = true;
+    }
+
+    /**
+     * Stops the checks and closes the replica pools. The primary belongs to the caller.
+     */
+    void close() {
+
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof Closeable closeable) {
+                try {
+                    closeable.close();
+                } catch (IOException exception) {
+                    log.warn("Could not close replica '{}': {}", replica.name, exception.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.hasnain.cms.config;
 
+import com.hasnain.cms.security.SecurityUser;
 import com.hasnain.cms.service.UserService;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -30,7 +32,15 @@ public class SecurityConfig {
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
+                        // Async dispatches only finish requests (such as change streams) that were already authorized.
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/auth/register", "/api/auth/login").permitAll()
+                        // Scraped by Prometheus, which holds no user token. Tags carry no user data.
+                        .requestMatchers("/actuator/prometheus").permitAll()
+                        // For load balancers; details are not shown.
+                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                        // Cache statistics, pinned thread stacks and metric details are for operators only.
+                        .requestMatchers("/actuator/**").hasAuthority(SecurityUser.ADMIN)
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(session ->
@@ -0,0 +1,133 @@
+package com.hasnain.cms.config;
+
+/**
+ * Where the time of the current request went, split into a fixed set of phases. One instance per request, bound to
+ * the request thread by {@link ServerTimingFilter}; recording is a thread-local read and two {@link System#nanoTime()}
+ * calls, and does nothing on threads without a request.
+ * <p>
+ * Phases nest (the service phase contains repository, database and mapping time), so they are not meant to add up
+ * to the total. Re-entering a phase that is already running, e.g. one service calling another, is counted once.
+ */
+public final class ServerTiming {
+
+    public enum Phase {
+        JWT("jwt", "Token parse and verify"),
+        USER("user", "User lookup"),
+        SERVICE("service", "Service logic"),
+        REPOSITORY("repo", "Repository calls"),
+        DB("db", "SQL execution"),
+        MAPPING("map", "DTO mapping"),
+        SERIALIZATION("ser", "Response serialization");
+
+        private final String metric;
+
+        private final String description;
+
+        Phase(String metric, String description) {
+            this.metric = metric;
+            this.description = description;
+        }
+
+        public String getMetric() {
+            return metric;
+        }
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+
+    private final long startedAt;
+
+    private final long[] nanos = new long[PHASES.length];
+
+    private final int[] depth = new int[PHASES.length];
+
+    private final long[] enteredAt = new long[PHASES.length];
+
+    private ServerTiming(long startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    static ServerTiming start() {
+
+        ServerTiming timing = new ServerTiming(System.nanoTime());
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    void detach() {
+        if (CURRENT.get() == this) {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * Enters {@code phase} on the current thread. Must be paired with {@link #end(Phase)}, in a finally block.
+     */
+    public static void begin(Phase phase) {
+
+        ServerTiming timing = CURRENT.get();
+        if (timing != null && timing.depth[phase.ordinal()]++ == 0) {
+            timing.enteredAt[phase.ordinal()] = System.nanoTime();
+        }
+    }
+
+    public static void end(Phase phase) {
+
+        ServerTiming timing = CURRENT.get();
+        if (timing != null && timing.depth[phase.ordinal()] > 0 && --timing.depth[phase.ordinal()] == 0) {
+            timing.nanos[phase.ordinal()] += System.nanoTime() - timing.enteredAt[phase.ordinal()];
+        }
+    }
+
+    boolean isRunning(Phase phase) {
+        return depth[phase.ordinal()] > 0;
+    }
+
+    public long getNanos(Phase phase) {
+        return nanos[phase.ordinal()];
+    }
+
+    public long getElapsedNanos() {
+        return System.nanoTime() - startedAt;
+    }
+
+    /**
+     * The recorded phases and the elapsed total as a {@code Server-Timing} header value, in milliseconds.
+     */
+    public String toHeaderValue() {
+
+        StringBuilder header = new StringBuilder(160);
+        for (Phase phase : PHASES) {
+            if (nanos[phase.ordinal()] > 0) {
+                header.append(phase.metric).append(";desc=\"").append(phase.description).append("\";dur=");
+                appendMillis(header, nanos[phase.ordinal()]).append(", ");
+            }
+        }
+        header.append("total;dur=");
+        return appendMillis(header, getElapsedNanos()).toString();
+    }
+
+    /**
+     * The recorded phases and the elapsed total as {@code key=millis} pairs, for log lines.
+     */
+    public String toLogValue() {
+
+        StringBuilder line = new StringBuilder(96);
+        appendMillis(line.append("total="), getElapsedNanos());
+        for (Phase phase : PHASES) {
+            if (nanos[phase.ordinal()] > 0) {
+                appendMillis(line.append(' ').append(phase.metric).append('='), nanos[phase.ordinal()]);
+            }
+        }
+        return line.toString();
+    }
+
+    // Milliseconds with one decimal, without going through String.format.
+    private static StringBuilder appendMillis(StringBuilder target, long nanos) {
+
+        long tenths = Math.max(0, nanos) / 100_000;
+        return target.append(tenths / 10).append('.').append(tenths % 10);
+    }
+}
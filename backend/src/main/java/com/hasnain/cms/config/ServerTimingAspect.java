@@ -0,0 +1,51 @@
+package com.hasnain.cms.config;
+
+import com.hasnain.cms.config.ServerTiming.Phase;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.springframework.stereotype.Component;
+
+/**
+ * Attributes the time spent in token handling, user lookup, services and repositories to the request's
+ * {@link ServerTiming}.
+ */
+@Aspect
+@Component
+public class ServerTimingAspect {
+
+    @Pointcut("execution(* com.hasnain.cms.service.UserService.loadUserByUsername(..))")
+    void userLookup() {
+    }
+
+    @Around("execution(public * com.hasnain.cms.config.JwtService.*(..))")
+    public Object timeJwt(ProceedingJoinPoint joinPoint) throws Throwable {
+        return proceed(joinPoint, Phase.JWT);
+    }
+
+    @Around("userLookup()")
+    public Object timeUserLookup(ProceedingJoinPoint joinPoint) throws Throwable {
+        return proceed(joinPoint, Phase.USER);
+    }
+
+    @Around("execution(public * com.hasnain.cms.service..*(..)) && !userLookup()")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return proceed(joinPoint, Phase.SERVICE);
+    }
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return proceed(joinPoint, Phase.REPOSITORY);
+    }
+
+    private static Object proceed(ProceedingJoinPoint joinPoint, Phase phase) throws Throwable {
+
+        ServerTiming.begin(phase);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ServerTiming.end(phase);
+        }
+    }
+}
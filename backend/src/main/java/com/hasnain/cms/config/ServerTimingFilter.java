@@ -0,0 +1,71 @@
+package com.hasnain.cms.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times each request's phases (see {@link ServerTiming}) and reports them in the {@code Server-Timing} response
+ * header. Requests slower than {@code contacts.timing.slow-request-threshold-ms} are also logged with their full
+ * breakdown, including serialization, which finishes after the header has gone out.
+ * <p>
+ * Runs ahead of the security filters so token handling is part of the picture. Asynchronous requests (streams and
+ * reactive reads) are timed only up to the point where they leave the request thread, and are never logged as slow.
+ */
+@Slf4j
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 2)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Server-Timing";
+
+    static final String TIMING_ATTRIBUTE = ServerTimingFilter.class.getName() + ".TIMING";
+
+    private final long slowRequestThresholdNanos;
+
+    public ServerTimingFilter(@Value("${contacts.timing.slow-request-threshold-ms:500}") long slowRequestThresholdMs) {
+        this.slowRequestThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowRequestThresholdMs);
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+
+        ServerTiming timing = ServerTiming.start();
+        request.setAttribute(TIMING_ATTRIBUTE, timing);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ServerTiming.end(ServerTiming.Phase.SERIALIZATION);
+            timing.detach();
+            // Responses without a body never pass through ServerTimingAdvice.
+            if (!response.isCommitted() && !response.containsHeader(HEADER)) {
+                response.setHeader(HEADER, timing.toHeaderValue());
+            }
+            if (!request.isAsyncStarted() && timing.getElapsedNanos() >= slowRequestThresholdNanos) {
+                logSlowRequest(request, response, timing);
+            }
+        }
+    }
+
+    private static void logSlowRequest(HttpServletRequest request, HttpServletResponse response, ServerTiming timing) {
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Object counter = request.getAttribute(SqlStatementFilter.COUNTER_ATTRIBUTE);
+        log.warn("Slow request method={} uri={} status={} {} sql={}", request.getMethod(),
+                pattern == null ? "UNKNOWN" : pattern, response.getStatus(), timing.toLogValue(),
+                counter instanceof SqlStatementCounter sqlCounter ? sqlCounter.getStatements() : 0);
+    }
+}
@@ -0,0 +1,50 @@
+package com.hasnain.cms.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.lang.NonNull;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Development aid: reports the statements a request has run so far in the {@code X-SQL-Statement-Count} response
+ * header. The header is set just before the body is written, which is after the handler and its queries are done.
+ * On unless {@code contacts.sql.debug-header} is false, as it is under the {@code prod} profile. The advice is always
+ * registered and the property read at startup, so AOT builds, whose beans are fixed at build time, honour it too.
+ */
+@RestControllerAdvice
+public class SqlStatementCountAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String HEADER = "X-SQL-Statement-Count";
+
+    private final boolean enabled;
+
+    public SqlStatementCountAdvice(@Value("${contacts.sql.debug-header:false}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public boolean supports(@NonNull MethodParameter returnType,
+                            @NonNull Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, @NonNull MethodParameter returnType,
+                                  @NonNull MediaType selectedContentType,
+                                  @NonNull Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  @NonNull ServerHttpRequest request, @NonNull ServerHttpResponse response) {
+
+        if (enabled && request instanceof ServletServerHttpRequest servletRequest
+                && servletRequest.getServletRequest().getAttribute(SqlStatementFilter.COUNTER_ATTRIBUTE)
+                instanceof SqlStatementCounter counter) {
+            response.getHeaders().set(HEADER, String.valueOf(counter.getStatements()));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,84 @@
+package com.hasnain.cms.config;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements the current thread runs while it is open, and how often each statement shape (the SQL
+ * text with its placeholders) repeats. Counters nest: a statement is counted by every counter open on the thread.
+ * <p>
+ * The HTTP layer opens one per request. Tests open their own to hold code to a statement budget.
+ */
+public final class SqlStatementCounter implements AutoCloseable {
+
+    private static final ThreadLocal<List<SqlStatementCounter>> ACTIVE = new ThreadLocal<>();
+
+    private final Map<String, Integer> shapes = new LinkedHashMap<>();
+
+    private int statements;
+
+    private SqlStatementCounter() {
+    }
+
+    public static SqlStatementCounter start() {
+
+        List<SqlStatementCounter> active = ACTIVE.get();
+        if (active == null) {
+            active = new ArrayList<>(2);
+            ACTIVE.set(active);
+        }
+        SqlStatementCounter counter = new SqlStatementCounter();
+        active.add(counter);
+        return counter;
+    }
+
+    static void record(String sql) {
+
+        List<SqlStatementCounter> active = ACTIVE.get();
+        if (active == null) {
+            return;
+        }
+        String shape = sql.strip().replaceAll("\\s+", " ");
+        for (SqlStatementCounter counter : active) {
+            counter.statements++;
+            counter.shapes.merge(shape, 1, Integer::sum);
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    /**
+     * Statement shapes run at least {@code threshold} times, in the order first seen. Usually a lazy load repeated
+     * per row.
+     */
+    public Map<String, Integer> getRepeatedShapes(int threshold) {
+
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        shapes.forEach((shape, count) -> {
+            if (count >= threshold) {
+                repeated.put(shape, count);
+            }
+        });
+        return repeated;
+    }
+
+    public Map<String, Integer> getShapes() {
+        return Map.copyOf(shapes);
+    }
+
+    @Override
+    public void close() {
+
+        List<SqlStatementCounter> active = ACTIVE.get();
+        if (active != null) {
+            active.remove(this);
+            if (active.isEmpty()) {
+                ACTIVE.remove();
+            }
+        }
+    }
+}
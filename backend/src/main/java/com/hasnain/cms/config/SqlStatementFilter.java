@@ -0,0 +1,73 @@
+package com.hasnain.cms.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements run for each request into {@code cms.sql.statements}. Statement shapes repeated
+ * {@code contacts.sql.n-plus-one-threshold} or more times within one request are logged as N+1 suspects. Runs
+ * ahead of the security filters, so the user lookup behind token authentication is counted too.
+ */
+@Slf4j
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 1)
+public class SqlStatementFilter extends OncePerRequestFilter {
+
+    public static final String COUNTER_ATTRIBUTE = SqlStatementFilter.class.getName() + ".COUNTER";
+
+    private final MeterRegistry meterRegistry;
+
+    private final int nPlusOneThreshold;
+
+    public SqlStatementFilter(MeterRegistry meterRegistry,
+                              @Value("${contacts.sql.n-plus-one-threshold:5}") int nPlusOneThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+
+        SqlStatementCounter counter = SqlStatementCounter.start();
+        request.setAttribute(COUNTER_ATTRIBUTE, counter);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            counter.close();
+            report(request, counter);
+        }
+    }
+
+    private void report(HttpServletRequest request, SqlStatementCounter counter) {
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        DistributionSummary.builder("cms.sql.statements")
+                .description("SQL statements run per request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(counter.getStatements());
+
+        for (Map.Entry<String, Integer> repeated : counter.getRepeatedShapes(nPlusOneThreshold).entrySet()) {
+            log.warn("Possible N+1 in {} {}: the same statement ran {} times: {}", request.getMethod(), uri,
+                    repeated.getValue(), repeated.getKey());
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.hasnain.cms.config;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Proxies the JDBC data source so every statement is seen on its way to the database. Each statement is counted
+ * against the {@link SqlStatementCounter}s open on the calling thread. Statements slower than
+ * {@code contacts.sql.slow-query-threshold-ms} are logged with their SQL. Bound parameter values are never logged,
+ * only their number.
+ * <p>
+ * Ordered last, so that it wraps the already guarded pool (see {@link ConnectionPoolGuard}).
+ */
+@Slf4j
+@Component
+public class SqlStatementMonitor implements BeanPostProcessor, Ordered, QueryExecutionListener {
+
+    private final long slowQueryThresholdMs;
+
+    public SqlStatementMonitor(@Value("${contacts.sql.slow-query-threshold-ms:200}") long slowQueryThresholdMs) {
+        this.slowQueryThresholdMs = slowQueryThresholdMs;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+
+        if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+            return ProxyDataSourceBuilder.create(dataSource)
+                    .name(beanName)
+                    .listener(this)
+                    .build();
+        }
+        return bean;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        ServerTiming.begin(ServerTiming.Phase.DB);
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+
+        ServerTiming.end(ServerTiming.Phase.DB);
+
+        // A batch is a single round trip, so it counts once.
+        String sql = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+        SqlStatementCounter.record(sql);
+
+        if (execInfo.getElapsedTime() >= slowQueryThresholdMs) {
+            int parameters = queryInfoList.stream()
+                    .mapToInt(query -> query.getParametersList().stream().mapToInt(List::size).sum())
+                    .sum();
+            log.warn("Slow SQL statement took {} ms ({}{} bound parameters redacted): {}", execInfo.getElapsedTime(),
+                    execInfo.isBatch() ? "batch of " + execInfo.getBatchSize() + ", " : "", parameters, sql);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.hasnain.cms.config;
+
+import com.hasnain.cms.dto.PinnedStackDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Reports virtual threads pinned to their carrier, such as by blocking inside a {@code synchronized} block of a
+ * driver, for longer than a threshold. Pinning events come from JFR as they happen. Each distinct stack is logged the
+ * first time it pins and counted after that. The counts are served at {@code /actuator/pinning}, worst stacks first.
+ * Only active when virtual threads are.
+ */
+@Slf4j
+@Component
+@Endpoint(id = "pinning")
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private static final class PinnedStack {
+
+        private long count;
+
+        private long totalNanos;
+
+        private long maxNanos;
+
+        synchronized long add(long nanos) {
+
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+            return ++count;
+        }
+
+        synchronized PinnedStackDTO toDTO(String stack) {
+            return new PinnedStackDTO(stack, count, totalNanos / 1_000_000, maxNanos / 1_000_000);
+        }
+    }
+
+    private final Map<String, PinnedStack> pinnedStacks = new ConcurrentHashMap<>();
+
+    private final Duration threshold;
+
+    private final int stackDepth;
+
+    private RecordingStream recording;
+
+    public VirtualThreadPinningMonitor(
+            @Value("${contacts.virtual-threads.pinning-threshold-ms:20}") long thresholdMs,
+            @Value("${contacts.virtual-threads.pinning-stack-depth:12}") int stackDepth) {
+        this.threshold = Duration.ofMillis(thresholdMs);
+        this.stackDepth = stackDepth;
+    }
+
+    @PostConstruct
+    void start() {
+
+        recording = new RecordingStream();
+        recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recording.onEvent(PINNED_EVENT, this::onPinned);
+        recording.startAsync();
+        log.info("Reporting virtual threads pinned for longer than {} ms.", threshold.toMillis());
+    }
+
+    @PreDestroy
+    void stop() {
+
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    @ReadOperation
+    public List<PinnedStackDTO> pinnedStacks() {
+        return pinnedStacks.entrySet().stream()
+                .map(entry -> entry.getValue().toDTO(entry.getKey()))
+                .sorted(Comparator.comparingLong(PinnedStackDTO::getTotalMillis).reversed())
+                .toList();
+    }
+
+    void record(String stack, Duration duration) {
+
+        long count = pinnedStacks.computeIfAbsent(stack, key -> new PinnedStack()).add(duration.toNanos());
+        if (count == 1) {
+            log.warn("Virtual thread pinned to its carrier for {} ms at:\n{}", duration.toMillis(), stack);
+        } else {
+            log.debug("Virtual thread pinned to its carrier for {} ms ({} times at this stack).", duration.toMillis(),
+                    count);
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        record(describe(event.getStackTrace()), event.getDuration());
+    }
+
+    private String describe(RecordedStackTrace stackTrace) {
+
+        if (stackTrace == null) {
+            return "(no stack trace)";
+        }
+        return stackTrace.getFrames().stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .limit(stackDepth)
+                .map(frame -> "\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + "(line " + frame.getLineNumber() + ")")
+                .collect(Collectors.joining("\n"));
+    }
+}
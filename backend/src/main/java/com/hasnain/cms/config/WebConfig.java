@@ -0,0 +1,20 @@
+package com.hasnain.cms.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    // CBOR and Smile come with Spring MVC's defaults once their Jackson modules are present. Added last so JSON
+    // stays the default.
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new ContactProtobufHttpMessageConverter());
+    }
+}
@@ -1,14 +1,33 @@
 package com.hasnain.cms.controller;
 
+import com.hasnain.cms.config.ContactProtobufHttpMessageConverter;
+import com.hasnain.cms.config.WebConfig;
+import com.hasnain.cms.dto.ContactBulkRequestDTO;
+import com.hasnain.cms.dto.ContactBulkResponseDTO;
+import com.hasnain.cms.dto.ContactChangesResponseDTO;
 import com.hasnain.cms.dto.ContactDTO;
+import com.hasnain.cms.dto.ContactDuplicateGroupDTO;
+import com.hasnain.cms.dto.ContactLookupRequestDTO;
+import com.hasnain.cms.dto.ContactLookupResponseDTO;
+import com.hasnain.cms.dto.ContactMergeRequestDTO;
+import com.hasnain.cms.dto.ContactTagsDTO;
+import com.hasnain.cms.dto.TagCountDTO;
 import com.hasnain.cms.mapper.ContactMapper;
+import com.hasnain.cms.service.ContactBulkService;
+import com.hasnain.cms.service.ContactChangeStreamService;
+import com.hasnain.cms.service.ContactDuplicateService;
 import com.hasnain.cms.service.ContactService;
+import com.hasnain.cms.service.ContactSyncService;
+import com.hasnain.cms.service.ContactTagService;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -20,8 +39,27 @@ public class ContactController {
 
     private final ContactService contactService;
 
-    public ContactController(ContactService contactService) {
+    private final ContactBulkService contactBulkService;
+
+    private final ContactSyncService contactSyncService;
+
+    private final ContactChangeStreamService contactChangeStreamService;
+
+    private final ContactDuplicateService contactDuplicateService;
+
+    private final ContactTagService contactTagService;
+
+    public ContactController(ContactService contactService, ContactBulkService contactBulkService,
+                             ContactSyncService contactSyncService,
+                             ContactChangeStreamService contactChangeStreamService,
+                             ContactDuplicateService contactDuplicateService,
+                             ContactTagService contactTagService) {
         this.contactService = contactService;
+        this.contactBulkService = contactBulkService;
+        this.contactSyncService = contactSyncService;
+        this.contactChangeStreamService = contactChangeStreamService;
+        this.contactDuplicateService = contactDuplicateService;
+        this.contactTagService = contactTagService;
     }
 
     @GetMapping
@@ -42,6 +80,106 @@ public class ContactController {
         return ResponseEntity.ok(contacts);
     }
 
+    @GetMapping(params = "ids")
+    public ResponseEntity<ContactLookupResponseDTO> getContactsByIds(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam List<Long> ids) {
+
+        String username = userDetails.getUsername();
+        log.info("User '{}' requesting {} contacts by ID.", username, ids.size());
+
+        ContactLookupResponseDTO response = contactService.getContactsByIds(username, ids);
+
+        log.info("User '{}' successfully retrieved {} contacts by ID.", username, response.getContacts().size());
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<ContactChangesResponseDTO> getContactChanges(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(defaultValue = "0") String since,
+            @RequestParam(defaultValue = "500") int limit) {
+
+        String username = userDetails.getUsername();
+        log.info("User '{}' requesting contact changes since '{}'.", username, since);
+
+        ContactChangesResponseDTO response = contactSyncService.getChanges(username, since, limit);
+
+        log.info("User '{}' successfully retrieved {} contact changes.", username, response.getChanges().size());
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamContactChanges(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId,
+            @RequestParam(required = false) String since) {
+
+        String username = userDetails.getUsername();
+        log.info("User '{}' opening contact change stream. Last event ID: '{}'.", username,
+                lastEventId != null ? lastEventId : since);
+
+        return contactChangeStreamService.subscribe(username, lastEventId != null ? lastEventId : since);
+    }
+
+    @GetMapping("/duplicates")
+    public ResponseEntity<List<ContactDuplicateGroupDTO>> getDuplicateContacts(
+            @AuthenticationPrincipal UserDetails userDetails) {
+
+        String username = userDetails.getUsername();
+        log.info("User '{}' requesting duplicate contacts.", username);
+
+        List<ContactDuplicateGroupDTO> groups = contactDuplicateService.getDuplicates(username);
+
+        log.info("User '{}' successfully retrieved {} duplicate contact groups.", username, groups.size());
+        return ResponseEntity.ok(groups);
+    }
+
+    @GetMapping("/tags")
+    public ResponseEntity<List<TagCountDTO>> getTagCounts(@AuthenticationPrincipal UserDetails userDetails) {
+
+        String username = userDetails.getUsername();
+        log.info("User '{}' requesting tag counts.", username);
+
+        List<TagCountDTO> tags = contactTagService.getTagCounts(username);
+
+        log.info("User '{}' successfully retrieved {} tags.", username, tags.size());
+        return ResponseEntity.ok(tags);
+    }
+
+    @GetMapping("/tagged")
+    public ResponseEntity<List<ContactDTO>> getContactsByTags(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(required = false) List<String> all,
+            @RequestParam(required = false) List<String> any,
+            @RequestParam(required = false) List<String> none,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+
+        String username = userDetails.getUsername();
+        log.info("User '{}' requesting contacts by tags. All: {}, Any: {}, None: {}, Page: {}, Size: {}", username,
+                all, any, none, page, size);
+
+        List<ContactDTO> contacts = contactTagService.filterContacts(username, all, any, none, page, size);
+
+        log.info("User '{}' successfully retrieved {} contacts by tags (Page: {}).", username, contacts.size(), page);
+        return ResponseEntity.ok(contacts);
+    }
+
+    @PostMapping("/lookup")
+    public ResponseEntity<ContactLookupResponseDTO> lookupContacts(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @Valid @RequestBody ContactLookupRequestDTO lookupRequestDTO) {
+
+        String username = userDetails.getUsername();
+        log.info("User '{}' looking up {} contacts by ID.", username, lookupRequestDTO.getIds().size());
+
+        ContactLookupResponseDTO response = contactService.getContactsByIds(username, lookupRequestDTO.getIds());
+
+        log.info("User '{}' successfully looked up {} contacts by ID.", username, response.getContacts().size());
+        return ResponseEntity.ok(response);
+    }
+
     @PostMapping
     public  ResponseEntity<ContactDTO> createContact(
             @AuthenticationPrincipal UserDetails userDetails,
@@ -56,9 +194,85 @@ public class ContactController {
         return ResponseEntity.ok(savedContact);
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<ContactBulkResponseDTO> bulkMutateContacts(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @Valid @RequestBody ContactBulkRequestDTO bulkRequestDTO) {
+
+        String username = userDetails.getUsername();
+        log.info("User '{}' initiating bulk request with {} operations.", username,
+                bulkRequestDTO.getOperations().size());
+
+        ContactBulkResponseDTO response = contactBulkService.applyBulk(username, bulkRequestDTO);
+
+        log.info("User '{}' completed bulk request: {} succeeded, {} failed.", username, response.getSucceeded(),
+                response.getFailed());
+        HttpStatus status = response.getFailed() == 0 ? HttpStatus.OK : HttpStatus.MULTI_STATUS;
+        return ResponseEntity.status(status).body(response);
+    }
+
+    @PostMapping("/{id}/merge")
+    public ResponseEntity<ContactDTO> mergeContacts(@AuthenticationPrincipal UserDetails userDetails,
+                                                    @PathVariable Long id,
+                                                    @Valid @RequestBody ContactMergeRequestDTO mergeRequestDTO) {
+
+        String username = userDetails.getUsername();
+        log.info("User '{}' initiating merge of {} contacts into contact ID: {}", username,
+                mergeRequestDTO.getDuplicateIds().size(), id);
+
+        ContactDTO mergedContact = contactDuplicateService.mergeContacts(username, id,
+                mergeRequestDTO.getDuplicateIds());
+
+        log.info("User '{}' successfully merged contacts into contact ID: {}", username, id);
+        return ResponseEntity.ok(mergedContact);
+    }
+
+    @GetMapping("/{id}/tags")
+    public ResponseEntity<ContactTagsDTO> getContactTags(@AuthenticationPrincipal UserDetails userDetails,
+                                                         @PathVariable Long id) {
+
+        String username = userDetails.getUsername();
+        log.info("User '{}' requesting tags of contact ID: {}", username, id);
+
+        List<String> tags = contactTagService.getTags(username, id);
+
+        log.info("User '{}' successfully retrieved {} tags of contact ID: {}", username, tags.size(), id);
+        return ResponseEntity.ok(new ContactTagsDTO(tags));
+    }
+
+    @PutMapping("/{id}/tags")
+    public ResponseEntity<ContactTagsDTO> setContactTags(@AuthenticationPrincipal UserDetails userDetails,
+                                                         @PathVariable Long id,
+                                                         @Valid @RequestBody ContactTagsDTO contactTagsDTO) {
+
+        String username = userDetails.getUsername();
+        log.info("User '{}' setting tags of contact ID: {}", username, id);
+
+        List<String> tags = contactTagService.setTags(username, id, contactTagsDTO.getTags());
+
+        log.info("User '{}' successfully set {} tags on contact ID: {}", username, tags.size(), id);
+        return ResponseEntity.ok(new ContactTagsDTO(tags));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<ContactDTO> getContact(@AuthenticationPrincipal UserDetails userDetails,
-                                              @PathVariable Long id) {
+    public ResponseEntity<byte[]> getContact(@AuthenticationPrincipal UserDetails userDetails,
+                                             @PathVariable Long id) {
+
+        String username = userDetails.getUsername();
+        log.info("User '{}' requesting details for contact ID: {}", username, id);
+
+        // Already encoded, so it is copied to the response as is.
+        byte[] contact = contactService.getContactJson(username, id);
+
+        log.info("User '{}' successfully retrieved contact ID: {}", username, id);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(contact);
+    }
+
+    // Binary formats go through the message converters; JSON, the default, is served by getContact.
+    @GetMapping(path = "/{id}", produces = {MediaType.APPLICATION_CBOR_VALUE, WebConfig.APPLICATION_SMILE_VALUE,
+            ContactProtobufHttpMessageConverter.APPLICATION_PROTOBUF_VALUE})
+    public ResponseEntity<ContactDTO> getEncodedContact(@AuthenticationPrincipal UserDetails userDetails,
+                                                        @PathVariable Long id) {
 
         String username = userDetails.getUsername();
         log.info("User '{}' requesting details for contact ID: {}", username, id);
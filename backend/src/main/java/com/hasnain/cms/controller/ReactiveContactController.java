@@ -0,0 +1,56 @@
+package com.hasnain.cms.controller;
+
+import com.hasnain.cms.dto.ContactDTO;
+import com.hasnain.cms.security.SecurityUser;
+import com.hasnain.cms.service.ReactiveContactService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of the read endpoints of {@link ContactController}. The request passes the same JWT
+ * filter chain. After that, the request thread is released while the query runs and the response completes
+ * asynchronously.
+ */
+@Slf4j
+@RestController
+@CrossOrigin("http://localhost:5173")
+@RequestMapping("/api/reactive/contacts")
+public class ReactiveContactController {
+
+    private final ReactiveContactService reactiveContactService;
+
+    public ReactiveContactController(ReactiveContactService reactiveContactService) {
+        this.reactiveContactService = reactiveContactService;
+    }
+
+    @GetMapping
+    public Flux<ContactDTO> getContacts(
+            @AuthenticationPrincipal SecurityUser securityUser,
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size
+            ) {
+        log.info("User '{}' requesting reactive contacts list. Search: '{}' Page: {}, Size: {}",
+                securityUser.getUsername(), search == null ? "N/A" : search, page, size);
+        return reactiveContactService.getUserContacts(securityUser.getUser().getUserId(), search, page, size);
+    }
+
+    // One JSON document per line, written as contacts are read.
+    @GetMapping(path = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ContactDTO> streamContacts(@AuthenticationPrincipal SecurityUser securityUser,
+                                           @RequestParam(required = false) String search) {
+        log.info("User '{}' streaming contacts. Search: '{}'", securityUser.getUsername(),
+                search == null ? "N/A" : search);
+        return reactiveContactService.streamUserContacts(securityUser.getUser().getUserId(), search);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ContactDTO> getContact(@AuthenticationPrincipal SecurityUser securityUser, @PathVariable Long id) {
+        log.info("User '{}' requesting reactive details for contact ID: {}", securityUser.getUsername(), id);
+        return reactiveContactService.getContactById(securityUser.getUser().getUserId(), id);
+    }
+}
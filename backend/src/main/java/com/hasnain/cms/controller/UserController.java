@@ -1,6 +1,7 @@
 package com.hasnain.cms.controller;
 
 import com.hasnain.cms.config.JwtService;
+import com.hasnain.cms.config.ReadYourWrites;
 import com.hasnain.cms.dto.*;
 import com.hasnain.cms.service.UserService;
 import jakarta.validation.Valid;
@@ -35,7 +36,11 @@ public class UserController {
     @PostMapping("/register")
     public ResponseEntity<UserDTO> register(@Valid @RequestBody UserRegistrationDTO userRegistrationDTO) {
         log.info("Attempting to register a new user with identifier: {}", userRegistrationDTO.getIdentifier());
-        UserDTO registeredUser = userService.registerUser(userRegistrationDTO.getIdentifier(), userRegistrationDTO.getPassword());
+        UserDTO registeredUser;
+        // A login right after registering then reads the new user from the primary.
+        try (ReadYourWrites.Scope ignored = ReadYourWrites.forUser(userRegistrationDTO.getIdentifier())) {
+            registeredUser = userService.registerUser(userRegistrationDTO.getIdentifier(), userRegistrationDTO.getPassword());
+        }
         log.info("Successfully registered a new user: {}",
                 registeredUser.getEmail() != null ? registeredUser.getEmail() : registeredUser.getPhone());
         return ResponseEntity.ok(registeredUser);
@@ -44,9 +49,12 @@ public class UserController {
     @PostMapping("/login")
     public ResponseEntity<AuthResponseDTO> login(@Valid @RequestBody LoginDTO loginDTO) {
         log.info("User is attempting to log in with identifier: {}", loginDTO.getIdentifier());
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(loginDTO.getIdentifier(), loginDTO.getPassword())
-        );
+        Authentication authentication;
+        try (ReadYourWrites.Scope ignored = ReadYourWrites.forUser(loginDTO.getIdentifier())) {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(loginDTO.getIdentifier(), loginDTO.getPassword())
+            );
+        }
 
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
 
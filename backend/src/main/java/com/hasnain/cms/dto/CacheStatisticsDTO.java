@@ -0,0 +1,27 @@
+package com.hasnain.cms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CacheStatisticsDTO {
+
+    private long hits;
+
+    private long misses;
+
+    private long puts;
+
+    private long queryHits;
+
+    private long queryMisses;
+
+    private long queryPuts;
+
+    private List<CacheRegionStatisticsDTO> regions;
+}
@@ -0,0 +1,23 @@
+package com.hasnain.cms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ContactBulkOperationDTO {
+
+    public enum Type {
+        CREATE,
+        UPDATE,
+        DELETE
+    }
+
+    private Type type;
+
+    private Long id;
+
+    private ContactDTO contact;
+}
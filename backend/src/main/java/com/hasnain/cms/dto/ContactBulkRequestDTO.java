@@ -0,0 +1,28 @@
+package com.hasnain.cms.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ContactBulkRequestDTO {
+
+    public enum Mode {
+        ATOMIC,
+        BEST_EFFORT
+    }
+
+    @NotNull(message = "Bulk mode is required")
+    private Mode mode = Mode.ATOMIC;
+
+    @NotEmpty(message = "At least one operation is required")
+    @Size(max = 1000, message = "A bulk request cannot contain more than 1000 operations")
+    private List<ContactBulkOperationDTO> operations;
+}
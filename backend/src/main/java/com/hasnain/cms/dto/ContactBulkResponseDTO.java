@@ -0,0 +1,21 @@
+package com.hasnain.cms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ContactBulkResponseDTO {
+
+    private ContactBulkRequestDTO.Mode mode;
+
+    private int succeeded;
+
+    private int failed;
+
+    private List<ContactBulkResultDTO> results;
+}
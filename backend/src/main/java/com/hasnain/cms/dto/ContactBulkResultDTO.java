@@ -0,0 +1,23 @@
+package com.hasnain.cms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ContactBulkResultDTO {
+
+    private int index;
+
+    private ContactBulkOperationDTO.Type type;
+
+    private Long id;
+
+    private int status;
+
+    private String error;
+
+    private ContactDTO contact;
+}
@@ -0,0 +1,20 @@
+package com.hasnain.cms.dto;
+
+import com.hasnain.cms.event.ContactChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ContactChangeDTO {
+
+    private long sequence;
+
+    private ContactChangeType type;
+
+    private Long id;
+
+    private ContactDTO contact;
+}
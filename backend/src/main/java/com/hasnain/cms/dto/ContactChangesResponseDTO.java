@@ -0,0 +1,19 @@
+package com.hasnain.cms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ContactChangesResponseDTO {
+
+    private List<ContactChangeDTO> changes;
+
+    private String cursor;
+
+    private boolean hasMore;
+}
@@ -0,0 +1,24 @@
+package com.hasnain.cms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Set;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ContactDuplicateGroupDTO {
+
+    public enum Match {
+        PHONE,
+        EMAIL,
+        NAME
+    }
+
+    private Set<Match> matchedOn;
+
+    private List<ContactDTO> contacts;
+}
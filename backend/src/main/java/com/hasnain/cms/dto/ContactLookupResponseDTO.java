@@ -0,0 +1,17 @@
+package com.hasnain.cms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ContactLookupResponseDTO {
+
+    private List<ContactDTO> contacts;
+
+    private List<Long> notFound;
+}
@@ -0,0 +1,17 @@
+package com.hasnain.cms.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ContactMergeRequestDTO {
+
+    @NotEmpty(message = "At least one duplicate contact ID is required")
+    private List<Long> duplicateIds;
+}
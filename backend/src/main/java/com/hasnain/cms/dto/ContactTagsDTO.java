@@ -0,0 +1,17 @@
+package com.hasnain.cms.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ContactTagsDTO {
+
+    @NotNull(message = "Tags are required")
+    private List<String> tags;
+}
@@ -0,0 +1,19 @@
+package com.hasnain.cms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PinnedStackDTO {
+
+    private String stack;
+
+    private long count;
+
+    private long totalMillis;
+
+    private long maxMillis;
+}
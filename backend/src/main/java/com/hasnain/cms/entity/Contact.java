@@ -4,18 +4,26 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "contacts")
+@Table(name = "contacts", indexes = @Index(name = "idx_contacts_user_change", columnList = "user_id, change_sequence"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "contacts")
 @Data
 @NoArgsConstructor
 public class Contact {
 
+    // Pooled ids, drawn 50 at a time (hibernate.jdbc.batch_size), so inserts can be batched; IDENTITY would make
+    // Hibernate insert every row on its own to read its key back. Databases without sequences get a one-row table.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "contacts_seq")
+    @SequenceGenerator(name = "contacts_seq", sequenceName = "contacts_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -25,15 +33,25 @@ public class Contact {
 
     private String title;
 
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long changeSequence;
+
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long createdSequence;
+
     @OneToMany(mappedBy = "contact", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "contacts.emails")
     @ToString.Exclude
     private List<ContactEmail> emails = new ArrayList<>();
 
     @OneToMany(mappedBy = "contact", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "contacts.phones")
     @ToString.Exclude
     private List<ContactPhone> phones = new ArrayList<>();
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     @ToString.Exclude
     private User user;
@@ -4,15 +4,22 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 
 @Entity
 @Table(name = "contact_emails")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "contact_emails")
 @Data
 @NoArgsConstructor
 public class ContactEmail {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "contact_emails_seq")
+    @SequenceGenerator(name = "contact_emails_seq", sequenceName = "contact_emails_seq", allocationSize = 50)
     private Long id;
 
     private String label;
@@ -22,6 +29,7 @@ public class ContactEmail {
 
     @ManyToOne
     @JoinColumn(name = "contact_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
     @ToString.Exclude
     private Contact contact;
 }
@@ -0,0 +1,32 @@
+package com.hasnain.cms.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+@Entity
+@Table(name = "contact_tags",
+        uniqueConstraints = @UniqueConstraint(name = "uk_contact_tags_contact_name",
+                columnNames = {"contact_id", "name"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContactTag {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 50)
+    private String name;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "contact_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @ToString.Exclude
+    private Contact contact;
+}
@@ -0,0 +1,34 @@
+package com.hasnain.cms.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "contact_tombstones",
+        indexes = {
+                @Index(name = "idx_contact_tombstones_user_change", columnList = "user_id, change_sequence"),
+                @Index(name = "idx_contact_tombstones_deleted_at", columnList = "deleted_at")
+        })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContactTombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private Long contactId;
+
+    @Column(nullable = false)
+    private long changeSequence;
+
+    @Column(nullable = false)
+    private long deletedAt;
+}
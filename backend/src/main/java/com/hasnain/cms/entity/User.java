@@ -3,9 +3,14 @@ package com.hasnain.cms.entity;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
 @Table(name = "User")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 @Data
 @NoArgsConstructor
 public class User {
@@ -22,4 +27,9 @@ public class User {
 
     @Column(nullable = false)
     private String password;
+
+    // Operators: the actuator endpoints other than health and prometheus are theirs alone.
+    @Column(nullable = false)
+    @ColumnDefault("false")
+    private boolean admin;
 }
@@ -0,0 +1,33 @@
+package com.hasnain.cms.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+// Each user's last issued change sequence. Kept out of User, which is second-level cached: advancing it on every
+// contact write would otherwise evict the users region and invalidate every cached user lookup.
+@Entity
+@Table(name = "user_change_sequence")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserChangeSequence {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false)
+    private long changeSequence;
+
+    // The highest sequence whose tombstones have been pruned; a sync cursor below it may have missed deletions.
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long prunedSequence;
+
+    public UserChangeSequence(Long userId, long changeSequence) {
+        this(userId, changeSequence, 0);
+    }
+}
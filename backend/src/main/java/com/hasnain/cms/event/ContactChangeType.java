@@ -0,0 +1,7 @@
+package com.hasnain.cms.event;
+
+public enum ContactChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
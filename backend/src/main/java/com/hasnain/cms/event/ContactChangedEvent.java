@@ -0,0 +1,27 @@
+package com.hasnain.cms.event;
+
+import com.hasnain.cms.dto.ContactDTO;
+
+/**
+ * Published by the contact services for every committed create, update or delete. {@code sequence} is the user's
+ * change sequence number assigned to the change, and {@code contact} holds the state after the change ({@code null}
+ * for deletes).
+ */
+public record ContactChangedEvent(Long userId, Long contactId, ContactChangeType type, long sequence,
+                                  ContactDTO contact, long occurredAt) {
+
+    public static ContactChangedEvent created(Long userId, long sequence, ContactDTO contact) {
+        return new ContactChangedEvent(userId, contact.getId(), ContactChangeType.CREATED, sequence, contact,
+                System.currentTimeMillis());
+    }
+
+    public static ContactChangedEvent updated(Long userId, long sequence, ContactDTO contact) {
+        return new ContactChangedEvent(userId, contact.getId(), ContactChangeType.UPDATED, sequence, contact,
+                System.currentTimeMillis());
+    }
+
+    public static ContactChangedEvent deleted(Long userId, long sequence, Long contactId) {
+        return new ContactChangedEvent(userId, contactId, ContactChangeType.DELETED, sequence, null,
+                System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,6 @@
+package com.hasnain.cms.event;
+
+import java.util.Set;
+
+public record ContactTagsChangedEvent(Long userId, Long contactId, Set<String> tags) {
+}
@@ -1,16 +1,23 @@
 package com.hasnain.cms.exception;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.sql.SQLTransientConnectionException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -20,10 +27,17 @@ public class GlobalExceptionHandler {
     
     private static final String ERROR = "error";
 
+    private final MeterRegistry meterRegistry;
+
+    public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, String>> handleValidationExceptions(
             MethodArgumentNotValidException exception) {
 
+        countError(exception, HttpStatus.BAD_REQUEST);
         Map<String, String> errors = new HashMap<>();
 
         exception.getBindingResult().getAllErrors().forEach(error -> {
@@ -44,6 +58,7 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler({BadCredentialsException.class, UsernameNotFoundException.class})
     public ResponseEntity<Map<String, String>> handleAuthenticationException(AuthenticationException ex) {
+        countError(ex, HttpStatus.UNAUTHORIZED);
         log.warn("Authentication failed: {}", ex.getMessage());
         String errorMessage = ex.getMessage() != null ? ex.getMessage() : "Invalid credentials.";
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of(ERROR, errorMessage));
@@ -51,6 +66,7 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler({DuplicateIdentifierException.class, DuplicateContactException.class})
     public ResponseEntity<Map<String, String >> handleDuplicateIdentifier(RuntimeException exception) {
+        countError(exception, HttpStatus.CONFLICT);
         Map<String, String> error = new HashMap<>();
         error.put(ERROR, exception.getMessage());
         return new ResponseEntity<>(error, HttpStatus.CONFLICT);
@@ -58,6 +74,7 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(InvalidCredentialsException.class)
     public ResponseEntity<Map<String, String>> handleInvalidCredentials(InvalidCredentialsException exception) {
+        countError(exception, HttpStatus.UNAUTHORIZED);
         Map<String, String> error = new HashMap<>();
         error.put(ERROR, exception.getMessage());
         return new ResponseEntity<>(error, HttpStatus.UNAUTHORIZED);
@@ -65,6 +82,47 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(InvalidIdentifierFormatException.class)
     public ResponseEntity<Map<String, String>> handleInvalidIdentifierFormat(InvalidIdentifierFormatException exception) {
+        countError(exception, HttpStatus.BAD_REQUEST);
+        Map<String, String> error = new HashMap<>();
+        error.put(ERROR, exception.getMessage());
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(RequestLimitExceededException.class)
+    public ResponseEntity<Map<String, String>> handleRequestLimitExceeded(RequestLimitExceededException exception) {
+        countError(exception, HttpStatus.BAD_REQUEST);
+        Map<String, String> error = new HashMap<>();
+        error.put(ERROR, exception.getMessage());
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidSyncCursorException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidSyncCursor(InvalidSyncCursorException exception) {
+        countError(exception, HttpStatus.BAD_REQUEST);
+        Map<String, String> error = new HashMap<>();
+        error.put(ERROR, exception.getMessage());
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(SyncCursorExpiredException.class)
+    public ResponseEntity<Map<String, String>> handleSyncCursorExpired(SyncCursorExpiredException exception) {
+        countError(exception, HttpStatus.GONE);
+        Map<String, String> error = new HashMap<>();
+        error.put(ERROR, exception.getMessage());
+        return new ResponseEntity<>(error, HttpStatus.GONE);
+    }
+
+    @ExceptionHandler(InvalidMergeRequestException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidMergeRequest(InvalidMergeRequestException exception) {
+        countError(exception, HttpStatus.BAD_REQUEST);
+        Map<String, String> error = new HashMap<>();
+        error.put(ERROR, exception.getMessage());
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidTagException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidTag(InvalidTagException exception) {
+        countError(exception, HttpStatus.BAD_REQUEST);
         Map<String, String> error = new HashMap<>();
         error.put(ERROR, exception.getMessage());
         return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
@@ -72,6 +130,7 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<Map<String, String>> handleResourceNotFound(ResourceNotFoundException exception) {
+        countError(exception, HttpStatus.NOT_FOUND);
         Map<String, String> error = new HashMap<>();
         error.put(ERROR, exception.getMessage());
         return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
@@ -79,13 +138,28 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(UnauthorizedAccessException.class)
     public ResponseEntity<Map<String, String>> handleUnauthorizedAccess(UnauthorizedAccessException exception) {
+        countError(exception, HttpStatus.FORBIDDEN);
         Map<String, String> error = new HashMap<>();
         error.put(ERROR, exception.getMessage());
         return new ResponseEntity<>(error, HttpStatus.FORBIDDEN);
     }
 
+    // A saturated connection pool is temporary; anything else about the database is a plain server error.
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<Map<String, String>> handleDatabaseUnavailable(RuntimeException exception) {
+        if (!(NestedExceptionUtils.getMostSpecificCause(exception) instanceof SQLTransientConnectionException)) {
+            return handleRuntimeExceptions(exception);
+        }
+        countError(exception, HttpStatus.SERVICE_UNAVAILABLE);
+        log.warn("Request rejected, no database connection available: {}", exception.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of(ERROR, "The service is busy, please retry shortly."));
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<Map<String, String>> handleRuntimeExceptions(RuntimeException exception) {
+        countError(exception, HttpStatus.INTERNAL_SERVER_ERROR);
         Map<String, String> error = new HashMap<>();
         error.put(ERROR, "An unexpected server error occurred.");
         return new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR);
@@ -93,8 +167,19 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, String>> handleGenericExceptions(Exception exception) {
+        countError(exception, HttpStatus.INTERNAL_SERVER_ERROR);
         Map<String, String> error = new HashMap<>();
         error.put(ERROR, "A general server error occurred");
         return new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR);
     }
+
+    // Exception class names and statuses are both small, fixed sets, so the counter's tags stay bounded.
+    private void countError(Exception exception, HttpStatus status) {
+        Counter.builder("cms.api.errors")
+                .description("Requests answered with an error, by exception type")
+                .tag("exception", exception.getClass().getSimpleName())
+                .tag("status", String.valueOf(status.value()))
+                .register(meterRegistry)
+                .increment();
+    }
 }
@@ -0,0 +1,8 @@
+package com.hasnain.cms.exception;
+
+public class InvalidMergeRequestException extends RuntimeException{
+
+    public InvalidMergeRequestException(String message) {
+        super(message);
+    }
+}
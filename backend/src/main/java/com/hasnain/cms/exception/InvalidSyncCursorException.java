@@ -0,0 +1,8 @@
+package com.hasnain.cms.exception;
+
+public class InvalidSyncCursorException extends RuntimeException{
+
+    public InvalidSyncCursorException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.hasnain.cms.exception;
+
+public class InvalidTagException extends RuntimeException{
+
+    public InvalidTagException(String message) {
+        super(message);
+    }
+}
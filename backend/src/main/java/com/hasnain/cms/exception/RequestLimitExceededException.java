@@ -0,0 +1,8 @@
+package com.hasnain.cms.exception;
+
+public class RequestLimitExceededException extends RuntimeException{
+
+    public RequestLimitExceededException(String message) {
+        super(message);
+    }
+}
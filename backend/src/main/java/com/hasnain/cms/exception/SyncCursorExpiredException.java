@@ -0,0 +1,8 @@
+package com.hasnain.cms.exception;
+
+public class SyncCursorExpiredException extends RuntimeException{
+
+    public SyncCursorExpiredException(String message) {
+        super(message);
+    }
+}
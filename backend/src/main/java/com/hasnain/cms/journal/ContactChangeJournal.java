@@ -0,0 +1,344 @@
+package com.hasnain.cms.journal;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hasnain.cms.event.ContactChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Append-only log of contact changes kept in fixed-size memory-mapped segment files.
+ * <p>
+ * {@link #append} never touches the file system: it encodes the event, places it on a lock-free ring buffer and returns.
+ * A record larger than a segment can never be written, so it is refused there with an exception. A single writer
+ * thread drains the buffer, assigns consecutive offsets, writes the frames into the active segment and forces
+ * them to disk according to the {@link FsyncPolicy}. Everything drained in one pass shares one fsync. When a record
+ * does not fit, the segment is forced and a new one is started, and segments beyond the retention limits are deleted.
+ * Readers created with {@link #openReader} tail the log from any offset and only see records the writer has finished.
+ * Every change that does not make it into the log is counted in {@link #droppedCount}.
+ */
+@Slf4j
+public class ContactChangeJournal implements AutoCloseable {
+
+    public record Settings(Path directory, int segmentSizeBytes, int ringBufferSize, FsyncPolicy fsyncPolicy,
+                           Duration fsyncInterval, int retentionSegments, Duration retentionAge) {
+    }
+
+    record Pending(ContactChangedEvent event, byte[] payload) {
+    }
+
+    private static final int DRAIN_BATCH = 1024;
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Settings settings;
+
+    private final ObjectMapper objectMapper;
+
+    private final MpscRingBuffer<Pending> ringBuffer;
+
+    private final ConcurrentSkipListMap<Long, Path> segments = new ConcurrentSkipListMap<>();
+
+    private final AtomicLong appended = new AtomicLong();
+
+    private final AtomicLong backpressureWaits = new AtomicLong();
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    private volatile long lastWrittenOffset = -1;
+
+    private volatile long durableOffset = -1;
+
+    private volatile boolean running;
+
+    private volatile boolean writerParked;
+
+    private Thread writerThread;
+
+    private JournalSegment activeSegment;
+
+    private long nextOffset;
+
+    private long lastForceNanos;
+
+    public ContactChangeJournal(Settings settings, ObjectMapper objectMapper) {
+        this.settings = settings;
+        this.objectMapper = objectMapper;
+        this.ringBuffer = new MpscRingBuffer<>(settings.ringBufferSize());
+    }
+
+    public synchronized void start() {
+
+        if (running) {
+            return;
+        }
+        if (writerThread != null && writerThread.isAlive()) {
+            throw new IllegalStateException("The previous contact change journal writer is still draining.");
+        }
+        try {
+            Files.createDirectories(settings.directory());
+            try (Stream<Path> files = Files.list(settings.directory())) {
+                files.filter(path -> path.getFileName().toString().endsWith(JournalSegment.SUFFIX))
+                        .forEach(path -> segments.put(JournalSegment.baseOffsetOf(path), path));
+            }
+            if (segments.isEmpty()) {
+                activeSegment = JournalSegment.create(settings.directory(), 0, settings.segmentSizeBytes());
+                segments.put(0L, activeSegment.path());
+            } else {
+                activeSegment = JournalSegment.recover(segments.lastEntry().getValue(), settings.segmentSizeBytes());
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Unable to open contact change journal in " + settings.directory(),
+                    exception);
+        }
+
+        nextOffset = activeSegment.lastOffset() + 1;
+        lastWrittenOffset = nextOffset - 1;
+        durableOffset = lastWrittenOffset;
+        lastForceNanos = System.nanoTime();
+        running = true;
+        writerThread = new Thread(this::runWriter, "contact-journal-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log.info("Contact change journal started in {} at offset {} with {} segments.", settings.directory(),
+                nextOffset, segments.size());
+    }
+
+    /**
+     * Queues an event for the writer thread. Only waits when the ring buffer is full, so a stalled disk slows
+     * producers down instead of losing changes.
+     *
+     * @throws IllegalArgumentException if the event's record is larger than a segment
+     */
+    public void append(ContactChangedEvent event) {
+
+        byte[] payload = encode(event);
+        if (payload == null) {
+            return;
+        }
+        if (JournalSegment.frameSize(payload.length) > settings.segmentSizeBytes()) {
+            dropped.incrementAndGet();
+            throw new IllegalArgumentException("Journal record of " + payload.length + " bytes for contact ID "
+                    + event.contactId() + " is larger than a segment of " + settings.segmentSizeBytes()
+                    + " bytes; raise contacts.journal.segment-size-bytes.");
+        }
+        Pending pending = new Pending(event, payload);
+        int spins = 0;
+        while (!ringBuffer.offer(pending)) {
+            if (!running) {
+                dropped.incrementAndGet();
+                log.warn("Dropping contact change for contact ID {}: journal is closed.", event.contactId());
+                return;
+            }
+            if (spins++ == 0) {
+                backpressureWaits.incrementAndGet();
+            }
+            if (spins < 100) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(10_000);
+            }
+        }
+        if (writerParked) {
+            LockSupport.unpark(writerThread);
+        }
+    }
+
+    public JournalReader openReader(long fromOffset) {
+        return new JournalReader(this, fromOffset);
+    }
+
+    public long lastWrittenOffset() {
+        return lastWrittenOffset;
+    }
+
+    public long durableOffset() {
+        return durableOffset;
+    }
+
+    public long appendedCount() {
+        return appended.get();
+    }
+
+    public long backpressureWaitCount() {
+        return backpressureWaits.get();
+    }
+
+    /**
+     * Changes that were never journaled: ones that could not be encoded or written, were too large for a segment, or
+     * arrived after the journal closed.
+     */
+    public long droppedCount() {
+        return dropped.get();
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    Map.Entry<Long, Path> segmentContaining(long offset) {
+        Map.Entry<Long, Path> entry = segments.floorEntry(offset);
+        return entry != null ? entry : segments.firstEntry();
+    }
+
+    Map.Entry<Long, Path> segmentAfter(long baseOffset) {
+        return segments.higherEntry(baseOffset);
+    }
+
+    // The writer owns the active segment from start to finish and closes it on its way out, so a close() that gives up
+    // waiting never closes a segment the writer is still appending to.
+    private void runWriter() {
+
+        try {
+            drainUntilClosed();
+        } finally {
+            activeSegment.close();
+            log.info("Contact change journal closed at offset {}.", lastWrittenOffset);
+        }
+    }
+
+    private void drainUntilClosed() {
+
+        while (running || !ringBuffer.isEmpty()) {
+            int drained = ringBuffer.drain(this::write, DRAIN_BATCH);
+            if (drained > 0) {
+                lastWrittenOffset = nextOffset - 1;
+                if (settings.fsyncPolicy() == FsyncPolicy.ALWAYS) {
+                    force();
+                }
+            }
+            if (settings.fsyncPolicy() == FsyncPolicy.INTERVAL && durableOffset < lastWrittenOffset
+                    && System.nanoTime() - lastForceNanos >= settings.fsyncInterval().toNanos()) {
+                force();
+            }
+            if (drained == 0) {
+                writerParked = true;
+                if (ringBuffer.isEmpty() && running) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                writerParked = false;
+            }
+        }
+        force();
+    }
+
+    // Package-private so that tests can hold the writer in the middle of a record.
+    void write(Pending pending) {
+
+        ContactChangedEvent event = pending.event();
+        byte[] payload = pending.payload();
+        try {
+            if (!activeSegment.hasRoomFor(payload.length)) {
+                roll();
+            }
+            activeSegment.append(nextOffset, event.occurredAt(), nullToZero(event.userId()),
+                    nullToZero(event.contactId()), event.type(), payload);
+            nextOffset++;
+            appended.incrementAndGet();
+        } catch (IOException | RuntimeException exception) {
+            dropped.incrementAndGet();
+            log.error("Failed to journal {} of contact ID {}: {}", event.type(), event.contactId(),
+                    exception.getMessage(), exception);
+        }
+    }
+
+    private byte[] encode(ContactChangedEvent event) {
+
+        if (event.contact() == null) {
+            return new byte[0];
+        }
+        try {
+            return objectMapper.writeValueAsBytes(event.contact());
+        } catch (JsonProcessingException exception) {
+            dropped.incrementAndGet();
+            log.error("Failed to encode contact ID {} for the journal: {}", event.contactId(), exception.getMessage(),
+                    exception);
+            return null;
+        }
+    }
+
+    private void roll() throws IOException {
+
+        activeSegment.close();
+        durableOffset = activeSegment.lastOffset();
+        lastWrittenOffset = activeSegment.lastOffset();
+
+        activeSegment = JournalSegment.create(settings.directory(), nextOffset, settings.segmentSizeBytes());
+        segments.put(nextOffset, activeSegment.path());
+        log.info("Contact change journal rolled to segment {}.", activeSegment.path().getFileName());
+        applyRetention();
+    }
+
+    private void applyRetention() {
+
+        long now = System.currentTimeMillis();
+        for (Map.Entry<Long, Path> entry : List.copyOf(segments.headMap(activeSegment.baseOffset()).entrySet())) {
+            Path path = entry.getValue();
+            try {
+                boolean tooMany = segments.size() > settings.retentionSegments();
+                boolean tooOld = settings.retentionAge() != null && !settings.retentionAge().isZero()
+                        && now - Files.getLastModifiedTime(path).toMillis() > settings.retentionAge().toMillis();
+                if (!tooMany && !tooOld) {
+                    break;
+                }
+                segments.remove(entry.getKey());
+                Files.deleteIfExists(path);
+                log.info("Contact change journal deleted segment {}.", path.getFileName());
+            } catch (IOException exception) {
+                log.warn("Unable to delete journal segment {}: {}", path, exception.getMessage());
+            }
+        }
+    }
+
+    private void force() {
+
+        if (durableOffset < lastWrittenOffset) {
+            activeSegment.force();
+            durableOffset = lastWrittenOffset;
+        }
+        lastForceNanos = System.nanoTime();
+    }
+
+    private static long nullToZero(Long value) {
+        return value == null ? 0 : value;
+    }
+
+    @Override
+    public void close() {
+        close(Duration.ofSeconds(10));
+    }
+
+    /**
+     * Stops accepting events and waits up to {@code timeout} for the writer to drain the buffer and close the active
+     * segment. A writer still busy after that finishes on its own.
+     */
+    synchronized void close(Duration timeout) {
+
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(timeout.toMillis());
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        if (writerThread.isAlive()) {
+            log.warn("Contact change journal writer is still draining after {} ms; it closes the active segment when "
+                    + "done.", timeout.toMillis());
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.hasnain.cms.journal;
+
+import com.hasnain.cms.event.ContactChangedEvent;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Journals contact changes once their transaction has committed, so rolled-back writes never reach the log.
+ */
+public class ContactChangeJournalListener {
+
+    private final ContactChangeJournal journal;
+
+    public ContactChangeJournalListener(ContactChangeJournal journal) {
+        this.journal = journal;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContactChanged(ContactChangedEvent event) {
+        journal.append(event);
+    }
+}
@@ -0,0 +1,10 @@
+package com.hasnain.cms.journal;
+
+public enum FsyncPolicy {
+    /** Force the segment after every drained batch, so appends that arrive together share one fsync. */
+    ALWAYS,
+    /** Force at most once per configured interval while there are unforced writes. */
+    INTERVAL,
+    /** Leave write-back to the operating system; segments are still forced when they are rolled or closed. */
+    NEVER
+}
@@ -0,0 +1,96 @@
+package com.hasnain.cms.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tails a {@link ContactChangeJournal} from a starting offset. Only returns records the writer has finished, and
+ * moves on to the next segment when the current one is exhausted. Starting before the oldest retained record begins
+ * at the oldest one. Not thread-safe: use one reader per consumer.
+ */
+public class JournalReader {
+
+    private final ContactChangeJournal journal;
+
+    private long nextOffset;
+
+    private long segmentBase = -1;
+
+    private JournalSegment.FrameCursor cursor;
+
+    JournalReader(ContactChangeJournal journal, long fromOffset) {
+        this.journal = journal;
+        this.nextOffset = Math.max(fromOffset, 0);
+    }
+
+    /**
+     * Offset of the next record this reader will return.
+     */
+    public long position() {
+        return nextOffset;
+    }
+
+    public List<JournalRecord> poll(int maxRecords) {
+
+        List<JournalRecord> records = new ArrayList<>();
+        long readableOffset = journal.lastWrittenOffset();
+        while (records.size() < maxRecords && nextOffset <= readableOffset) {
+            if (cursor == null && !openSegmentFor(nextOffset)) {
+                break;
+            }
+            JournalRecord record = cursor.next();
+            if (record == null) {
+                if (!openNextSegment()) {
+                    break;
+                }
+                continue;
+            }
+            if (record.offset() < nextOffset) {
+                continue;
+            }
+            records.add(record);
+            nextOffset = record.offset() + 1;
+        }
+        return records;
+    }
+
+    private boolean openSegmentFor(long offset) {
+
+        Map.Entry<Long, Path> segment = journal.segmentContaining(offset);
+        if (segment == null) {
+            return false;
+        }
+        nextOffset = Math.max(nextOffset, segment.getKey());
+        return open(segment);
+    }
+
+    private boolean openNextSegment() {
+
+        Map.Entry<Long, Path> segment = journal.segmentAfter(segmentBase);
+        if (segment == null) {
+            return false;
+        }
+        nextOffset = Math.max(nextOffset, segment.getKey());
+        return open(segment);
+    }
+
+    private boolean open(Map.Entry<Long, Path> segment) {
+
+        try {
+            cursor = JournalSegment.FrameCursor.open(segment.getValue());
+            segmentBase = segment.getKey();
+            return true;
+        } catch (NoSuchFileException exception) {
+            // Deleted by retention since it was looked up; start again from whatever is oldest now.
+            cursor = null;
+            return openSegmentFor(nextOffset) && cursor != null;
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.hasnain.cms.journal;
+
+import com.hasnain.cms.event.ContactChangeType;
+
+/**
+ * One journal entry. {@code payload} is the JSON encoded {@code ContactDTO} after the change and is empty for
+ * deletes.
+ */
+public record JournalRecord(long offset, long timestamp, long userId, long contactId, ContactChangeType type,
+                            byte[] payload) {
+}
@@ -0,0 +1,208 @@
+package com.hasnain.cms.journal;
+
+import com.hasnain.cms.event.ContactChangeType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * A fixed-size, memory-mapped journal file named after the offset of its first record. Frames are laid out as
+ * {@code [int bodyLength][int crc32c(body)][body]} where the body is
+ * {@code [long offset][long timestamp][long userId][long contactId][byte type][payload]}. The file is zero-filled
+ * when it is created, so a zero length marks the end of the written data.
+ */
+final class JournalSegment implements AutoCloseable {
+
+    static final String SUFFIX = ".log";
+
+    static final int FRAME_HEADER_BYTES = Integer.BYTES * 2;
+
+    static final int BODY_HEADER_BYTES = Long.BYTES * 4 + 1;
+
+    private static final ContactChangeType[] TYPES = ContactChangeType.values();
+
+    private final long baseOffset;
+
+    private final Path path;
+
+    private final MappedByteBuffer buffer;
+
+    private long lastOffset;
+
+    private JournalSegment(long baseOffset, Path path, MappedByteBuffer buffer) {
+        this.baseOffset = baseOffset;
+        this.path = path;
+        this.buffer = buffer;
+        this.lastOffset = baseOffset - 1;
+    }
+
+    static Path pathFor(Path directory, long baseOffset) {
+        return directory.resolve(String.format("%020d%s", baseOffset, SUFFIX));
+    }
+
+    static long baseOffsetOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+
+    static int frameSize(int payloadLength) {
+        return FRAME_HEADER_BYTES + BODY_HEADER_BYTES + payloadLength;
+    }
+
+    static JournalSegment create(Path directory, long baseOffset, int sizeBytes) throws IOException {
+        Path path = pathFor(directory, baseOffset);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            return new JournalSegment(baseOffset, path, channel.map(FileChannel.MapMode.READ_WRITE, 0, sizeBytes));
+        }
+    }
+
+    /**
+     * Reopens an existing segment for appending, positioned after its last intact frame. A torn frame left by a crash
+     * is zeroed so it cannot be mistaken for data later.
+     */
+    static JournalSegment recover(Path path, int sizeBytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            int mappedSize = (int) Math.max(sizeBytes, channel.size());
+            JournalSegment segment = new JournalSegment(baseOffsetOf(path), path,
+                    channel.map(FileChannel.MapMode.READ_WRITE, 0, mappedSize));
+            segment.scanToEnd();
+            return segment;
+        }
+    }
+
+    private void scanToEnd() {
+        FrameCursor cursor = new FrameCursor(buffer.duplicate());
+        JournalRecord record;
+        while ((record = cursor.next()) != null) {
+            lastOffset = record.offset();
+        }
+        int end = cursor.position();
+        buffer.position(end);
+        if (cursor.isCorrupt()) {
+            for (int index = end; index < buffer.limit(); index++) {
+                buffer.put(index, (byte) 0);
+            }
+            buffer.force();
+        }
+    }
+
+    long baseOffset() {
+        return baseOffset;
+    }
+
+    long lastOffset() {
+        return lastOffset;
+    }
+
+    Path path() {
+        return path;
+    }
+
+    boolean isEmpty() {
+        return lastOffset < baseOffset;
+    }
+
+    boolean hasRoomFor(int payloadLength) {
+        return buffer.remaining() >= frameSize(payloadLength);
+    }
+
+    void append(long offset, long timestamp, long userId, long contactId, ContactChangeType type, byte[] payload) {
+
+        int start = buffer.position();
+        int bodyStart = start + FRAME_HEADER_BYTES;
+        buffer.position(bodyStart);
+        buffer.putLong(offset).putLong(timestamp).putLong(userId).putLong(contactId).put((byte) type.ordinal())
+                .put(payload);
+        int end = buffer.position();
+
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(bodyStart, end - bodyStart));
+        buffer.putInt(start + Integer.BYTES, (int) crc.getValue());
+        buffer.putInt(start, end - bodyStart);
+        lastOffset = offset;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() {
+        force();
+    }
+
+    /**
+     * Reads frames sequentially from a buffer holding a segment's contents.
+     */
+    static final class FrameCursor {
+
+        private final ByteBuffer buffer;
+
+        private boolean corrupt;
+
+        FrameCursor(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        static FrameCursor open(Path path) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                return new FrameCursor(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            }
+        }
+
+        int position() {
+            return buffer.position();
+        }
+
+        boolean isCorrupt() {
+            return corrupt;
+        }
+
+        /**
+         * Returns the next intact frame, or {@code null} at the end of the written data or at a damaged frame.
+         */
+        JournalRecord next() {
+
+            int start = buffer.position();
+            if (buffer.limit() - start < FRAME_HEADER_BYTES) {
+                return null;
+            }
+            int bodyLength = buffer.getInt(start);
+            if (bodyLength == 0) {
+                return null;
+            }
+            int bodyStart = start + FRAME_HEADER_BYTES;
+            if (bodyLength < BODY_HEADER_BYTES || bodyLength > buffer.limit() - bodyStart) {
+                corrupt = true;
+                return null;
+            }
+
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.slice(bodyStart, bodyLength));
+            int typeOrdinal = buffer.get(bodyStart + Long.BYTES * 4);
+            if ((int) crc.getValue() != buffer.getInt(start + Integer.BYTES)
+                    || typeOrdinal < 0 || typeOrdinal >= TYPES.length) {
+                corrupt = true;
+                return null;
+            }
+
+            byte[] payload = new byte[bodyLength - BODY_HEADER_BYTES];
+            buffer.get(bodyStart + BODY_HEADER_BYTES, payload);
+            JournalRecord record = new JournalRecord(
+                    buffer.getLong(bodyStart),
+                    buffer.getLong(bodyStart + Long.BYTES),
+                    buffer.getLong(bodyStart + Long.BYTES * 2),
+                    buffer.getLong(bodyStart + Long.BYTES * 3),
+                    TYPES[typeOrdinal],
+                    payload);
+            buffer.position(bodyStart + bodyLength);
+            return record;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.hasnain.cms.mapper;
 
+import com.hasnain.cms.config.ServerTiming;
 import com.hasnain.cms.dto.ContactDTO;
 import com.hasnain.cms.dto.ContactEmailDTO;
 import com.hasnain.cms.dto.ContactPhoneDTO;
@@ -22,18 +23,23 @@ public class ContactMapper {
             return null;
         }
 
-        return new ContactDTO(
-                contact.getId(),
-                contact.getFirstName(),
-                contact.getLastName(),
-                contact.getTitle(),
-                contact.getEmails().stream()
-                        .map(email -> new ContactEmailDTO(email.getId(), email.getLabel(), email.getEmail()))
-                        .collect(Collectors.toList()),
-                contact.getPhones().stream()
-                        .map(phone -> new ContactPhoneDTO(phone.getId(), phone.getLabel(), phone.getPhoneNumber()))
-                        .collect(Collectors.toList())
-        );
+        ServerTiming.begin(ServerTiming.Phase.MAPPING);
+        try {
+            return new ContactDTO(
+                    contact.getId(),
+                    contact.getFirstName(),
+                    contact.getLastName(),
+                    contact.getTitle(),
+                    contact.getEmails().stream()
+                            .map(email -> new ContactEmailDTO(email.getId(), email.getLabel(), email.getEmail()))
+                            .collect(Collectors.toList()),
+                    contact.getPhones().stream()
+                            .map(phone -> new ContactPhoneDTO(phone.getId(), phone.getLabel(), phone.getPhoneNumber()))
+                            .collect(Collectors.toList())
+            );
+        } finally {
+            ServerTiming.end(ServerTiming.Phase.MAPPING);
+        }
     }
 
     public static Contact toEntity(ContactDTO contactDTO) {
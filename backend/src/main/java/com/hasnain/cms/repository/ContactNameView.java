@@ -0,0 +1,8 @@
+package com.hasnain.cms.repository;
+
+public interface ContactNameView {
+
+    Long getId();
+    String getFirstName();
+    String getLastName();
+}
@@ -5,11 +5,54 @@ import com.hasnain.cms.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface ContactRepository extends JpaRepository<Contact, Long> {
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ContactRepository extends JpaRepository<Contact, Long>, ContactRepositoryCustom {
 
     Page<Contact> findByUser(User user, Pageable pageable);
     boolean existsByUserAndFirstNameAndLastName(User user, String firstName, String lastName);
     Page<Contact> findByUserAndFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(
             User user, String firstNameSearchTerm, String lastNameSearchTerm2, Pageable pageable);
+
+    @Query("SELECT c FROM Contact c WHERE c.id = :id AND c.user.userId = :userId")
+    Optional<Contact> findByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Query("SELECT c FROM Contact c WHERE c.id IN :ids AND c.user.userId = :userId")
+    List<Contact> findAllByIdInAndUserId(@Param("ids") Collection<Long> ids, @Param("userId") Long userId);
+
+    @Query("SELECT c.id AS id, c.firstName AS firstName, c.lastName AS lastName FROM Contact c "
+            + "WHERE c.id IN :ids AND c.user.userId = :userId")
+    List<ContactNameView> findNamesByIdInAndUserId(@Param("ids") Collection<Long> ids, @Param("userId") Long userId);
+
+    @Query("SELECT c.id AS id, c.firstName AS firstName, c.lastName AS lastName FROM Contact c "
+            + "WHERE c.firstName IN :firstNames AND c.user.userId = :userId")
+    List<ContactNameView> findNamesByFirstNameInAndUserId(@Param("firstNames") Collection<String> firstNames,
+                                                          @Param("userId") Long userId);
+
+    @Query("SELECT DISTINCT c FROM Contact c LEFT JOIN FETCH c.emails WHERE c.id IN :ids AND c.user.userId = :userId")
+    List<Contact> findAllWithEmailsByIdInAndUserId(@Param("ids") Collection<Long> ids, @Param("userId") Long userId);
+
+    @Query("SELECT c.id FROM Contact c WHERE c.user.userId = :userId ORDER BY c.id")
+    List<Long> findIdsByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT DISTINCT c FROM Contact c LEFT JOIN FETCH c.emails WHERE c.user.userId = :userId")
+    List<Contact> findAllWithEmailsByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT DISTINCT c FROM Contact c LEFT JOIN FETCH c.emails WHERE c IN :contacts")
+    List<Contact> fetchEmails(@Param("contacts") Collection<Contact> contacts);
+
+    @Query("SELECT DISTINCT c FROM Contact c LEFT JOIN FETCH c.phones WHERE c IN :contacts")
+    List<Contact> fetchPhones(@Param("contacts") Collection<Contact> contacts);
+
+    // Ordered by (changeSequence, id) so contacts sharing a sequence, such as rows that predate change tracking,
+    // can still be paged through.
+    @Query("SELECT c FROM Contact c WHERE c.user.userId = :userId AND (c.changeSequence > :sequence "
+            + "OR (c.changeSequence = :sequence AND c.id > :afterId)) ORDER BY c.changeSequence, c.id")
+    List<Contact> findChangedSince(@Param("userId") Long userId, @Param("sequence") long sequence,
+                                   @Param("afterId") long afterId, Pageable pageable);
 }
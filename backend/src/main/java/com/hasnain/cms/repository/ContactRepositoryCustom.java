@@ -0,0 +1,16 @@
+package com.hasnain.cms.repository;
+
+import java.util.Collection;
+
+public interface ContactRepositoryCustom {
+
+    /**
+     * Deletes the contact if {@code userId} owns it, and returns the number of contacts deleted.
+     */
+    int deleteByIdAndUserId(Long id, Long userId);
+
+    /**
+     * Deletes those of {@code ids} that {@code userId} owns, and returns the number of contacts deleted.
+     */
+    int deleteAllByIdInAndUserId(Collection<Long> ids, Long userId);
+}
@@ -0,0 +1,123 @@
+package com.hasnain.cms.repository;
+
+import com.hasnain.cms.entity.Contact;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Cache;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Ownership-checked contact deletes in plain SQL. A JPQL bulk delete makes Hibernate empty the contact regions of the
+ * second-level cache, and their email and phone collections, for every user; here only the deleted contacts are
+ * evicted, once when they are deleted and again after commit, so that a read racing the delete cannot leave them
+ * cached. Their emails and phones stay in their own regions until they expire, as nothing looks those up by id.
+ * <p>
+ * Child rows are deleted first, in the same transaction, rather than left to the {@code ON DELETE CASCADE} foreign
+ * keys: {@code ddl-auto=update} does not add those to tables created before them.
+ */
+class ContactRepositoryImpl implements ContactRepositoryCustom {
+
+    private static final String EMAILS_ROLE = Contact.class.getName() + ".emails";
+
+    private static final String PHONES_ROLE = Contact.class.getName() + ".phones";
+
+    private static final List<String> CHILD_TABLES = List.of("contact_emails", "contact_phones", "contact_tags");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public int deleteByIdAndUserId(Long id, Long userId) {
+        return deleteAllByIdInAndUserId(List.of(id), userId);
+    }
+
+    @Override
+    @Transactional
+    public int deleteAllByIdInAndUserId(Collection<Long> ids, Long userId) {
+
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        // As before a JPQL bulk statement: pending changes, such as children moved off a merged contact, go first.
+        entityManager.flush();
+        List<Long> deleted = entityManager.unwrap(Session.class)
+                .doReturningWork(connection -> delete(connection, List.copyOf(ids), userId));
+        if (!deleted.isEmpty()) {
+            evict(deleted);
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        evict(deleted);
+                    }
+                });
+            }
+        }
+        return deleted.size();
+    }
+
+    private static List<Long> delete(Connection connection, List<Long> ids, Long userId) throws SQLException {
+
+        List<Long> owned = new ArrayList<>(ids.size());
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT id FROM contacts WHERE user_id = ? AND id IN (" + placeholders(ids.size()) + ")")) {
+            select.setLong(1, userId);
+            bind(select, 2, ids);
+            try (ResultSet rows = select.executeQuery()) {
+                while (rows.next()) {
+                    owned.add(rows.getLong(1));
+                }
+            }
+        }
+        if (owned.isEmpty()) {
+            return owned;
+        }
+        for (String table : CHILD_TABLES) {
+            try (PreparedStatement delete = connection.prepareStatement(
+                    "DELETE FROM " + table + " WHERE contact_id IN (" + placeholders(owned.size()) + ")")) {
+                bind(delete, 1, owned);
+                delete.executeUpdate();
+            }
+        }
+        try (PreparedStatement delete = connection.prepareStatement(
+                "DELETE FROM contacts WHERE id IN (" + placeholders(owned.size()) + ")")) {
+            bind(delete, 1, owned);
+            delete.executeUpdate();
+        }
+        return owned;
+    }
+
+    private void evict(List<Long> ids) {
+
+        Cache cache = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getCache();
+        for (Long id : ids) {
+            cache.evictEntityData(Contact.class, id);
+            cache.evictCollectionData(EMAILS_ROLE, id);
+            cache.evictCollectionData(PHONES_ROLE, id);
+        }
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static void bind(PreparedStatement statement, int first, List<Long> values) throws SQLException {
+        for (int index = 0; index < values.size(); index++) {
+            statement.setLong(first + index, values.get(index));
+        }
+    }
+}
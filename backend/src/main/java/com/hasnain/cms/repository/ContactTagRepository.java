@@ -0,0 +1,22 @@
+package com.hasnain.cms.repository;
+
+import com.hasnain.cms.entity.ContactTag;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ContactTagRepository extends JpaRepository<ContactTag, Long> {
+
+    @Query("SELECT t.name FROM ContactTag t WHERE t.contact.id = :contactId ORDER BY t.name")
+    List<String> findNamesByContactId(@Param("contactId") Long contactId);
+
+    @Query("SELECT t.contact.id AS contactId, t.name AS name FROM ContactTag t WHERE t.contact.user.userId = :userId")
+    List<ContactTagView> findAllByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM ContactTag t WHERE t.contact.id = :contactId")
+    int deleteByContactId(@Param("contactId") Long contactId);
+}
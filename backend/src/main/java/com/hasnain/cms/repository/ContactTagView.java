@@ -0,0 +1,7 @@
+package com.hasnain.cms.repository;
+
+public interface ContactTagView {
+
+    Long getContactId();
+    String getName();
+}
@@ -0,0 +1,29 @@
+package com.hasnain.cms.repository;
+
+import com.hasnain.cms.entity.ContactTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ContactTombstoneRepository extends JpaRepository<ContactTombstone, Long> {
+
+    List<ContactTombstone> findByUserIdAndChangeSequenceGreaterThanOrderByChangeSequence(Long userId, long since,
+                                                                                      Pageable pageable);
+
+    @Query("SELECT DISTINCT t.userId FROM ContactTombstone t WHERE t.deletedAt < :deletedBefore")
+    List<Long> findUserIdsWithTombstonesDeletedBefore(@Param("deletedBefore") long deletedBefore);
+
+    @Query("SELECT MAX(t.changeSequence) FROM ContactTombstone t "
+            + "WHERE t.userId = :userId AND t.deletedAt < :deletedBefore")
+    Optional<Long> findLastSequenceDeletedBefore(@Param("userId") Long userId,
+                                                 @Param("deletedBefore") long deletedBefore);
+
+    @Modifying
+    @Query("DELETE FROM ContactTombstone t WHERE t.userId = :userId AND t.changeSequence <= :sequence")
+    int deleteUpToSequence(@Param("userId") Long userId, @Param("sequence") long sequence);
+}
@@ -0,0 +1,35 @@
+package com.hasnain.cms.repository;
+
+import com.hasnain.cms.entity.UserChangeSequence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface UserChangeSequenceRepository extends JpaRepository<UserChangeSequence, Long> {
+
+    // The row lock taken here is held until commit, so one user's changes commit in sequence order.
+    @Modifying
+    @Query("UPDATE UserChangeSequence s SET s.changeSequence = s.changeSequence + :count WHERE s.userId = :userId")
+    int advance(@Param("userId") Long userId, @Param("count") long count);
+
+    @Query("SELECT s.changeSequence FROM UserChangeSequence s WHERE s.userId = :userId")
+    Optional<Long> findChangeSequence(@Param("userId") Long userId);
+
+    @Query("SELECT s.prunedSequence FROM UserChangeSequence s WHERE s.userId = :userId")
+    Optional<Long> findPrunedSequence(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE UserChangeSequence s SET s.prunedSequence = GREATEST(s.prunedSequence, :sequence) "
+            + "WHERE s.userId = :userId")
+    int raisePrunedSequence(@Param("userId") Long userId, @Param("sequence") long sequence);
+
+    // The highest sequence issued before the user had a row of their own: contacts and tombstones keep every
+    // sequence that is still visible to sync.
+    @Query("SELECT GREATEST("
+            + "COALESCE((SELECT MAX(c.changeSequence) FROM Contact c WHERE c.user.userId = :userId), 0), "
+            + "COALESCE((SELECT MAX(t.changeSequence) FROM ContactTombstone t WHERE t.userId = :userId), 0))")
+    long findHighestIssuedSequence(@Param("userId") Long userId);
+}
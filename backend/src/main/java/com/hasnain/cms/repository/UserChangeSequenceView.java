@@ -0,0 +1,7 @@
+package com.hasnain.cms.repository;
+
+public interface UserChangeSequenceView {
+
+    Long getUserId();
+    long getChangeSequence();
+}
@@ -2,12 +2,33 @@ package com.hasnain.cms.repository;
 
 
 import com.hasnain.cms.entity.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    // Every authenticated request resolves its user through one of these, so the id they map to is cached.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findByEmail(String email);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findByPhone(String phone);
+
+    // Locks the user's row until commit. Reading under a lock changes nothing, so the cached user stays cached.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<User> findLockedByUserId(Long userId);
+
+    // Users without a sequence row fall back as in UserChangeSequenceRepository.findHighestIssuedSequence.
+    @Query("SELECT u.userId AS userId, COALESCE(s.changeSequence, GREATEST("
+            + "COALESCE((SELECT MAX(c.changeSequence) FROM Contact c WHERE c.user.userId = u.userId), 0), "
+            + "COALESCE((SELECT MAX(t.changeSequence) FROM ContactTombstone t WHERE t.userId = u.userId), 0))) "
+            + "AS changeSequence FROM User u LEFT JOIN UserChangeSequence s ON s.userId = u.userId")
+    List<UserChangeSequenceView> findAllChangeSequences();
 }
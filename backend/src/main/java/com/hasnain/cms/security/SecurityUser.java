@@ -4,20 +4,24 @@ import com.hasnain.cms.entity.User;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 
 @Getter
 @AllArgsConstructor
 public class SecurityUser implements UserDetails {
 
+    public static final String ADMIN = "ADMIN";
+
     private final User user;
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return Collections.emptyList();
+        return user.isAdmin() ? List.of(new SimpleGrantedAuthority(ADMIN)) : Collections.emptyList();
     }
 
     @Override
@@ -0,0 +1,335 @@
+package com.hasnain.cms.service;
+
+import com.hasnain.cms.dto.ContactBulkOperationDTO;
+import com.hasnain.cms.dto.ContactBulkRequestDTO;
+import com.hasnain.cms.dto.ContactBulkResponseDTO;
+import com.hasnain.cms.dto.ContactBulkResultDTO;
+import com.hasnain.cms.dto.ContactDTO;
+import com.hasnain.cms.entity.User;
+import com.hasnain.cms.exception.DuplicateContactException;
+import com.hasnain.cms.exception.ResourceNotFoundException;
+import com.hasnain.cms.repository.ContactNameView;
+import com.hasnain.cms.repository.ContactRepository;
+import com.hasnain.cms.security.SecurityUser;
+import com.hasnain.cms.service.ContactBulkWriter.PlannedOperation;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Runs a batch of contact creates, updates and deletes for one user. Every operation is validated before anything is
+ * written: ownership of the targeted ids is resolved with one query and duplicate names for the whole batch with
+ * another. The remaining operations are then written in chunks by {@link ContactBulkWriter}. In best-effort mode, a
+ * failed write may leave a name in place that later operations were validated as free to take, so the operations
+ * still to be written are checked again against the database after every failure.
+ */
+@Slf4j
+@Service
+public class ContactBulkService {
+
+    private record NameKey(String firstName, String lastName) {
+
+        static NameKey of(String firstName, String lastName) {
+            return new NameKey(firstName == null ? null : firstName.toLowerCase(Locale.ROOT),
+                    lastName == null ? null : lastName.toLowerCase(Locale.ROOT));
+        }
+    }
+
+    private static final String ABORTED = "Not applied because another operation in this atomic batch failed.";
+
+    private final ContactRepository contactRepository;
+
+    private final ContactBulkWriter contactBulkWriter;
+
+    private final UserService userService;
+
+    private final Validator validator;
+
+    @Value("${contacts.bulk.chunk-size:100}")
+    private int chunkSize;
+
+    public ContactBulkService(ContactRepository contactRepository, ContactBulkWriter contactBulkWriter,
+                              UserService userService, Validator validator) {
+        this.contactRepository = contactRepository;
+        this.contactBulkWriter = contactBulkWriter;
+        this.userService = userService;
+        this.validator = validator;
+    }
+
+    public ContactBulkResponseDTO applyBulk(String identifier, ContactBulkRequestDTO request) {
+
+        List<ContactBulkOperationDTO> operations = request.getOperations();
+        log.info("User '{}' submitting {} bulk contact operations in {} mode.", identifier, operations.size(),
+                request.getMode());
+        UserDetails userDetails = userService.loadUserByUsername(identifier);
+        User user = ((SecurityUser) userDetails).getUser();
+
+        ContactBulkResultDTO[] results = new ContactBulkResultDTO[operations.size()];
+        validateOperations(operations, results);
+        resolveOwnershipAndNames(user, operations, results);
+
+        List<PlannedOperation> planned = new ArrayList<>();
+        for (int index = 0; index < operations.size(); index++) {
+            if (results[index] == null) {
+                planned.add(new PlannedOperation(index, operations.get(index)));
+            }
+        }
+
+        if (request.getMode() == ContactBulkRequestDTO.Mode.ATOMIC) {
+            if (planned.size() < operations.size()) {
+                log.warn("Bulk request rejected for user '{}': {} of {} operations failed validation.", identifier,
+                        operations.size() - planned.size(), operations.size());
+                planned.forEach(item -> results[item.index()] = failed(item, HttpStatus.FAILED_DEPENDENCY, ABORTED));
+            } else {
+                writeAtomically(user, planned, results);
+            }
+        } else {
+            writeBestEffort(user, operations, planned, results);
+        }
+
+        ContactBulkResponseDTO response = toResponse(request.getMode(), results);
+        log.info("Bulk request for user '{}' finished: {} succeeded, {} failed.", identifier,
+                response.getSucceeded(), response.getFailed());
+        return response;
+    }
+
+    private void validateOperations(List<ContactBulkOperationDTO> operations, ContactBulkResultDTO[] results) {
+
+        Set<Long> seenIds = new HashSet<>();
+        for (int index = 0; index < operations.size(); index++) {
+            ContactBulkOperationDTO operation = operations.get(index);
+            String error = validateOperation(operation);
+            if (error == null && operation.getId() != null && operation.getType() != ContactBulkOperationDTO.Type.CREATE
+                    && !seenIds.add(operation.getId())) {
+                error = "Contact ID appears in more than one operation of this batch.";
+            }
+            if (error != null) {
+                results[index] = new ContactBulkResultDTO(index, operation == null ? null : operation.getType(),
+                        operation == null ? null : operation.getId(), HttpStatus.BAD_REQUEST.value(), error, null);
+            }
+        }
+    }
+
+    private String validateOperation(ContactBulkOperationDTO operation) {
+
+        if (operation == null || operation.getType() == null) {
+            return "Operation type is required.";
+        }
+        if (operation.getType() != ContactBulkOperationDTO.Type.CREATE && operation.getId() == null) {
+            return "Contact ID is required for " + operation.getType() + " operations.";
+        }
+        if (operation.getType() == ContactBulkOperationDTO.Type.DELETE) {
+            return null;
+        }
+
+        ContactDTO contact = operation.getContact();
+        if (contact == null) {
+            return "Contact details are required for " + operation.getType() + " operations.";
+        }
+
+        Set<ConstraintViolation<ContactDTO>> violations = validator.validate(contact);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .collect(Collectors.joining("; "));
+        }
+
+        if (contact.getEmails() == null) {
+            contact.setEmails(new ArrayList<>());
+        }
+        if (contact.getPhones() == null) {
+            contact.setPhones(new ArrayList<>());
+        }
+        if (contact.getEmails().isEmpty() && contact.getPhones().isEmpty()) {
+            return "A contact must have at least one email or one phone number.";
+        }
+        return null;
+    }
+
+    private void resolveOwnershipAndNames(User user, List<ContactBulkOperationDTO> operations,
+                                          ContactBulkResultDTO[] results) {
+
+        Set<Long> targetIds = new HashSet<>();
+        Set<String> firstNames = new HashSet<>();
+        for (int index = 0; index < operations.size(); index++) {
+            if (results[index] == null) {
+                ContactBulkOperationDTO operation = operations.get(index);
+                if (operation.getType() != ContactBulkOperationDTO.Type.CREATE) {
+                    targetIds.add(operation.getId());
+                }
+                if (operation.getType() != ContactBulkOperationDTO.Type.DELETE) {
+                    firstNames.add(operation.getContact().getFirstName());
+                }
+            }
+        }
+
+        Map<Long, NameKey> ownedNames = new HashMap<>();
+        if (!targetIds.isEmpty()) {
+            contactRepository.findNamesByIdInAndUserId(targetIds, user.getUserId())
+                    .forEach(view -> ownedNames.put(view.getId(), NameKey.of(view.getFirstName(), view.getLastName())));
+        }
+
+        Map<NameKey, Long> takenNames = new HashMap<>();
+        if (!firstNames.isEmpty()) {
+            for (ContactNameView view : contactRepository.findNamesByFirstNameInAndUserId(firstNames,
+                    user.getUserId())) {
+                takenNames.put(NameKey.of(view.getFirstName(), view.getLastName()), view.getId());
+            }
+        }
+
+        // Replay the batch in order so a name freed by an earlier delete or rename can be reused later in it.
+        for (int index = 0; index < operations.size(); index++) {
+            if (results[index] != null) {
+                continue;
+            }
+            ContactBulkOperationDTO operation = operations.get(index);
+            Long id = operation.getId();
+
+            if (operation.getType() != ContactBulkOperationDTO.Type.CREATE && !ownedNames.containsKey(id)) {
+                results[index] = new ContactBulkResultDTO(index, operation.getType(), id,
+                        HttpStatus.NOT_FOUND.value(), "Contact not found", null);
+                continue;
+            }
+
+            if (operation.getType() == ContactBulkOperationDTO.Type.DELETE) {
+                takenNames.remove(ownedNames.get(id), id);
+                continue;
+            }
+
+            NameKey name = NameKey.of(operation.getContact().getFirstName(), operation.getContact().getLastName());
+            Long holder = takenNames.get(name);
+            if (holder != null && !holder.equals(id)) {
+                results[index] = new ContactBulkResultDTO(index, operation.getType(), id,
+                        HttpStatus.CONFLICT.value(), "A contact with this name already exists for your account.", null);
+                continue;
+            }
+
+            if (operation.getType() == ContactBulkOperationDTO.Type.UPDATE) {
+                takenNames.remove(ownedNames.get(id), id);
+            }
+            // New contacts have no id yet, so any non-null placeholder marks the name as taken.
+            takenNames.put(name, id == null ? -1L - index : id);
+        }
+    }
+
+    private void writeAtomically(User user, List<PlannedOperation> planned, ContactBulkResultDTO[] results) {
+
+        try {
+            contactBulkWriter.writeAll(user, chunk(planned)).forEach(result -> results[result.getIndex()] = result);
+        } catch (RuntimeException exception) {
+            log.error("Atomic bulk write rolled back for user ID {}: {}", user.getUserId(), exception.getMessage());
+            String error = "Batch was rolled back: " + describe(exception);
+            planned.forEach(item -> results[item.index()] = failed(item, HttpStatus.FAILED_DEPENDENCY, error));
+        }
+    }
+
+    private void writeBestEffort(User user, List<ContactBulkOperationDTO> operations,
+                                 List<PlannedOperation> planned, ContactBulkResultDTO[] results) {
+
+        List<PlannedOperation> remaining = planned;
+        while (!remaining.isEmpty()) {
+            int size = Math.min(Math.max(1, chunkSize), remaining.size());
+            List<PlannedOperation> chunk = remaining.subList(0, size);
+            remaining = remaining.subList(size, remaining.size());
+            try {
+                contactBulkWriter.writeChunk(user, chunk).forEach(result -> results[result.getIndex()] = result);
+            } catch (RuntimeException chunkException) {
+                log.warn("Bulk chunk of {} operations failed for user ID {}, retrying them one by one: {}",
+                        chunk.size(), user.getUserId(), chunkException.getMessage());
+                if (!writeOneByOne(user, operations, chunk, results)) {
+                    remaining = unwritten(remaining, results);
+                }
+            }
+        }
+    }
+
+    // Returns false if an operation failed, after taking every operation that no longer passes the checks out.
+    private boolean writeOneByOne(User user, List<ContactBulkOperationDTO> operations, List<PlannedOperation> chunk,
+                                  ContactBulkResultDTO[] results) {
+
+        boolean allWritten = true;
+        for (PlannedOperation item : chunk) {
+            if (results[item.index()] != null) {
+                continue;
+            }
+            try {
+                results[item.index()] = contactBulkWriter.writeChunk(user, List.of(item)).get(0);
+            } catch (RuntimeException exception) {
+                results[item.index()] = failed(item, statusOf(exception), describe(exception));
+                recheckPending(user, operations, results);
+                allWritten = false;
+            }
+        }
+        return allWritten;
+    }
+
+    // Replays the ownership and name checks for every operation not written yet, against what the database holds now.
+    private void recheckPending(User user, List<ContactBulkOperationDTO> operations, ContactBulkResultDTO[] results) {
+
+        ContactBulkResultDTO[] checked = results.clone();
+        resolveOwnershipAndNames(user, operations, checked);
+        for (int index = 0; index < results.length; index++) {
+            if (results[index] == null && checked[index] != null) {
+                results[index] = checked[index];
+            }
+        }
+    }
+
+    private static List<PlannedOperation> unwritten(List<PlannedOperation> planned, ContactBulkResultDTO[] results) {
+        return planned.stream().filter(item -> results[item.index()] == null).toList();
+    }
+
+    private List<List<PlannedOperation>> chunk(List<PlannedOperation> planned) {
+
+        int size = Math.max(1, chunkSize);
+        List<List<PlannedOperation>> chunks = new ArrayList<>();
+        for (int start = 0; start < planned.size(); start += size) {
+            chunks.add(planned.subList(start, Math.min(start + size, planned.size())));
+        }
+        return chunks;
+    }
+
+    private static ContactBulkResultDTO failed(PlannedOperation item, HttpStatus status, String error) {
+        return new ContactBulkResultDTO(item.index(), item.operation().getType(), item.operation().getId(),
+                status.value(), error, null);
+    }
+
+    private static HttpStatus statusOf(RuntimeException exception) {
+
+        if (exception instanceof ResourceNotFoundException) {
+            return HttpStatus.NOT_FOUND;
+        }
+        if (exception instanceof DuplicateContactException) {
+            return HttpStatus.CONFLICT;
+        }
+        return HttpStatus.INTERNAL_SERVER_ERROR;
+    }
+
+    private static String describe(RuntimeException exception) {
+        return statusOf(exception) == HttpStatus.INTERNAL_SERVER_ERROR
+                ? "An unexpected server error occurred."
+                : exception.getMessage();
+    }
+
+    private static ContactBulkResponseDTO toResponse(ContactBulkRequestDTO.Mode mode, ContactBulkResultDTO[] results) {
+
+        int succeeded = (int) Arrays.stream(results).filter(result -> result.getStatus() < 300).count();
+        return new ContactBulkResponseDTO(mode, succeeded, results.length - succeeded, Arrays.asList(results));
+    }
+}
@@ -0,0 +1,182 @@
+package com.hasnain.cms.service;
+
+import com.hasnain.cms.dto.ContactBulkOperationDTO;
+import com.hasnain.cms.dto.ContactBulkResultDTO;
+import com.hasnain.cms.dto.ContactDTO;
+import com.hasnain.cms.entity.Contact;
+import com.hasnain.cms.entity.User;
+import com.hasnain.cms.event.ContactChangedEvent;
+import com.hasnain.cms.exception.ResourceNotFoundException;
+import com.hasnain.cms.mapper.ContactMapper;
+import com.hasnain.cms.repository.ContactRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies pre-validated bulk operations one chunk at a time. Each chunk issues one query to load the contacts it
+ * updates, one bulk delete, and a single flush so Hibernate can send the writes as JDBC batches.
+ */
+@Slf4j
+@Service
+public class ContactBulkWriter {
+
+    record PlannedOperation(int index, ContactBulkOperationDTO operation) {
+    }
+
+    private final ContactRepository contactRepository;
+
+    private final ContactSyncService contactSyncService;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ContactBulkWriter(ContactRepository contactRepository, ContactSyncService contactSyncService,
+                             ApplicationEventPublisher eventPublisher) {
+        this.contactRepository = contactRepository;
+        this.contactSyncService = contactSyncService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Transactional
+    public List<ContactBulkResultDTO> writeAll(User user, List<List<PlannedOperation>> chunks) {
+
+        List<ContactBulkResultDTO> results = new ArrayList<>();
+        for (List<PlannedOperation> chunk : chunks) {
+            results.addAll(write(user, chunk));
+        }
+        return results;
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<ContactBulkResultDTO> writeChunk(User user, List<PlannedOperation> chunk) {
+        return write(user, chunk);
+    }
+
+    private List<ContactBulkResultDTO> write(User user, List<PlannedOperation> chunk) {
+
+        List<PlannedOperation> creates = new ArrayList<>();
+        Map<Long, PlannedOperation> updates = new LinkedHashMap<>();
+        Map<Long, PlannedOperation> deletes = new LinkedHashMap<>();
+
+        for (PlannedOperation planned : chunk) {
+            ContactBulkOperationDTO operation = planned.operation();
+            switch (operation.getType()) {
+                case CREATE -> creates.add(planned);
+                case UPDATE -> updates.put(operation.getId(), planned);
+                case DELETE -> deletes.put(operation.getId(), planned);
+            }
+        }
+
+        Map<Integer, Contact> written = new HashMap<>();
+        long sequence = contactSyncService.reserveSequences(user.getUserId(), chunk.size());
+
+        List<Contact> newContacts = new ArrayList<>(creates.size());
+        for (PlannedOperation planned : creates) {
+            Contact contact = ContactMapper.toEntity(planned.operation().getContact());
+            contact.setId(null);
+            contact.setUser(user);
+            contact.setChangeSequence(sequence);
+            contact.setCreatedSequence(sequence++);
+            contact.getEmails().forEach(email -> {
+                email.setId(null);
+                email.setContact(contact);
+            });
+            contact.getPhones().forEach(phone -> {
+                phone.setId(null);
+                phone.setContact(contact);
+            });
+            newContacts.add(contact);
+            written.put(planned.index(), contact);
+        }
+        contactRepository.saveAll(newContacts);
+
+        if (!updates.isEmpty()) {
+            Map<Long, Contact> existingContacts = contactRepository
+                    .findAllByIdInAndUserId(updates.keySet(), user.getUserId())
+                    .stream()
+                    .collect(Collectors.toMap(Contact::getId, Function.identity()));
+
+            List<Contact> changedContacts = new ArrayList<>(updates.size());
+            for (PlannedOperation planned : updates.values()) {
+                Contact contact = existingContacts.get(planned.operation().getId());
+                if (contact == null) {
+                    log.warn("Bulk update failed: Contact ID {} no longer exists for user ID {}.",
+                            planned.operation().getId(), user.getUserId());
+                    throw new ResourceNotFoundException("Contact not found");
+                }
+                ContactService.applyChanges(contact, planned.operation().getContact());
+                contact.setChangeSequence(sequence++);
+                changedContacts.add(contact);
+            }
+
+            List<Contact> savedContacts = contactRepository.saveAll(changedContacts);
+            int position = 0;
+            for (PlannedOperation planned : updates.values()) {
+                written.put(planned.index(), savedContacts.get(position++));
+            }
+        }
+
+        if (!deletes.isEmpty()
+                && contactRepository.deleteAllByIdInAndUserId(deletes.keySet(), user.getUserId()) != deletes.size()) {
+            log.warn("Bulk delete failed: Some of contact IDs {} no longer exist for user ID {}.",
+                    deletes.keySet(), user.getUserId());
+            throw new ResourceNotFoundException("Contact not found");
+        }
+        Map<Long, Long> deleteSequences = new HashMap<>();
+        if (!deletes.isEmpty()) {
+            contactSyncService.recordDeletions(user.getUserId(), deletes.keySet(), sequence);
+            for (Long id : deletes.keySet()) {
+                deleteSequences.put(id, sequence++);
+            }
+        }
+
+        contactRepository.flush();
+
+        List<ContactBulkResultDTO> results = new ArrayList<>(chunk.size());
+        List<ContactChangedEvent> events = new ArrayList<>(chunk.size());
+        for (PlannedOperation planned : chunk) {
+            ContactBulkOperationDTO operation = planned.operation();
+            switch (operation.getType()) {
+                case CREATE -> {
+                    Contact contact = written.get(planned.index());
+                    ContactDTO contactDTO = ContactMapper.toDTO(contact);
+                    results.add(new ContactBulkResultDTO(planned.index(), operation.getType(), contact.getId(),
+                            HttpStatus.CREATED.value(), null, contactDTO));
+                    events.add(ContactChangedEvent.created(user.getUserId(), contact.getChangeSequence(),
+                            contactDTO));
+                }
+                case UPDATE -> {
+                    Contact contact = written.get(planned.index());
+                    ContactDTO contactDTO = ContactMapper.toDTO(contact);
+                    results.add(new ContactBulkResultDTO(planned.index(), operation.getType(), operation.getId(),
+                            HttpStatus.OK.value(), null, contactDTO));
+                    events.add(ContactChangedEvent.updated(user.getUserId(), contact.getChangeSequence(),
+                            contactDTO));
+                }
+                case DELETE -> {
+                    results.add(new ContactBulkResultDTO(planned.index(), operation.getType(), operation.getId(),
+                            HttpStatus.OK.value(), null, null));
+                    events.add(ContactChangedEvent.deleted(user.getUserId(), deleteSequences.get(operation.getId()),
+                            operation.getId()));
+                }
+            }
+        }
+
+        // Listeners such as the change stream rely on seeing each user's changes in sequence order.
+        events.sort(Comparator.comparingLong(ContactChangedEvent::sequence));
+        events.forEach(eventPublisher::publishEvent);
+        return results;
+    }
+}
@@ -0,0 +1,482 @@
+package com.hasnain.cms.service;
+
+import com.hasnain.cms.config.ReadYourWrites;
+import com.hasnain.cms.dto.ContactChangeDTO;
+import com.hasnain.cms.dto.ContactChangesResponseDTO;
+import com.hasnain.cms.entity.User;
+import com.hasnain.cms.event.ContactChangedEvent;
+import com.hasnain.cms.exception.InvalidSyncCursorException;
+import com.hasnain.cms.exception.SyncCursorExpiredException;
+import com.hasnain.cms.exception.RequestLimitExceededException;
+import com.hasnain.cms.security.SecurityUser;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes each user's committed contact changes to their open Server-Sent Events connections.
+ * <p>
+ * Connections use async servlet requests, so an idle one holds no thread. Publishing only puts the change on each
+ * connection's bounded buffer; dispatcher threads do the writes, one connection at a time. A connection whose buffer
+ * fills up is closed, and the client reconnects with {@code Last-Event-ID}. Event ids are change sequence numbers. A
+ * connection that resumes, or that sees a gap in the sequence, catches up from {@link ContactSyncService#getChanges}
+ * before sending anything newer; those queries run on their own small pool, and the connection's buffer keeps filling
+ * while one is out. They read from the primary, as a replica may not have the changes the stream was sent yet. A
+ * connection too far behind to catch up, or whose cursor is older than the retained tombstones, is sent a
+ * {@code resync} event and closed.
+ * <p>
+ * Servlet writes block while the client is not reading. The dispatcher pool keeps {@code dispatcher-threads} threads
+ * and starts more while those are stuck, so one stalled client never holds up another. A write that takes longer than
+ * {@code write-timeout-ms} closes its connection as a slow consumer; the thread it is stuck on comes back when the
+ * server's socket timeout fails the write.
+ */
+@Slf4j
+@Service
+public class ContactChangeStreamService {
+
+    private static final Object HEARTBEAT = new Object();
+
+    private static final String CHANGE_EVENT = "contact-change";
+
+    private static final String RESYNC_EVENT = "resync";
+
+    private final ContactSyncService contactSyncService;
+
+    private final UserService userService;
+
+    private final Map<Long, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+
+    private final AtomicInteger openConnections = new AtomicInteger();
+
+    private final AtomicLong droppedConnections = new AtomicLong();
+
+    private final ExecutorService dispatcher;
+
+    private final ExecutorService catchUpExecutor;
+
+    private final ScheduledExecutorService heartbeatScheduler;
+
+    private final long timeoutMs;
+
+    private final long writeTimeoutNanos;
+
+    private final int bufferSize;
+
+    private final int maxConnectionsPerUser;
+
+    private final int maxReplay;
+
+    public ContactChangeStreamService(ContactSyncService contactSyncService, UserService userService,
+                                      @Value("${contacts.stream.timeout-ms:1800000}") long timeoutMs,
+                                      @Value("${contacts.stream.heartbeat-interval-ms:20000}") long heartbeatIntervalMs,
+                                      @Value("${contacts.stream.buffer-size:256}") int bufferSize,
+                                      @Value("${contacts.stream.max-connections-per-user:10}") int maxConnectionsPerUser,
+                                      @Value("${contacts.stream.max-replay:1000}") int maxReplay,
+                                      @Value("${contacts.stream.dispatcher-threads:4}") int dispatcherThreads,
+                                      @Value("${contacts.stream.write-timeout-ms:5000}") long writeTimeoutMs,
+                                      @Value("${contacts.stream.catch-up-threads:2}") int catchUpThreads) {
+        this.contactSyncService = contactSyncService;
+        this.userService = userService;
+        this.timeoutMs = timeoutMs;
+        this.writeTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(writeTimeoutMs);
+        this.bufferSize = bufferSize;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+        this.maxReplay = maxReplay;
+        this.dispatcher = new ThreadPoolExecutor(dispatcherThreads, Integer.MAX_VALUE, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), daemonThreads("contact-stream-"));
+        this.catchUpExecutor = Executors.newFixedThreadPool(catchUpThreads, daemonThreads("contact-stream-catch-up-"));
+        this.heartbeatScheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("contact-stream-heartbeat-"));
+        heartbeatScheduler.scheduleAtFixedRate(this::sendHeartbeats, heartbeatIntervalMs, heartbeatIntervalMs,
+                TimeUnit.MILLISECONDS);
+        long checkIntervalMs = Math.max(writeTimeoutMs / 2, 10);
+        heartbeatScheduler.scheduleAtFixedRate(this::closeStalledStreams, checkIntervalMs, checkIntervalMs,
+                TimeUnit.MILLISECONDS);
+    }
+
+    public SseEmitter subscribe(String identifier, String lastEventId) {
+
+        UserDetails userDetails = userService.loadUserByUsername(identifier);
+        User user = ((SecurityUser) userDetails).getUser();
+        long currentSequence = contactSyncService.currentSequence(user.getUserId());
+        long resumeFrom = lastEventId == null || lastEventId.isBlank()
+                ? currentSequence : parseEventId(lastEventId);
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscription subscription = new Subscription(user.getUserId(), identifier, emitter, resumeFrom,
+                resumeFrom < currentSequence);
+        subscriptions.compute(user.getUserId(), (userId, userSubscriptions) -> {
+            Set<Subscription> current = userSubscriptions != null ? userSubscriptions : ConcurrentHashMap.newKeySet();
+            if (current.size() >= maxConnectionsPerUser) {
+                log.warn("Change stream refused for user '{}': {} streams already open.", identifier, current.size());
+                throw new RequestLimitExceededException(
+                        "No more than " + maxConnectionsPerUser + " change streams can be open per account.");
+            }
+            current.add(subscription);
+            return current;
+        });
+        openConnections.incrementAndGet();
+        emitter.onCompletion(subscription::release);
+        emitter.onTimeout(subscription::release);
+        emitter.onError(error -> subscription.release());
+
+        log.info("User '{}' opened a change stream from sequence {} ({} streams open).", identifier, resumeFrom,
+                openConnections.get());
+        subscription.enqueue(HEARTBEAT);
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContactChanged(ContactChangedEvent event) {
+
+        Set<Subscription> userSubscriptions = subscriptions.get(event.userId());
+        if (userSubscriptions != null) {
+            userSubscriptions.forEach(subscription -> subscription.enqueue(event));
+        }
+    }
+
+    public int openConnectionCount() {
+        return openConnections.get();
+    }
+
+    public long droppedConnectionCount() {
+        return droppedConnections.get();
+    }
+
+    private void sendHeartbeats() {
+        subscriptions.values().forEach(userSubscriptions ->
+                userSubscriptions.forEach(subscription -> subscription.enqueue(HEARTBEAT)));
+    }
+
+    private void closeStalledStreams() {
+
+        long now = System.nanoTime();
+        subscriptions.values().forEach(userSubscriptions ->
+                userSubscriptions.forEach(subscription -> subscription.closeIfStalled(now)));
+    }
+
+    private static long parseEventId(String lastEventId) {
+        try {
+            long sequence = Long.parseLong(lastEventId.trim());
+            if (sequence >= 0) {
+                return sequence;
+            }
+        } catch (NumberFormatException exception) {
+            // fall through to the error below
+        }
+        throw new InvalidSyncCursorException("Invalid Last-Event-ID: " + lastEventId);
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeatScheduler.shutdownNow();
+        catchUpExecutor.shutdownNow();
+        dispatcher.shutdownNow();
+        subscriptions.values().forEach(userSubscriptions -> userSubscriptions.forEach(Subscription::close));
+    }
+
+    private final class Subscription {
+
+        private final Long userId;
+
+        private final String identifier;
+
+        private final SseEmitter emitter;
+
+        private final BlockingQueue<Object> buffer;
+
+        // Held by whichever task owns the subscription: a drain, or a catch-up query and the drain it hands back to.
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        private volatile boolean closed;
+
+        // When the write in progress started, 0 between writes.
+        private volatile long writeStartedNanos;
+
+        // Only touched by the task holding draining, and handed between tasks through the executors.
+        private long lastSequence;
+
+        private boolean catchUpPending;
+
+        // The newest live event a catch-up has already run for; sent even if the catch-up did not reach it.
+        private long caughtUpTo;
+
+        private ContactChangesResponseDTO replay;
+
+        // Where the next page of a catch-up starts, while it has more.
+        private String replayCursor;
+
+        private int replayed;
+
+        // Set when the catch-up cursor has expired; the client has to sync again from this cursor.
+        private String resyncCursor;
+
+        Subscription(Long userId, String identifier, SseEmitter emitter, long lastSequence, boolean catchUpPending) {
+            this.userId = userId;
+            this.identifier = identifier;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+            this.lastSequence = lastSequence;
+            this.catchUpPending = catchUpPending;
+        }
+
+        void enqueue(Object item) {
+
+            if (closed) {
+                return;
+            }
+            if (!buffer.offer(item)) {
+                droppedConnections.incrementAndGet();
+                log.warn("Closing change stream of user '{}': client fell {} events behind.", identifier,
+                        bufferSize);
+                close();
+                return;
+            }
+            schedule();
+        }
+
+        void closeIfStalled(long now) {
+
+            long started = writeStartedNanos;
+            if (started != 0 && !closed && now - started > writeTimeoutNanos) {
+                droppedConnections.incrementAndGet();
+                log.warn("Closing change stream of user '{}': a write has not completed in {} ms.", identifier,
+                        TimeUnit.NANOSECONDS.toMillis(writeTimeoutNanos));
+                close();
+            }
+        }
+
+        private void schedule() {
+
+            if (!closed && draining.compareAndSet(false, true)) {
+                resume();
+            }
+        }
+
+        private void resume() {
+
+            try {
+                dispatcher.execute(this::drain);
+            } catch (RejectedExecutionException exception) {
+                draining.set(false);
+            }
+        }
+
+        private void drain() {
+
+            boolean handedOff = false;
+            try {
+                handedOff = drainBuffer();
+            } catch (IOException | RuntimeException exception) {
+                log.debug("Change stream of user '{}' closed: {}", identifier, exception.getMessage());
+                close();
+            } finally {
+                if (!handedOff) {
+                    settle();
+                }
+            }
+        }
+
+        // Returns true once a catch-up query has taken the subscription over.
+        private boolean drainBuffer() throws IOException {
+
+            while (!closed) {
+                if (resyncCursor != null) {
+                    resync(resyncCursor);
+                    return false;
+                }
+                if (replay != null) {
+                    sendReplay();
+                    continue;
+                }
+                if (catchUpPending) {
+                    return startCatchUp();
+                }
+                Object item = buffer.peek();
+                if (item == null) {
+                    return false;
+                }
+                if (item == HEARTBEAT) {
+                    write(SseEmitter.event().comment("heartbeat"));
+                } else {
+                    ContactChangedEvent event = (ContactChangedEvent) item;
+                    if (event.sequence() > lastSequence + 1 && event.sequence() > caughtUpTo) {
+                        // Missed or reordered changes: read them from the database in order instead.
+                        caughtUpTo = event.sequence();
+                        catchUpPending = true;
+                        continue;
+                    }
+                    if (event.sequence() > lastSequence) {
+                        send(new ContactChangeDTO(event.sequence(), event.type(), event.contactId(),
+                                event.contact()));
+                    }
+                }
+                buffer.poll();
+            }
+            return false;
+        }
+
+        private boolean startCatchUp() throws IOException {
+
+            catchUpPending = false;
+            String cursor = replayCursor != null ? replayCursor : Long.toString(lastSequence);
+            replayCursor = null;
+            if (replayed >= maxReplay) {
+                log.info("Change stream of user '{}' is too far behind to replay, asking client to resync.",
+                        identifier);
+                resync(cursor);
+                return false;
+            }
+            try {
+                catchUpExecutor.execute(() -> fetch(cursor));
+                return true;
+            } catch (RejectedExecutionException exception) {
+                close();
+                return false;
+            }
+        }
+
+        private void fetch(String cursor) {
+
+            try (ReadYourWrites.Scope ignored = ReadYourWrites.onPrimary()) {
+                replay = contactSyncService.getChanges(identifier, cursor, maxReplay - replayed);
+            } catch (SyncCursorExpiredException exception) {
+                log.info("Change stream of user '{}' is older than the retained changes, asking client to resync.",
+                        identifier);
+                resyncCursor = "0";
+            } catch (RuntimeException exception) {
+                log.debug("Change stream of user '{}' closed: {}", identifier, exception.getMessage());
+                close();
+                settle();
+                return;
+            }
+            resume();
+        }
+
+        private void resync(String cursor) throws IOException {
+            write(SseEmitter.event().name(RESYNC_EVENT).data(cursor));
+            close();
+        }
+
+        // Sends the page a catch-up read, and asks for the next one if there is more.
+        private void sendReplay() throws IOException {
+
+            ContactChangesResponseDTO page = replay;
+            replay = null;
+            for (ContactChangeDTO change : page.getChanges()) {
+                send(change);
+            }
+            replayed += page.getChanges().size();
+            String cursor = page.getCursor();
+            if (cursor.indexOf('.') < 0) {
+                lastSequence = Math.max(lastSequence, Long.parseLong(cursor));
+            }
+            if (page.isHasMore()) {
+                replayCursor = cursor;
+                catchUpPending = true;
+            } else {
+                replayed = 0;
+            }
+        }
+
+        private void send(ContactChangeDTO change) throws IOException {
+            write(SseEmitter.event()
+                    .id(Long.toString(change.getSequence()))
+                    .name(CHANGE_EVENT)
+                    .data(change, MediaType.APPLICATION_JSON));
+            lastSequence = Math.max(lastSequence, change.getSequence());
+        }
+
+        private void write(SseEmitter.SseEventBuilder event) throws IOException {
+
+            writeStartedNanos = System.nanoTime();
+            try {
+                emitter.send(event);
+            } finally {
+                writeStartedNanos = 0;
+            }
+        }
+
+        // Gives up ownership; the emitter of a closed subscription is completed by whoever owns it last, so that
+        // closing never waits on a write that is stuck.
+        private void settle() {
+
+            draining.set(false);
+            if (closed) {
+                complete();
+            } else if (!buffer.isEmpty()) {
+                schedule();
+            }
+        }
+
+        void close() {
+
+            if (!closed) {
+                closed = true;
+                buffer.clear();
+                release();
+            }
+            if (!draining.get()) {
+                complete();
+            }
+        }
+
+        private void complete() {
+
+            if (completed.compareAndSet(false, true)) {
+                try {
+                    emitter.complete();
+                } catch (RuntimeException exception) {
+                    log.debug("Change stream of user '{}' was already closed.", identifier);
+                }
+            }
+        }
+
+        void release() {
+
+            closed = true;
+            if (released.compareAndSet(false, true)) {
+                subscriptions.computeIfPresent(userId, (key, userSubscriptions) -> {
+                    userSubscriptions.remove(this);
+                    return userSubscriptions.isEmpty() ? null : userSubscriptions;
+                });
+                openConnections.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.hasnain.cms.service;
+
+import com.hasnain.cms.dto.ContactDuplicateGroupDTO;
+import com.hasnain.cms.dto.ContactDuplicateGroupDTO.Match;
+import com.hasnain.cms.entity.Contact;
+import com.hasnain.cms.entity.ContactEmail;
+import com.hasnain.cms.entity.ContactPhone;
+import com.hasnain.cms.mapper.ContactMapper;
+import com.hasnain.cms.repository.ContactRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Groups a user's contacts into clusters of likely duplicates.
+ * <p>
+ * Each contact is reduced to blocking keys: its phone numbers as digits, its emails in lower case and its name tokens
+ * in sorted order. Contacts sharing any key are unioned, so clustering is one pass over the keys in a hash map instead
+ * of a comparison of every pair.
+ */
+@Slf4j
+@Service
+public class ContactDuplicateFinder {
+
+    // Long enough to ignore extensions and short codes, short enough to match local and international formats.
+    private static final int MIN_PHONE_DIGITS = 7;
+
+    private static final int PHONE_KEY_DIGITS = 10;
+
+    record Cluster(List<Contact> contacts, EnumSet<Match> matchedOn) {
+    }
+
+    private final ContactRepository contactRepository;
+
+    public ContactDuplicateFinder(ContactRepository contactRepository) {
+        this.contactRepository = contactRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public List<ContactDuplicateGroupDTO> findDuplicates(Long userId) {
+
+        List<Contact> contacts = contactRepository.findAllWithEmailsByUserId(userId);
+        if (contacts.size() < 2) {
+            return List.of();
+        }
+        contactRepository.fetchPhones(contacts);
+
+        List<ContactDuplicateGroupDTO> groups = cluster(contacts).stream()
+                .map(cluster -> new ContactDuplicateGroupDTO(cluster.matchedOn(),
+                        cluster.contacts().stream().map(ContactMapper::toDTO).toList()))
+                .toList();
+        log.debug("Found {} duplicate groups among {} contacts of user ID {}.", groups.size(), contacts.size(),
+                userId);
+        return groups;
+    }
+
+    static List<Cluster> cluster(List<Contact> contacts) {
+
+        int[] parent = new int[contacts.size()];
+        Arrays.setAll(parent, index -> index);
+        List<EnumSet<Match>> matches = new ArrayList<>(contacts.size());
+        Map<String, Integer> firstWithKey = new HashMap<>(contacts.size() * 4);
+
+        for (int index = 0; index < contacts.size(); index++) {
+            Contact contact = contacts.get(index);
+            EnumSet<Match> matchedOn = EnumSet.noneOf(Match.class);
+            matches.add(matchedOn);
+
+            for (ContactPhone phone : contact.getPhones()) {
+                link(parent, firstWithKey, "p:", phoneKey(phone.getPhoneNumber()), index, Match.PHONE, matches);
+            }
+            for (ContactEmail email : contact.getEmails()) {
+                link(parent, firstWithKey, "e:", emailKey(email.getEmail()), index, Match.EMAIL, matches);
+            }
+            link(parent, firstWithKey, "n:", nameKey(contact.getFirstName(), contact.getLastName()), index,
+                    Match.NAME, matches);
+        }
+
+        Map<Integer, Cluster> clusters = new LinkedHashMap<>();
+        for (int index = 0; index < contacts.size(); index++) {
+            if (matches.get(index).isEmpty()) {
+                continue;
+            }
+            Cluster cluster = clusters.computeIfAbsent(find(parent, index),
+                    key -> new Cluster(new ArrayList<>(), EnumSet.noneOf(Match.class)));
+            cluster.contacts().add(contacts.get(index));
+            cluster.matchedOn().addAll(matches.get(index));
+        }
+
+        Comparator<Contact> byId = Comparator.comparing(Contact::getId,
+                Comparator.nullsLast(Comparator.naturalOrder()));
+        List<Cluster> result = new ArrayList<>(clusters.size());
+        for (Cluster cluster : clusters.values()) {
+            if (cluster.contacts().size() > 1) {
+                cluster.contacts().sort(byId);
+                result.add(cluster);
+            }
+        }
+        result.sort(Comparator.comparing(cluster -> cluster.contacts().get(0), byId));
+        return result;
+    }
+
+    private static void link(int[] parent, Map<String, Integer> firstWithKey, String prefix, String key, int index,
+                             Match match, List<EnumSet<Match>> matches) {
+
+        if (key == null) {
+            return;
+        }
+        Integer first = firstWithKey.putIfAbsent(prefix + key, index);
+        if (first != null && first != index) {
+            int left = find(parent, first);
+            int right = find(parent, index);
+            if (left != right) {
+                parent[Math.max(left, right)] = Math.min(left, right);
+            }
+            matches.get(index).add(match);
+            matches.get(first).add(match);
+        }
+    }
+
+    private static int find(int[] parent, int index) {
+
+        while (parent[index] != index) {
+            parent[index] = parent[parent[index]];
+            index = parent[index];
+        }
+        return index;
+    }
+
+    static String phoneKey(String phoneNumber) {
+
+        if (phoneNumber == null) {
+            return null;
+        }
+        StringBuilder digits = new StringBuilder(phoneNumber.length());
+        for (int i = 0; i < phoneNumber.length(); i++) {
+            char c = phoneNumber.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        if (digits.length() < MIN_PHONE_DIGITS) {
+            return null;
+        }
+        // Keep the subscriber part so "0312 3456789" and "+92 312 3456789" share a key.
+        return digits.length() > PHONE_KEY_DIGITS ? digits.substring(digits.length() - PHONE_KEY_DIGITS)
+                : digits.toString();
+    }
+
+    static String emailKey(String email) {
+
+        if (email == null) {
+            return null;
+        }
+        String key = email.trim().toLowerCase(Locale.ROOT);
+        return key.indexOf('@') > 0 ? key : null;
+    }
+
+    static String nameKey(String firstName, String lastName) {
+
+        String[] tokens = ((firstName == null ? "" : firstName) + " " + (lastName == null ? "" : lastName))
+                .toLowerCase(Locale.ROOT)
+                .split("[^\\p{L}\\p{N}]+");
+        List<String> words = new ArrayList<>(tokens.length);
+        for (String token : tokens) {
+            if (!token.isEmpty()) {
+                words.add(token);
+            }
+        }
+        // A lone first name is too common to flag contacts on its own.
+        if (words.size() < 2) {
+            return null;
+        }
+        words.sort(null);
+        return String.join(" ", words);
+    }
+}
@@ -0,0 +1,273 @@
+package com.hasnain.cms.service;
+
+import com.hasnain.cms.dto.ContactDTO;
+import com.hasnain.cms.dto.ContactDuplicateGroupDTO;
+import com.hasnain.cms.entity.Contact;
+import com.hasnain.cms.entity.ContactEmail;
+import com.hasnain.cms.entity.ContactPhone;
+import com.hasnain.cms.entity.User;
+import com.hasnain.cms.event.ContactChangedEvent;
+import com.hasnain.cms.exception.InvalidMergeRequestException;
+import com.hasnain.cms.exception.RequestLimitExceededException;
+import com.hasnain.cms.exception.ResourceNotFoundException;
+import com.hasnain.cms.mapper.ContactMapper;
+import com.hasnain.cms.repository.ContactRepository;
+import com.hasnain.cms.repository.UserChangeSequenceView;
+import com.hasnain.cms.repository.UserRepository;
+import com.hasnain.cms.security.SecurityUser;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Serves each user's duplicate contact groups and merges duplicates into one contact.
+ * <p>
+ * A background job rescans, in parallel, every user whose change sequence moved since their last scan, so most
+ * requests are answered from the stored result. A request that finds the stored result stale rescans that user
+ * inline.
+ */
+@Slf4j
+@Service
+public class ContactDuplicateService {
+
+    private record ScanResult(long sequence, List<ContactDuplicateGroupDTO> groups) {
+    }
+
+    private final ContactRepository contactRepository;
+
+    private final UserRepository userRepository;
+
+    private final UserService userService;
+
+    private final ContactSyncService contactSyncService;
+
+    private final ContactDuplicateFinder contactDuplicateFinder;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Map<Long, ScanResult> results = new ConcurrentHashMap<>();
+
+    private final ExecutorService scanPool;
+
+    private final ScheduledExecutorService scheduler;
+
+    @Value("${contacts.dedupe.max-merge-ids:100}")
+    private int maxMergeIds = 100;
+
+    public ContactDuplicateService(ContactRepository contactRepository, UserRepository userRepository,
+                                   UserService userService, ContactSyncService contactSyncService,
+                                   ContactDuplicateFinder contactDuplicateFinder,
+                                   ApplicationEventPublisher eventPublisher,
+                                   @Value("${contacts.dedupe.scan-interval-minutes:60}") long scanIntervalMinutes,
+                                   @Value("${contacts.dedupe.scan-threads:2}") int scanThreads) {
+        this.contactRepository = contactRepository;
+        this.userRepository = userRepository;
+        this.userService = userService;
+        this.contactSyncService = contactSyncService;
+        this.contactDuplicateFinder = contactDuplicateFinder;
+        this.eventPublisher = eventPublisher;
+        this.scanPool = Executors.newFixedThreadPool(scanThreads, daemonThreads("contact-dedupe-"));
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("contact-dedupe-scheduler-"));
+        if (scanIntervalMinutes > 0) {
+            scheduler.scheduleWithFixedDelay(this::scanAllSafely, scanIntervalMinutes, scanIntervalMinutes,
+                    TimeUnit.MINUTES);
+        }
+    }
+
+    public List<ContactDuplicateGroupDTO> getDuplicates(String identifier) {
+
+        log.debug("Fetching duplicate contacts for user '{}'.", identifier);
+        UserDetails userDetails = userService.loadUserByUsername(identifier);
+        User user = ((SecurityUser) userDetails).getUser();
+
+        long currentSequence = contactSyncService.currentSequence(user.getUserId());
+        ScanResult result = results.get(user.getUserId());
+        if (result == null || result.sequence() != currentSequence) {
+            log.debug("Duplicate scan for user '{}' is stale, rescanning.", identifier);
+            result = scan(user.getUserId(), currentSequence);
+        }
+
+        log.info("Returning {} duplicate contact groups to user '{}'.", result.groups().size(), identifier);
+        return result.groups();
+    }
+
+    /**
+     * Rescans every user whose contacts changed since their last scan, spread over the scan pool.
+     *
+     * @return the number of users rescanned
+     */
+    public int scanAll() {
+
+        long started = System.nanoTime();
+        List<UserChangeSequenceView> users = userRepository.findAllChangeSequences();
+        results.keySet().retainAll(users.stream().map(UserChangeSequenceView::getUserId).collect(Collectors.toSet()));
+
+        CompletableFuture<?>[] scans = users.stream()
+                .filter(user -> {
+                    ScanResult previous = results.get(user.getUserId());
+                    return previous == null || previous.sequence() != user.getChangeSequence();
+                })
+                .map(user -> CompletableFuture.runAsync(() -> {
+                    try {
+                        scan(user.getUserId(), user.getChangeSequence());
+                    } catch (RuntimeException exception) {
+                        log.warn("Duplicate scan failed for user ID {}: {}", user.getUserId(),
+                                exception.getMessage());
+                    }
+                }, scanPool))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(scans).join();
+
+        log.info("Duplicate scan rescanned {} of {} users in {} ms.", scans.length, users.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        return scans.length;
+    }
+
+    private void scanAllSafely() {
+        try {
+            scanAll();
+        } catch (RuntimeException exception) {
+            log.error("Duplicate scan failed: {}", exception.getMessage(), exception);
+        }
+    }
+
+    private ScanResult scan(Long userId, long sequence) {
+
+        ScanResult result = new ScanResult(sequence, contactDuplicateFinder.findDuplicates(userId));
+        return results.merge(userId, result,
+                (previous, current) -> current.sequence() >= previous.sequence() ? current : previous);
+    }
+
+    @Transactional
+    public ContactDTO mergeContacts(String identifier, Long targetId, Collection<Long> duplicateIds) {
+
+        Set<Long> mergedIds = new LinkedHashSet<>(duplicateIds);
+        mergedIds.remove(null);
+        log.info("User '{}' attempting to merge {} contacts into contact ID: {}.", identifier, mergedIds.size(),
+                targetId);
+        if (mergedIds.contains(targetId)) {
+            log.warn("Merge failed: User '{}' tried to merge contact ID {} into itself.", identifier, targetId);
+            throw new InvalidMergeRequestException("A contact cannot be merged into itself.");
+        }
+        if (mergedIds.isEmpty()) {
+            throw new InvalidMergeRequestException("At least one duplicate contact ID is required.");
+        }
+        if (mergedIds.size() > maxMergeIds) {
+            log.warn("Merge failed: User '{}' tried to merge {} contacts, limit is {}.", identifier,
+                    mergedIds.size(), maxMergeIds);
+            throw new RequestLimitExceededException("A merge cannot include more than " + maxMergeIds + " contacts.");
+        }
+
+        UserDetails userDetails = userService.loadUserByUsername(identifier);
+        User user = ((SecurityUser) userDetails).getUser();
+
+        Set<Long> ids = new LinkedHashSet<>(mergedIds);
+        ids.add(targetId);
+        List<Contact> found = contactRepository.findAllWithEmailsByIdInAndUserId(ids, user.getUserId());
+        if (found.size() != ids.size()) {
+            log.warn("Merge failed: Some of contact IDs {} not found for user '{}'.", ids, identifier);
+            throw new ResourceNotFoundException("Contact not found");
+        }
+        contactRepository.fetchPhones(found);
+        Map<Long, Contact> contactsById = found.stream()
+                .collect(Collectors.toMap(Contact::getId, Function.identity()));
+
+        Contact target = contactsById.get(targetId);
+        Set<String> emails = new HashSet<>();
+        target.getEmails().forEach(email -> emails.add(emailKey(email.getEmail())));
+        Set<String> phones = new HashSet<>();
+        target.getPhones().forEach(phone -> phones.add(phoneKey(phone.getPhoneNumber())));
+
+        for (Long id : mergedIds) {
+            Contact duplicate = contactsById.get(id);
+            if (!StringUtils.hasText(target.getTitle())) {
+                target.setTitle(duplicate.getTitle());
+            }
+            for (ContactEmail email : duplicate.getEmails()) {
+                if (emails.add(emailKey(email.getEmail()))) {
+                    ContactEmail copy = new ContactEmail();
+                    copy.setLabel(email.getLabel());
+                    copy.setEmail(email.getEmail());
+                    copy.setContact(target);
+                    target.getEmails().add(copy);
+                }
+            }
+            for (ContactPhone phone : duplicate.getPhones()) {
+                if (phones.add(phoneKey(phone.getPhoneNumber()))) {
+                    ContactPhone copy = new ContactPhone();
+                    copy.setLabel(phone.getLabel());
+                    copy.setPhoneNumber(phone.getPhoneNumber());
+                    copy.setContact(target);
+                    target.getPhones().add(copy);
+                }
+            }
+        }
+
+        // Sequence row before contact rows, as in every other write.
+        long sequence = contactSyncService.reserveSequences(user.getUserId(), mergedIds.size() + 1);
+        contactRepository.deleteAllByIdInAndUserId(mergedIds, user.getUserId());
+        target.setChangeSequence(sequence);
+        contactSyncService.recordDeletions(user.getUserId(), mergedIds, sequence + 1);
+
+        Contact mergedContact = contactRepository.save(target);
+        contactRepository.flush();
+
+        log.info("Successfully merged {} contacts into contact ID: {} for user '{}'.", mergedIds.size(), targetId,
+                identifier);
+        ContactDTO mergedContactDTO = ContactMapper.toDTO(mergedContact);
+        eventPublisher.publishEvent(ContactChangedEvent.updated(user.getUserId(), sequence, mergedContactDTO));
+        long deletedSequence = sequence;
+        for (Long id : mergedIds) {
+            eventPublisher.publishEvent(ContactChangedEvent.deleted(user.getUserId(), ++deletedSequence, id));
+        }
+        return mergedContactDTO;
+    }
+
+    private static String emailKey(String email) {
+        String key = ContactDuplicateFinder.emailKey(email);
+        return key != null ? key : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String phoneKey(String phoneNumber) {
+        String key = ContactDuplicateFinder.phoneKey(phoneNumber);
+        return key != null ? key : phoneNumber.trim();
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+        scanPool.shutdownNow();
+    }
+}
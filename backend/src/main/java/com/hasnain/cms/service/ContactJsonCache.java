@@ -0,0 +1,69 @@
+package com.hasnain.cms.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hasnain.cms.dto.ContactDTO;
+import com.hasnain.cms.event.ContactChangeType;
+import com.hasnain.cms.event.ContactChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.function.Supplier;
+
+/**
+ * UTF-8 JSON of contact detail responses, so a repeat view skips both {@link com.hasnain.cms.mapper.ContactMapper}
+ * and Jackson. Entries are stamped with the contact's change sequence; any write gives the contact a new sequence, so
+ * the next view misses and replaces the entry. Bounded by the total size of the cached JSON.
+ */
+@Service
+public class ContactJsonCache {
+
+    // Rough per-entry overhead of the key, the entry and the cache node.
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+
+    private record Entry(long version, byte[] json) {
+    }
+
+    private final ObjectMapper objectMapper;
+
+    private final Cache<Long, Entry> entries;
+
+    public ContactJsonCache(ObjectMapper objectMapper,
+                            @Value("${contacts.detail-cache.max-bytes:67108864}") long maxBytes) {
+        this.objectMapper = objectMapper;
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Long contactId, Entry entry) -> entry.json().length + ENTRY_OVERHEAD_BYTES)
+                .build();
+    }
+
+    public byte[] get(Long contactId, long version, Supplier<ContactDTO> loader) {
+
+        Entry cached = entries.getIfPresent(contactId);
+        if (cached != null && cached.version() == version) {
+            return cached.json();
+        }
+
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(loader.get());
+        } catch (JsonProcessingException exception) {
+            throw new IllegalStateException("Failed to serialize contact ID " + contactId + ".", exception);
+        }
+        // A slow request must not replace the JSON of a newer version of the contact.
+        entries.asMap().merge(contactId, new Entry(version, json),
+                (current, loaded) -> current.version() > loaded.version() ? current : loaded);
+        return json;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContactChanged(ContactChangedEvent event) {
+
+        if (event.type() == ContactChangeType.DELETED) {
+            entries.invalidate(event.contactId());
+        }
+    }
+}
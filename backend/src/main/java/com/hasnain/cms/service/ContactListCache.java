@@ -0,0 +1,87 @@
+package com.hasnain.cms.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hasnain.cms.dto.ContactDTO;
+import com.hasnain.cms.event.ContactChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Cache of contact list and search pages, keyed by user, search term, page and size.
+ * <p>
+ * Each entry is stamped with its user's generation, read before the page is loaded, and every committed change bumps
+ * that generation, so dropping all of a user's pages is a single increment and their stale entries are never hit
+ * again. Since the bump happens after commit and the stamp is read before loading, an entry can be newer than its
+ * stamp but never older. Listeners run on the writing thread before its request returns, which gives read-your-writes
+ * on this instance; other instances pick a change up once their entry expires. Generations are striped by user id to
+ * bound memory, so a user occasionally loses their pages to a neighbour's change.
+ */
+@Service
+public class ContactListCache {
+
+    private static final int GENERATION_STRIPES = 4096;
+
+    private record Key(long userId, String searchTerm, int page, int size) {
+    }
+
+    private record Entry(long generation, List<ContactDTO> contacts) {
+    }
+
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    private final Cache<Key, Entry> pages;
+
+    public ContactListCache(@Value("${contacts.list-cache.max-weight:100000}") long maxWeight,
+                            @Value("${contacts.list-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.pages = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((Key key, Entry entry) -> weigh(entry.contacts()))
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    public List<ContactDTO> get(Long userId, String searchTerm, int page, int size,
+                                Supplier<List<ContactDTO>> loader) {
+
+        Key key = new Key(userId, StringUtils.hasText(searchTerm) ? searchTerm : "", page, size);
+        long generation = generations.get(stripe(userId));
+        Entry cached = pages.getIfPresent(key);
+        if (cached != null && cached.generation() == generation) {
+            return cached.contacts();
+        }
+
+        List<ContactDTO> contacts = loader.get();
+        // A slow load must not replace a page another request already loaded under a newer generation.
+        pages.asMap().merge(key, new Entry(generation, contacts),
+                (current, loaded) -> current.generation() > loaded.generation() ? current : loaded);
+        return contacts;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContactChanged(ContactChangedEvent event) {
+        generations.incrementAndGet(stripe(event.userId()));
+    }
+
+    private static int stripe(long userId) {
+        return Long.hashCode(userId) & (GENERATION_STRIPES - 1);
+    }
+
+    // Roughly proportional to the memory a page holds: one unit per contact, email and phone.
+    private static int weigh(List<ContactDTO> contacts) {
+
+        int weight = 1;
+        for (ContactDTO contact : contacts) {
+            weight += 1 + (contact.getEmails() == null ? 0 : contact.getEmails().size())
+                    + (contact.getPhones() == null ? 0 : contact.getPhones().size());
+        }
+        return weight;
+    }
+}
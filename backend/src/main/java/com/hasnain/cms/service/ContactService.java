@@ -1,17 +1,22 @@
 package com.hasnain.cms.service;
 
 import com.hasnain.cms.dto.ContactDTO;
+import com.hasnain.cms.dto.ContactLookupResponseDTO;
 import com.hasnain.cms.entity.Contact;
 import com.hasnain.cms.entity.ContactEmail;
 import com.hasnain.cms.entity.ContactPhone;
 import com.hasnain.cms.entity.User;
+import com.hasnain.cms.event.ContactChangedEvent;
 import com.hasnain.cms.exception.DuplicateContactException;
+import com.hasnain.cms.exception.RequestLimitExceededException;
 import com.hasnain.cms.exception.ResourceNotFoundException;
-import com.hasnain.cms.exception.UnauthorizedAccessException;
 import com.hasnain.cms.mapper.ContactMapper;
 import com.hasnain.cms.repository.ContactRepository;
 import com.hasnain.cms.security.SecurityUser;
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -20,22 +25,47 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
+@Timed("cms.service")
 public class ContactService {
 
     private final ContactRepository contactRepository;
 
     private final UserService userService;
 
-    public ContactService(ContactRepository contactRepository, UserService userService) {
+    private final ContactSyncService contactSyncService;
+
+    private final ContactListCache contactListCache;
+
+    private final ContactJsonCache contactJsonCache;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${contacts.lookup.max-ids:1000}")
+    private int maxLookupIds = 1000;
+
+    public ContactService(ContactRepository contactRepository, UserService userService,
+                          ContactSyncService contactSyncService, ContactListCache contactListCache,
+                          ContactJsonCache contactJsonCache, ApplicationEventPublisher eventPublisher) {
         this.contactRepository = contactRepository;
         this.userService = userService;
+        this.contactSyncService = contactSyncService;
+        this.contactListCache = contactListCache;
+        this.contactJsonCache = contactJsonCache;
+        this.eventPublisher = eventPublisher;
     }
 
+    @Transactional(readOnly = true)
     public List<ContactDTO> getUserContacts(String identifier, String searchTerm, int page, int size) {
 
         log.debug("Fetching contacts for user '{}', Search: '{}' Page: {}, Size: {}.", identifier,
@@ -44,27 +74,31 @@ public class ContactService {
         User user = ((SecurityUser) userDetails).getUser();
 
         Pageable pageable = PageRequest.of(page, size);
-        Page<Contact> contactPage;
-
-        if (StringUtils.hasText(searchTerm)) {
-            log.debug("Performing search for term: '{}'", searchTerm);
-            contactPage = contactRepository.findByUserAndFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(
-                    user, searchTerm, searchTerm, pageable);
-        } else {
-            log.debug("No search term provided, fetching all contacts for page.");
-            contactPage = contactRepository.findByUser(user, pageable);
-        }
-
-        List<ContactDTO> contacts = contactPage.getContent()
-                .stream()
-                .map(ContactMapper::toDTO)
-                .toList();
+        List<ContactDTO> contacts = contactListCache.get(user.getUserId(), searchTerm, page, size, () -> {
+            Page<Contact> contactPage;
+
+            if (StringUtils.hasText(searchTerm)) {
+                log.debug("Performing search for term: '{}'", searchTerm);
+                contactPage = contactRepository
+                        .findByUserAndFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(
+                                user, searchTerm, searchTerm, pageable);
+            } else {
+                log.debug("No search term provided, fetching all contacts for page.");
+                contactPage = contactRepository.findByUser(user, pageable);
+            }
+
+            return contactPage.getContent()
+                    .stream()
+                    .map(ContactMapper::toDTO)
+                    .toList();
+        });
 
         log.info("Retrieved {} contacts for user '{}' (Page: {}, Search: '{}').", contacts.size(), identifier,
                 page, searchTerm == null ? "N/A" : searchTerm);
         return contacts;
     }
 
+    @Transactional
     public ContactDTO createContact(String identifier, Contact contact) {
 
         log.info("User {} attempting to create contact: {} {}.", identifier, contact.getFirstName(),
@@ -81,29 +115,81 @@ public class ContactService {
         contact.getEmails().forEach(email -> email.setContact(contact));
         contact.getPhones().forEach(phone -> phone.setContact(contact));
         contact.setUser(user);
+        long sequence = contactSyncService.reserveSequences(user.getUserId(), 1);
+        contact.setChangeSequence(sequence);
+        contact.setCreatedSequence(sequence);
 
         Contact savedContact = contactRepository.save(contact);
         log.info("Successfully created contact ID: {} for user: {}.", savedContact.getId(), identifier);
-        return ContactMapper.toDTO(savedContact);
+        ContactDTO savedContactDTO = ContactMapper.toDTO(savedContact);
+        eventPublisher.publishEvent(ContactChangedEvent.created(user.getUserId(), sequence, savedContactDTO));
+        return savedContactDTO;
     }
 
+    @Transactional(readOnly = true)
     public ContactDTO getContactById(String identifier, Long id) {
 
         log.info("User '{}' attempting to view contact ID: {}.", identifier, id);
+        Contact contact = findViewableContact(identifier, id);
+        log.info("User '{}' successfully viewed contact ID: {}.", identifier, id);
+        return ContactMapper.toDTO(contact);
+    }
+
+    /**
+     * Same as {@link #getContactById} but returns the contact as UTF-8 JSON, reused across views until the contact
+     * changes.
+     */
+    @Transactional(readOnly = true)
+    public byte[] getContactJson(String identifier, Long id) {
+
+        log.info("User '{}' attempting to view contact ID: {}.", identifier, id);
+        Contact contact = findViewableContact(identifier, id);
+        byte[] json = contactJsonCache.get(contact.getId(), contact.getChangeSequence(),
+                () -> ContactMapper.toDTO(contact));
+        log.info("User '{}' successfully viewed contact ID: {}.", identifier, id);
+        return json;
+    }
+
+    @Transactional(readOnly = true)
+    public ContactLookupResponseDTO getContactsByIds(String identifier, Collection<Long> ids) {
+
+        Set<Long> requestedIds = new LinkedHashSet<>(ids);
+        requestedIds.remove(null);
+        log.info("User '{}' attempting to view {} contacts by ID.", identifier, requestedIds.size());
+        if (requestedIds.size() > maxLookupIds) {
+            log.warn("Lookup failed: User '{}' requested {} contacts, limit is {}.", identifier,
+                    requestedIds.size(), maxLookupIds);
+            throw new RequestLimitExceededException(
+                    "A lookup cannot request more than " + maxLookupIds + " contacts.");
+        }
+        if (requestedIds.isEmpty()) {
+            return new ContactLookupResponseDTO(List.of(), List.of());
+        }
+
         UserDetails userDetails = userService.loadUserByUsername(identifier);
         User user = ((SecurityUser) userDetails).getUser();
-        Contact contact = contactRepository.findById(id)
-                .orElseThrow(() -> {
-                    log.warn("View failed: Contact ID {} not found.", id);
-                    return new ResourceNotFoundException("Contact not found");
-                });
-        if (!contact.getUser().getUserId().equals(user.getUserId())) {
-            log.warn("View failed: User '{}' is unauthorized to access contact ID: {}.", identifier, id);
-            throw new UnauthorizedAccessException("Unauthorized access to this contact");
+
+        List<Contact> found = contactRepository.findAllWithEmailsByIdInAndUserId(requestedIds, user.getUserId());
+        if (!found.isEmpty()) {
+            contactRepository.fetchPhones(found);
         }
 
-        log.info("User '{}' successfully viewed contact ID: {}.", identifier, id);
-        return ContactMapper.toDTO(contact);
+        Map<Long, Contact> contactsById = found.stream()
+                .collect(Collectors.toMap(Contact::getId, Function.identity()));
+        List<ContactDTO> contacts = new ArrayList<>(contactsById.size());
+        List<Long> notFound = new ArrayList<>();
+        for (Long id : requestedIds) {
+            Contact contact = contactsById.get(id);
+            if (contact != null) {
+                contacts.add(ContactMapper.toDTO(contact));
+            } else {
+                notFound.add(id);
+            }
+        }
+
+        log.info("User '{}' retrieved {} contacts by ID, {} not found.", identifier, contacts.size(),
+                notFound.size());
+        return new ContactLookupResponseDTO(contacts, notFound);
     }
 
     @Transactional
@@ -112,28 +198,36 @@ public class ContactService {
         log.info("User '{}' attempting to update contact ID: {}.", identifier, id);
         UserDetails userDetails = userService.loadUserByUsername(identifier);
         User user = ((SecurityUser) userDetails).getUser();
-        Contact existingContact = contactRepository.findById(id)
+        Contact existingContact = contactRepository.findByIdAndUserId(id, user.getUserId())
                 .orElseThrow(() -> {
-                    log.warn("Update failed: Contact ID {} not found.", id);
+                    log.warn("Update failed: Contact ID {} not found for user '{}'.", id, identifier);
                     return new ResourceNotFoundException("Contact not found!");
                 });
-        if (!existingContact.getUser().getUserId().equals(user.getUserId())) {
-            log.warn("Update failed: User '{}' is unauthorized to modify contact ID: {}.", identifier, id);
-            throw new UnauthorizedAccessException("Unauthorized access to this contact");
-        }
 
         boolean isNameChanged = !existingContact.getFirstName().equals(contactDTO.getFirstName())
                 || !existingContact.getLastName().equals(contactDTO.getLastName());
 
-        boolean isDuplicate = contactRepository.existsByUserAndFirstNameAndLastName(
-                user, contactDTO.getFirstName(), contactDTO.getLastName());
-
-        if (isNameChanged && isDuplicate) {
+        if (isNameChanged && contactRepository.existsByUserAndFirstNameAndLastName(
+                user, contactDTO.getFirstName(), contactDTO.getLastName())) {
             log.warn("Update failed: New name '{} {}' is a duplicate for user '{}'.",
                     contactDTO.getFirstName(), contactDTO.getLastName(), identifier);
             throw new DuplicateContactException("A contact with this name already exists for your account.");
         }
 
+        applyChanges(existingContact, contactDTO);
+        long sequence = contactSyncService.reserveSequences(user.getUserId(), 1);
+        existingContact.setChangeSequence(sequence);
+
+        Contact updatedContact = contactRepository.save(existingContact);
+
+        log.info("Successfully updated contact ID: {} for user '{}'.", id, identifier);
+        ContactDTO updatedContactDTO = ContactMapper.toDTO(updatedContact);
+        eventPublisher.publishEvent(ContactChangedEvent.updated(user.getUserId(), sequence, updatedContactDTO));
+        return updatedContactDTO;
+    }
+
+    static void applyChanges(Contact existingContact, ContactDTO contactDTO) {
+
         existingContact.setFirstName(contactDTO.getFirstName());
         existingContact.setLastName(contactDTO.getLastName());
         existingContact.setTitle(contactDTO.getTitle());
@@ -151,30 +245,38 @@ public class ContactService {
                 .peek(phone -> phone.setContact(existingContact))
                 .collect(Collectors.toList());
         existingContact.getPhones().addAll(updatedPhones);
-
-
-        Contact updatedContact = contactRepository.save(existingContact);
-
-        log.info("Successfully updated contact ID: {} for user '{}'.", id, identifier);
-        return ContactMapper.toDTO(updatedContact);
     }
 
+    @Transactional
     public boolean deleteContact(String identifier, Long id) {
 
         log.info("User '{}' attempting to delete contact ID: {}.", identifier, id);
         UserDetails userDetails = userService.loadUserByUsername(identifier);
         User user = ((SecurityUser) userDetails).getUser();
-        Contact contact = contactRepository.findById(id)
-                .orElseThrow(() -> {
-                    log.warn("Delete failed: Contact ID {} not found.", id);
-                    return new ResourceNotFoundException("Contact not found.");
-                });
-        if (!contact.getUser().getUserId().equals(user.getUserId())) {
-            log.warn("Delete failed: User '{}' is unauthorized to delete contact ID: {}", identifier, id);
-            throw new UnauthorizedAccessException("Unauthorized access to this contact.");
+        // The sequence row is locked before the contact row, in the same order as every other write, so that a
+        // concurrent update cannot deadlock with this delete. The reserved sequence is rolled back if nothing goes.
+        long sequence = contactSyncService.reserveSequences(user.getUserId(), 1);
+        if (contactRepository.deleteByIdAndUserId(id, user.getUserId()) == 0) {
+            log.warn("Delete failed: Contact ID {} not found for user '{}'.", id, identifier);
+            throw new ResourceNotFoundException("Contact not found.");
         }
-        contactRepository.delete(contact);
+        contactSyncService.recordDeletions(user.getUserId(), List.of(id), sequence);
         log.info("Successfully deleted contact ID: {} for user '{}'.", id, identifier);
+        eventPublisher.publishEvent(ContactChangedEvent.deleted(user.getUserId(), sequence, id));
         return true;
     }
+
+    private Contact findViewableContact(String identifier, Long id) {
+
+        UserDetails userDetails = userService.loadUserByUsername(identifier);
+        User user = ((SecurityUser) userDetails).getUser();
+        // Loaded by id, unlike findByIdAndUserId, so repeated views are served from the second-level cache. Reading
+        // the owner's id does not initialize the lazy user.
+        return contactRepository.findById(id)
+                .filter(found -> found.getUser().getUserId().equals(user.getUserId()))
+                .orElseThrow(() -> {
+                    log.warn("View failed: Contact ID {} not found for user '{}'.", id, identifier);
+                    return new ResourceNotFoundException("Contact not found");
+                });
+    }
 }
@@ -0,0 +1,248 @@
+package com.hasnain.cms.service;
+
+import com.hasnain.cms.dto.ContactChangeDTO;
+import com.hasnain.cms.dto.ContactChangesResponseDTO;
+import com.hasnain.cms.entity.Contact;
+import com.hasnain.cms.entity.ContactTombstone;
+import com.hasnain.cms.entity.User;
+import com.hasnain.cms.entity.UserChangeSequence;
+import com.hasnain.cms.event.ContactChangeType;
+import com.hasnain.cms.exception.InvalidSyncCursorException;
+import com.hasnain.cms.exception.SyncCursorExpiredException;
+import com.hasnain.cms.mapper.ContactMapper;
+import com.hasnain.cms.repository.ContactRepository;
+import com.hasnain.cms.repository.ContactTombstoneRepository;
+import com.hasnain.cms.repository.UserChangeSequenceRepository;
+import com.hasnain.cms.repository.UserRepository;
+import com.hasnain.cms.security.SecurityUser;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Maintains each user's change sequence and serves the changes made after a client's cursor.
+ * <p>
+ * Every create and update stamps the contact with the next sequence number and every delete leaves a tombstone
+ * carrying one, so a page of changes is two range scans on {@code (user_id, change_sequence)}. A cursor is the
+ * sequence number of the last change the client has seen. Contacts that predate change tracking all share sequence
+ * {@code 0}; while a client is still paging through those, the cursor also carries the last contact id as
+ * {@code 0.<id>}.
+ * <p>
+ * Tombstones are pruned once they are older than the retention period. A cursor from before the last pruned
+ * tombstone may have missed deletions, so it is refused and the client syncs again from the start.
+ */
+@Slf4j
+@Service
+public class ContactSyncService {
+
+    private record ChangeCursor(long sequence, long afterId) {
+
+        static final ChangeCursor INITIAL = new ChangeCursor(0, -1);
+
+        static ChangeCursor parse(String value) {
+
+            if (value == null || value.isBlank() || value.equals("0")) {
+                return INITIAL;
+            }
+            try {
+                int separator = value.indexOf('.');
+                if (separator < 0) {
+                    long sequence = Long.parseLong(value);
+                    if (sequence > 0) {
+                        return new ChangeCursor(sequence, Long.MAX_VALUE);
+                    }
+                } else if (value.substring(0, separator).equals("0")) {
+                    long afterId = Long.parseLong(value.substring(separator + 1));
+                    if (afterId >= 0) {
+                        return new ChangeCursor(0, afterId);
+                    }
+                }
+            } catch (NumberFormatException exception) {
+                // fall through to the error below
+            }
+            throw new InvalidSyncCursorException("Invalid sync cursor: " + value);
+        }
+
+        boolean isCaughtUpWith(long currentSequence) {
+            return afterId == Long.MAX_VALUE && sequence >= currentSequence;
+        }
+
+        @Override
+        public String toString() {
+            if (afterId == Long.MAX_VALUE) {
+                return Long.toString(sequence);
+            }
+            return afterId < 0 ? "0" : "0." + afterId;
+        }
+    }
+
+    private final ContactRepository contactRepository;
+
+    private final ContactTombstoneRepository contactTombstoneRepository;
+
+    private final UserRepository userRepository;
+
+    private final UserChangeSequenceRepository userChangeSequenceRepository;
+
+    private final UserService userService;
+
+    @Value("${contacts.sync.max-page-size:500}")
+    private int maxPageSize = 500;
+
+    public ContactSyncService(ContactRepository contactRepository,
+                              ContactTombstoneRepository contactTombstoneRepository,
+                              UserRepository userRepository,
+                              UserChangeSequenceRepository userChangeSequenceRepository, UserService userService) {
+        this.contactRepository = contactRepository;
+        this.contactTombstoneRepository = contactTombstoneRepository;
+        this.userRepository = userRepository;
+        this.userChangeSequenceRepository = userChangeSequenceRepository;
+        this.userService = userService;
+    }
+
+    /**
+     * Reserves {@code count} consecutive sequence numbers for the user's next changes and returns the first one.
+     * Must be called inside the transaction that writes those changes.
+     */
+    public long reserveSequences(Long userId, int count) {
+
+        if (userChangeSequenceRepository.advance(userId, count) == 0) {
+            // The user's first change since sequences moved to their own table. The user's row is locked so that
+            // concurrent first changes create the sequence row one at a time.
+            userRepository.findLockedByUserId(userId);
+            if (userChangeSequenceRepository.advance(userId, count) == 0) {
+                userChangeSequenceRepository.saveAndFlush(new UserChangeSequence(userId,
+                        userChangeSequenceRepository.findHighestIssuedSequence(userId) + count));
+            }
+        }
+        return userChangeSequenceRepository.findChangeSequence(userId).orElseThrow() - count + 1;
+    }
+
+    /**
+     * The sequence number of the user's latest change, {@code 0} if they have made none.
+     */
+    public long currentSequence(Long userId) {
+        return userChangeSequenceRepository.findChangeSequence(userId)
+                .orElseGet(() -> userChangeSequenceRepository.findHighestIssuedSequence(userId));
+    }
+
+    public void recordDeletions(Long userId, Collection<Long> contactIds, long firstSequence) {
+
+        long deletedAt = System.currentTimeMillis();
+        long sequence = firstSequence;
+        List<ContactTombstone> tombstones = new ArrayList<>(contactIds.size());
+        for (Long contactId : contactIds) {
+            tombstones.add(new ContactTombstone(null, userId, contactId, sequence++, deletedAt));
+        }
+        contactTombstoneRepository.saveAll(tombstones);
+    }
+
+    /**
+     * Deletes the user's tombstones up to the last one recorded before {@code deletedBefore} and raises their pruned
+     * sequence to it.
+     *
+     * @return the number of tombstones deleted
+     */
+    @Transactional
+    public int pruneTombstones(Long userId, long deletedBefore) {
+
+        // Locks the sequence row, creating it if the user has none yet, before any tombstone goes: the highest issued
+        // sequence must not fall back to one that is reissued later.
+        reserveSequences(userId, 0);
+        long prunedSequence = contactTombstoneRepository.findLastSequenceDeletedBefore(userId, deletedBefore)
+                .orElse(0L);
+        if (prunedSequence == 0) {
+            return 0;
+        }
+        userChangeSequenceRepository.raisePrunedSequence(userId, prunedSequence);
+        return contactTombstoneRepository.deleteUpToSequence(userId, prunedSequence);
+    }
+
+    @Transactional(readOnly = true)
+    public ContactChangesResponseDTO getChanges(String identifier, String since, int limit) {
+
+        ChangeCursor cursor = ChangeCursor.parse(since);
+        int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+        log.debug("Fetching contact changes for user '{}' since cursor '{}', limit {}.", identifier, cursor,
+                pageSize);
+        UserDetails userDetails = userService.loadUserByUsername(identifier);
+        User user = ((SecurityUser) userDetails).getUser();
+
+        long currentSequence = currentSequence(user.getUserId());
+        if (cursor.isCaughtUpWith(currentSequence)) {
+            log.debug("User '{}' is already in sync at sequence {}.", identifier, cursor.sequence());
+            return new ContactChangesResponseDTO(List.of(), cursor.toString(), false);
+        }
+        // Cursors still paging through the contacts that predate change tracking are part of a first sync, which
+        // needs no tombstones.
+        if (cursor.sequence() > 0 && cursor.sequence()
+                < userChangeSequenceRepository.findPrunedSequence(user.getUserId()).orElse(0L)) {
+            log.info("Sync cursor '{}' of user '{}' is older than the retained tombstones.", cursor, identifier);
+            throw new SyncCursorExpiredException("Sync cursor " + cursor
+                    + " has expired, sync again from the start.");
+        }
+
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        List<Contact> contacts = contactRepository.findChangedSince(user.getUserId(), cursor.sequence(),
+                cursor.afterId(), page);
+        List<ContactTombstone> tombstones = contactTombstoneRepository
+                .findByUserIdAndChangeSequenceGreaterThanOrderByChangeSequence(user.getUserId(), cursor.sequence(),
+                        page);
+
+        List<Object> merged = new ArrayList<>(pageSize);
+        List<Contact> changedContacts = new ArrayList<>();
+        int contactIndex = 0;
+        int tombstoneIndex = 0;
+        while (merged.size() < pageSize && (contactIndex < contacts.size() || tombstoneIndex < tombstones.size())) {
+            boolean takeContact = tombstoneIndex == tombstones.size() || (contactIndex < contacts.size()
+                    && contacts.get(contactIndex).getChangeSequence()
+                    < tombstones.get(tombstoneIndex).getChangeSequence());
+            if (takeContact) {
+                Contact contact = contacts.get(contactIndex++);
+                merged.add(contact);
+                changedContacts.add(contact);
+            } else {
+                merged.add(tombstones.get(tombstoneIndex++));
+            }
+        }
+        boolean hasMore = contactIndex < contacts.size() || tombstoneIndex < tombstones.size();
+
+        if (!changedContacts.isEmpty()) {
+            contactRepository.fetchEmails(changedContacts);
+            contactRepository.fetchPhones(changedContacts);
+        }
+
+        List<ContactChangeDTO> changes = new ArrayList<>(merged.size());
+        ChangeCursor next = cursor;
+        for (Object change : merged) {
+            if (change instanceof Contact contact) {
+                ContactChangeType type = contact.getCreatedSequence() > cursor.sequence() || cursor.sequence() == 0
+                        ? ContactChangeType.CREATED : ContactChangeType.UPDATED;
+                changes.add(new ContactChangeDTO(contact.getChangeSequence(), type, contact.getId(),
+                        ContactMapper.toDTO(contact)));
+                next = contact.getChangeSequence() > 0
+                        ? new ChangeCursor(contact.getChangeSequence(), Long.MAX_VALUE)
+                        : new ChangeCursor(0, contact.getId());
+            } else {
+                ContactTombstone tombstone = (ContactTombstone) change;
+                changes.add(new ContactChangeDTO(tombstone.getChangeSequence(), ContactChangeType.DELETED,
+                        tombstone.getContactId(), null));
+                next = new ChangeCursor(tombstone.getChangeSequence(), Long.MAX_VALUE);
+            }
+        }
+        if (!hasMore && currentSequence > next.sequence()) {
+            next = new ChangeCursor(currentSequence, Long.MAX_VALUE);
+        }
+
+        log.info("Returning {} contact changes to user '{}' (cursor '{}' -> '{}', more: {}).", changes.size(),
+                identifier, cursor, next, hasMore);
+        return new ContactChangesResponseDTO(changes, next.toString(), hasMore);
+    }
+}
@@ -0,0 +1,347 @@
+package com.hasnain.cms.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hasnain.cms.event.ContactChangedEvent;
+import com.hasnain.cms.event.ContactTagsChangedEvent;
+import com.hasnain.cms.repository.ContactRepository;
+import com.hasnain.cms.repository.ContactTagRepository;
+import com.hasnain.cms.repository.ContactTagView;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * In-memory tag index, one per user, built from the database the first time the user filters by tag.
+ * <p>
+ * Each contact gets a dense ordinal and each tag a compressed bitmap of the ordinals carrying it, so an AND/OR/NOT
+ * filter is a handful of bitmap operations and paging is a rank lookup. Ordinals are handed out in contact id order
+ * on build and in creation order afterwards, so results page in roughly creation order. Committed changes are applied
+ * as they happen; changes committed while an index is still loading are queued and replayed on top of it.
+ * <p>
+ * Indexes are held in a cache bounded by weight (one unit per contact and tag assignment) and dropped after a spell
+ * without use; an evicted user's index is rebuilt from the database on their next filter. Each index remembers the
+ * user's change sequence it is current to, and every read compares it with the database: a contact created, updated
+ * or deleted on another instance moves the sequence past the index, which is then rebuilt. Tag changes do not advance
+ * the sequence, so another instance's tag edits are only picked up once the index reaches its maximum age.
+ */
+@Slf4j
+@Service
+public class ContactTagIndex {
+
+    public record Page(List<Long> contactIds, int total) {
+    }
+
+    private final ContactRepository contactRepository;
+
+    private final ContactTagRepository contactTagRepository;
+
+    private final ContactSyncService contactSyncService;
+
+    private final Cache<Long, UserIndex> indexes;
+
+    public ContactTagIndex(ContactRepository contactRepository, ContactTagRepository contactTagRepository,
+                           ContactSyncService contactSyncService,
+                           @Value("${contacts.tags.index-max-weight:5000000}") long maxWeight,
+                           @Value("${contacts.tags.index-expire-after-access-minutes:30}") long expireAfterAccessMinutes,
+                           @Value("${contacts.tags.index-max-age-minutes:10}") long maxAgeMinutes) {
+        this.contactRepository = contactRepository;
+        this.contactTagRepository = contactTagRepository;
+        this.contactSyncService = contactSyncService;
+        this.indexes = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((Long userId, UserIndex index) -> index.weight)
+                .expireAfterAccess(Duration.ofMinutes(expireAfterAccessMinutes))
+                .expireAfterWrite(Duration.ofMinutes(maxAgeMinutes))
+                .build();
+    }
+
+    public Page filter(Long userId, Collection<String> allOf, Collection<String> anyOf, Collection<String> noneOf,
+                       long offset, int size) {
+        return indexFor(userId).filter(allOf, anyOf, noneOf, offset, size);
+    }
+
+    public Map<String, Integer> tagCounts(Long userId) {
+        return indexFor(userId).tagCounts();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContactChanged(ContactChangedEvent event) {
+
+        switch (event.type()) {
+            case CREATED -> apply(event.userId(), index -> {
+                index.addContact(event.contactId());
+                index.advance(event.sequence());
+            });
+            case DELETED -> apply(event.userId(), index -> {
+                index.removeContact(event.contactId());
+                index.advance(event.sequence());
+            });
+            // Updates do not touch tags, but still move the index along the user's sequence.
+            case UPDATED -> apply(event.userId(), index -> index.advance(event.sequence()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContactTagsChanged(ContactTagsChangedEvent event) {
+        apply(event.userId(), index -> index.setTags(event.contactId(), event.tags()));
+    }
+
+    private void apply(Long userId, Consumer<UserIndex> change) {
+
+        UserIndex index = indexes.getIfPresent(userId);
+        if (index != null) {
+            index.apply(change);
+        }
+    }
+
+    private UserIndex indexFor(Long userId) {
+
+        while (true) {
+            UserIndex created = new UserIndex();
+            UserIndex existing = indexes.asMap().putIfAbsent(userId, created);
+            if (existing == null) {
+                build(userId, created);
+                return created;
+            }
+            if (existing.awaitLoaded()) {
+                if (!existing.isBehind(contactSyncService.currentSequence(userId))) {
+                    return existing;
+                }
+                log.debug("Tag index for user ID {} is behind their change sequence; rebuilding.", userId);
+                indexes.asMap().remove(userId, existing);
+            }
+        }
+    }
+
+    private void build(Long userId, UserIndex index) {
+
+        long started = System.nanoTime();
+        try {
+            // Read first: everything committed up to this sequence is in the queries below, and anything later
+            // arrives as an event.
+            long sequence = contactSyncService.currentSequence(userId);
+            List<Long> contactIds = contactRepository.findIdsByUserId(userId);
+            List<ContactTagView> tags = contactTagRepository.findAllByUserId(userId);
+            index.load(sequence, contactIds, tags);
+            // Re-insert so the cache weighs the loaded index rather than the empty placeholder.
+            indexes.asMap().replace(userId, index, index);
+            log.info("Built tag index for user ID {}: {} contacts, {} tag assignments in {} ms.", userId,
+                    contactIds.size(), tags.size(), (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException exception) {
+            indexes.asMap().remove(userId, index);
+            index.fail();
+            throw exception;
+        }
+    }
+
+    private static final class UserIndex {
+
+        private final Map<String, RoaringBitmap> bitmaps = new HashMap<>();
+
+        private final Map<Long, Integer> ordinals = new HashMap<>();
+
+        private final RoaringBitmap contacts = new RoaringBitmap();
+
+        private long[] contactIds = new long[16];
+
+        private int nextOrdinal;
+
+        private long sequence;
+
+        private volatile int weight = 1;
+
+        private List<Consumer<UserIndex>> pending = new ArrayList<>();
+
+        private boolean loaded;
+
+        private boolean failed;
+
+        synchronized void apply(Consumer<UserIndex> change) {
+
+            if (loaded) {
+                change.accept(this);
+            } else if (!failed) {
+                pending.add(change);
+            }
+        }
+
+        synchronized void load(long loadedSequence, List<Long> ids, List<ContactTagView> tags) {
+
+            sequence = loadedSequence;
+            ids.forEach(this::addContact);
+            for (ContactTagView tag : tags) {
+                Integer ordinal = ordinals.get(tag.getContactId());
+                if (ordinal != null) {
+                    bitmaps.computeIfAbsent(tag.getName(), name -> new RoaringBitmap()).add(ordinal);
+                }
+            }
+            pending.forEach(change -> change.accept(this));
+            pending = null;
+            contacts.runOptimize();
+            bitmaps.values().forEach(RoaringBitmap::runOptimize);
+            weight = Math.max(1, ids.size() + tags.size());
+            loaded = true;
+            notifyAll();
+        }
+
+        synchronized void fail() {
+
+            failed = true;
+            pending = null;
+            notifyAll();
+        }
+
+        synchronized boolean awaitLoaded() {
+
+            while (!loaded && !failed) {
+                try {
+                    wait();
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for the tag index to load.", exception);
+                }
+            }
+            return loaded;
+        }
+
+        // One user's changes commit in sequence order, so the next event carries the next sequence. An event that
+        // skips ahead means a change this index missed; the sequence then stays put and the next read rebuilds.
+        void advance(long changeSequence) {
+
+            if (changeSequence == sequence + 1) {
+                sequence = changeSequence;
+            }
+        }
+
+        synchronized boolean isBehind(long currentSequence) {
+            return sequence < currentSequence;
+        }
+
+        void addContact(long contactId) {
+
+            if (ordinals.containsKey(contactId)) {
+                return;
+            }
+            int ordinal = nextOrdinal++;
+            if (ordinal == contactIds.length) {
+                contactIds = Arrays.copyOf(contactIds, ordinal * 2);
+            }
+            contactIds[ordinal] = contactId;
+            ordinals.put(contactId, ordinal);
+            contacts.add(ordinal);
+        }
+
+        void removeContact(long contactId) {
+
+            Integer ordinal = ordinals.remove(contactId);
+            if (ordinal == null) {
+                return;
+            }
+            contacts.remove(ordinal);
+            Iterator<RoaringBitmap> tagged = bitmaps.values().iterator();
+            while (tagged.hasNext()) {
+                RoaringBitmap bitmap = tagged.next();
+                bitmap.remove(ordinal);
+                if (bitmap.isEmpty()) {
+                    tagged.remove();
+                }
+            }
+        }
+
+        void setTags(long contactId, Set<String> tags) {
+
+            // A contact deleted before its tag change was applied stays deleted.
+            Integer ordinal = ordinals.get(contactId);
+            if (ordinal == null) {
+                return;
+            }
+            Iterator<Map.Entry<String, RoaringBitmap>> tagged = bitmaps.entrySet().iterator();
+            while (tagged.hasNext()) {
+                Map.Entry<String, RoaringBitmap> entry = tagged.next();
+                if (!tags.contains(entry.getKey())) {
+                    entry.getValue().remove(ordinal);
+                    if (entry.getValue().isEmpty()) {
+                        tagged.remove();
+                    }
+                }
+            }
+            for (String tag : tags) {
+                bitmaps.computeIfAbsent(tag, name -> new RoaringBitmap()).add(ordinal);
+            }
+        }
+
+        synchronized Page filter(Collection<String> allOf, Collection<String> anyOf, Collection<String> noneOf,
+                                 long offset, int size) {
+
+            RoaringBitmap matches;
+            if (allOf.isEmpty()) {
+                matches = contacts.clone();
+            } else {
+                List<RoaringBitmap> required = new ArrayList<>(allOf.size());
+                for (String tag : allOf) {
+                    RoaringBitmap bitmap = bitmaps.get(tag);
+                    if (bitmap == null) {
+                        return new Page(List.of(), 0);
+                    }
+                    required.add(bitmap);
+                }
+                // Smallest first, so the running intersection shrinks as fast as possible.
+                required.sort(Comparator.comparingInt(RoaringBitmap::getCardinality));
+                matches = required.get(0).clone();
+                for (int i = 1; i < required.size() && !matches.isEmpty(); i++) {
+                    matches.and(required.get(i));
+                }
+            }
+            if (!anyOf.isEmpty()) {
+                matches.and(union(anyOf));
+            }
+            if (!noneOf.isEmpty()) {
+                matches.andNot(union(noneOf));
+            }
+
+            int total = matches.getCardinality();
+            List<Long> page = new ArrayList<>(Math.min(size, Math.max(0, total)));
+            if (offset < total) {
+                PeekableIntIterator iterator = matches.getIntIterator();
+                iterator.advanceIfNeeded(matches.select((int) offset));
+                while (iterator.hasNext() && page.size() < size) {
+                    page.add(contactIds[iterator.next()]);
+                }
+            }
+            return new Page(page, total);
+        }
+
+        private RoaringBitmap union(Collection<String> tags) {
+            return FastAggregation.or(tags.stream()
+                    .map(bitmaps::get)
+                    .filter(Objects::nonNull)
+                    .iterator());
+        }
+
+        synchronized Map<String, Integer> tagCounts() {
+
+            Map<String, Integer> counts = new TreeMap<>();
+            bitmaps.forEach((tag, bitmap) -> counts.put(tag, bitmap.getCardinality()));
+            return counts;
+        }
+    }
+}
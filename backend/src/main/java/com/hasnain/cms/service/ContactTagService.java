@@ -0,0 +1,182 @@
+package com.hasnain.cms.service;
+
+import com.hasnain.cms.dto.ContactDTO;
+import com.hasnain.cms.dto.TagCountDTO;
+import com.hasnain.cms.entity.Contact;
+import com.hasnain.cms.entity.ContactTag;
+import com.hasnain.cms.entity.User;
+import com.hasnain.cms.event.ContactTagsChangedEvent;
+import com.hasnain.cms.exception.InvalidTagException;
+import com.hasnain.cms.exception.RequestLimitExceededException;
+import com.hasnain.cms.exception.ResourceNotFoundException;
+import com.hasnain.cms.repository.ContactRepository;
+import com.hasnain.cms.repository.ContactTagRepository;
+import com.hasnain.cms.security.SecurityUser;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+
+@Slf4j
+@Service
+public class ContactTagService {
+
+    private final ContactRepository contactRepository;
+
+    private final ContactTagRepository contactTagRepository;
+
+    private final ContactTagIndex contactTagIndex;
+
+    private final ContactService contactService;
+
+    private final UserService userService;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${contacts.tags.max-per-contact:20}")
+    private int maxTagsPerContact = 20;
+
+    @Value("${contacts.tags.max-length:50}")
+    private int maxTagLength = 50;
+
+    @Value("${contacts.tags.max-filter-tags:20}")
+    private int maxFilterTags = 20;
+
+    @Value("${contacts.lookup.max-ids:1000}")
+    private int maxLookupIds = 1000;
+
+    public ContactTagService(ContactRepository contactRepository, ContactTagRepository contactTagRepository,
+                             ContactTagIndex contactTagIndex, ContactService contactService,
+                             UserService userService, ApplicationEventPublisher eventPublisher) {
+        this.contactRepository = contactRepository;
+        this.contactTagRepository = contactTagRepository;
+        this.contactTagIndex = contactTagIndex;
+        this.contactService = contactService;
+        this.userService = userService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public List<String> getTags(String identifier, Long contactId) {
+
+        log.debug("Fetching tags of contact ID {} for user '{}'.", contactId, identifier);
+        UserDetails userDetails = userService.loadUserByUsername(identifier);
+        User user = ((SecurityUser) userDetails).getUser();
+        findContact(user, contactId, identifier);
+        return contactTagRepository.findNamesByContactId(contactId);
+    }
+
+    @Transactional
+    public List<String> setTags(String identifier, Long contactId, Collection<String> tags) {
+
+        log.info("User '{}' attempting to set {} tags on contact ID: {}.", identifier, tags.size(), contactId);
+        Set<String> normalizedTags = normalize(tags);
+        if (normalizedTags.size() > maxTagsPerContact) {
+            log.warn("Tagging failed: User '{}' set {} tags on contact ID {}, limit is {}.", identifier,
+                    normalizedTags.size(), contactId, maxTagsPerContact);
+            throw new RequestLimitExceededException(
+                    "A contact cannot have more than " + maxTagsPerContact + " tags.");
+        }
+
+        UserDetails userDetails = userService.loadUserByUsername(identifier);
+        User user = ((SecurityUser) userDetails).getUser();
+        Contact contact = findContact(user, contactId, identifier);
+
+        contactTagRepository.deleteByContactId(contactId);
+        contactTagRepository.saveAll(normalizedTags.stream()
+                .map(tag -> new ContactTag(null, tag, contact))
+                .toList());
+
+        log.info("Successfully set {} tags on contact ID: {} for user '{}'.", normalizedTags.size(), contactId,
+                identifier);
+        eventPublisher.publishEvent(new ContactTagsChangedEvent(user.getUserId(), contactId,
+                Set.copyOf(normalizedTags)));
+        return List.copyOf(normalizedTags);
+    }
+
+    public List<TagCountDTO> getTagCounts(String identifier) {
+
+        UserDetails userDetails = userService.loadUserByUsername(identifier);
+        User user = ((SecurityUser) userDetails).getUser();
+        return contactTagIndex.tagCounts(user.getUserId()).entrySet().stream()
+                .map(entry -> new TagCountDTO(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    /**
+     * Returns a page of the contacts carrying every tag in {@code allOf}, at least one tag in {@code anyOf} (when
+     * given) and no tag in {@code noneOf}.
+     * <p>
+     * Deliberately not transactional: a tag index built by this call has to read the database after it starts
+     * queueing changes, not from a snapshot taken earlier in the request.
+     */
+    public List<ContactDTO> filterContacts(String identifier, Collection<String> allOf, Collection<String> anyOf,
+                                           Collection<String> noneOf, int page, int size) {
+
+        Set<String> required = normalize(allOf);
+        Set<String> optional = normalize(anyOf);
+        Set<String> excluded = normalize(noneOf);
+        log.debug("Filtering contacts for user '{}' by tags, all: {}, any: {}, none: {}.", identifier, required,
+                optional, excluded);
+        int filterTags = required.size() + optional.size() + excluded.size();
+        if (filterTags == 0) {
+            throw new InvalidTagException("At least one tag is required to filter contacts.");
+        }
+        if (filterTags > maxFilterTags) {
+            log.warn("Tag filter failed: User '{}' used {} tags, limit is {}.", identifier, filterTags,
+                    maxFilterTags);
+            throw new RequestLimitExceededException("A filter cannot use more than " + maxFilterTags + " tags.");
+        }
+        PageRequest pageRequest = PageRequest.of(page, size);
+
+        UserDetails userDetails = userService.loadUserByUsername(identifier);
+        User user = ((SecurityUser) userDetails).getUser();
+        ContactTagIndex.Page matches = contactTagIndex.filter(user.getUserId(), required, optional, excluded,
+                pageRequest.getOffset(), pageRequest.getPageSize());
+        // A page can be larger than one id lookup may request, so the contacts are loaded a lookup's worth at a time.
+        List<Long> contactIds = matches.contactIds();
+        List<ContactDTO> contacts = new ArrayList<>(contactIds.size());
+        int lookupSize = Math.max(1, maxLookupIds);
+        for (int start = 0; start < contactIds.size(); start += lookupSize) {
+            contacts.addAll(contactService.getContactsByIds(identifier,
+                    contactIds.subList(start, Math.min(start + lookupSize, contactIds.size()))).getContacts());
+        }
+
+        log.info("Tag filter matched {} contacts for user '{}', returning {} (Page: {}).", matches.total(),
+                identifier, contacts.size(), page);
+        return contacts;
+    }
+
+    private Contact findContact(User user, Long contactId, String identifier) {
+        return contactRepository.findByIdAndUserId(contactId, user.getUserId())
+                .orElseThrow(() -> {
+                    log.warn("Tag access failed: Contact ID {} not found for user '{}'.", contactId, identifier);
+                    return new ResourceNotFoundException("Contact not found");
+                });
+    }
+
+    private Set<String> normalize(Collection<String> tags) {
+
+        Set<String> normalized = new TreeSet<>();
+        if (tags == null) {
+            return normalized;
+        }
+        for (String tag : tags) {
+            String name = tag == null ? "" : tag.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+            if (name.isEmpty() || name.length() > maxTagLength) {
+                throw new InvalidTagException("Tags must be between 1 and " + maxTagLength + " characters long.");
+            }
+            normalized.add(name);
+        }
+        return normalized;
+    }
+}
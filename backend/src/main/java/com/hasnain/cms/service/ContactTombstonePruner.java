@@ -0,0 +1,94 @@
+package com.hasnain.cms.service;
+
+import com.hasnain.cms.repository.ContactTombstoneRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Deletes contact tombstones older than {@code contacts.sync.tombstone-retention-days}, one user at a time, so the
+ * table holds a bounded window of deletions instead of every delete ever made. Clients that have not synced within
+ * that window are sent back to a full sync by {@link ContactSyncService}.
+ */
+@Slf4j
+@Service
+public class ContactTombstonePruner {
+
+    private final ContactSyncService contactSyncService;
+
+    private final ContactTombstoneRepository contactTombstoneRepository;
+
+    private final long retentionMs;
+
+    private final ScheduledExecutorService scheduler;
+
+    public ContactTombstonePruner(ContactSyncService contactSyncService,
+                                  ContactTombstoneRepository contactTombstoneRepository,
+                                  @Value("${contacts.sync.tombstone-retention-days:30}") long retentionDays,
+                                  @Value("${contacts.sync.tombstone-prune-interval-minutes:60}")
+                                  long pruneIntervalMinutes) {
+        this.contactSyncService = contactSyncService;
+        this.contactTombstoneRepository = contactTombstoneRepository;
+        this.retentionMs = Duration.ofDays(retentionDays).toMillis();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("contact-tombstone-pruner-"));
+        if (retentionDays > 0 && pruneIntervalMinutes > 0) {
+            scheduler.scheduleWithFixedDelay(this::pruneSafely, pruneIntervalMinutes, pruneIntervalMinutes,
+                    TimeUnit.MINUTES);
+        }
+    }
+
+    /**
+     * Prunes the tombstones of every user with one past the retention period.
+     *
+     * @return the number of tombstones deleted
+     */
+    public int prune() {
+
+        long started = System.nanoTime();
+        long deletedBefore = System.currentTimeMillis() - retentionMs;
+        List<Long> userIds = contactTombstoneRepository.findUserIdsWithTombstonesDeletedBefore(deletedBefore);
+        int pruned = 0;
+        for (Long userId : userIds) {
+            try {
+                pruned += contactSyncService.pruneTombstones(userId, deletedBefore);
+            } catch (RuntimeException exception) {
+                log.warn("Pruning tombstones failed for user ID {}: {}", userId, exception.getMessage());
+            }
+        }
+
+        log.info("Pruned {} contact tombstones of {} users in {} ms.", pruned, userIds.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        return pruned;
+    }
+
+    private void pruneSafely() {
+        try {
+            prune();
+        } catch (RuntimeException exception) {
+            log.error("Tombstone pruning failed: {}", exception.getMessage(), exception);
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
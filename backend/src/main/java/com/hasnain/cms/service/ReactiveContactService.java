@@ -0,0 +1,142 @@
+package com.hasnain.cms.service;
+
+import com.hasnain.cms.dto.ContactDTO;
+import com.hasnain.cms.dto.ContactEmailDTO;
+import com.hasnain.cms.dto.ContactPhoneDTO;
+import com.hasnain.cms.exception.ResourceNotFoundException;
+import io.r2dbc.spi.Readable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Read-only contact queries over R2DBC, for clients that hold many slow reads open at once. No thread is parked on
+ * the database while a query runs, and streamed results are read from the database only as fast as the client
+ * consumes them.
+ * <p>
+ * Reads go straight to the database and so bypass the list, detail and second-level caches of {@link ContactService}.
+ * Callers pass the id of the already authenticated user. Every query is scoped to it.
+ */
+@Slf4j
+@Service
+public class ReactiveContactService {
+
+    private static final String SELECT_CONTACTS = "SELECT id, first_name, last_name, title FROM contacts "
+            + "WHERE user_id = :userId";
+
+    private static final String SEARCH_CONDITION = " AND (LOWER(first_name) LIKE :term ESCAPE '!' "
+            + "OR LOWER(last_name) LIKE :term ESCAPE '!')";
+
+    private final DatabaseClient databaseClient;
+
+    @Value("${contacts.reactive.stream-batch-size:200}")
+    private int streamBatchSize = 200;
+
+    public ReactiveContactService(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<ContactDTO> getUserContacts(Long userId, String searchTerm, int page, int size) {
+
+        log.debug("Reactively fetching contacts for user ID {}, Search: '{}' Page: {}, Size: {}.", userId,
+                searchTerm == null ? "N/A" : searchTerm, page, size);
+        PageRequest pageRequest = PageRequest.of(page, size);
+        return contactQuery(userId, searchTerm, " ORDER BY id LIMIT :limit OFFSET :offset")
+                .bind("limit", pageRequest.getPageSize())
+                .bind("offset", pageRequest.getOffset())
+                .map(ReactiveContactService::toContact)
+                .all()
+                .collectList()
+                .flatMapMany(this::withDetails);
+    }
+
+    /**
+     * Streams every matching contact in id order. Contacts are read and completed with their emails and phones one
+     * batch at a time, and the next batch is only requested once the client has taken the previous one.
+     */
+    public Flux<ContactDTO> streamUserContacts(Long userId, String searchTerm) {
+
+        log.debug("Streaming contacts for user ID {}, Search: '{}'.", userId, searchTerm == null ? "N/A" : searchTerm);
+        return contactQuery(userId, searchTerm, " ORDER BY id")
+                .map(ReactiveContactService::toContact)
+                .all()
+                .buffer(streamBatchSize)
+                .concatMap(this::withDetails, 1);
+    }
+
+    public Mono<ContactDTO> getContactById(Long userId, Long id) {
+
+        log.debug("Reactively fetching contact ID {} for user ID {}.", id, userId);
+        return databaseClient.sql(SELECT_CONTACTS + " AND id = :id")
+                .bind("userId", userId)
+                .bind("id", id)
+                .map(ReactiveContactService::toContact)
+                .one()
+                .switchIfEmpty(Mono.error(() -> {
+                    log.warn("Reactive contact fetch failed: Contact ID {} not found for user ID {}.", id, userId);
+                    return new ResourceNotFoundException("Contact not found");
+                }))
+                .flatMap(contact -> withDetails(List.of(contact)).next());
+    }
+
+    private DatabaseClient.GenericExecuteSpec contactQuery(Long userId, String searchTerm, String suffix) {
+
+        if (!StringUtils.hasText(searchTerm)) {
+            return databaseClient.sql(SELECT_CONTACTS + suffix).bind("userId", userId);
+        }
+        // Matches the case-insensitive "containing" search of the blocking API, with LIKE wildcards taken literally.
+        String pattern = "%" + searchTerm.toLowerCase(Locale.ROOT).replaceAll("([!%_])", "!$1") + "%";
+        return databaseClient.sql(SELECT_CONTACTS + SEARCH_CONDITION + suffix)
+                .bind("userId", userId)
+                .bind("term", pattern);
+    }
+
+    private Flux<ContactDTO> withDetails(List<ContactDTO> contacts) {
+
+        if (contacts.isEmpty()) {
+            return Flux.empty();
+        }
+        List<Long> ids = contacts.stream().map(ContactDTO::getId).toList();
+        Mono<Map<Long, List<ContactEmailDTO>>> emails = databaseClient
+                .sql("SELECT id, label, email, contact_id FROM contact_emails WHERE contact_id IN (:ids) ORDER BY id")
+                .bind("ids", ids)
+                .map(row -> Map.entry(row.get("contact_id", Long.class), new ContactEmailDTO(row.get("id", Long.class),
+                        row.get("label", String.class), row.get("email", String.class))))
+                .all()
+                .collect(Collectors.groupingBy(Map.Entry::getKey,
+                        Collectors.mapping(Map.Entry::getValue, Collectors.toList())));
+        Mono<Map<Long, List<ContactPhoneDTO>>> phones = databaseClient
+                .sql("SELECT id, label, phone_number, contact_id FROM contact_phones WHERE contact_id IN (:ids) "
+                        + "ORDER BY id")
+                .bind("ids", ids)
+                .map(row -> Map.entry(row.get("contact_id", Long.class), new ContactPhoneDTO(row.get("id", Long.class),
+                        row.get("label", String.class), row.get("phone_number", String.class))))
+                .all()
+                .collect(Collectors.groupingBy(Map.Entry::getKey,
+                        Collectors.mapping(Map.Entry::getValue, Collectors.toList())));
+
+        return Mono.zip(emails, phones).flatMapIterable(details -> {
+            for (ContactDTO contact : contacts) {
+                contact.setEmails(details.getT1().getOrDefault(contact.getId(), new ArrayList<>()));
+                contact.setPhones(details.getT2().getOrDefault(contact.getId(), new ArrayList<>()));
+            }
+            return contacts;
+        });
+    }
+
+    private static ContactDTO toContact(Readable row) {
+        return new ContactDTO(row.get("id", Long.class), row.get("first_name", String.class),
+                row.get("last_name", String.class), row.get("title", String.class), null, null);
+    }
+}
@@ -8,18 +8,20 @@ import com.hasnain.cms.exception.InvalidIdentifierFormatException;
 import com.hasnain.cms.mapper.UserMapper;
 import com.hasnain.cms.repository.UserRepository;
 import com.hasnain.cms.security.SecurityUser;
-import jakarta.transaction.Transactional;
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
 @Slf4j
 @Service
+@Timed("cms.service")
 public class UserService implements UserDetailsService {
 
     private final UserRepository userRepository;
@@ -31,7 +33,9 @@ public class UserService implements UserDetailsService {
         this.passwordEncoder = passwordEncoder;
     }
 
+    // Read-only, so that with read replicas configured a lookup outside a write transaction goes to one.
     @Override
+    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String identifier) throws UsernameNotFoundException {
         log.debug("Looking up user by identifier: {}", identifier);
         Optional<User> userOptional;
@@ -1,6 +1,9 @@
 package com.hasnain.cms;
 
 import com.hasnain.cms.repository.ContactRepository;
+import com.hasnain.cms.repository.ContactTagRepository;
+import com.hasnain.cms.repository.ContactTombstoneRepository;
+import com.hasnain.cms.repository.UserChangeSequenceRepository;
 import com.hasnain.cms.repository.UserRepository;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -15,6 +18,15 @@ class CMSApplicationTests {
     @MockBean
     private ContactRepository contactRepository;
 
+    @MockBean
+    private ContactTombstoneRepository contactTombstoneRepository;
+
+    @MockBean
+    private ContactTagRepository contactTagRepository;
+
+    @MockBean
+    private UserChangeSequenceRepository userChangeSequenceRepository;
+
 	@Test
 	void contextLoads() {
         // This test ensures that the Spring Boot application context loads successfully.
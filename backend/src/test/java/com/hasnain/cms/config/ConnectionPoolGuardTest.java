@@ -0,0 +1,88 @@
+package com.hasnain.cms.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConnectionPoolGuardTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private HikariDataSource hikariDataSource;
+
+    private HikariPoolMXBean pool;
+
+    private DataSource guarded;
+
+    @BeforeEach
+    void setUp() {
+        hikariDataSource = mock(HikariDataSource.class);
+        pool = mock(HikariPoolMXBean.class);
+        when(hikariDataSource.getPoolName()).thenReturn("cms");
+        when(hikariDataSource.getHikariPoolMXBean()).thenReturn(pool);
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("meterRegistry", meterRegistry);
+        ConnectionPoolGuard guard = new ConnectionPoolGuard(2, beanFactory.getBeanProvider(MeterRegistry.class));
+        guarded = (DataSource) guard.postProcessAfterInitialization(hikariDataSource, "dataSource");
+    }
+
+    @Test
+    void getConnection_BelowPendingLimit_BorrowsFromPool() throws Exception {
+
+        Connection connection = mock(Connection.class);
+        when(pool.getThreadsAwaitingConnection()).thenReturn(1);
+        when(hikariDataSource.getConnection()).thenReturn(connection);
+
+        assertSame(connection, guarded.getConnection());
+        assertNull(meterRegistry.find("contacts.datasource.rejected").counter());
+    }
+
+    @Test
+    void getConnection_Failure_TooManyPending_RejectsWithoutWaiting() throws Exception {
+
+        when(pool.getThreadsAwaitingConnection()).thenReturn(2);
+
+        assertThrows(SQLTransientConnectionException.class, guarded::getConnection);
+        verify(hikariDataSource, never()).getConnection();
+        assertEquals(1.0, meterRegistry.get("contacts.datasource.rejected").tag("reason", "pending").counter()
+                .count());
+    }
+
+    @Test
+    void getConnection_Failure_AcquireTimeout_IsCounted() throws Exception {
+
+        when(hikariDataSource.getConnection()).thenThrow(new SQLTransientConnectionException("timed out"));
+
+        assertThrows(SQLTransientConnectionException.class, guarded::getConnection);
+        assertEquals(1.0, meterRegistry.get("contacts.datasource.rejected").tag("reason", "timeout").counter()
+                .count());
+    }
+
+    @Test
+    void close_ShutsDownThePool() throws Exception {
+
+        ((AutoCloseable) guarded).close();
+
+        verify(hikariDataSource).close();
+    }
+
+    @Test
+    void postProcess_LeavesOtherBeansAlone() {
+
+        DataSource other = mock(DataSource.class);
+
+        assertSame(other, new ConnectionPoolGuard(2, new StaticListableBeanFactory()
+                .getBeanProvider(MeterRegistry.class)).postProcessAfterInitialization(other, "other"));
+    }
+}
@@ -0,0 +1,127 @@
+package com.hasnain.cms.config;
+
+import com.hasnain.cms.entity.Contact;
+import com.hasnain.cms.entity.ContactEmail;
+import com.hasnain.cms.entity.User;
+import com.hasnain.cms.repository.ContactRepository;
+import com.hasnain.cms.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Contact ids drawn from pooled sequences: inserts go out as JDBC batches, and rows keyed before the sequences existed
+ * are skipped.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(PropertyPlaceholderAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.autoconfigure.exclude=",
+        "spring.datasource.url=jdbc:h2:mem:id-sequences;MODE=MySQL;NON_KEYWORDS=USER",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+class ContactIdSequencesTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+
+        contactRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        User newUser = new User();
+        newUser.setEmail("sequences@test.com");
+        newUser.setPassword("password");
+        user = userRepository.save(newUser);
+    }
+
+    private List<Contact> saveContacts(int count) {
+
+        List<Contact> contacts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Contact contact = new Contact();
+            contact.setFirstName("Contact" + i);
+            contact.setUser(user);
+            ContactEmail email = new ContactEmail();
+            email.setEmail("contact" + i + "@example.com");
+            email.setContact(contact);
+            contact.getEmails().add(email);
+            contacts.add(contact);
+        }
+        return new TransactionTemplate(transactionManager).execute(status -> contactRepository.saveAll(contacts));
+    }
+
+    @Test
+    void contactInserts_AreBatched() {
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        saveContacts(120);
+
+        // Per table, three batches and three sequence round trips rather than 120 single-row inserts.
+        assertTrue(statistics.getPrepareStatementCount() < 20,
+                "prepared statements: " + statistics.getPrepareStatementCount());
+        assertEquals(120, contactRepository.count());
+    }
+
+    // A fresh context, as at startup: ids another test drew would otherwise still be pooled in memory.
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void sequencesBehindExistingIds_AreMovedPastThem() {
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO contacts (id, first_name, change_sequence, created_sequence, user_id) "
+                + "VALUES (1000, 'Keyed', 1, 1, ?)", user.getUserId());
+        jdbcTemplate.update("INSERT INTO contact_emails (id, email, contact_id) VALUES (2000, 'keyed@example.com', "
+                + "1000)");
+        jdbcTemplate.execute("ALTER SEQUENCE contacts_seq RESTART WITH 1");
+        jdbcTemplate.execute("ALTER SEQUENCE contact_emails_seq RESTART WITH 1");
+
+        ContactIdSequences sequences = new ContactIdSequences(dataSource, entityManagerFactory);
+        sequences.afterPropertiesSet();
+        sequences.afterPropertiesSet();
+
+        Contact saved = saveContacts(1).get(0);
+        assertTrue(saved.getId() > 1000, "contact id: " + saved.getId());
+        assertTrue(saved.getEmails().get(0).getId() > 2000, "email id: " + saved.getEmails().get(0).getId());
+    }
+}
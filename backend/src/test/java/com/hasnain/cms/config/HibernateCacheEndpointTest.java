@@ -0,0 +1,77 @@
+package com.hasnain.cms.config;
+
+import com.hasnain.cms.dto.CacheRegionStatisticsDTO;
+import com.hasnain.cms.dto.CacheStatisticsDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HibernateCacheEndpointTest {
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private SessionFactory sessionFactory;
+
+    @Mock
+    private Statistics statistics;
+
+    private HibernateCacheEndpoint endpoint;
+
+    private static CacheRegionStatistics region(long hits, long misses, long puts) {
+        CacheRegionStatistics regionStatistics = mock(CacheRegionStatistics.class);
+        when(regionStatistics.getHitCount()).thenReturn(hits);
+        when(regionStatistics.getMissCount()).thenReturn(misses);
+        when(regionStatistics.getPutCount()).thenReturn(puts);
+        return regionStatistics;
+    }
+
+    @BeforeEach
+    void setUp() {
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getStatistics()).thenReturn(statistics);
+        endpoint = new HibernateCacheEndpoint(entityManagerFactory);
+        when(statistics.getSecondLevelCacheRegionNames()).thenReturn(new String[]{"users", "contacts"});
+    }
+
+    @Test
+    void statistics_ReportsTotalsAndEveryRegionByName() {
+
+        CacheRegionStatistics contacts = region(3, 1, 1);
+        CacheRegionStatistics users = region(0, 0, 2);
+        when(statistics.getCacheRegionStatistics("contacts")).thenReturn(contacts);
+        when(statistics.getCacheRegionStatistics("users")).thenReturn(users);
+        when(statistics.getSecondLevelCacheHitCount()).thenReturn(3L);
+        when(statistics.getSecondLevelCacheMissCount()).thenReturn(1L);
+        when(statistics.getSecondLevelCachePutCount()).thenReturn(3L);
+        when(statistics.getQueryCacheHitCount()).thenReturn(5L);
+
+        CacheStatisticsDTO result = endpoint.statistics();
+
+        assertEquals(3L, result.getHits());
+        assertEquals(5L, result.getQueryHits());
+        assertEquals(List.of(new CacheRegionStatisticsDTO("contacts", 3, 1, 1, 0.75),
+                new CacheRegionStatisticsDTO("users", 0, 0, 2, 0)), result.getRegions());
+    }
+
+    @Test
+    void region_UnknownName_IsNotLookedUp() {
+
+        assertNull(endpoint.region("unknown"));
+        verify(statistics, never()).getCacheRegionStatistics(anyString());
+    }
+}
@@ -1,5 +1,7 @@
 package com.hasnain.cms.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -27,6 +29,9 @@ class JwtAuthFilterTest {
     @Mock
     private UserDetailsService userDetailsService;
 
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @Mock
     private HttpServletRequest request;
 
@@ -73,6 +78,7 @@ class JwtAuthFilterTest {
         assertNotNull(auth);
         assertInstanceOf(UsernamePasswordAuthenticationToken.class, auth);
         assertEquals("testUser", auth.getName());
+        assertEquals(1, meterRegistry.get("cms.auth.filter").tag("outcome", "authenticated").timer().count());
 
         verify(filterChain).doFilter(request, response);
     }
@@ -89,6 +95,7 @@ class JwtAuthFilterTest {
         jwtAuthFilter.doFilterInternal(request, response, filterChain);
 
         assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertEquals(1, meterRegistry.get("cms.auth.filter").tag("outcome", "rejected").timer().count());
         verify(filterChain).doFilter(request, response);
     }
 
@@ -0,0 +1,39 @@
+package com.hasnain.cms.config;
+
+import com.hasnain.cms.journal.ContactChangeJournal;
+import com.hasnain.cms.service.ContactBulkService;
+import com.hasnain.cms.service.ContactDuplicateService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LazyInitializationConfigTest {
+
+    private final LazyInitializationExcludeFilter filter = LazyInitializationConfig.eagerRequestPathBeans();
+
+    private boolean eager(Class<?> type) {
+        return filter.isExcluded("bean", new RootBeanDefinition(type), type);
+    }
+
+    @Test
+    void requestPathBeans_StayEager() {
+
+        assertTrue(eager(HikariDataSource.class));
+        assertTrue(eager(LocalContainerEntityManagerFactoryBean.class));
+        assertTrue(eager(JwtAuthFilter.class));
+        assertTrue(eager(JwtService.class));
+        assertTrue(eager(TimedPasswordEncoder.class));
+        assertTrue(eager(ContactChangeJournal.class));
+    }
+
+    @Test
+    void occasionalServices_MayBeLazy() {
+
+        assertFalse(eager(ContactBulkService.class));
+        assertFalse(eager(ContactDuplicateService.class));
+    }
+}
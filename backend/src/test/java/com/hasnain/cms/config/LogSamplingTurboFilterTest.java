@@ -0,0 +1,73 @@
+package com.hasnain.cms.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogSamplingTurboFilterTest {
+
+    private final LoggerContext context = new LoggerContext();
+
+    private final LogSamplingTurboFilter filter = new LogSamplingTurboFilter();
+
+    private Logger controllerLogger;
+
+    @BeforeEach
+    void setUp() {
+        context.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(Level.INFO);
+        controllerLogger = context.getLogger("com.hasnain.cms.controller.ContactController");
+        filter.setLoggers("com.hasnain.cms.controller, com.hasnain.cms.service");
+        filter.setMaxPerSecond(3);
+        filter.setSampleRate(2);
+    }
+
+    private FilterReply info(Logger logger) {
+        return filter.decide(null, logger, Level.INFO, "User '{}' requesting contacts.", new Object[]{"u"}, null);
+    }
+
+    @Test
+    void decide_PassesBudgetThenSamplesOneInN() {
+
+        int passed = 0;
+        for (int i = 0; i < 9; i++) {
+            if (info(controllerLogger) == FilterReply.NEUTRAL) {
+                passed++;
+            }
+        }
+
+        // Three within the budget, then every second one of the remaining six. Unless the second rolled over.
+        assertTrue(passed >= 6, "passed " + passed);
+        assertEquals(9 - passed, filter.getSampledOut());
+    }
+
+    @Test
+    void decide_NeverSamplesWarningsOrOtherLoggers() {
+
+        filter.setMaxPerSecond(0);
+        filter.setSampleRate(0);
+        Logger other = context.getLogger("org.hibernate.SQL");
+
+        assertEquals(FilterReply.DENY, info(controllerLogger));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, controllerLogger, Level.WARN, "slow", null, null));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, controllerLogger, Level.ERROR, "failed", null, null));
+        assertEquals(FilterReply.NEUTRAL, info(other));
+        assertEquals(1, filter.getSampledOut());
+    }
+
+    @Test
+    void decide_DisabledLevelsAndEnabledChecks_DoNotSpendBudget() {
+
+        filter.setMaxPerSecond(1);
+        filter.setSampleRate(0);
+
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, controllerLogger, Level.DEBUG, "hidden", null, null));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, controllerLogger, Level.INFO, null, null, null));
+        assertEquals(FilterReply.NEUTRAL, info(controllerLogger));
+        assertEquals(0, filter.getSampledOut());
+    }
+}
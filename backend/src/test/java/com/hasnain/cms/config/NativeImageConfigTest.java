@@ -0,0 +1,71 @@
+package com.hasnain.cms.config;
+
+import com.hasnain.cms.dto.ContactDTO;
+import com.hasnain.cms.dto.UserRegistrationDTO;
+import com.hasnain.cms.entity.Contact;
+import com.hasnain.cms.entity.ContactEmail;
+import com.hasnain.cms.entity.ContactPhone;
+import com.hasnain.cms.entity.ContactTag;
+import com.hasnain.cms.entity.ContactTombstone;
+import com.hasnain.cms.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.util.ClassUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NativeImageConfigTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    NativeImageConfigTest() {
+        new NativeImageConfig.Hints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void everyEntity_IsRegisteredForHibernate() {
+
+        for (Class<?> entity : List.of(Contact.class, ContactEmail.class, ContactPhone.class, ContactTag.class,
+                ContactTombstone.class, User.class)) {
+            assertTrue(RuntimeHintsPredicates.reflection().onType(entity)
+                    .withMemberCategories(MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)
+                    .test(hints), entity.getName());
+        }
+    }
+
+    @Test
+    void lombokAccessorsOfDtos_AreRegisteredForJackson() throws NoSuchMethodException {
+
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(ContactDTO.class.getMethod("getFirstName"))
+                .test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(ContactDTO.class.getMethod("setFirstName",
+                String.class)).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(UserRegistrationDTO.class).test(hints));
+    }
+
+    @Test
+    void jjwtImplementation_IsRegisteredAndPresent() {
+
+        for (String type : NativeImageConfig.JJWT_TYPES) {
+            assertTrue(ClassUtils.isPresent(type, getClass().getClassLoader()), type);
+            assertTrue(RuntimeHintsPredicates.reflection().onType(TypeReference.of(type))
+                    .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS).test(hints), type);
+        }
+    }
+
+    @Test
+    void logbackComponentsAndResources_AreRegistered() {
+
+        for (String type : NativeImageConfig.LOGBACK_TYPES) {
+            assertTrue(ClassUtils.isPresent(type, getClass().getClassLoader()), type);
+            assertTrue(RuntimeHintsPredicates.reflection().onType(TypeReference.of(type)).test(hints), type);
+        }
+        assertTrue(RuntimeHintsPredicates.resource().forResource("proto/contacts.proto").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("ehcache.xml").test(hints));
+    }
+}
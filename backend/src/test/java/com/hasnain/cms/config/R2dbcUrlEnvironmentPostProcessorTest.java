@@ -0,0 +1,47 @@
+package com.hasnain.cms.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class R2dbcUrlEnvironmentPostProcessorTest {
+
+    private final R2dbcUrlEnvironmentPostProcessor postProcessor = new R2dbcUrlEnvironmentPostProcessor();
+
+    private String r2dbcUrl(MockEnvironment environment) {
+        postProcessor.postProcessEnvironment(environment, new SpringApplication());
+        return environment.getProperty("spring.r2dbc.url");
+    }
+
+    @Test
+    void blankR2dbcUrl_DerivedFromJdbcUrl_WithoutDriverOptions() {
+
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.datasource.url", "jdbc:mysql://db:3306/cms?rewriteBatchedStatements=true")
+                .withProperty("spring.r2dbc.url", "");
+
+        assertEquals("r2dbc:mysql://db:3306/cms", r2dbcUrl(environment));
+    }
+
+    @Test
+    void r2dbcUrlSet_IsKept() {
+
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.datasource.url", "jdbc:mysql://db:3306/cms")
+                .withProperty("spring.r2dbc.url", "r2dbc:mysql://reader:3306/cms");
+
+        assertEquals("r2dbc:mysql://reader:3306/cms", r2dbcUrl(environment));
+    }
+
+    @Test
+    void jdbcUrlWithoutHost_IsNotDerived() {
+
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.datasource.url", "jdbc:h2:mem:cms;MODE=MySQL");
+
+        assertNull(r2dbcUrl(environment));
+        assertNull(R2dbcUrlEnvironmentPostProcessor.r2dbcUrl(null));
+    }
+}
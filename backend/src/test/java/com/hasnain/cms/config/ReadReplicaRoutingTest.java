@@ -0,0 +1,221 @@
+package com.hasnain.cms.config;
+
+import com.hasnain.cms.entity.User;
+import com.hasnain.cms.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Routing through JPA transactions, with two in-memory H2 databases standing in for the primary and a replica. Nothing
+ * replicates between them: the replica's schema is copied from the primary's, and the tests put rows and heartbeats
+ * on each side directly, so which database answered shows in what a query finds.
+ */
+@DataJpaTest
+@ActiveProfiles("embedded")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// The routing is a bean post-processor, and its settings are read before the slice's own placeholder fallback exists.
+@ImportAutoConfiguration(PropertyPlaceholderAutoConfiguration.class)
+@Import({ReadReplicaConfig.class, ConnectionPoolGuard.class, ReadReplicaRoutingTest.Metrics.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.autoconfigure.exclude=",
+        "spring.datasource.url=" + ReadReplicaRoutingTest.PRIMARY_URL,
+        "contacts.datasource.replicas=" + ReadReplicaRoutingTest.REPLICA_URL,
+        "contacts.datasource.replica-check-interval-ms=3600000",
+        "contacts.datasource.replica-max-lag-ms=1000",
+        "contacts.datasource.read-your-writes-window-ms=3600000"
+})
+class ReadReplicaRoutingTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1";
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1";
+
+    @TestConfiguration
+    static class Metrics {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final JdbcTemplate primary = new JdbcTemplate(new DriverManagerDataSource(PRIMARY_URL, "sa", ""));
+
+    private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    private ReplicaRoutingDataSource router;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        router = dataSource.unwrap(ReplicaRoutingDataSource.class);
+        replica.execute("DROP ALL OBJECTS");
+        primary.queryForList("SCRIPT NODATA", String.class).forEach(replica::execute);
+        primary.update("DELETE FROM User");
+        insertUser(primary, 1_000, "primary@routing.test");
+        insertUser(replica, 2_000, "replica@routing.test");
+        replicateHeartbeat();
+        router.checkReplicas();
+    }
+
+    @Test
+    void readOnlyTransaction_ReadsReplica_OtherTransactionsReadPrimary() {
+
+        long replicaReads = routed("replica", "replica-1");
+
+        assertEquals("replica@routing.test", emails(true));
+        assertEquals("primary@routing.test", emails(false));
+        assertEquals(replicaReads + 1, routed("replica", "replica-1"));
+    }
+
+    @Test
+    void readOnlyTransaction_AfterOwnCommittedWrite_ReadsPrimary() {
+
+        try (ReadYourWrites.Scope ignored = ReadYourWrites.forUser("ada@routing.test")) {
+            save("ada@routing.test");
+
+            assertEquals("ada@routing.test,primary@routing.test", emails(true));
+        }
+        try (ReadYourWrites.Scope ignored = ReadYourWrites.forUser("alan@routing.test")) {
+            assertEquals("replica@routing.test", emails(true));
+        }
+    }
+
+    // As a change stream catching up: the rows it looks for may not have reached the replica yet.
+    @Test
+    void readOnlyTransaction_OnPrimary_ReadsPrimaryWithNoUserBound() {
+
+        try (ReadYourWrites.Scope ignored = ReadYourWrites.onPrimary()) {
+            assertEquals("primary@routing.test", emails(true));
+        }
+        assertEquals("replica@routing.test", emails(true));
+    }
+
+    @Test
+    void sessionOpenAcrossTransactions_AsInView_ReadsReplicaThenPrimary() {
+
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+        try {
+            assertEquals("replica@routing.test", emails(true));
+            assertEquals("primary@routing.test", emails(false));
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            entityManager.close();
+        }
+    }
+
+    @Test
+    void readOnlyRepositoryCall_OutsideTransaction_ReadsReplica() {
+        assertEquals(List.of("replica@routing.test"), userRepository.findAll().stream().map(User::getEmail).toList());
+    }
+
+    @Test
+    void laggingReplica_IsTakenOutOfRotation_UntilCaughtUp() {
+
+        replica.update("UPDATE replication_heartbeat SET beat_at = beat_at - 60000");
+        router.checkReplicas();
+
+        assertFalse(router.replicas().get(0).healthy());
+        assertEquals("primary@routing.test", emails(true));
+        assertTrue(meterRegistry.get("contacts.datasource.replica.lag").tag("replica", "replica-1").gauge()
+                .value() >= 60000);
+
+        replicateHeartbeat();
+        router.checkReplicas();
+
+        assertTrue(router.replicas().get(0).healthy());
+        assertEquals("replica@routing.test", emails(true));
+    }
+
+    @Test
+    void replicaWithoutHeartbeat_IsNotTrusted() {
+
+        replica.update("DELETE FROM replication_heartbeat");
+        router.checkReplicas();
+
+        assertFalse(router.replicas().get(0).healthy());
+        assertEquals("primary@routing.test", emails(true));
+    }
+
+    private String emails(boolean readOnly) {
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> String.join(",", userRepository.findAll().stream()
+                .map(User::getEmail)
+                .sorted()
+                .toList()));
+    }
+
+    private void save(String email) {
+
+        User user = new User();
+        user.setEmail(email);
+        user.setPassword("hash");
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> userRepository.save(user));
+    }
+
+    private long routed(String route, String target) {
+
+        Timer timer = meterRegistry.find("contacts.datasource.route").tag("route", route).tag("target", target).timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    // Ids apart from the primary's, so the second-level cache cannot mix up the two users.
+    private static void insertUser(JdbcTemplate database, long userId, String email) {
+        database.update("INSERT INTO User (user_id, email, password) VALUES (?, ?, 'hash')",
+                userId, email);
+    }
+
+    // What replication would do with the primary's latest heartbeat.
+    private void replicateHeartbeat() {
+
+        Long beat = primary.queryForObject("SELECT beat_at FROM replication_heartbeat WHERE id = 1", Long.class);
+        replica.update("DELETE FROM replication_heartbeat");
+        replica.update("INSERT INTO replication_heartbeat (id, beat_at) VALUES (1, ?)", beat);
+    }
+}
@@ -0,0 +1,227 @@
+package com.hasnain.cms.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private static final String ADA = "ada@example.com";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AtomicLong now = new AtomicLong();
+
+    private final Connection primaryConnection = mock(Connection.class, RETURNS_MOCKS);
+
+    private final Connection firstConnection = mock(Connection.class);
+
+    private final Connection secondConnection = mock(Connection.class);
+
+    private DataSource primary;
+
+    private DataSource first;
+
+    private DataSource second;
+
+    private ReplicaRoutingDataSource router;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        primary = mock(DataSource.class);
+        first = mock(DataSource.class);
+        second = mock(DataSource.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(first.getConnection()).thenReturn(firstConnection);
+        when(second.getConnection()).thenReturn(secondConnection);
+        when(firstConnection.isValid(anyInt())).thenReturn(true);
+        when(secondConnection.isValid(anyInt())).thenReturn(true);
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", first);
+        replicas.put("replica-2", second);
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("meterRegistry", meterRegistry);
+        // Lag is checked against the heartbeat in ReadReplicaRoutingTest; here only whether a replica answers.
+        router = new ReplicaRoutingDataSource(primary, replicas, new ReadYourWrites(Duration.ofSeconds(5), now::get),
+                -1, beanFactory.getBeanProvider(MeterRegistry.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clear();
+    }
+
+    @Test
+    void getConnection_OutsideReadOnlyTransaction_UsesPrimary() throws Exception {
+
+        router.checkReplicas();
+
+        assertSame(primaryConnection, router.getConnection());
+        assertEquals(1, routed("primary", "primary"));
+    }
+
+    @Test
+    void getConnection_ReadOnly_TakesHealthyReplicasInTurn() throws Exception {
+
+        router.checkReplicas();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(firstConnection, router.getConnection());
+        assertSame(secondConnection, router.getConnection());
+        assertSame(firstConnection, router.getConnection());
+        assertEquals(2, routed("replica", "replica-1"));
+        assertEquals(1, routed("replica", "replica-2"));
+        assertEquals(1.0, meterRegistry.get("contacts.datasource.replica.healthy").tag("replica", "replica-1")
+                .gauge().value());
+    }
+
+    @Test
+    void getConnection_ReadOnly_BeforeFirstCheck_FallsBackToPrimary() throws Exception {
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(primaryConnection, router.getConnection());
+        verifyNoInteractions(first, second);
+    }
+
+    @Test
+    void getConnection_ReplicaRefusing_IsTakenOutUntilNextCheck() throws Exception {
+
+        router.checkReplicas();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(first.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        assertSame(secondConnection, router.getConnection());
+        assertSame(secondConnection, router.getConnection());
+        assertFalse(router.replicas().get(0).healthy());
+
+        when(second.getConnection()).thenThrow(new SQLException("Connection refused"));
+        assertSame(primaryConnection, router.getConnection());
+        assertEquals(1, routed("fallback", "primary"));
+
+        doReturn(firstConnection).when(first).getConnection();
+        router.checkReplicas();
+        assertTrue(router.replicas().get(0).healthy());
+    }
+
+    @Test
+    void getConnection_AfterCommittedWrite_UsersOwnReadsUsePrimaryForWindow() throws Exception {
+
+        router.checkReplicas();
+        try (ReadYourWrites.Scope ignored = ReadYourWrites.forUser(ADA)) {
+            commitWrite();
+
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+            assertSame(primaryConnection, router.getConnection());
+            assertEquals(1, routed("read-your-writes", "primary"));
+
+            now.addAndGet(TimeUnit.SECONDS.toNanos(6));
+            assertSame(firstConnection, router.getConnection());
+        }
+    }
+
+    @Test
+    void getConnection_AfterCommittedWrite_OtherUsersStillReadReplicas() throws Exception {
+
+        router.checkReplicas();
+        try (ReadYourWrites.Scope ignored = ReadYourWrites.forUser(ADA)) {
+            commitWrite();
+        }
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        try (ReadYourWrites.Scope ignored = ReadYourWrites.forUser("alan@example.com")) {
+            assertSame(firstConnection, router.getConnection());
+        }
+        assertSame(secondConnection, router.getConnection());
+    }
+
+    @Test
+    void getConnection_RolledBackWrite_StartsNoWindow() throws Exception {
+
+        router.checkReplicas();
+        try (ReadYourWrites.Scope ignored = ReadYourWrites.forUser(ADA)) {
+            TransactionSynchronizationManager.initSynchronization();
+            TransactionSynchronizationManager.setActualTransactionActive(true);
+            router.getConnection();
+            TransactionSynchronizationManager.clear();
+
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+            assertSame(firstConnection, router.getConnection());
+        }
+    }
+
+    @Test
+    void getConnection_OnPrimary_ReadsPrimaryWithoutAWrite() throws Exception {
+
+        router.checkReplicas();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        try (ReadYourWrites.Scope ignored = ReadYourWrites.onPrimary()) {
+            assertSame(primaryConnection, router.getConnection());
+            assertEquals(1, routed("pinned", "primary"));
+        }
+        assertFalse(ReadYourWrites.onPrimaryOnly());
+        assertSame(firstConnection, router.getConnection());
+    }
+
+    @Test
+    void forUser_RestoresPreviousUser() {
+
+        try (ReadYourWrites.Scope ignored = ReadYourWrites.forUser(ADA)) {
+            try (ReadYourWrites.Scope nested = ReadYourWrites.forUser("alan@example.com")) {
+                assertEquals("alan@example.com", ReadYourWrites.currentUser());
+            }
+            assertEquals(ADA, ReadYourWrites.currentUser());
+        }
+        assertNull(ReadYourWrites.currentUser());
+    }
+
+    @Test
+    void close_ClosesReplicaPoolsOnly() throws Exception {
+
+        DataSource closeablePrimary = mock(DataSource.class, withSettings().extraInterfaces(Closeable.class));
+        DataSource closeableReplica = mock(DataSource.class, withSettings().extraInterfaces(Closeable.class));
+        ReplicaRoutingDataSource closing = new ReplicaRoutingDataSource(closeablePrimary,
+                Map.of("replica-1", closeableReplica), new ReadYourWrites(Duration.ofSeconds(5)), -1,
+                new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class));
+
+        closing.close();
+
+        verify((Closeable) closeableReplica).close();
+        verify((Closeable) closeablePrimary, never()).close();
+    }
+
+    // A write transaction that takes a connection and commits.
+    private void commitWrite() throws SQLException {
+
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        assertSame(primaryConnection, router.getConnection());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clear();
+    }
+
+    private long routed(String route, String target) {
+        return meterRegistry.get("contacts.datasource.route").tag("route", route).tag("target", target).timer()
+                .count();
+    }
+}
@@ -0,0 +1,65 @@
+package com.hasnain.cms.config;
+
+import com.hasnain.cms.entity.User;
+import com.hasnain.cms.repository.ContactRepository;
+import com.hasnain.cms.repository.ContactTagRepository;
+import com.hasnain.cms.repository.ContactTombstoneRepository;
+import com.hasnain.cms.repository.UserChangeSequenceRepository;
+import com.hasnain.cms.repository.UserRepository;
+import com.hasnain.cms.security.SecurityUser;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "management.endpoints.web.exposure.include=health,metrics")
+@AutoConfigureMockMvc
+class SecurityConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UserRepository userRepository;
+
+    @MockBean
+    private ContactRepository contactRepository;
+
+    @MockBean
+    private ContactTombstoneRepository contactTombstoneRepository;
+
+    @MockBean
+    private ContactTagRepository contactTagRepository;
+
+    @MockBean
+    private UserChangeSequenceRepository userChangeSequenceRepository;
+
+    private static SecurityUser securityUser(boolean admin) {
+
+        User user = new User();
+        user.setUserId(1L);
+        user.setEmail("operator@test.com");
+        user.setPassword("password");
+        user.setAdmin(admin);
+        return new SecurityUser(user);
+    }
+
+    @Test
+    void health_IsOpen() throws Exception {
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+    }
+
+    @Test
+    void otherActuatorEndpoints_RequireAdmin() throws Exception {
+
+        mockMvc.perform(get("/actuator/metrics")).andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics").with(user(securityUser(false)))).andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics").with(user(securityUser(true)))).andExpect(status().isOk());
+    }
+}
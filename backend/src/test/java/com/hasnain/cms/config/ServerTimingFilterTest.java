@@ -0,0 +1,76 @@
+package com.hasnain.cms.config;
+
+import com.hasnain.cms.config.ServerTiming.Phase;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServerTimingFilterTest {
+
+    private final ServerTimingFilter filter = new ServerTimingFilter(500);
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/contacts");
+
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Test
+    void doFilter_WritesPhasesRecordedDownTheChain() throws Exception {
+
+        FilterChain chain = (req, res) -> {
+            ServerTiming.begin(Phase.SERVICE);
+            ServerTiming.end(Phase.SERVICE);
+        };
+
+        filter.doFilter(request, response, chain);
+
+        String header = response.getHeader(ServerTimingFilter.HEADER);
+        assertNotNull(header);
+        assertTrue(header.startsWith("service;desc=\"Service logic\";dur="), header);
+        assertTrue(header.contains("total;dur="), header);
+    }
+
+    @Test
+    void doFilter_KeepsHeaderWrittenBeforeSerialization() throws Exception {
+
+        FilterChain chain = (req, res) -> {
+            response.setHeader(ServerTimingFilter.HEADER, "written-by-advice");
+            ServerTiming.begin(Phase.SERIALIZATION);
+        };
+
+        filter.doFilter(request, response, chain);
+
+        assertEquals("written-by-advice", response.getHeader(ServerTimingFilter.HEADER));
+        ServerTiming timing = (ServerTiming) request.getAttribute(ServerTimingFilter.TIMING_ATTRIBUTE);
+        assertFalse(timing.isRunning(Phase.SERIALIZATION));
+    }
+
+    @Test
+    void doFilter_UnbindsTimingFromThreadAfterwards() throws Exception {
+
+        filter.doFilter(request, response, (req, res) -> {
+        });
+
+        ServerTiming timing = (ServerTiming) request.getAttribute(ServerTimingFilter.TIMING_ATTRIBUTE);
+        ServerTiming.begin(Phase.SERVICE);
+        ServerTiming.end(Phase.SERVICE);
+        assertEquals(0, timing.getNanos(Phase.SERVICE));
+    }
+
+    @Test
+    void doFilter_ChainFails_StillUnbindsTiming() {
+
+        MockHttpServletRequest failing = new MockHttpServletRequest("GET", "/api/contacts");
+
+        assertThrows(IllegalStateException.class, () -> filter.doFilter(failing, response, (req, res) -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        ServerTiming timing = (ServerTiming) failing.getAttribute(ServerTimingFilter.TIMING_ATTRIBUTE);
+        ServerTiming.begin(Phase.DB);
+        ServerTiming.end(Phase.DB);
+        assertEquals(0, timing.getNanos(Phase.DB));
+    }
+}
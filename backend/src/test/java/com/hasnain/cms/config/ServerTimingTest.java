@@ -0,0 +1,79 @@
+package com.hasnain.cms.config;
+
+import com.hasnain.cms.config.ServerTiming.Phase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServerTimingTest {
+
+    private ServerTiming timing;
+
+    @AfterEach
+    void tearDown() {
+        if (timing != null) {
+            timing.detach();
+        }
+    }
+
+    @Test
+    void begin_WithoutRequest_RecordsNothing() {
+
+        ServerTiming.begin(Phase.SERVICE);
+        ServerTiming.end(Phase.SERVICE);
+
+        timing = ServerTiming.start();
+        assertEquals(0, timing.getNanos(Phase.SERVICE));
+        assertFalse(timing.isRunning(Phase.SERVICE));
+    }
+
+    @Test
+    void begin_Nested_CountsOuterPhaseOnce() throws InterruptedException {
+
+        timing = ServerTiming.start();
+
+        ServerTiming.begin(Phase.SERVICE);
+        ServerTiming.begin(Phase.SERVICE);
+        Thread.sleep(5);
+        ServerTiming.end(Phase.SERVICE);
+        assertTrue(timing.isRunning(Phase.SERVICE));
+        ServerTiming.end(Phase.SERVICE);
+
+        long service = timing.getNanos(Phase.SERVICE);
+        assertTrue(service >= 5_000_000, "service took " + service);
+        assertTrue(service <= timing.getElapsedNanos());
+        ServerTiming.end(Phase.SERVICE);
+        assertEquals(service, timing.getNanos(Phase.SERVICE));
+    }
+
+    @Test
+    void toHeaderValue_ListsRecordedPhasesAndTotal() {
+
+        timing = ServerTiming.start();
+        ServerTiming.begin(Phase.JWT);
+        ServerTiming.end(Phase.JWT);
+        ServerTiming.begin(Phase.DB);
+        ServerTiming.end(Phase.DB);
+
+        String header = timing.toHeaderValue();
+
+        assertTrue(header.matches("jwt;desc=\"Token parse and verify\";dur=\\d+\\.\\d, "
+                + "db;desc=\"SQL execution\";dur=\\d+\\.\\d, total;dur=\\d+\\.\\d"), header);
+        assertTrue(timing.toLogValue().matches("total=\\d+\\.\\d jwt=\\d+\\.\\d db=\\d+\\.\\d"),
+                timing.toLogValue());
+    }
+
+    @Test
+    void detach_StopsRecordingOnTheThread() {
+
+        timing = ServerTiming.start();
+        timing.detach();
+
+        ServerTiming.begin(Phase.MAPPING);
+        ServerTiming.end(Phase.MAPPING);
+
+        assertEquals(0, timing.getNanos(Phase.MAPPING));
+        assertEquals("total;dur=", timing.toHeaderValue().replaceAll("[\\d.]", ""));
+    }
+}
@@ -0,0 +1,39 @@
+package com.hasnain.cms.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlStatementCountAdviceTest {
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/contacts");
+
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    private String headerWrittenBy(SqlStatementCountAdvice advice) {
+
+        ServletServerHttpResponse serverResponse = new ServletServerHttpResponse(response);
+        try (SqlStatementCounter counter = SqlStatementCounter.start()) {
+            request.setAttribute(SqlStatementFilter.COUNTER_ATTRIBUTE, counter);
+            advice.beforeBodyWrite("body", null, MediaType.APPLICATION_JSON, MappingJackson2HttpMessageConverter.class,
+                    new ServletServerHttpRequest(request), serverResponse);
+        }
+        return serverResponse.getHeaders().getFirst(SqlStatementCountAdvice.HEADER);
+    }
+
+    @Test
+    void beforeBodyWrite_Enabled_WritesStatementCount() {
+        assertEquals("0", headerWrittenBy(new SqlStatementCountAdvice(true)));
+    }
+
+    @Test
+    void beforeBodyWrite_Disabled_LeavesHeaderOut() {
+        assertNull(headerWrittenBy(new SqlStatementCountAdvice(false)));
+    }
+}
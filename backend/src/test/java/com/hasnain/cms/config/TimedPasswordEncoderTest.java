@@ -0,0 +1,27 @@
+package com.hasnain.cms.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimedPasswordEncoderTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final TimedPasswordEncoder passwordEncoder = new TimedPasswordEncoder(new BCryptPasswordEncoder(4),
+            meterRegistry);
+
+    @Test
+    void encodeAndMatches_DelegateAndAreTimed() {
+
+        String encoded = passwordEncoder.encode("secret");
+
+        assertTrue(passwordEncoder.matches("secret", encoded));
+        assertFalse(passwordEncoder.matches("wrong", encoded));
+        assertEquals(1, meterRegistry.get("cms.password").tag("operation", "encode").timer().count());
+        assertEquals(2, meterRegistry.get("cms.password").tag("operation", "matches").timer().count());
+    }
+}
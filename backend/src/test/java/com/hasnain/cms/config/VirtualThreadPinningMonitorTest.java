@@ -0,0 +1,31 @@
+package com.hasnain.cms.config;
+
+import com.hasnain.cms.dto.PinnedStackDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadPinningMonitorTest {
+
+    private final VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(20, 12);
+
+    @Test
+    void pinnedStacks_AggregatesPerStackWorstFirst() {
+
+        monitor.record("\tat com.mysql.cj.NativeSession.execSQL(line 1)", Duration.ofMillis(30));
+        monitor.record("\tat org.example.Cache.get(line 7)", Duration.ofMillis(25));
+        monitor.record("\tat com.mysql.cj.NativeSession.execSQL(line 1)", Duration.ofMillis(50));
+
+        assertEquals(List.of(
+                new PinnedStackDTO("\tat com.mysql.cj.NativeSession.execSQL(line 1)", 2, 80, 50),
+                new PinnedStackDTO("\tat org.example.Cache.get(line 7)", 1, 25, 25)), monitor.pinnedStacks());
+    }
+
+    @Test
+    void pinnedStacks_EmptyUntilSomethingPins() {
+        assertTrue(monitor.pinnedStacks().isEmpty());
+    }
+}
@@ -1,18 +1,55 @@
 package com.hasnain.cms.controller;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufMapper;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchema;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchemaLoader;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.hasnain.cms.config.ContactProtobufHttpMessageConverter;
 import com.hasnain.cms.config.JwtService;
+import com.hasnain.cms.config.WebConfig;
+import com.hasnain.cms.dto.ContactBulkOperationDTO;
+import com.hasnain.cms.dto.ContactBulkRequestDTO;
+import com.hasnain.cms.dto.ContactBulkResponseDTO;
+import com.hasnain.cms.dto.ContactBulkResultDTO;
+import com.hasnain.cms.dto.ContactChangeDTO;
+import com.hasnain.cms.dto.ContactChangesResponseDTO;
 import com.hasnain.cms.dto.ContactDTO;
+import com.hasnain.cms.dto.ContactDuplicateGroupDTO;
 import com.hasnain.cms.dto.ContactEmailDTO;
+import com.hasnain.cms.dto.ContactLookupRequestDTO;
+import com.hasnain.cms.dto.ContactLookupResponseDTO;
+import com.hasnain.cms.dto.ContactMergeRequestDTO;
+import com.hasnain.cms.dto.ContactTagsDTO;
 import com.hasnain.cms.dto.ContactPhoneDTO;
+import com.hasnain.cms.dto.TagCountDTO;
 import com.hasnain.cms.entity.Contact;
+import com.hasnain.cms.event.ContactChangeType;
 import com.hasnain.cms.exception.DuplicateContactException;
 import com.hasnain.cms.exception.InvalidIdentifierFormatException;
+import com.hasnain.cms.exception.InvalidMergeRequestException;
+import com.hasnain.cms.exception.InvalidSyncCursorException;
+import com.hasnain.cms.exception.InvalidTagException;
+import com.hasnain.cms.exception.RequestLimitExceededException;
 import com.hasnain.cms.exception.ResourceNotFoundException;
 import com.hasnain.cms.exception.UnauthorizedAccessException;
+import com.hasnain.cms.service.ContactBulkService;
+import com.hasnain.cms.service.ContactChangeStreamService;
+import com.hasnain.cms.service.ContactDuplicateService;
 import com.hasnain.cms.service.ContactService;
+import com.hasnain.cms.service.ContactSyncService;
+import com.hasnain.cms.service.ContactTagService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.context.TestConfiguration;
@@ -23,11 +60,21 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.net.ConnectException;
+import java.sql.SQLTransientConnectionException;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -48,6 +95,11 @@ class ContactControllerTest {
                     .csrf(AbstractHttpConfigurer::disable);
             return http.build();
         }
+
+        @Bean
+        public MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
     }
 
     @Autowired
@@ -56,9 +108,27 @@ class ContactControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @MockBean
     private ContactService contactService;
 
+    @MockBean
+    private ContactBulkService contactBulkService;
+
+    @MockBean
+    private ContactSyncService contactSyncService;
+
+    @MockBean
+    private ContactChangeStreamService contactChangeStreamService;
+
+    @MockBean
+    private ContactDuplicateService contactDuplicateService;
+
+    @MockBean
+    private ContactTagService contactTagService;
+
     @MockBean
     private JwtService jwtService;
 
@@ -88,6 +158,17 @@ class ContactControllerTest {
                 List.of(new ContactPhoneDTO(1L, "home", "03123456789")));
     }
 
+    private static ProtobufMapper protobufMapper() {
+        ProtobufMapper mapper = new ProtobufMapper();
+        mapper.setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE);
+        return mapper;
+    }
+
+    private static ProtobufSchema protobufSchema(String type) throws Exception {
+        return ProtobufSchemaLoader.std.loadNative(ContactControllerTest.class.getClassLoader()
+                .getResource("proto/contacts.proto")).forType(type);
+    }
+
     private String asJsonString(final Object object) {
         try {
             return objectMapper.writeValueAsString(object);
@@ -111,7 +192,8 @@ class ContactControllerTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.length()").value(2))
                 .andExpect(jsonPath("$[0].firstName").value("Hasnain"))
-                .andExpect(jsonPath("$[1].firstName").value("John"));
+                .andExpect(jsonPath("$[1].firstName").value("John"))
+                .andExpect(header().string("Server-Timing", containsString("total;dur=")));
     }
 
     @Test
@@ -304,7 +386,7 @@ class ContactControllerTest {
     @Test
     void getContact_Success_Returns200AndContact() throws Exception {
 
-        when(contactService.getContactById(TEST_USER_EMAIL, 1L)).thenReturn(contactDTO1);
+        when(contactService.getContactJson(TEST_USER_EMAIL, 1L)).thenReturn(objectMapper.writeValueAsBytes(contactDTO1));
 
         mockMvc.perform(get("/api/contacts/1")
                         .with(user(TEST_USER_EMAIL)))
@@ -314,11 +396,106 @@ class ContactControllerTest {
                 .andExpect(jsonPath("$.firstName").value("Hasnain"));
     }
 
+    @Test
+    void getContact_Smile_ReturnsSmileEncodedContact() throws Exception {
+
+        when(contactService.getContactById(TEST_USER_EMAIL, 1L)).thenReturn(contactDTO1);
+
+        byte[] body = mockMvc.perform(get("/api/contacts/1")
+                        .with(user(TEST_USER_EMAIL))
+                        .accept(WebConfig.APPLICATION_SMILE_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(WebConfig.APPLICATION_SMILE_VALUE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertEquals(contactDTO1, new SmileMapper().readValue(body, ContactDTO.class));
+        verify(contactService, never()).getContactJson(any(), any());
+    }
+
+    @Test
+    void getContacts_Cbor_ReturnsCborEncodedList() throws Exception {
+
+        when(contactService.getUserContacts(TEST_USER_EMAIL, null, 0, 10)).thenReturn(List.of(contactDTO1, contactDTO2));
+
+        byte[] body = mockMvc.perform(get("/api/contacts")
+                        .with(user(TEST_USER_EMAIL))
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertEquals(List.of(contactDTO1, contactDTO2),
+                new CBORMapper().readValue(body, new TypeReference<List<ContactDTO>>() { }));
+    }
+
+    @Test
+    void getContacts_Protobuf_ReturnsContactListMessage() throws Exception {
+
+        when(contactService.getUserContacts(TEST_USER_EMAIL, null, 0, 10)).thenReturn(List.of(contactDTO1, contactDTO2));
+
+        byte[] body = mockMvc.perform(get("/api/contacts")
+                        .with(user(TEST_USER_EMAIL))
+                        .accept(ContactProtobufHttpMessageConverter.APPLICATION_PROTOBUF))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ContactProtobufHttpMessageConverter.APPLICATION_PROTOBUF))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode contacts = protobufMapper().readerFor(JsonNode.class).with(protobufSchema("ContactList"))
+                .readValue(body);
+        assertEquals(2, contacts.get("contacts").size());
+        assertEquals("Hasnain", contacts.get("contacts").get(0).get("first_name").asText());
+        assertEquals("03134567890",
+                contacts.get("contacts").get(0).get("phones").get(0).get("phone_number").asText());
+    }
+
+    @Test
+    void getContact_Protobuf_ContactNotFound_ReturnsProtobufError() throws Exception {
+
+        when(contactService.getContactById(TEST_USER_EMAIL, 99L))
+                .thenThrow(new ResourceNotFoundException("Contact not found"));
+
+        byte[] body = mockMvc.perform(get("/api/contacts/99")
+                        .with(user(TEST_USER_EMAIL))
+                        .accept(ContactProtobufHttpMessageConverter.APPLICATION_PROTOBUF))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(ContactProtobufHttpMessageConverter.APPLICATION_PROTOBUF))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode error = protobufMapper().readerFor(JsonNode.class).with(protobufSchema("ErrorResponse"))
+                .readValue(body);
+        assertEquals("error", error.get("errors").get(0).get("key").asText());
+        assertEquals("Contact not found", error.get("errors").get(0).get("value").asText());
+    }
+
+    @Test
+    void createContact_Protobuf_ReadsAndWritesProtobuf() throws Exception {
+
+        ContactDTO savedContact = new ContactDTO(3L, "New", "Contact", "Analyst",
+                List.of(new ContactEmailDTO(1L, "home", "new@example.com")),
+                List.of(new ContactPhoneDTO(1L, "home", "03123456789")));
+        when(contactService.createContact(eq(TEST_USER_EMAIL), any(Contact.class))).thenReturn(savedContact);
+
+        byte[] body = mockMvc.perform(post("/api/contacts")
+                        .with(user(TEST_USER_EMAIL))
+                        .contentType(ContactProtobufHttpMessageConverter.APPLICATION_PROTOBUF)
+                        .accept(ContactProtobufHttpMessageConverter.APPLICATION_PROTOBUF)
+                        .content(protobufMapper().writer(protobufSchema("Contact")).writeValueAsBytes(contactDTONoId)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        ArgumentCaptor<Contact> contact = ArgumentCaptor.forClass(Contact.class);
+        verify(contactService).createContact(eq(TEST_USER_EMAIL), contact.capture());
+        assertEquals("New", contact.getValue().getFirstName());
+        assertEquals("new@example.com", contact.getValue().getEmails().get(0).getEmail());
+        assertEquals(savedContact, protobufMapper().readerFor(ContactDTO.class).with(protobufSchema("Contact"))
+                .readValue(body));
+    }
+
     @Test
     void getContact_Failure_ContactNotFound_Returns404NotFound() throws Exception {
 
         String errorMessage = "Contact not found";
-        when(contactService.getContactById(TEST_USER_EMAIL, 99L))
+        when(contactService.getContactJson(TEST_USER_EMAIL, 99L))
                 .thenThrow(new ResourceNotFoundException(errorMessage));
 
         mockMvc.perform(get("/api/contacts/99")
@@ -328,11 +505,36 @@ class ContactControllerTest {
                 .andExpect(jsonPath("$.error").value(errorMessage));
     }
 
+    @Test
+    void getContact_Failure_ContactNotFound_RecordsErrorAndPayloadMetrics() throws Exception {
+
+        when(contactService.getContactJson(TEST_USER_EMAIL, 98L))
+                .thenThrow(new ResourceNotFoundException("Contact not found"));
+        double errorsBefore = errorCount("ResourceNotFoundException", "404");
+
+        mockMvc.perform(get("/api/contacts/98")
+                        .with(user(TEST_USER_EMAIL)))
+                .andExpect(status().isNotFound());
+
+        assertEquals(errorsBefore + 1, errorCount("ResourceNotFoundException", "404"));
+        DistributionSummary responseSize = meterRegistry.get("cms.http.payload")
+                .tags("direction", "response", "method", "GET", "uri", "/api/contacts/{id}")
+                .summary();
+        assertTrue(responseSize.count() > 0);
+        assertTrue(responseSize.max() > 0);
+    }
+
+    private double errorCount(String exception, String status) {
+        Counter counter = meterRegistry.find("cms.api.errors").tags("exception", exception, "status", status)
+                .counter();
+        return counter == null ? 0 : counter.count();
+    }
+
     @Test
     void getContact_Failure_UnauthorizedAccess_Returns403Forbidden() throws Exception {
 
         String errorMessage = "Unauthorized access to this contact";
-        when(contactService.getContactById(TEST_USER_EMAIL, 1L))
+        when(contactService.getContactJson(TEST_USER_EMAIL, 1L))
                 .thenThrow(new UnauthorizedAccessException(errorMessage));
 
         mockMvc.perform(get("/api/contacts/1")
@@ -342,11 +544,38 @@ class ContactControllerTest {
                 .andExpect(jsonPath("$.error").value(errorMessage));
     }
 
+    @Test
+    void getContact_Failure_ConnectionPoolSaturated_Returns503ServiceUnavailable() throws Exception {
+
+        when(contactService.getContactJson(TEST_USER_EMAIL, 1L))
+                .thenThrow(new CannotCreateTransactionException("Could not open JPA EntityManager for transaction",
+                        new SQLTransientConnectionException("Connection is not available, request timed out")));
+
+        mockMvc.perform(get("/api/contacts/1")
+                        .with(user(TEST_USER_EMAIL)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.error").value("The service is busy, please retry shortly."));
+    }
+
+    @Test
+    void getContact_Failure_DatabaseDown_Returns500InternalServerError() throws Exception {
+
+        when(contactService.getContactJson(TEST_USER_EMAIL, 1L))
+                .thenThrow(new CannotCreateTransactionException("Could not open JPA EntityManager for transaction",
+                        new ConnectException("Connection refused")));
+
+        mockMvc.perform(get("/api/contacts/1")
+                        .with(user(TEST_USER_EMAIL)))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.error").value("An unexpected server error occurred."));
+    }
+
     @Test
     void getContact_Failure_InvalidIdentifierFormat_Returns400BadRequest() throws Exception {
 
         String errorMessage = "Invalid identifier. Must be a valid email or phone number.";
-        when(contactService.getContactById(TEST_USER_EMAIL, 1L))
+        when(contactService.getContactJson(TEST_USER_EMAIL, 1L))
                 .thenThrow(new InvalidIdentifierFormatException(errorMessage));
 
         mockMvc.perform(get("/api/contacts/1")
@@ -360,7 +589,7 @@ class ContactControllerTest {
     void getContact_Failure_UserNotFound_Returns404NotFound() throws Exception {
 
         String errorMessage = "User not found with identifier: " + TEST_USER_EMAIL;
-        when(contactService.getContactById(TEST_USER_EMAIL, 1L))
+        when(contactService.getContactJson(TEST_USER_EMAIL, 1L))
                 .thenThrow(new ResourceNotFoundException(errorMessage));
 
         mockMvc.perform(get("/api/contacts/1")
@@ -373,7 +602,7 @@ class ContactControllerTest {
     @Test
     void getContact_ServiceFailure_Returns500() throws Exception {
 
-        when(contactService.getContactById(TEST_USER_EMAIL, 1L))
+        when(contactService.getContactJson(TEST_USER_EMAIL, 1L))
                 .thenThrow(new RuntimeException("Database error"));
 
         mockMvc.perform(get("/api/contacts/1")
@@ -592,4 +821,292 @@ class ContactControllerTest {
                         .with(user(TEST_USER_EMAIL)))
                 .andExpect(status().isInternalServerError());
     }
+
+    @Test
+    void bulkMutateContacts_AllSucceeded_Returns200() throws Exception {
+
+        ContactBulkRequestDTO request = new ContactBulkRequestDTO(ContactBulkRequestDTO.Mode.ATOMIC, List.of(
+                new ContactBulkOperationDTO(ContactBulkOperationDTO.Type.CREATE, null, contactDTONoId),
+                new ContactBulkOperationDTO(ContactBulkOperationDTO.Type.DELETE, 2L, null)));
+        ContactBulkResponseDTO response = new ContactBulkResponseDTO(ContactBulkRequestDTO.Mode.ATOMIC, 2, 0, List.of(
+                new ContactBulkResultDTO(0, ContactBulkOperationDTO.Type.CREATE, 3L, 201, null, contactDTO1),
+                new ContactBulkResultDTO(1, ContactBulkOperationDTO.Type.DELETE, 2L, 200, null, null)));
+        when(contactBulkService.applyBulk(eq(TEST_USER_EMAIL), any(ContactBulkRequestDTO.class))).thenReturn(response);
+
+        mockMvc.perform(post("/api/contacts/bulk")
+                        .with(user(TEST_USER_EMAIL))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(2))
+                .andExpect(jsonPath("$.results[0].status").value(201))
+                .andExpect(jsonPath("$.results[0].contact.firstName").value("Hasnain"))
+                .andExpect(jsonPath("$.results[1].type").value("DELETE"));
+    }
+
+    @Test
+    void bulkMutateContacts_SomeFailed_Returns207MultiStatus() throws Exception {
+
+        ContactBulkRequestDTO request = new ContactBulkRequestDTO(ContactBulkRequestDTO.Mode.BEST_EFFORT, List.of(
+                new ContactBulkOperationDTO(ContactBulkOperationDTO.Type.DELETE, 2L, null)));
+        ContactBulkResponseDTO response = new ContactBulkResponseDTO(ContactBulkRequestDTO.Mode.BEST_EFFORT, 0, 1,
+                List.of(new ContactBulkResultDTO(0, ContactBulkOperationDTO.Type.DELETE, 2L, 404,
+                        "Contact not found", null)));
+        when(contactBulkService.applyBulk(eq(TEST_USER_EMAIL), any(ContactBulkRequestDTO.class))).thenReturn(response);
+
+        mockMvc.perform(post("/api/contacts/bulk")
+                        .with(user(TEST_USER_EMAIL))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(request)))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.results[0].error").value("Contact not found"));
+    }
+
+    @Test
+    void bulkMutateContacts_NoOperations_Returns400BadRequest() throws Exception {
+
+        ContactBulkRequestDTO request = new ContactBulkRequestDTO(ContactBulkRequestDTO.Mode.ATOMIC, List.of());
+
+        mockMvc.perform(post("/api/contacts/bulk")
+                        .with(user(TEST_USER_EMAIL))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.operations").value("At least one operation is required"));
+    }
+
+    @Test
+    void getContactsByIds_Success_Returns200WithContactsAndNotFound() throws Exception {
+
+        when(contactService.getContactsByIds(TEST_USER_EMAIL, List.of(1L, 2L, 7L)))
+                .thenReturn(new ContactLookupResponseDTO(List.of(contactDTO1, contactDTO2), List.of(7L)));
+
+        mockMvc.perform(get("/api/contacts")
+                        .param("ids", "1,2,7")
+                        .with(user(TEST_USER_EMAIL)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contacts.length()").value(2))
+                .andExpect(jsonPath("$.contacts[1].firstName").value("John"))
+                .andExpect(jsonPath("$.notFound[0]").value(7));
+    }
+
+    @Test
+    void getContactsByIds_TooManyIds_Returns400BadRequest() throws Exception {
+
+        String errorMessage = "A lookup cannot request more than 1000 contacts.";
+        when(contactService.getContactsByIds(eq(TEST_USER_EMAIL), anyList()))
+                .thenThrow(new RequestLimitExceededException(errorMessage));
+
+        mockMvc.perform(get("/api/contacts")
+                        .param("ids", "1,2")
+                        .with(user(TEST_USER_EMAIL)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value(errorMessage));
+    }
+
+    @Test
+    void lookupContacts_Success_Returns200() throws Exception {
+
+        when(contactService.getContactsByIds(TEST_USER_EMAIL, List.of(1L, 5L)))
+                .thenReturn(new ContactLookupResponseDTO(List.of(contactDTO1), List.of(5L)));
+
+        mockMvc.perform(post("/api/contacts/lookup")
+                        .with(user(TEST_USER_EMAIL))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(new ContactLookupRequestDTO(List.of(1L, 5L)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contacts[0].id").value(1))
+                .andExpect(jsonPath("$.notFound[0]").value(5));
+    }
+
+    @Test
+    void lookupContacts_EmptyIds_Returns400BadRequest() throws Exception {
+
+        mockMvc.perform(post("/api/contacts/lookup")
+                        .with(user(TEST_USER_EMAIL))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(new ContactLookupRequestDTO(List.of()))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.ids").value("At least one contact ID is required"));
+    }
+
+    @Test
+    void getContactChanges_Success_Returns200WithChangesAndCursor() throws Exception {
+
+        when(contactSyncService.getChanges(TEST_USER_EMAIL, "41", 100)).thenReturn(new ContactChangesResponseDTO(
+                List.of(new ContactChangeDTO(42L, ContactChangeType.UPDATED, 1L, contactDTO1),
+                        new ContactChangeDTO(43L, ContactChangeType.DELETED, 9L, null)),
+                "43", false));
+
+        mockMvc.perform(get("/api/contacts/changes")
+                        .param("since", "41")
+                        .param("limit", "100")
+                        .with(user(TEST_USER_EMAIL)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes.length()").value(2))
+                .andExpect(jsonPath("$.changes[0].type").value("UPDATED"))
+                .andExpect(jsonPath("$.changes[0].contact.id").value(1))
+                .andExpect(jsonPath("$.changes[1].type").value("DELETED"))
+                .andExpect(jsonPath("$.changes[1].id").value(9))
+                .andExpect(jsonPath("$.cursor").value("43"))
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    void getContactChanges_InvalidCursor_Returns400BadRequest() throws Exception {
+
+        when(contactSyncService.getChanges(TEST_USER_EMAIL, "abc", 500))
+                .thenThrow(new InvalidSyncCursorException("Invalid sync cursor: abc"));
+
+        mockMvc.perform(get("/api/contacts/changes")
+                        .param("since", "abc")
+                        .with(user(TEST_USER_EMAIL)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid sync cursor: abc"));
+    }
+
+    @Test
+    void streamContactChanges_Success_StartsAsyncStreamFromLastEventId() throws Exception {
+
+        when(contactChangeStreamService.subscribe(TEST_USER_EMAIL, "42")).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/contacts/stream")
+                        .header("Last-Event-ID", "42")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .with(user(TEST_USER_EMAIL)))
+                .andExpect(request().asyncStarted());
+    }
+
+    @Test
+    void streamContactChanges_TooManyStreams_Returns400BadRequest() throws Exception {
+
+        when(contactChangeStreamService.subscribe(TEST_USER_EMAIL, null))
+                .thenThrow(new RequestLimitExceededException("No more than 10 change streams can be open per account."));
+
+        mockMvc.perform(get("/api/contacts/stream")
+                        .with(user(TEST_USER_EMAIL)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("No more than 10 change streams can be open per account."));
+    }
+
+    @Test
+    void getDuplicateContacts_Success_Returns200WithGroups() throws Exception {
+
+        when(contactDuplicateService.getDuplicates(TEST_USER_EMAIL)).thenReturn(List.of(new ContactDuplicateGroupDTO(
+                Set.of(ContactDuplicateGroupDTO.Match.PHONE), List.of(contactDTO1, contactDTO2))));
+
+        mockMvc.perform(get("/api/contacts/duplicates")
+                        .with(user(TEST_USER_EMAIL)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].matchedOn[0]").value("PHONE"))
+                .andExpect(jsonPath("$[0].contacts.length()").value(2));
+    }
+
+    @Test
+    void mergeContacts_Success_Returns200WithMergedContact() throws Exception {
+
+        when(contactDuplicateService.mergeContacts(TEST_USER_EMAIL, 1L, List.of(2L))).thenReturn(contactDTO1);
+
+        mockMvc.perform(post("/api/contacts/1/merge")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ContactMergeRequestDTO(List.of(2L))))
+                        .with(user(TEST_USER_EMAIL)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1));
+    }
+
+    @Test
+    void mergeContacts_EmptyDuplicateIds_Returns400BadRequest() throws Exception {
+
+        mockMvc.perform(post("/api/contacts/1/merge")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ContactMergeRequestDTO(List.of())))
+                        .with(user(TEST_USER_EMAIL)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void mergeContacts_IntoItself_Returns400BadRequest() throws Exception {
+
+        when(contactDuplicateService.mergeContacts(TEST_USER_EMAIL, 1L, List.of(1L)))
+                .thenThrow(new InvalidMergeRequestException("A contact cannot be merged into itself."));
+
+        mockMvc.perform(post("/api/contacts/1/merge")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ContactMergeRequestDTO(List.of(1L))))
+                        .with(user(TEST_USER_EMAIL)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("A contact cannot be merged into itself."));
+    }
+
+    @Test
+    void setContactTags_Success_Returns200WithNormalizedTags() throws Exception {
+
+        when(contactTagService.setTags(TEST_USER_EMAIL, 1L, List.of("VIP", "customer")))
+                .thenReturn(List.of("customer", "vip"));
+
+        mockMvc.perform(put("/api/contacts/1/tags")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ContactTagsDTO(List.of("VIP", "customer"))))
+                        .with(user(TEST_USER_EMAIL)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tags[0]").value("customer"))
+                .andExpect(jsonPath("$.tags[1]").value("vip"));
+    }
+
+    @Test
+    void setContactTags_InvalidTag_Returns400BadRequest() throws Exception {
+
+        when(contactTagService.setTags(TEST_USER_EMAIL, 1L, List.of(" ")))
+                .thenThrow(new InvalidTagException("Tags must be between 1 and 50 characters long."));
+
+        mockMvc.perform(put("/api/contacts/1/tags")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ContactTagsDTO(List.of(" "))))
+                        .with(user(TEST_USER_EMAIL)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Tags must be between 1 and 50 characters long."));
+    }
+
+    @Test
+    void getContactTags_Success_Returns200WithTags() throws Exception {
+
+        when(contactTagService.getTags(TEST_USER_EMAIL, 1L)).thenReturn(List.of("vip"));
+
+        mockMvc.perform(get("/api/contacts/1/tags")
+                        .with(user(TEST_USER_EMAIL)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tags[0]").value("vip"));
+    }
+
+    @Test
+    void getTagCounts_Success_Returns200WithCounts() throws Exception {
+
+        when(contactTagService.getTagCounts(TEST_USER_EMAIL)).thenReturn(List.of(new TagCountDTO("vip", 3)));
+
+        mockMvc.perform(get("/api/contacts/tags")
+                        .with(user(TEST_USER_EMAIL)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].tag").value("vip"))
+                .andExpect(jsonPath("$[0].count").value(3));
+    }
+
+    @Test
+    void getContactsByTags_Success_Returns200WithMatchingContacts() throws Exception {
+
+        when(contactTagService.filterContacts(TEST_USER_EMAIL, List.of("vip", "customer"), null, List.of("vendor"),
+                1, 5)).thenReturn(List.of(contactDTO1));
+
+        mockMvc.perform(get("/api/contacts/tagged")
+                        .param("all", "vip", "customer")
+                        .param("none", "vendor")
+                        .param("page", "1")
+                        .param("size", "5")
+                        .with(user(TEST_USER_EMAIL)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(1));
+    }
 }
@@ -0,0 +1,158 @@
+package com.hasnain.cms.controller;
+
+import com.hasnain.cms.config.JwtService;
+import com.hasnain.cms.dto.ContactDTO;
+import com.hasnain.cms.dto.ContactEmailDTO;
+import com.hasnain.cms.entity.User;
+import com.hasnain.cms.exception.ResourceNotFoundException;
+import com.hasnain.cms.security.SecurityUser;
+import com.hasnain.cms.service.ReactiveContactService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ReactiveContactController.class)
+class ReactiveContactControllerTest {
+
+    @TestConfiguration
+    static class TestSecurityConfig {
+
+        @Bean
+        public SecurityFilterChain testSecurityFilterChain(HttpSecurity http) throws Exception {
+            http
+                    .authorizeHttpRequests(auth -> auth.
+                            anyRequest().authenticated())
+                    .httpBasic(AbstractHttpConfigurer::disable)
+                    .csrf(AbstractHttpConfigurer::disable);
+            return http.build();
+        }
+
+        @Bean
+        public MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ReactiveContactService reactiveContactService;
+
+    @MockBean
+    private JwtService jwtService;
+
+    private SecurityUser securityUser;
+
+    private ContactDTO contactDTO1;
+
+    private ContactDTO contactDTO2;
+
+    @BeforeEach
+    void setUp() {
+        User testUser = new User();
+        testUser.setUserId(7L);
+        testUser.setEmail("user@test.com");
+        testUser.setPassword("password");
+        securityUser = new SecurityUser(testUser);
+        contactDTO1 = new ContactDTO(1L, "Hasnain", "Ali", null,
+                List.of(new ContactEmailDTO(1L, "work", "hasnain@example.com")), List.of());
+        contactDTO2 = new ContactDTO(2L, "John", "Doe", "Manager", List.of(), List.of());
+    }
+
+    @Test
+    void getContacts_ReturnsJsonArray() throws Exception {
+
+        when(reactiveContactService.getUserContacts(7L, "jo", 1, 5)).thenReturn(Flux.just(contactDTO2));
+
+        MvcResult result = mockMvc.perform(get("/api/reactive/contacts")
+                        .param("search", "jo").param("page", "1").param("size", "5")
+                        .with(user(securityUser)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(2))
+                .andExpect(jsonPath("$[0].title").value("Manager"));
+    }
+
+    @Test
+    void streamContacts_WritesOneContactPerLine() throws Exception {
+
+        when(reactiveContactService.streamUserContacts(7L, null)).thenReturn(Flux.just(contactDTO1, contactDTO2));
+
+        MvcResult result = mockMvc.perform(get("/api/reactive/contacts/stream")
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .with(user(securityUser)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(matchesPattern(
+                        "\\{\"id\":1,[^\\n]*\\}\\n\\{\"id\":2,[^\\n]*\\}\\n")));
+    }
+
+    @Test
+    void getContact_ReturnsContact() throws Exception {
+
+        when(reactiveContactService.getContactById(7L, 1L)).thenReturn(Mono.just(contactDTO1));
+
+        MvcResult result = mockMvc.perform(get("/api/reactive/contacts/1").with(user(securityUser)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName").value("Hasnain"))
+                .andExpect(jsonPath("$.emails[0].email").value("hasnain@example.com"));
+    }
+
+    @Test
+    void getContact_Failure_NotFound() throws Exception {
+
+        when(reactiveContactService.getContactById(7L, 99L))
+                .thenReturn(Mono.error(new ResourceNotFoundException("Contact not found")));
+
+        MvcResult result = mockMvc.perform(get("/api/reactive/contacts/99").with(user(securityUser)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("Contact not found"));
+    }
+
+    @Test
+    void getContacts_Failure_Unauthenticated() throws Exception {
+
+        mockMvc.perform(get("/api/reactive/contacts"))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -12,6 +12,8 @@ import com.hasnain.cms.exception.InvalidIdentifierFormatException;
 import com.hasnain.cms.exception.ResourceNotFoundException;
 import com.hasnain.cms.security.SecurityUser;
 import com.hasnain.cms.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatcher;
@@ -94,6 +96,11 @@ class UserControllerTest {
 
             return http.build();
         }
+
+        @Bean
+        public MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
     }
 
     @Autowired
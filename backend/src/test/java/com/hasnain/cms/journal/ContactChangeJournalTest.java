@@ -0,0 +1,219 @@
+package com.hasnain.cms.journal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hasnain.cms.dto.ContactDTO;
+import com.hasnain.cms.event.ContactChangeType;
+import com.hasnain.cms.event.ContactChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContactChangeJournalTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+
+    @TempDir
+    Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ContactChangeJournal journal;
+
+    @AfterEach
+    void tearDown() {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    private ContactChangeJournal start(FsyncPolicy fsyncPolicy, int retentionSegments) {
+        journal = new ContactChangeJournal(new ContactChangeJournal.Settings(directory, SEGMENT_SIZE, 64,
+                fsyncPolicy, Duration.ofMillis(5), retentionSegments, Duration.ZERO), objectMapper);
+        journal.start();
+        return journal;
+    }
+
+    private static ContactChangedEvent created(long contactId) {
+        return ContactChangedEvent.created(1L, contactId + 1, new ContactDTO(contactId, "First" + contactId, "Last",
+                null, List.of(), List.of()));
+    }
+
+    private static List<JournalRecord> readAll(JournalReader reader, int expected) throws InterruptedException {
+        List<JournalRecord> records = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (records.size() < expected && System.nanoTime() < deadline) {
+            List<JournalRecord> polled = reader.poll(100);
+            if (polled.isEmpty()) {
+                Thread.sleep(1);
+            }
+            records.addAll(polled);
+        }
+        return records;
+    }
+
+    private long segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    void append_RecordsAreReadBackInOrderWithPayload() throws Exception {
+
+        start(FsyncPolicy.ALWAYS, 10);
+        journal.append(created(7L));
+        journal.append(ContactChangedEvent.deleted(1L, 9L, 7L));
+
+        List<JournalRecord> records = readAll(journal.openReader(0), 2);
+
+        assertEquals(2, records.size());
+        assertEquals(0L, records.get(0).offset());
+        assertEquals(ContactChangeType.CREATED, records.get(0).type());
+        assertEquals(7L, records.get(0).contactId());
+        assertEquals(1L, records.get(0).userId());
+        assertEquals("First7", objectMapper.readValue(records.get(0).payload(), ContactDTO.class).getFirstName());
+        assertEquals(1L, records.get(1).offset());
+        assertEquals(ContactChangeType.DELETED, records.get(1).type());
+        assertEquals(0, records.get(1).payload().length);
+        assertEquals(1L, journal.durableOffset());
+    }
+
+    @Test
+    void append_Failure_RecordLargerThanSegment_IsRefusedAndCounted() throws Exception {
+
+        start(FsyncPolicy.ALWAYS, 10);
+        ContactChangedEvent oversized = ContactChangedEvent.created(1L, 1L, new ContactDTO(1L, "x".repeat(SEGMENT_SIZE),
+                "Last", null, List.of(), List.of()));
+
+        assertThrows(IllegalArgumentException.class, () -> journal.append(oversized));
+        journal.append(created(7L));
+
+        List<JournalRecord> records = readAll(journal.openReader(0), 1);
+        assertEquals(List.of(7L), records.stream().map(JournalRecord::contactId).toList());
+        assertEquals(1, journal.droppedCount());
+        assertEquals(1, journal.appendedCount());
+    }
+
+    @Test
+    void openReader_TailsFromOffsetAcrossSegmentRolls() throws Exception {
+
+        start(FsyncPolicy.INTERVAL, 100);
+        for (long contactId = 0; contactId < 200; contactId++) {
+            journal.append(created(contactId));
+        }
+
+        JournalReader reader = journal.openReader(150);
+        List<JournalRecord> records = readAll(reader, 50);
+
+        assertTrue(journal.segmentCount() > 1);
+        assertEquals(50, records.size());
+        assertEquals(150L, records.get(0).offset());
+        assertEquals(199L, records.get(49).offset());
+        assertEquals(200L, reader.position());
+        assertTrue(reader.poll(10).isEmpty());
+
+        journal.append(created(200L));
+        assertEquals(200L, readAll(reader, 1).get(0).contactId());
+    }
+
+    @Test
+    void roll_DeletesSegmentsBeyondRetention_ReaderStartsAtOldestRetained() throws Exception {
+
+        start(FsyncPolicy.NEVER, 2);
+        for (long contactId = 0; contactId < 300; contactId++) {
+            journal.append(created(contactId));
+        }
+        readAll(journal.openReader(299), 1);
+
+        assertEquals(2, journal.segmentCount());
+        assertEquals(2, segmentFiles());
+        List<JournalRecord> records = journal.openReader(0).poll(1);
+        assertTrue(records.get(0).offset() > 0);
+    }
+
+    @Test
+    void start_RecoversAfterTornFrame_AndContinuesOffsets() throws Exception {
+
+        start(FsyncPolicy.ALWAYS, 10);
+        journal.append(created(1L));
+        journal.append(created(2L));
+        readAll(journal.openReader(0), 2);
+        journal.close();
+
+        Path segment = JournalSegment.pathFor(directory, 0);
+        JournalSegment.FrameCursor cursor = JournalSegment.FrameCursor.open(segment);
+        while (cursor.next() != null) {
+            // skip to the end of the written data
+        }
+        int end = cursor.position();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            ByteBuffer tornFrame = ByteBuffer.allocate(12).putInt(200).putInt(12345).putInt(42).flip();
+            channel.write(tornFrame, end);
+        }
+
+        start(FsyncPolicy.ALWAYS, 10);
+        journal.append(created(3L));
+        List<JournalRecord> records = readAll(journal.openReader(0), 3);
+
+        assertEquals(List.of(0L, 1L, 2L), records.stream().map(JournalRecord::offset).toList());
+        assertEquals(3L, records.get(2).contactId());
+    }
+
+    @Test
+    void close_WriterStillBusy_LeavesTheSegmentToTheWriter() throws Exception {
+
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ContactChangeJournal stalled = new ContactChangeJournal(new ContactChangeJournal.Settings(directory,
+                SEGMENT_SIZE, 64, FsyncPolicy.ALWAYS, Duration.ofMillis(5), 10, Duration.ZERO), objectMapper) {
+            @Override
+            void write(Pending pending) {
+                writing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                }
+                super.write(pending);
+            }
+        };
+        stalled.start();
+        stalled.append(created(1L));
+        stalled.append(created(2L));
+        assertTrue(writing.await(10, TimeUnit.SECONDS));
+
+        stalled.close(Duration.ofMillis(50));
+        assertThrows(IllegalStateException.class, stalled::start);
+        release.countDown();
+
+        // The writer drains what was queued before it closes the segment, so a restart sees both records.
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            try {
+                stalled.start();
+                break;
+            } catch (IllegalStateException stillDraining) {
+                Thread.sleep(5);
+            }
+        }
+        journal = stalled;
+        stalled.append(created(3L));
+        assertEquals(List.of(0L, 1L, 2L), readAll(stalled.openReader(0), 3).stream().map(JournalRecord::offset)
+                .toList());
+    }
+}
@@ -0,0 +1,80 @@
+package com.hasnain.cms.journal;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MpscRingBufferTest {
+
+    @Test
+    void constructor_RejectsCapacityThatIsNotPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new MpscRingBuffer<>(100));
+    }
+
+    @Test
+    void offer_ReturnsFalseWhenFull_AndAcceptsAgainAfterPoll() {
+
+        MpscRingBuffer<Integer> ringBuffer = new MpscRingBuffer<>(4);
+        for (int value = 0; value < 4; value++) {
+            assertTrue(ringBuffer.offer(value));
+        }
+
+        assertFalse(ringBuffer.offer(4));
+        assertEquals(0, ringBuffer.poll());
+        assertTrue(ringBuffer.offer(4));
+
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(4, ringBuffer.drain(drained::add, 10));
+        assertEquals(List.of(1, 2, 3, 4), drained);
+        assertTrue(ringBuffer.isEmpty());
+        assertNull(ringBuffer.poll());
+    }
+
+    @Test
+    void offer_ManyProducers_ConsumerSeesEveryElementInPerProducerOrder() throws Exception {
+
+        int producers = 4;
+        int perProducer = 50_000;
+        MpscRingBuffer<long[]> ringBuffer = new MpscRingBuffer<>(256);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+
+        for (int producer = 0; producer < producers; producer++) {
+            long id = producer;
+            executor.submit(() -> {
+                start.await();
+                for (long sequence = 0; sequence < perProducer; sequence++) {
+                    while (!ringBuffer.offer(new long[]{id, sequence})) {
+                        Thread.onSpinWait();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+
+        long[] nextExpected = new long[producers];
+        int received = 0;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (received < producers * perProducer && System.nanoTime() < deadline) {
+            long[] element = ringBuffer.poll();
+            if (element == null) {
+                Thread.onSpinWait();
+                continue;
+            }
+            assertEquals(nextExpected[(int) element[0]]++, element[1]);
+            received++;
+        }
+        executor.shutdown();
+
+        assertEquals(producers * perProducer, received);
+        assertTrue(ringBuffer.isEmpty());
+    }
+}
@@ -0,0 +1,156 @@
+package com.hasnain.cms.repository;
+
+import com.hasnain.cms.entity.Contact;
+import com.hasnain.cms.entity.ContactEmail;
+import com.hasnain.cms.entity.ContactPhone;
+import com.hasnain.cms.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Contact deletes against the second-level cache as configured for the application: deleting one user's contacts
+ * must evict those contacts only, not every user's.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(PropertyPlaceholderAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.autoconfigure.exclude=",
+        "spring.datasource.url=jdbc:h2:mem:contact-cache;MODE=MySQL;NON_KEYWORDS=USER",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+        "spring.jpa.properties.hibernate.cache.region.factory_class=jcache",
+        "spring.jpa.properties.hibernate.javax.cache.provider=org.ehcache.jsr107.EhcacheCachingProvider",
+        "spring.jpa.properties.hibernate.javax.cache.uri=ehcache.xml",
+        "spring.jpa.properties.hibernate.javax.cache.missing_cache_strategy=fail"})
+class ContactRepositoryCacheTest {
+
+    private static final String EMAILS_ROLE = Contact.class.getName() + ".emails";
+
+    private static final String PHONES_ROLE = Contact.class.getName() + ".phones";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Cache cache;
+
+    private User owner;
+
+    private User otherUser;
+
+    @BeforeEach
+    void setUp() {
+
+        contactRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        cache.evictAll();
+        owner = saveUser("owner@test.com");
+        otherUser = saveUser("other@test.com");
+    }
+
+    private User saveUser(String email) {
+
+        User user = new User();
+        user.setEmail(email);
+        user.setPassword("password");
+        return userRepository.save(user);
+    }
+
+    private Long saveContact(User user, String firstName) {
+
+        Contact contact = new Contact();
+        contact.setFirstName(firstName);
+        contact.setUser(user);
+        ContactEmail email = new ContactEmail();
+        email.setEmail(firstName.toLowerCase() + "@example.com");
+        email.setContact(contact);
+        contact.getEmails().add(email);
+        ContactPhone phone = new ContactPhone();
+        phone.setPhoneNumber("03001234567");
+        phone.setContact(contact);
+        contact.getPhones().add(phone);
+        return contactRepository.save(contact).getId();
+    }
+
+    // Loads the contact and both collections, which puts all three in the cache.
+    private void view(Long id) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Contact contact = contactRepository.findById(id).orElseThrow();
+            assertEquals(1, contact.getEmails().size());
+            assertEquals(1, contact.getPhones().size());
+        });
+    }
+
+    private int delete(List<Long> ids) {
+
+        Integer deleted = new TransactionTemplate(transactionManager).execute(status -> ids.size() == 1
+                ? contactRepository.deleteByIdAndUserId(ids.get(0), owner.getUserId())
+                : contactRepository.deleteAllByIdInAndUserId(ids, owner.getUserId()));
+        return deleted != null ? deleted : 0;
+    }
+
+    private boolean cached(Long id) {
+        return cache.containsEntity(Contact.class, id) && cache.containsCollection(EMAILS_ROLE, id)
+                && cache.containsCollection(PHONES_ROLE, id);
+    }
+
+    @Test
+    void delete_EvictsOnlyTheDeletedContacts() {
+
+        Long ada = saveContact(owner, "Ada");
+        Long alan = saveContact(owner, "Alan");
+        Long grace = saveContact(otherUser, "Grace");
+        List.of(ada, alan, grace).forEach(this::view);
+        assertTrue(cached(ada) && cached(alan) && cached(grace));
+
+        assertEquals(1, delete(List.of(ada)));
+
+        assertFalse(cache.containsEntity(Contact.class, ada));
+        assertFalse(cache.containsCollection(EMAILS_ROLE, ada));
+        assertTrue(cached(alan));
+        assertTrue(cached(grace));
+        assertTrue(contactRepository.findById(ada).isEmpty());
+    }
+
+    @Test
+    void bulkDelete_LeavesOtherUsersCached_AndSkipsTheirContacts() {
+
+        Long ada = saveContact(owner, "Ada");
+        Long grace = saveContact(otherUser, "Grace");
+        List.of(ada, grace).forEach(this::view);
+
+        assertEquals(1, delete(List.of(ada, grace)));
+
+        assertFalse(cache.containsEntity(Contact.class, ada));
+        assertTrue(cached(grace));
+        assertTrue(contactRepository.findById(grace).isPresent());
+    }
+}
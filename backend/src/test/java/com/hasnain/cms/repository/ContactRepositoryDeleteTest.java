@@ -0,0 +1,116 @@
+package com.hasnain.cms.repository;
+
+import com.hasnain.cms.entity.Contact;
+import com.hasnain.cms.entity.ContactEmail;
+import com.hasnain.cms.entity.ContactPhone;
+import com.hasnain.cms.entity.ContactTag;
+import com.hasnain.cms.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Contact deletes on a schema whose child tables were created before their foreign keys cascaded, as
+ * {@code ddl-auto=update} leaves an existing MySQL schema: the deletes must not depend on {@code ON DELETE CASCADE}.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(PropertyPlaceholderAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.autoconfigure.exclude=",
+        "spring.datasource.url=jdbc:h2:mem:contact-delete;MODE=MySQL;NON_KEYWORDS=USER"})
+class ContactRepositoryDeleteTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private ContactTagRepository contactTagRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+
+        for (Map<String, Object> key : jdbcTemplate.queryForList("SELECT t.TABLE_NAME, t.CONSTRAINT_NAME "
+                + "FROM INFORMATION_SCHEMA.REFERENTIAL_CONSTRAINTS r JOIN INFORMATION_SCHEMA.TABLE_CONSTRAINTS t "
+                + "ON t.CONSTRAINT_SCHEMA = r.CONSTRAINT_SCHEMA AND t.CONSTRAINT_NAME = r.CONSTRAINT_NAME "
+                + "WHERE r.DELETE_RULE = 'CASCADE'")) {
+            String table = (String) key.get("TABLE_NAME");
+            String constraint = (String) key.get("CONSTRAINT_NAME");
+            jdbcTemplate.execute("ALTER TABLE " + table + " DROP CONSTRAINT " + constraint);
+            jdbcTemplate.execute("ALTER TABLE " + table + " ADD CONSTRAINT " + constraint
+                    + " FOREIGN KEY (contact_id) REFERENCES contacts (id)");
+        }
+        contactTagRepository.deleteAllInBatch();
+        jdbcTemplate.update("DELETE FROM contact_emails");
+        jdbcTemplate.update("DELETE FROM contact_phones");
+        contactRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+
+        User user = new User();
+        user.setEmail("owner@test.com");
+        user.setPassword("password");
+        owner = userRepository.save(user);
+    }
+
+    private Long saveContact(String firstName) {
+
+        Contact contact = new Contact();
+        contact.setFirstName(firstName);
+        contact.setUser(owner);
+        ContactEmail email = new ContactEmail();
+        email.setEmail(firstName.toLowerCase() + "@example.com");
+        email.setContact(contact);
+        contact.getEmails().add(email);
+        ContactPhone phone = new ContactPhone();
+        phone.setPhoneNumber("03001234567");
+        phone.setContact(contact);
+        contact.getPhones().add(phone);
+        Contact saved = contactRepository.save(contact);
+        contactTagRepository.save(new ContactTag(null, "friends", saved));
+        return saved.getId();
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+
+    @Test
+    void delete_WithoutCascadingForeignKeys_RemovesChildRows() {
+
+        Long ada = saveContact("Ada");
+        Long alan = saveContact("Alan");
+        Long grace = saveContact("Grace");
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.REFERENTIAL_CONSTRAINTS "
+                + "WHERE DELETE_RULE = 'CASCADE'", Long.class));
+
+        assertEquals(1, contactRepository.deleteByIdAndUserId(ada, owner.getUserId()));
+        assertEquals(1, contactRepository.deleteAllByIdInAndUserId(List.of(alan), owner.getUserId()));
+
+        assertEquals(List.of(grace), contactRepository.findAll().stream().map(Contact::getId).toList());
+        assertEquals(1, count("contact_emails"));
+        assertEquals(1, count("contact_phones"));
+        assertEquals(1, count("contact_tags"));
+    }
+}
@@ -0,0 +1,267 @@
+package com.hasnain.cms.repository;
+
+import com.hasnain.cms.entity.Contact;
+import com.hasnain.cms.entity.ContactEmail;
+import com.hasnain.cms.entity.ContactPhone;
+import com.hasnain.cms.entity.ContactTag;
+import com.hasnain.cms.entity.ContactTombstone;
+import com.hasnain.cms.entity.User;
+import com.hasnain.cms.entity.UserChangeSequence;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Every repository query against the embedded profile's file database, with its schema created by Hibernate, so a
+ * query or mapping change that H2 in MySQL mode rejects fails here rather than on a deployment.
+ */
+@DataJpaTest
+@ActiveProfiles("embedded")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = "spring.autoconfigure.exclude=")
+class EmbeddedRepositoryTest {
+
+    @TempDir
+    static Path directory;
+
+    @DynamicPropertySource
+    static void embeddedDirectory(DynamicPropertyRegistry registry) {
+        registry.add("contacts.embedded.directory", () -> directory.toString());
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserChangeSequenceRepository userChangeSequenceRepository;
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private ContactTagRepository contactTagRepository;
+
+    @Autowired
+    private ContactTombstoneRepository contactTombstoneRepository;
+
+    private User user;
+
+    private User otherUser;
+
+    private Contact ada;
+
+    private Contact alan;
+
+    private Contact grace;
+
+    @BeforeEach
+    void setUp() {
+
+        user = user("owner@test.com", "03001234567");
+        otherUser = user("other@test.com", null);
+        ada = contact(user, "Ada", "Lovelace", 1);
+        alan = contact(user, "Alan", "Turing", 2);
+        grace = contact(user, "Grace", "Hopper", 3);
+        contact(otherUser, "Ada", "Byron", 1);
+        entityManager.persist(new ContactTag(null, "friends", ada));
+        entityManager.persist(new ContactTag(null, "colleagues", ada));
+        entityManager.persist(new ContactTag(null, "friends", grace));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private User user(String email, String phone) {
+
+        User newUser = new User();
+        newUser.setEmail(email);
+        newUser.setPhone(phone);
+        newUser.setPassword("password");
+        return entityManager.persist(newUser);
+    }
+
+    private Contact contact(User owner, String firstName, String lastName, long sequence) {
+
+        Contact contact = new Contact();
+        contact.setFirstName(firstName);
+        contact.setLastName(lastName);
+        contact.setUser(owner);
+        contact.setChangeSequence(sequence);
+        contact.setCreatedSequence(sequence);
+        ContactEmail email = new ContactEmail();
+        email.setLabel("work");
+        email.setEmail(firstName.toLowerCase() + "@example.com");
+        email.setContact(contact);
+        ContactPhone phone = new ContactPhone();
+        phone.setLabel("mobile");
+        phone.setPhoneNumber("03000000000");
+        phone.setContact(contact);
+        contact.getEmails().add(email);
+        contact.getPhones().add(phone);
+        return entityManager.persist(contact);
+    }
+
+    private long count(String table) {
+        return ((Number) entityManager.getEntityManager().createNativeQuery("SELECT COUNT(*) FROM " + table)
+                .getSingleResult()).longValue();
+    }
+
+    @Test
+    void userQueries() {
+
+        assertEquals(user.getUserId(), userRepository.findByEmail("owner@test.com").orElseThrow().getUserId());
+        assertEquals(user.getUserId(), userRepository.findByPhone("03001234567").orElseThrow().getUserId());
+        assertTrue(userRepository.findByEmail("missing@test.com").isEmpty());
+
+        assertTrue(userRepository.findLockedByUserId(user.getUserId()).isPresent());
+    }
+
+    @Test
+    void changeSequenceQueries() {
+
+        assertEquals(3, userChangeSequenceRepository.findHighestIssuedSequence(user.getUserId()));
+        assertEquals(0, userChangeSequenceRepository.advance(user.getUserId(), 5));
+        userChangeSequenceRepository.saveAndFlush(new UserChangeSequence(user.getUserId(), 3));
+        assertEquals(1, userChangeSequenceRepository.advance(user.getUserId(), 5));
+        assertEquals(8, userChangeSequenceRepository.findChangeSequence(user.getUserId()).orElseThrow());
+        assertTrue(userChangeSequenceRepository.findChangeSequence(otherUser.getUserId()).isEmpty());
+
+        Map<Long, Long> sequences = userRepository.findAllChangeSequences().stream().collect(Collectors.toMap(
+                UserChangeSequenceView::getUserId, UserChangeSequenceView::getChangeSequence));
+        assertEquals(Map.of(user.getUserId(), 8L, otherUser.getUserId(), 1L), sequences);
+    }
+
+    @Test
+    void contactPagingAndSearch() {
+
+        Page<Contact> page = contactRepository.findByUser(user, PageRequest.of(0, 2));
+        assertEquals(3, page.getTotalElements());
+        assertEquals(2, page.getContent().size());
+
+        Page<Contact> found = contactRepository
+                .findByUserAndFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(user, "tur", "tur",
+                        PageRequest.of(0, 10));
+        assertEquals(List.of(alan.getId()), found.map(Contact::getId).getContent());
+
+        assertTrue(contactRepository.existsByUserAndFirstNameAndLastName(user, "Ada", "Lovelace"));
+        assertFalse(contactRepository.existsByUserAndFirstNameAndLastName(otherUser, "Ada", "Lovelace"));
+    }
+
+    @Test
+    void contactLookupsAreScopedToTheOwner() {
+
+        assertTrue(contactRepository.findByIdAndUserId(ada.getId(), user.getUserId()).isPresent());
+        assertTrue(contactRepository.findByIdAndUserId(ada.getId(), otherUser.getUserId()).isEmpty());
+
+        List<Long> ids = List.of(ada.getId(), grace.getId());
+        assertEquals(2, contactRepository.findAllByIdInAndUserId(ids, user.getUserId()).size());
+        assertEquals(List.of("Ada", "Grace"), contactRepository.findNamesByIdInAndUserId(ids, user.getUserId())
+                .stream().map(ContactNameView::getFirstName).sorted().toList());
+        assertEquals(1, contactRepository.findNamesByFirstNameInAndUserId(List.of("Ada"), user.getUserId()).size());
+        assertEquals(List.of(ada.getId(), alan.getId(), grace.getId()),
+                contactRepository.findIdsByUserId(user.getUserId()));
+    }
+
+    @Test
+    void contactFetchJoins() {
+
+        List<Contact> withEmails = contactRepository.findAllWithEmailsByIdInAndUserId(
+                List.of(ada.getId(), alan.getId()), user.getUserId());
+        assertEquals(2, withEmails.size());
+        assertEquals(3, contactRepository.findAllWithEmailsByUserId(user.getUserId()).size());
+
+        List<Contact> contacts = contactRepository.findAllById(List.of(ada.getId(), alan.getId()));
+        assertEquals(2, contactRepository.fetchEmails(contacts).size());
+        assertEquals(2, contactRepository.fetchPhones(contacts).size());
+        assertTrue(contacts.stream().allMatch(contact -> contact.getPhones().size() == 1));
+    }
+
+    @Test
+    void changedSinceIsOrderedBySequenceThenId() {
+
+        List<Contact> changed = contactRepository.findChangedSince(user.getUserId(), 1, ada.getId(),
+                PageRequest.of(0, 10));
+
+        assertEquals(List.of(alan.getId(), grace.getId()), changed.stream().map(Contact::getId).toList());
+    }
+
+    @Test
+    void deletesCascadeToChildRowsInTheDatabase() {
+
+        assertEquals(1, contactRepository.deleteByIdAndUserId(ada.getId(), user.getUserId()));
+        assertEquals(0, contactRepository.deleteByIdAndUserId(alan.getId(), otherUser.getUserId()));
+        assertEquals(2, contactRepository.deleteAllByIdInAndUserId(List.of(alan.getId(), grace.getId()),
+                user.getUserId()));
+
+        assertEquals(1, count("contacts"));
+        assertEquals(1, count("contact_emails"));
+        assertEquals(1, count("contact_phones"));
+        assertEquals(0, count("contact_tags"));
+    }
+
+    @Test
+    void tagQueries() {
+
+        assertEquals(List.of("colleagues", "friends"), contactTagRepository.findNamesByContactId(ada.getId()));
+        assertEquals(3, contactTagRepository.findAllByUserId(user.getUserId()).size());
+        assertTrue(contactTagRepository.findAllByUserId(otherUser.getUserId()).isEmpty());
+        assertEquals(2, contactTagRepository.deleteByContactId(ada.getId()));
+    }
+
+    @Test
+    void tombstonesSinceSequence() {
+
+        entityManager.persist(new ContactTombstone(null, user.getUserId(), 10L, 4, 0));
+        entityManager.persist(new ContactTombstone(null, user.getUserId(), 11L, 6, 0));
+        entityManager.persist(new ContactTombstone(null, otherUser.getUserId(), 12L, 5, 0));
+
+        List<ContactTombstone> tombstones = contactTombstoneRepository
+                .findByUserIdAndChangeSequenceGreaterThanOrderByChangeSequence(user.getUserId(), 4,
+                        PageRequest.of(0, 10));
+
+        assertEquals(List.of(11L), tombstones.stream().map(ContactTombstone::getContactId).toList());
+    }
+
+    @Test
+    void tombstonePruning() {
+
+        entityManager.persist(new ContactTombstone(null, user.getUserId(), 10L, 4, 100));
+        entityManager.persist(new ContactTombstone(null, user.getUserId(), 11L, 6, 200));
+        entityManager.persist(new ContactTombstone(null, user.getUserId(), 13L, 7, 300));
+        entityManager.persist(new ContactTombstone(null, otherUser.getUserId(), 12L, 5, 300));
+        userChangeSequenceRepository.saveAndFlush(new UserChangeSequence(user.getUserId(), 7));
+
+        assertEquals(List.of(user.getUserId()), contactTombstoneRepository.findUserIdsWithTombstonesDeletedBefore(300));
+        assertEquals(6L, contactTombstoneRepository.findLastSequenceDeletedBefore(user.getUserId(), 300)
+                .orElseThrow());
+        assertTrue(contactTombstoneRepository.findLastSequenceDeletedBefore(otherUser.getUserId(), 300).isEmpty());
+
+        assertEquals(0, userChangeSequenceRepository.findPrunedSequence(user.getUserId()).orElseThrow());
+        assertEquals(1, userChangeSequenceRepository.raisePrunedSequence(user.getUserId(), 6));
+        assertEquals(1, userChangeSequenceRepository.raisePrunedSequence(user.getUserId(), 2));
+        assertEquals(2, contactTombstoneRepository.deleteUpToSequence(user.getUserId(), 6));
+        entityManager.clear();
+
+        assertEquals(6, userChangeSequenceRepository.findPrunedSequence(user.getUserId()).orElseThrow());
+        assertEquals(2, count("contact_tombstones"));
+    }
+}
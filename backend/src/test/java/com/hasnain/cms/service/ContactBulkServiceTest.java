@@ -0,0 +1,295 @@
+package com.hasnain.cms.service;
+
+import com.hasnain.cms.dto.ContactBulkOperationDTO;
+import com.hasnain.cms.dto.ContactBulkRequestDTO;
+import com.hasnain.cms.dto.ContactBulkResponseDTO;
+import com.hasnain.cms.dto.ContactBulkResultDTO;
+import com.hasnain.cms.dto.ContactDTO;
+import com.hasnain.cms.dto.ContactEmailDTO;
+import com.hasnain.cms.entity.User;
+import com.hasnain.cms.exception.ResourceNotFoundException;
+import com.hasnain.cms.repository.ContactNameView;
+import com.hasnain.cms.repository.ContactRepository;
+import com.hasnain.cms.security.SecurityUser;
+import com.hasnain.cms.service.ContactBulkWriter.PlannedOperation;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContactBulkServiceTest {
+
+    @Mock
+    private ContactRepository contactRepository;
+
+    @Mock
+    private ContactBulkWriter contactBulkWriter;
+
+    @Mock
+    private UserService userService;
+
+    private ContactBulkService contactBulkService;
+
+    private static final String TEST_EMAIL = "user@test.com";
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        contactBulkService = new ContactBulkService(contactRepository, contactBulkWriter, userService,
+                Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(contactBulkService, "chunkSize", 2);
+
+        testUser = new User();
+        testUser.setUserId(1L);
+        testUser.setEmail(TEST_EMAIL);
+        when(userService.loadUserByUsername(TEST_EMAIL)).thenReturn(new SecurityUser(testUser));
+    }
+
+    private static ContactDTO contact(String firstName, String lastName) {
+        return new ContactDTO(null, firstName, lastName, null,
+                new ArrayList<>(List.of(new ContactEmailDTO(null, "work", "someone@example.com"))),
+                new ArrayList<>());
+    }
+
+    private static ContactBulkOperationDTO create(String firstName, String lastName) {
+        return new ContactBulkOperationDTO(ContactBulkOperationDTO.Type.CREATE, null, contact(firstName, lastName));
+    }
+
+    private static ContactBulkOperationDTO update(Long id, String firstName, String lastName) {
+        return new ContactBulkOperationDTO(ContactBulkOperationDTO.Type.UPDATE, id, contact(firstName, lastName));
+    }
+
+    private static ContactBulkOperationDTO delete(Long id) {
+        return new ContactBulkOperationDTO(ContactBulkOperationDTO.Type.DELETE, id, null);
+    }
+
+    private static ContactNameView name(Long id, String firstName, String lastName) {
+        return new ContactNameView() {
+            public Long getId() { return id; }
+            public String getFirstName() { return firstName; }
+            public String getLastName() { return lastName; }
+        };
+    }
+
+    private static ContactBulkResultDTO ok(PlannedOperation planned) {
+        return new ContactBulkResultDTO(planned.index(), planned.operation().getType(), planned.operation().getId(),
+                200, null, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writerSucceeds() {
+        lenient().when(contactBulkWriter.writeChunk(eq(testUser), anyList())).thenAnswer(invocation ->
+                ((List<PlannedOperation>) invocation.getArgument(1)).stream().map(ContactBulkServiceTest::ok).toList());
+        lenient().when(contactBulkWriter.writeAll(eq(testUser), anyList())).thenAnswer(invocation ->
+                ((List<List<PlannedOperation>>) invocation.getArgument(1)).stream()
+                        .flatMap(List::stream).map(ContactBulkServiceTest::ok).toList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void applyBulk_Atomic_AllValid_WritesEveryChunkInOneCall() {
+
+        writerSucceeds();
+        when(contactRepository.findNamesByIdInAndUserId(Set.of(5L, 6L), 1L))
+                .thenReturn(List.of(name(5L, "Old", "Name"), name(6L, "Gone", "Contact")));
+        when(contactRepository.findNamesByFirstNameInAndUserId(Set.of("New", "Renamed"), 1L))
+                .thenReturn(List.of());
+
+        ContactBulkRequestDTO request = new ContactBulkRequestDTO(ContactBulkRequestDTO.Mode.ATOMIC, List.of(
+                create("New", "Contact"), update(5L, "Renamed", "Name"), delete(6L)));
+
+        ContactBulkResponseDTO response = contactBulkService.applyBulk(TEST_EMAIL, request);
+
+        assertEquals(3, response.getSucceeded());
+        assertEquals(0, response.getFailed());
+
+        ArgumentCaptor<List<List<PlannedOperation>>> chunks = ArgumentCaptor.forClass(List.class);
+        verify(contactBulkWriter).writeAll(eq(testUser), chunks.capture());
+        assertEquals(2, chunks.getValue().size());
+        assertEquals(2, chunks.getValue().get(0).size());
+        assertEquals(1, chunks.getValue().get(1).size());
+        verify(contactBulkWriter, never()).writeChunk(any(), anyList());
+    }
+
+    @Test
+    void applyBulk_Atomic_InvalidOperation_RejectsWholeBatchWithoutWriting() {
+
+        ContactBulkOperationDTO missingId = new ContactBulkOperationDTO(ContactBulkOperationDTO.Type.DELETE, null, null);
+        when(contactRepository.findNamesByFirstNameInAndUserId(Set.of("New"), 1L)).thenReturn(List.of());
+
+        ContactBulkRequestDTO request = new ContactBulkRequestDTO(ContactBulkRequestDTO.Mode.ATOMIC,
+                List.of(create("New", "Contact"), missingId));
+
+        ContactBulkResponseDTO response = contactBulkService.applyBulk(TEST_EMAIL, request);
+
+        assertEquals(0, response.getSucceeded());
+        assertEquals(2, response.getFailed());
+        assertEquals(424, response.getResults().get(0).getStatus());
+        assertEquals(400, response.getResults().get(1).getStatus());
+        assertEquals("Contact ID is required for DELETE operations.", response.getResults().get(1).getError());
+        verifyNoInteractions(contactBulkWriter);
+    }
+
+    @Test
+    void applyBulk_Atomic_WriterFails_MarksEveryOperationRolledBack() {
+
+        when(contactRepository.findNamesByFirstNameInAndUserId(Set.of("New", "Other"), 1L)).thenReturn(List.of());
+        when(contactBulkWriter.writeAll(eq(testUser), anyList())).thenThrow(new IllegalStateException("boom"));
+
+        ContactBulkRequestDTO request = new ContactBulkRequestDTO(ContactBulkRequestDTO.Mode.ATOMIC,
+                List.of(create("New", "Contact"), create("Other", "Contact")));
+
+        ContactBulkResponseDTO response = contactBulkService.applyBulk(TEST_EMAIL, request);
+
+        assertEquals(2, response.getFailed());
+        response.getResults().forEach(result -> {
+            assertEquals(424, result.getStatus());
+            assertEquals("Batch was rolled back: An unexpected server error occurred.", result.getError());
+        });
+    }
+
+    @Test
+    void applyBulk_BestEffort_ReportsValidationNotFoundAndDuplicatePerItem() {
+
+        writerSucceeds();
+        when(contactRepository.findNamesByIdInAndUserId(Set.of(7L, 8L), 1L))
+                .thenReturn(List.of(name(7L, "Keep", "Me")));
+        when(contactRepository.findNamesByFirstNameInAndUserId(Set.of("taken", "Fresh"), 1L))
+                .thenReturn(List.of(name(3L, "Taken", "Name")));
+
+        ContactBulkOperationDTO blankName = create("", "Contact");
+        ContactBulkRequestDTO request = new ContactBulkRequestDTO(ContactBulkRequestDTO.Mode.BEST_EFFORT, List.of(
+                blankName, create("taken", "NAME"), delete(8L), create("Fresh", "Face"), create("Fresh", "Face"),
+                delete(7L)));
+
+        ContactBulkResponseDTO response = contactBulkService.applyBulk(TEST_EMAIL, request);
+        List<ContactBulkResultDTO> results = response.getResults();
+
+        assertEquals(400, results.get(0).getStatus());
+        assertEquals("firstName: First name is required", results.get(0).getError());
+        assertEquals(409, results.get(1).getStatus());
+        assertEquals(404, results.get(2).getStatus());
+        assertEquals(200, results.get(3).getStatus());
+        assertEquals(409, results.get(4).getStatus());
+        assertEquals(200, results.get(5).getStatus());
+        assertEquals(2, response.getSucceeded());
+        assertEquals(4, response.getFailed());
+    }
+
+    @Test
+    void applyBulk_NameFreedEarlierInBatch_CanBeReused() {
+
+        writerSucceeds();
+        when(contactRepository.findNamesByIdInAndUserId(Set.of(3L), 1L)).thenReturn(List.of(name(3L, "Jane", "Doe")));
+        when(contactRepository.findNamesByFirstNameInAndUserId(Set.of("Jane"), 1L))
+                .thenReturn(List.of(name(3L, "Jane", "Doe")));
+
+        ContactBulkRequestDTO request = new ContactBulkRequestDTO(ContactBulkRequestDTO.Mode.ATOMIC,
+                List.of(delete(3L), create("Jane", "Doe")));
+
+        ContactBulkResponseDTO response = contactBulkService.applyBulk(TEST_EMAIL, request);
+
+        assertEquals(2, response.getSucceeded());
+    }
+
+    @Test
+    void applyBulk_SameIdTwice_SecondOperationRejected() {
+
+        writerSucceeds();
+        when(contactRepository.findNamesByIdInAndUserId(Set.of(4L), 1L)).thenReturn(List.of(name(4L, "A", "B")));
+        when(contactRepository.findNamesByFirstNameInAndUserId(Set.of("A"), 1L)).thenReturn(List.of(name(4L, "A", "B")));
+
+        ContactBulkRequestDTO request = new ContactBulkRequestDTO(ContactBulkRequestDTO.Mode.BEST_EFFORT,
+                List.of(update(4L, "A", "B"), delete(4L)));
+
+        ContactBulkResponseDTO response = contactBulkService.applyBulk(TEST_EMAIL, request);
+
+        assertEquals(200, response.getResults().get(0).getStatus());
+        assertEquals(400, response.getResults().get(1).getStatus());
+        assertEquals("Contact ID appears in more than one operation of this batch.",
+                response.getResults().get(1).getError());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void applyBulk_BestEffort_FailedChunkIsRetriedItemByItem() {
+
+        when(contactRepository.findNamesByIdInAndUserId(Set.of(9L), 1L)).thenReturn(List.of(name(9L, "X", "Y")));
+        when(contactRepository.findNamesByFirstNameInAndUserId(Set.of("New"), 1L)).thenReturn(List.of());
+        when(contactBulkWriter.writeChunk(eq(testUser), anyList())).thenAnswer(invocation -> {
+            List<PlannedOperation> chunk = invocation.getArgument(1);
+            if (chunk.size() > 1 || chunk.get(0).operation().getType() == ContactBulkOperationDTO.Type.DELETE) {
+                throw new ResourceNotFoundException("Contact not found");
+            }
+            return chunk.stream().map(ContactBulkServiceTest::ok).toList();
+        });
+
+        ContactBulkRequestDTO request = new ContactBulkRequestDTO(ContactBulkRequestDTO.Mode.BEST_EFFORT,
+                List.of(create("New", "Contact"), delete(9L)));
+
+        ContactBulkResponseDTO response = contactBulkService.applyBulk(TEST_EMAIL, request);
+
+        assertEquals(200, response.getResults().get(0).getStatus());
+        assertEquals(404, response.getResults().get(1).getStatus());
+        assertEquals("Contact not found", response.getResults().get(1).getError());
+        verify(contactBulkWriter, times(3)).writeChunk(eq(testUser), anyList());
+    }
+
+    @Test
+    void applyBulk_BestEffort_FailedDeleteKeepsItsName_LaterCreateRechecked() {
+
+        when(contactRepository.findNamesByIdInAndUserId(Set.of(6L), 1L))
+                .thenReturn(List.of(name(6L, "Gone", "Contact")));
+        when(contactRepository.findNamesByFirstNameInAndUserId(Set.of("Other", "Gone"), 1L))
+                .thenReturn(List.of(name(6L, "Gone", "Contact")));
+        when(contactBulkWriter.writeChunk(eq(testUser), anyList())).thenAnswer(invocation -> {
+            List<PlannedOperation> chunk = invocation.getArgument(1);
+            if (chunk.size() > 1 || chunk.get(0).operation().getType() == ContactBulkOperationDTO.Type.DELETE) {
+                throw new IllegalStateException("boom");
+            }
+            return List.of(ok(chunk.get(0)));
+        });
+
+        ContactBulkRequestDTO request = new ContactBulkRequestDTO(ContactBulkRequestDTO.Mode.BEST_EFFORT,
+                List.of(delete(6L), create("Other", "One"), create("Gone", "Contact")));
+
+        ContactBulkResponseDTO response = contactBulkService.applyBulk(TEST_EMAIL, request);
+
+        assertEquals(500, response.getResults().get(0).getStatus());
+        assertEquals(200, response.getResults().get(1).getStatus());
+        assertEquals(409, response.getResults().get(2).getStatus());
+        assertEquals("A contact with this name already exists for your account.",
+                response.getResults().get(2).getError());
+        verify(contactBulkWriter, times(3)).writeChunk(eq(testUser), anyList());
+        verify(contactRepository, times(2)).findNamesByFirstNameInAndUserId(Set.of("Other", "Gone"), 1L);
+    }
+
+    @Test
+    void applyBulk_ContactWithoutEmailOrPhone_Rejected() {
+
+        ContactDTO empty = new ContactDTO(null, "Lonely", null, null, null, null);
+        ContactBulkRequestDTO request = new ContactBulkRequestDTO(ContactBulkRequestDTO.Mode.BEST_EFFORT,
+                List.of(new ContactBulkOperationDTO(ContactBulkOperationDTO.Type.CREATE, null, empty)));
+
+        ContactBulkResponseDTO response = contactBulkService.applyBulk(TEST_EMAIL, request);
+
+        assertEquals(400, response.getResults().get(0).getStatus());
+        assertEquals("A contact must have at least one email or one phone number.",
+                response.getResults().get(0).getError());
+        verifyNoInteractions(contactRepository, contactBulkWriter);
+    }
+}
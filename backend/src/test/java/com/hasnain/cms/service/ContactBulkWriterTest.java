@@ -0,0 +1,151 @@
+package com.hasnain.cms.service;
+
+import com.hasnain.cms.dto.ContactBulkOperationDTO;
+import com.hasnain.cms.dto.ContactBulkResultDTO;
+import com.hasnain.cms.dto.ContactDTO;
+import com.hasnain.cms.dto.ContactEmailDTO;
+import com.hasnain.cms.dto.ContactPhoneDTO;
+import com.hasnain.cms.entity.Contact;
+import com.hasnain.cms.entity.User;
+import com.hasnain.cms.event.ContactChangeType;
+import com.hasnain.cms.event.ContactChangedEvent;
+import com.hasnain.cms.exception.ResourceNotFoundException;
+import com.hasnain.cms.repository.ContactRepository;
+import com.hasnain.cms.service.ContactBulkWriter.PlannedOperation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContactBulkWriterTest {
+
+    @Mock
+    private ContactRepository contactRepository;
+
+    @Mock
+    private ContactSyncService contactSyncService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private ContactBulkWriter contactBulkWriter;
+
+    private User testUser;
+
+    private Contact existingContact;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setUserId(1L);
+
+        existingContact = new Contact();
+        existingContact.setId(5L);
+        existingContact.setFirstName("Old");
+        existingContact.setLastName("Name");
+        existingContact.setUser(testUser);
+    }
+
+    private static ContactDTO contact(String firstName) {
+        return new ContactDTO(99L, firstName, "Contact", null,
+                List.of(new ContactEmailDTO(77L, "work", "someone@example.com")),
+                List.of(new ContactPhoneDTO(null, "home", "03123456789")));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void writeChunk_GroupsOperationsAndFlushesOnce() {
+
+        when(contactRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Contact> contacts = invocation.getArgument(0);
+            contacts.stream().filter(contact -> contact.getId() == null).forEach(contact -> contact.setId(20L));
+            return contacts;
+        });
+        when(contactRepository.findAllByIdInAndUserId(Set.of(5L), 1L)).thenReturn(List.of(existingContact));
+        when(contactRepository.deleteAllByIdInAndUserId(Set.of(6L), 1L)).thenReturn(1);
+        when(contactSyncService.reserveSequences(1L, 3)).thenReturn(10L);
+
+        List<PlannedOperation> chunk = List.of(
+                new PlannedOperation(0, new ContactBulkOperationDTO(ContactBulkOperationDTO.Type.DELETE, 6L, null)),
+                new PlannedOperation(1, new ContactBulkOperationDTO(ContactBulkOperationDTO.Type.CREATE, null,
+                        contact("New"))),
+                new PlannedOperation(2, new ContactBulkOperationDTO(ContactBulkOperationDTO.Type.UPDATE, 5L,
+                        contact("Renamed"))));
+
+        List<ContactBulkResultDTO> results = contactBulkWriter.writeChunk(testUser, chunk);
+
+        assertEquals(List.of(0, 1, 2), results.stream().map(ContactBulkResultDTO::getIndex).toList());
+        assertEquals(200, results.get(0).getStatus());
+        assertEquals(201, results.get(1).getStatus());
+        assertEquals(20L, results.get(1).getId());
+        assertEquals("New", results.get(1).getContact().getFirstName());
+        assertEquals(200, results.get(2).getStatus());
+        assertEquals("Renamed", results.get(2).getContact().getFirstName());
+
+        ArgumentCaptor<List<Contact>> saved = ArgumentCaptor.forClass(List.class);
+        verify(contactRepository, times(2)).saveAll(saved.capture());
+        Contact created = saved.getAllValues().get(0).get(0);
+        assertEquals(testUser, created.getUser());
+        assertNull(created.getEmails().get(0).getId());
+        assertSame(created, created.getEmails().get(0).getContact());
+        assertSame(existingContact, existingContact.getPhones().get(0).getContact());
+        assertEquals(10L, created.getChangeSequence());
+        assertEquals(10L, created.getCreatedSequence());
+        assertEquals(11L, existingContact.getChangeSequence());
+        verify(contactSyncService).recordDeletions(1L, Set.of(6L), 12L);
+        verify(contactRepository).flush();
+
+        ArgumentCaptor<ContactChangedEvent> events = ArgumentCaptor.forClass(ContactChangedEvent.class);
+        verify(eventPublisher, times(3)).publishEvent(events.capture());
+        assertEquals(List.of(ContactChangeType.CREATED, ContactChangeType.UPDATED, ContactChangeType.DELETED),
+                events.getAllValues().stream().map(ContactChangedEvent::type).toList());
+        assertEquals(List.of(20L, 5L, 6L),
+                events.getAllValues().stream().map(ContactChangedEvent::contactId).toList());
+        assertEquals(List.of(10L, 11L, 12L),
+                events.getAllValues().stream().map(ContactChangedEvent::sequence).toList());
+    }
+
+    @Test
+    void writeChunk_UpdatedContactVanished_ThrowsNotFound() {
+
+        when(contactRepository.saveAll(anyList())).thenReturn(new ArrayList<>());
+        when(contactRepository.findAllByIdInAndUserId(Set.of(5L), 1L)).thenReturn(List.of());
+
+        List<PlannedOperation> chunk = List.of(new PlannedOperation(0,
+                new ContactBulkOperationDTO(ContactBulkOperationDTO.Type.UPDATE, 5L, contact("Renamed"))));
+
+        assertThrows(ResourceNotFoundException.class, () -> contactBulkWriter.writeChunk(testUser, chunk));
+        verify(contactRepository, never()).flush();
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void writeAll_WritesEveryChunk() {
+
+        when(contactRepository.saveAll(anyList())).thenReturn(new ArrayList<>());
+        when(contactRepository.deleteAllByIdInAndUserId(anyCollection(), eq(1L))).thenReturn(1);
+
+        List<List<PlannedOperation>> chunks = List.of(
+                List.of(new PlannedOperation(0, new ContactBulkOperationDTO(ContactBulkOperationDTO.Type.DELETE, 6L, null))),
+                List.of(new PlannedOperation(1, new ContactBulkOperationDTO(ContactBulkOperationDTO.Type.DELETE, 7L, null))));
+
+        List<ContactBulkResultDTO> results = contactBulkWriter.writeAll(testUser, chunks);
+
+        assertEquals(2, results.size());
+        verify(contactRepository, times(2)).flush();
+    }
+}
@@ -0,0 +1,345 @@
+package com.hasnain.cms.service;
+
+import com.hasnain.cms.dto.ContactChangeDTO;
+import com.hasnain.cms.dto.ContactChangesResponseDTO;
+import com.hasnain.cms.dto.ContactDTO;
+import com.hasnain.cms.entity.User;
+import com.hasnain.cms.event.ContactChangeType;
+import com.hasnain.cms.event.ContactChangedEvent;
+import com.hasnain.cms.exception.InvalidSyncCursorException;
+import com.hasnain.cms.exception.RequestLimitExceededException;
+import com.hasnain.cms.exception.SyncCursorExpiredException;
+import com.hasnain.cms.security.SecurityUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@ExtendWith(MockitoExtension.class)
+class ContactChangeStreamServiceTest {
+
+    private static final String TEST_EMAIL = "user@test.com";
+
+    @Mock
+    private ContactSyncService contactSyncService;
+
+    @Mock
+    private UserService userService;
+
+    private ContactChangeStreamService streamService;
+
+    private MockMvc mockMvc;
+
+    private User testUser;
+
+    private final CountDownLatch unstall = new CountDownLatch(1);
+
+    @RestController
+    static class StreamController {
+
+        private final ContactChangeStreamService streamService;
+
+        StreamController(ContactChangeStreamService streamService) {
+            this.streamService = streamService;
+        }
+
+        @GetMapping("/stream")
+        SseEmitter stream(@RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+            return streamService.subscribe(TEST_EMAIL, lastEventId);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setUserId(1L);
+        testUser.setEmail(TEST_EMAIL);
+        lenient().when(userService.loadUserByUsername(TEST_EMAIL)).thenReturn(new SecurityUser(testUser));
+        lenient().when(contactSyncService.currentSequence(1L)).thenReturn(3L);
+        start(2, 16);
+    }
+
+    private void start(int maxConnectionsPerUser, int bufferSize) {
+        if (streamService != null) {
+            streamService.shutdown();
+        }
+        streamService = new ContactChangeStreamService(contactSyncService, userService, 60_000, 60_000, bufferSize,
+                maxConnectionsPerUser, 1000, 2, 2000, 1);
+        mockMvc = MockMvcBuilders.standaloneSetup(new StreamController(streamService))
+                .addFilter(new StallingFilter(unstall))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        unstall.countDown();
+        streamService.shutdown();
+    }
+
+    /**
+     * Makes the stream's own writes to a request sent with {@code X-Stall} block until released, like a client that
+     * keeps its connection open but stops reading.
+     */
+    private static final class StallingFilter extends OncePerRequestFilter {
+
+        private final CountDownLatch unstall;
+
+        StallingFilter(CountDownLatch unstall) {
+            this.unstall = unstall;
+        }
+
+        @Override
+        protected boolean shouldNotFilterAsyncDispatch() {
+            return false;
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            chain.doFilter(request, request.getHeader("X-Stall") == null ? response
+                    : new HttpServletResponseWrapper(response) {
+                @Override
+                public ServletOutputStream getOutputStream() throws IOException {
+                    return new StalledOutputStream(response.getOutputStream(), unstall);
+                }
+            });
+        }
+    }
+
+    private static final class StalledOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream delegate;
+
+        private final CountDownLatch unstall;
+
+        StalledOutputStream(ServletOutputStream delegate, CountDownLatch unstall) {
+            this.delegate = delegate;
+            this.unstall = unstall;
+        }
+
+        private void stall() throws IOException {
+            // Events sent before the response is set up are written by the request thread; only stall the stream's.
+            if (Thread.currentThread().getName().startsWith("contact-stream-")) {
+                try {
+                    unstall.await();
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(exception);
+                }
+            }
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            stall();
+            delegate.write(b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            stall();
+            delegate.write(bytes, offset, length);
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+
+    private MockHttpServletResponse open(String lastEventId) throws Exception {
+        return open(lastEventId, false);
+    }
+
+    private MockHttpServletResponse open(String lastEventId, boolean stalled) throws Exception {
+        var request = get("/stream");
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        if (stalled) {
+            request.header("X-Stall", "true");
+        }
+        return mockMvc.perform(request).andExpect(request().asyncStarted()).andReturn().getResponse();
+    }
+
+    private static ContactChangedEvent updated(long sequence) {
+        return ContactChangedEvent.updated(1L, sequence, new ContactDTO(7L, "Name" + sequence, null, null,
+                List.of(), List.of()));
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    private static String content(MockHttpServletResponse response) {
+        try {
+            return response.getContentAsString();
+        } catch (Exception exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    @Test
+    void subscribe_LiveChangesAreSentWithSequenceAsEventId() throws Exception {
+
+        MockHttpServletResponse response = open(null);
+        streamService.onContactChanged(updated(4L));
+        streamService.onContactChanged(ContactChangedEvent.updated(2L, 4L, new ContactDTO()));
+
+        await(() -> content(response).contains("Name4"));
+        String body = content(response);
+        assertTrue(body.startsWith(":heartbeat"));
+        assertTrue(body.contains("id:4\nevent:contact-change\ndata:{\"sequence\":4,\"type\":\"UPDATED\",\"id\":7"));
+        assertEquals(1, streamService.openConnectionCount());
+        verify(contactSyncService, never()).getChanges(any(), any(), anyInt());
+    }
+
+    @Test
+    void subscribe_WithLastEventId_ReplaysMissedChangesBeforeLiveOnes() throws Exception {
+
+        when(contactSyncService.getChanges(TEST_EMAIL, "1", 1000)).thenReturn(new ContactChangesResponseDTO(
+                List.of(new ContactChangeDTO(2L, ContactChangeType.CREATED, 5L, new ContactDTO()),
+                        new ContactChangeDTO(3L, ContactChangeType.DELETED, 6L, null)),
+                "3", false));
+
+        MockHttpServletResponse response = open("1");
+        streamService.onContactChanged(updated(3L));
+        streamService.onContactChanged(updated(4L));
+
+        await(() -> content(response).contains("id:4"));
+        String body = content(response);
+        assertTrue(body.indexOf("id:2\n") < body.indexOf("id:3\n"));
+        assertTrue(body.indexOf("id:3\n") < body.indexOf("id:4\n"));
+        assertEquals(body.indexOf("id:3\n"), body.lastIndexOf("id:3\n"));
+    }
+
+    @Test
+    void onContactChanged_GapInSequence_CatchesUpFromDatabase() throws Exception {
+
+        when(contactSyncService.getChanges(TEST_EMAIL, "3", 1000)).thenReturn(new ContactChangesResponseDTO(
+                List.of(new ContactChangeDTO(4L, ContactChangeType.UPDATED, 5L, new ContactDTO()),
+                        new ContactChangeDTO(5L, ContactChangeType.UPDATED, 7L, new ContactDTO())),
+                "5", false));
+
+        MockHttpServletResponse response = open(null);
+        streamService.onContactChanged(updated(5L));
+        streamService.onContactChanged(updated(4L));
+
+        await(() -> content(response).contains("id:5"));
+        Thread.sleep(50);
+        String body = content(response);
+        assertTrue(body.indexOf("id:4\n") < body.indexOf("id:5\n"));
+        assertEquals(body.indexOf("id:4\n"), body.lastIndexOf("id:4\n"));
+        assertEquals(body.indexOf("id:5\n"), body.lastIndexOf("id:5\n"));
+    }
+
+    @Test
+    void subscribe_LastEventIdOlderThanRetainedChanges_AsksClientToResync() throws Exception {
+
+        when(contactSyncService.getChanges(TEST_EMAIL, "1", 1000))
+                .thenThrow(new SyncCursorExpiredException("Sync cursor 1 has expired, sync again from the start."));
+
+        MockHttpServletResponse response = open("1");
+
+        await(() -> content(response).contains("event:resync"));
+        assertTrue(content(response).contains("event:resync\ndata:0"));
+        await(() -> streamService.openConnectionCount() == 0);
+    }
+
+    @Test
+    void onContactChanged_SlowConsumer_IsDisconnected() throws Exception {
+
+        start(2, 2);
+        CountDownLatch catchUpStarted = new CountDownLatch(1);
+        CountDownLatch releaseCatchUp = new CountDownLatch(1);
+        when(contactSyncService.getChanges(eq(TEST_EMAIL), eq("0"), anyInt())).thenAnswer(invocation -> {
+            catchUpStarted.countDown();
+            releaseCatchUp.await(5, TimeUnit.SECONDS);
+            return new ContactChangesResponseDTO(List.of(), "3", false);
+        });
+
+        open("0");
+        assertTrue(catchUpStarted.await(5, TimeUnit.SECONDS));
+        for (long sequence = 4; sequence < 10; sequence++) {
+            streamService.onContactChanged(updated(sequence));
+        }
+        releaseCatchUp.countDown();
+
+        assertEquals(1, streamService.droppedConnectionCount());
+        assertEquals(0, streamService.openConnectionCount());
+    }
+
+    @Test
+    void onContactChanged_StalledClients_DoNotHoldUpOthers() throws Exception {
+
+        start(4, 16);
+        for (int stalled = 0; stalled < 3; stalled++) {
+            open(null, true);
+        }
+        MockHttpServletResponse response = open(null);
+
+        streamService.onContactChanged(updated(4L));
+        await(() -> content(response).contains("Name4"));
+
+        // More stalled clients than the dispatcher keeps threads, all cut off at the write timeout.
+        await(() -> streamService.droppedConnectionCount() == 3);
+        assertEquals(1, streamService.openConnectionCount());
+        streamService.onContactChanged(updated(5L));
+        await(() -> content(response).contains("Name5"));
+    }
+
+    @Test
+    void subscribe_Failure_TooManyStreamsForUser() throws Exception {
+
+        start(1, 16);
+        open(null);
+
+        assertThrows(RequestLimitExceededException.class, () -> streamService.subscribe(TEST_EMAIL, null));
+        assertEquals(1, streamService.openConnectionCount());
+    }
+
+    @Test
+    void subscribe_Failure_InvalidLastEventId() {
+        assertThrows(InvalidSyncCursorException.class, () -> streamService.subscribe(TEST_EMAIL, "abc"));
+        assertEquals(0, streamService.openConnectionCount());
+    }
+}
@@ -0,0 +1,132 @@
+package com.hasnain.cms.service;
+
+import com.hasnain.cms.dto.ContactDuplicateGroupDTO;
+import com.hasnain.cms.dto.ContactDuplicateGroupDTO.Match;
+import com.hasnain.cms.entity.Contact;
+import com.hasnain.cms.entity.ContactEmail;
+import com.hasnain.cms.entity.ContactPhone;
+import com.hasnain.cms.repository.ContactRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContactDuplicateFinderTest {
+
+    @Mock
+    private ContactRepository contactRepository;
+
+    @InjectMocks
+    private ContactDuplicateFinder contactDuplicateFinder;
+
+    private static Contact contact(long id, String firstName, String lastName, String email, String phone) {
+        Contact contact = new Contact();
+        contact.setId(id);
+        contact.setFirstName(firstName);
+        contact.setLastName(lastName);
+        if (email != null) {
+            ContactEmail contactEmail = new ContactEmail();
+            contactEmail.setEmail(email);
+            contactEmail.setContact(contact);
+            contact.getEmails().add(contactEmail);
+        }
+        if (phone != null) {
+            ContactPhone contactPhone = new ContactPhone();
+            contactPhone.setPhoneNumber(phone);
+            contactPhone.setContact(contact);
+            contact.getPhones().add(contactPhone);
+        }
+        return contact;
+    }
+
+    private static List<Long> ids(ContactDuplicateFinder.Cluster cluster) {
+        return cluster.contacts().stream().map(Contact::getId).toList();
+    }
+
+    @Test
+    void cluster_MatchesPhoneFormatsEmailCaseAndSwappedNames() {
+
+        List<ContactDuplicateFinder.Cluster> clusters = ContactDuplicateFinder.cluster(List.of(
+                contact(1L, "Ali", "Khan", "ali@example.com", "0312-3456789"),
+                contact(2L, "Sara", "Ahmed", null, "+92 312 3456789"),
+                contact(3L, "John", "Smith", "John.Smith@Example.com ", null),
+                contact(4L, "Smith", "John", "j.smith@example.com", null),
+                contact(5L, "Unrelated", "Person", "john.smith@example.com", null),
+                contact(6L, "Alone", "Here", "alone@example.com", "5550100")));
+
+        assertEquals(2, clusters.size());
+        assertEquals(List.of(1L, 2L), ids(clusters.get(0)));
+        assertEquals(EnumSet.of(Match.PHONE), clusters.get(0).matchedOn());
+        assertEquals(List.of(3L, 4L, 5L), ids(clusters.get(1)));
+        assertEquals(EnumSet.of(Match.EMAIL, Match.NAME), clusters.get(1).matchedOn());
+    }
+
+    @Test
+    void cluster_ChainsTransitiveMatchesIntoOneGroup() {
+
+        List<ContactDuplicateFinder.Cluster> clusters = ContactDuplicateFinder.cluster(List.of(
+                contact(30L, "C", null, "c@example.com", "03001111111"),
+                contact(10L, "A", null, "a@example.com", null),
+                contact(20L, "B", null, "A@example.com", "0300 1111111")));
+
+        assertEquals(1, clusters.size());
+        assertEquals(List.of(10L, 20L, 30L), ids(clusters.get(0)));
+        assertEquals(EnumSet.of(Match.EMAIL, Match.PHONE), clusters.get(0).matchedOn());
+    }
+
+    @Test
+    void cluster_IgnoresSingleTokenNamesAndShortNumbers() {
+
+        assertTrue(ContactDuplicateFinder.cluster(List.of(
+                contact(1L, "Ali", null, null, "1122"),
+                contact(2L, "ali", "", null, "1122"))).isEmpty());
+    }
+
+    @Test
+    void keys_NormalizeFormatting() {
+
+        assertEquals("3123456789", ContactDuplicateFinder.phoneKey("+92 (312) 345-6789"));
+        assertEquals("3123456789", ContactDuplicateFinder.phoneKey("03123456789"));
+        assertNull(ContactDuplicateFinder.phoneKey("ext 12"));
+        assertEquals("someone@example.com", ContactDuplicateFinder.emailKey(" SomeOne@Example.com"));
+        assertNull(ContactDuplicateFinder.emailKey("not-an-email"));
+        assertEquals("doe jane", ContactDuplicateFinder.nameKey("Jane", "DOE"));
+        assertEquals("doe jane", ContactDuplicateFinder.nameKey("Doe,", "Jane"));
+        assertNull(ContactDuplicateFinder.nameKey("Jane", null));
+    }
+
+    @Test
+    void findDuplicates_LoadsContactsWithChildrenInTwoQueries() {
+
+        List<Contact> contacts = List.of(
+                contact(1L, "Ali", "Khan", "ali@example.com", null),
+                contact(2L, "Khan", "Ali", null, "03123456789"));
+        when(contactRepository.findAllWithEmailsByUserId(1L)).thenReturn(contacts);
+
+        List<ContactDuplicateGroupDTO> groups = contactDuplicateFinder.findDuplicates(1L);
+
+        assertEquals(1, groups.size());
+        assertEquals(EnumSet.of(Match.NAME), groups.get(0).getMatchedOn());
+        assertEquals(List.of(1L, 2L), groups.get(0).getContacts().stream().map(dto -> dto.getId()).toList());
+        verify(contactRepository).fetchPhones(contacts);
+    }
+
+    @Test
+    void findDuplicates_FewerThanTwoContacts_SkipsPhoneQuery() {
+
+        when(contactRepository.findAllWithEmailsByUserId(1L)).thenReturn(List.of(
+                contact(1L, "Ali", "Khan", "ali@example.com", null)));
+
+        assertTrue(contactDuplicateFinder.findDuplicates(1L).isEmpty());
+        verify(contactRepository, never()).fetchPhones(any());
+    }
+}
@@ -0,0 +1,207 @@
+package com.hasnain.cms.service;
+
+import com.hasnain.cms.dto.ContactDTO;
+import com.hasnain.cms.dto.ContactDuplicateGroupDTO;
+import com.hasnain.cms.entity.Contact;
+import com.hasnain.cms.entity.ContactEmail;
+import com.hasnain.cms.entity.ContactPhone;
+import com.hasnain.cms.entity.User;
+import com.hasnain.cms.event.ContactChangeType;
+import com.hasnain.cms.event.ContactChangedEvent;
+import com.hasnain.cms.exception.InvalidMergeRequestException;
+import com.hasnain.cms.exception.ResourceNotFoundException;
+import com.hasnain.cms.repository.ContactRepository;
+import com.hasnain.cms.repository.UserChangeSequenceView;
+import com.hasnain.cms.repository.UserRepository;
+import com.hasnain.cms.security.SecurityUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContactDuplicateServiceTest {
+
+    private static final String TEST_EMAIL = "user@test.com";
+
+    @Mock
+    private ContactRepository contactRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private ContactSyncService contactSyncService;
+
+    @Mock
+    private ContactDuplicateFinder contactDuplicateFinder;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ContactDuplicateService contactDuplicateService;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        contactDuplicateService = new ContactDuplicateService(contactRepository, userRepository, userService,
+                contactSyncService, contactDuplicateFinder, eventPublisher, 0, 2);
+        testUser = new User();
+        testUser.setUserId(1L);
+        testUser.setEmail(TEST_EMAIL);
+    }
+
+    @AfterEach
+    void tearDown() {
+        contactDuplicateService.shutdown();
+    }
+
+    private static UserChangeSequenceView sequence(long userId, long changeSequence) {
+        return new UserChangeSequenceView() {
+            @Override
+            public Long getUserId() {
+                return userId;
+            }
+
+            @Override
+            public long getChangeSequence() {
+                return changeSequence;
+            }
+        };
+    }
+
+    private static Contact contact(long id, String title, String email, String phone) {
+        Contact contact = new Contact();
+        contact.setId(id);
+        contact.setFirstName("Contact" + id);
+        contact.setTitle(title);
+        ContactEmail contactEmail = new ContactEmail();
+        contactEmail.setEmail(email);
+        contactEmail.setContact(contact);
+        contact.getEmails().add(contactEmail);
+        ContactPhone contactPhone = new ContactPhone();
+        contactPhone.setPhoneNumber(phone);
+        contactPhone.setContact(contact);
+        contact.getPhones().add(contactPhone);
+        return contact;
+    }
+
+    @Test
+    void getDuplicates_ReusesScanUntilUserSequenceMoves() {
+
+        List<ContactDuplicateGroupDTO> groups = List.of(new ContactDuplicateGroupDTO());
+        when(userService.loadUserByUsername(TEST_EMAIL)).thenReturn(new SecurityUser(testUser));
+        when(contactSyncService.currentSequence(1L)).thenReturn(10L, 10L, 11L);
+        when(contactDuplicateFinder.findDuplicates(1L)).thenReturn(groups, List.of());
+
+        assertSame(groups, contactDuplicateService.getDuplicates(TEST_EMAIL));
+        assertSame(groups, contactDuplicateService.getDuplicates(TEST_EMAIL));
+        verify(contactDuplicateFinder, times(1)).findDuplicates(1L);
+
+        assertTrue(contactDuplicateService.getDuplicates(TEST_EMAIL).isEmpty());
+        verify(contactDuplicateFinder, times(2)).findDuplicates(1L);
+    }
+
+    @Test
+    void scanAll_RescansOnlyUsersWhoseSequenceMoved() {
+
+        when(userRepository.findAllChangeSequences()).thenReturn(
+                List.of(sequence(1L, 10L), sequence(2L, 5L)),
+                List.of(sequence(1L, 10L), sequence(2L, 6L)));
+        when(contactDuplicateFinder.findDuplicates(anyLong())).thenReturn(List.of());
+
+        assertEquals(2, contactDuplicateService.scanAll());
+        assertEquals(1, contactDuplicateService.scanAll());
+
+        verify(contactDuplicateFinder, times(1)).findDuplicates(1L);
+        verify(contactDuplicateFinder, times(2)).findDuplicates(2L);
+    }
+
+    @Test
+    void scanAll_OneUserFailing_StillScansOthers() {
+
+        when(userRepository.findAllChangeSequences()).thenReturn(List.of(sequence(1L, 10L), sequence(2L, 5L)));
+        when(contactDuplicateFinder.findDuplicates(1L)).thenThrow(new IllegalStateException("boom"));
+        when(contactDuplicateFinder.findDuplicates(2L)).thenReturn(List.of());
+
+        assertEquals(2, contactDuplicateService.scanAll());
+        verify(contactDuplicateFinder).findDuplicates(2L);
+    }
+
+    @Test
+    void mergeContacts_CopiesNewDetailsAndDeletesDuplicates() {
+
+        Contact target = contact(1L, null, "ali@example.com", "0312-3456789");
+        Contact duplicate = contact(2L, "Manager", "ALI@example.com", "+923123456789");
+        ContactEmail extraEmail = new ContactEmail();
+        extraEmail.setLabel("work");
+        extraEmail.setEmail("ali@work.com");
+        duplicate.getEmails().add(extraEmail);
+
+        when(userService.loadUserByUsername(TEST_EMAIL)).thenReturn(new SecurityUser(testUser));
+        when(contactRepository.findAllWithEmailsByIdInAndUserId(Set.of(1L, 2L), 1L))
+                .thenReturn(List.of(target, duplicate));
+        when(contactSyncService.reserveSequences(1L, 2)).thenReturn(11L);
+        when(contactRepository.save(target)).thenReturn(target);
+
+        ContactDTO result = contactDuplicateService.mergeContacts(TEST_EMAIL, 1L, List.of(2L, 2L));
+
+        assertEquals("Manager", result.getTitle());
+        assertEquals(List.of("ali@example.com", "ali@work.com"),
+                result.getEmails().stream().map(email -> email.getEmail()).toList());
+        assertEquals(1, result.getPhones().size());
+        assertSame(target, target.getEmails().get(1).getContact());
+        assertEquals(11L, target.getChangeSequence());
+        verify(contactRepository).fetchPhones(any());
+        InOrder locks = inOrder(contactSyncService, contactRepository);
+        locks.verify(contactSyncService).reserveSequences(1L, 2);
+        locks.verify(contactRepository).deleteAllByIdInAndUserId(Set.of(2L), 1L);
+        verify(contactSyncService).recordDeletions(1L, Set.of(2L), 12L);
+        verify(contactRepository).flush();
+
+        ArgumentCaptor<ContactChangedEvent> events = ArgumentCaptor.forClass(ContactChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertEquals(List.of(ContactChangeType.UPDATED, ContactChangeType.DELETED),
+                events.getAllValues().stream().map(ContactChangedEvent::type).toList());
+        assertEquals(List.of(11L, 12L), events.getAllValues().stream().map(ContactChangedEvent::sequence).toList());
+        assertEquals(2L, events.getAllValues().get(1).contactId());
+    }
+
+    @Test
+    void mergeContacts_Failure_MergeIntoItself() {
+
+        assertThrows(InvalidMergeRequestException.class,
+                () -> contactDuplicateService.mergeContacts(TEST_EMAIL, 1L, List.of(1L, 2L)));
+        verifyNoInteractions(contactRepository, contactSyncService, eventPublisher);
+    }
+
+    @Test
+    void mergeContacts_Failure_ContactNotFound() {
+
+        when(userService.loadUserByUsername(TEST_EMAIL)).thenReturn(new SecurityUser(testUser));
+        when(contactRepository.findAllWithEmailsByIdInAndUserId(Set.of(1L, 2L), 1L))
+                .thenReturn(List.of(contact(1L, null, "ali@example.com", "03123456789")));
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> contactDuplicateService.mergeContacts(TEST_EMAIL, 1L, List.of(2L)));
+        verify(contactRepository, never()).deleteAllByIdInAndUserId(any(), anyLong());
+        verifyNoInteractions(contactSyncService, eventPublisher);
+    }
+}
@@ -0,0 +1,81 @@
+package com.hasnain.cms.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hasnain.cms.dto.ContactDTO;
+import com.hasnain.cms.dto.ContactEmailDTO;
+import com.hasnain.cms.event.ContactChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContactJsonCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final ContactJsonCache cache = new ContactJsonCache(objectMapper, 1_000_000);
+
+    private static ContactDTO contact(String firstName) {
+        return new ContactDTO(7L, firstName, "Khan", null, List.of(new ContactEmailDTO(1L, "work", "ali@x.io")),
+                List.of());
+    }
+
+    private static Supplier<ContactDTO> counting(AtomicInteger loads, ContactDTO contact) {
+        return () -> {
+            loads.incrementAndGet();
+            return contact;
+        };
+    }
+
+    @Test
+    void get_EncodesLikeTheObjectMapperAndReusesTheBytes() throws Exception {
+
+        AtomicInteger loads = new AtomicInteger();
+        byte[] first = cache.get(7L, 3L, counting(loads, contact("Ali")));
+        byte[] second = cache.get(7L, 3L, counting(loads, contact("Ali")));
+
+        assertArrayEquals(objectMapper.writeValueAsBytes(contact("Ali")), first);
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_NewVersion_IsEncodedAgain() {
+
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(7L, 3L, counting(loads, contact("Ali")));
+        byte[] updated = cache.get(7L, 4L, counting(loads, contact("Ahmed")));
+
+        assertTrue(new String(updated, StandardCharsets.UTF_8).contains("Ahmed"));
+        assertSame(updated, cache.get(7L, 4L, counting(loads, contact("Ahmed"))));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_OlderVersion_DoesNotReplaceNewerJson() {
+
+        AtomicInteger loads = new AtomicInteger();
+        byte[] newer = cache.get(7L, 4L, counting(loads, contact("Ahmed")));
+        cache.get(7L, 3L, counting(loads, contact("Ali")));
+
+        assertSame(newer, cache.get(7L, 4L, counting(loads, contact("Ahmed"))));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void onContactChanged_Deleted_DropsTheJson() {
+
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(7L, 3L, counting(loads, contact("Ali")));
+        cache.onContactChanged(ContactChangedEvent.updated(1L, 4L, contact("Ali")));
+        cache.get(7L, 3L, counting(loads, contact("Ali")));
+        cache.onContactChanged(ContactChangedEvent.deleted(1L, 5L, 7L));
+        cache.get(7L, 3L, counting(loads, contact("Ali")));
+
+        assertEquals(2, loads.get());
+    }
+}
@@ -0,0 +1,72 @@
+package com.hasnain.cms.service;
+
+import com.hasnain.cms.dto.ContactDTO;
+import com.hasnain.cms.event.ContactChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContactListCacheTest {
+
+    private final ContactListCache cache = new ContactListCache(1_000, 60);
+
+    private static ContactDTO contact(long id) {
+        return new ContactDTO(id, "Contact" + id, null, null, List.of(), List.of());
+    }
+
+    private static Supplier<List<ContactDTO>> counting(AtomicInteger loads, List<ContactDTO> contacts) {
+        return () -> {
+            loads.incrementAndGet();
+            return contacts;
+        };
+    }
+
+    @Test
+    void get_KeysBySearchTermPageAndSize() {
+
+        AtomicInteger loads = new AtomicInteger();
+        List<ContactDTO> page = List.of(contact(1));
+
+        cache.get(1L, null, 0, 10, counting(loads, page));
+        cache.get(1L, " ", 0, 10, counting(loads, page));
+        cache.get(1L, "ali", 0, 10, counting(loads, page));
+        cache.get(1L, null, 1, 10, counting(loads, page));
+        cache.get(1L, null, 0, 20, counting(loads, page));
+        cache.get(2L, null, 0, 10, counting(loads, page));
+
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    void onContactChanged_InvalidatesOnlyThatUsersPages() {
+
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(1L, "ali", 0, 10, counting(loads, List.of(contact(1))));
+        cache.get(2L, "ali", 0, 10, counting(loads, List.of(contact(2))));
+
+        cache.onContactChanged(ContactChangedEvent.deleted(1L, 5L, 1L));
+
+        assertEquals(List.of(), cache.get(1L, "ali", 0, 10, counting(loads, List.of())));
+        assertEquals(List.of(contact(2)), cache.get(2L, "ali", 0, 10, counting(loads, List.of())));
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void get_LoadRacingAChange_IsNotServedAfterIt() {
+
+        AtomicInteger loads = new AtomicInteger();
+        List<ContactDTO> stale = cache.get(1L, null, 0, 10, () -> {
+            // The change commits while this page is being read.
+            cache.onContactChanged(ContactChangedEvent.deleted(1L, 5L, 1L));
+            return List.of(contact(1));
+        });
+
+        assertEquals(List.of(contact(1)), stale);
+        assertEquals(List.of(), cache.get(1L, null, 0, 10, counting(loads, List.of())));
+        assertEquals(1, loads.get());
+    }
+}
@@ -0,0 +1,129 @@
+package com.hasnain.cms.service;
+
+import com.hasnain.cms.config.SqlStatementCounter;
+import com.hasnain.cms.config.SqlStatementMonitor;
+import com.hasnain.cms.dto.ContactDTO;
+import com.hasnain.cms.entity.Contact;
+import com.hasnain.cms.entity.ContactEmail;
+import com.hasnain.cms.entity.ContactPhone;
+import com.hasnain.cms.entity.User;
+import com.hasnain.cms.repository.ContactRepository;
+import com.hasnain.cms.repository.UserRepository;
+import com.hasnain.cms.security.SecurityUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.hasnain.cms.support.SqlStatementBudget.assertStatements;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Statement budgets for the contact read paths, against an in-memory database. A mapper or entity change that adds a
+ * lazy load per contact breaks these.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ContactService.class, ContactSyncService.class, ContactListCache.class, ContactJsonCache.class,
+        SqlStatementMonitor.class})
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, PropertyPlaceholderAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.autoconfigure.exclude=",
+        "spring.datasource.url=jdbc:h2:mem:statement-budget;MODE=MySQL;NON_KEYWORDS=USER",
+        "spring.jpa.properties.hibernate.default_batch_fetch_size=50",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false"})
+class ContactServiceStatementBudgetTest {
+
+    private static final String TEST_EMAIL = "budget@test.com";
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ContactService contactService;
+
+    @MockBean
+    private UserService userService;
+
+    private List<Long> contactIds;
+
+    @BeforeEach
+    void setUp() {
+
+        contactRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        User user = new User();
+        user.setEmail(TEST_EMAIL);
+        user.setPassword("password");
+        User savedUser = userRepository.save(user);
+        when(userService.loadUserByUsername(TEST_EMAIL)).thenReturn(new SecurityUser(savedUser));
+
+        contactIds = contactRepository.saveAll(List.of(contact(savedUser, "Ada"), contact(savedUser, "Alan"),
+                contact(savedUser, "Grace"))).stream().map(Contact::getId).toList();
+    }
+
+    private static Contact contact(User user, String firstName) {
+
+        Contact contact = new Contact();
+        contact.setFirstName(firstName);
+        contact.setUser(user);
+        ContactEmail email = new ContactEmail();
+        email.setLabel("work");
+        email.setEmail(firstName.toLowerCase() + "@example.com");
+        email.setContact(contact);
+        ContactPhone phone = new ContactPhone();
+        phone.setLabel("mobile");
+        phone.setPhoneNumber("0300000000" + firstName.length());
+        phone.setContact(contact);
+        contact.getEmails().add(email);
+        contact.getPhones().add(phone);
+        return contact;
+    }
+
+    @Test
+    void getUserContacts_LoadsPageEmailsAndPhonesInThreeStatements() throws Throwable {
+
+        List<ContactDTO> contacts = assertStatements(3,
+                () -> contactService.getUserContacts(TEST_EMAIL, null, 0, 10));
+
+        assertEquals(3, contacts.size());
+        assertTrue(contacts.stream().allMatch(contact -> contact.getEmails().size() == 1
+                && contact.getPhones().size() == 1));
+    }
+
+    @Test
+    void getContactsByIds_FetchesEmailsAndPhonesInTwoStatements() throws Throwable {
+
+        assertEquals(3, assertStatements(2, () -> contactService.getContactsByIds(TEST_EMAIL, contactIds))
+                .getContacts().size());
+    }
+
+    @Test
+    void counter_FlagsStatementShapesRepeatedPerRow() {
+
+        try (SqlStatementCounter counter = SqlStatementCounter.start()) {
+            contactIds.forEach(contactRepository::findById);
+
+            Map<String, Integer> repeated = counter.getRepeatedShapes(3);
+            assertEquals(1, repeated.size());
+            assertEquals(3, repeated.values().iterator().next());
+        }
+    }
+}
@@ -1,15 +1,19 @@
 package com.hasnain.cms.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hasnain.cms.dto.ContactDTO;
 import com.hasnain.cms.dto.ContactEmailDTO;
+import com.hasnain.cms.dto.ContactLookupResponseDTO;
 import com.hasnain.cms.dto.ContactPhoneDTO;
 import com.hasnain.cms.entity.Contact;
 import com.hasnain.cms.entity.ContactEmail;
 import com.hasnain.cms.entity.ContactPhone;
 import com.hasnain.cms.entity.User;
+import com.hasnain.cms.event.ContactChangeType;
+import com.hasnain.cms.event.ContactChangedEvent;
 import com.hasnain.cms.exception.DuplicateContactException;
+import com.hasnain.cms.exception.RequestLimitExceededException;
 import com.hasnain.cms.exception.ResourceNotFoundException;
-import com.hasnain.cms.exception.UnauthorizedAccessException;
 import com.hasnain.cms.mapper.ContactMapper;
 import com.hasnain.cms.repository.ContactRepository;
 import com.hasnain.cms.security.SecurityUser;
@@ -17,10 +21,14 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -28,13 +36,17 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -46,6 +58,18 @@ class ContactServiceTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private ContactSyncService contactSyncService;
+
+    @Spy
+    private ContactListCache contactListCache = new ContactListCache(10_000, 60);
+
+    @Spy
+    private ContactJsonCache contactJsonCache = new ContactJsonCache(new ObjectMapper(), 1_000_000);
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ContactService contactService;
 
@@ -168,6 +192,26 @@ class ContactServiceTest {
                 any(), any(), any(), any());
     }
 
+    @Test
+    void getUserContacts_RepeatedPage_IsServedFromCacheUntilUserChangesContacts() {
+
+        Pageable pageable = PageRequest.of(0, 10);
+        when(userService.loadUserByUsername(TEST_EMAIL)).thenReturn(testSecurityUserEmail);
+        when(contactRepository.findByUser(testUserEmail, pageable))
+                .thenReturn(new PageImpl<>(List.of(testContact)), new PageImpl<>(List.of(testContact, testContact2)));
+        contactMapperMockedStatic.when(() -> ContactMapper.toDTO(testContact)).thenReturn(testContactDTO);
+        contactMapperMockedStatic.when(() -> ContactMapper.toDTO(testContact2)).thenReturn(testContactDTO2);
+
+        assertEquals(List.of(testContactDTO), contactService.getUserContacts(TEST_EMAIL, null, 0, 10));
+        assertEquals(List.of(testContactDTO), contactService.getUserContacts(TEST_EMAIL, "", 0, 10));
+        verify(contactRepository, times(1)).findByUser(testUserEmail, pageable);
+
+        contactListCache.onContactChanged(ContactChangedEvent.created(1L, 1L, testContactDTO2));
+
+        assertEquals(List.of(testContactDTO, testContactDTO2), contactService.getUserContacts(TEST_EMAIL, null, 0, 10));
+        verify(contactRepository, times(2)).findByUser(testUserEmail, pageable);
+    }
+
     @Test
     void getUserContacts_Success_WithPhone_NoSearch() {
 
@@ -321,6 +365,7 @@ class ContactServiceTest {
                 contactToSave.getFirstName(), contactToSave.getLastName())).thenReturn(false);
 
         contactToSave.setUser(testUserEmail);
+        when(contactSyncService.reserveSequences(1L, 1)).thenReturn(7L);
         when(contactRepository.save(any(Contact.class))).thenReturn(savedContact);
 
         contactMapperMockedStatic.when(() -> ContactMapper.toDTO(savedContact)).thenReturn(savedContactDTO);
@@ -330,6 +375,16 @@ class ContactServiceTest {
         assertNotNull(result);
         assertEquals(10L, result.getId());
         assertEquals("New", result.getFirstName());
+        assertEquals(7L, contactToSave.getChangeSequence());
+        assertEquals(7L, contactToSave.getCreatedSequence());
+
+        ArgumentCaptor<ContactChangedEvent> event = ArgumentCaptor.forClass(ContactChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(ContactChangeType.CREATED, event.getValue().type());
+        assertEquals(1L, event.getValue().userId());
+        assertEquals(10L, event.getValue().contactId());
+        assertEquals(7L, event.getValue().sequence());
+        assertSame(savedContactDTO, event.getValue().contact());
     }
 
     @Test
@@ -411,6 +466,7 @@ class ContactServiceTest {
                 () -> contactService.createContact(TEST_EMAIL, contactToSave)
         );
         assertEquals(expectedError, exception.getMessage());
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -430,6 +486,34 @@ class ContactServiceTest {
         assertEquals(testContact.getFirstName(), result.getFirstName());
     }
 
+    @Test
+    void getContactJson_RepeatedView_ReusesJsonUntilContactChanges() {
+
+        when(userService.loadUserByUsername(TEST_EMAIL)).thenReturn(testSecurityUserEmail);
+        testContact.setChangeSequence(4L);
+        when(contactRepository.findById(1L)).thenReturn(Optional.of(testContact));
+        contactMapperMockedStatic.when(() -> ContactMapper.toDTO(testContact)).thenReturn(testContactDTO);
+
+        String json = new String(contactService.getContactJson(TEST_EMAIL, 1L), StandardCharsets.UTF_8);
+        assertTrue(json.contains("\"firstName\":\"Test\""));
+        contactService.getContactJson(TEST_EMAIL, 1L);
+        contactMapperMockedStatic.verify(() -> ContactMapper.toDTO(testContact), times(1));
+
+        testContact.setChangeSequence(5L);
+        contactService.getContactJson(TEST_EMAIL, 1L);
+        contactMapperMockedStatic.verify(() -> ContactMapper.toDTO(testContact), times(2));
+    }
+
+    @Test
+    void getContactJson_Failure_ContactOwnedByAnotherUser() {
+
+        when(userService.loadUserByUsername(TEST_PHONE)).thenReturn(testSecurityUserPhone);
+        when(contactRepository.findById(1L)).thenReturn(Optional.of(testContact));
+
+        assertThrows(ResourceNotFoundException.class, () -> contactService.getContactJson(TEST_PHONE, 1L));
+        verify(contactJsonCache, never()).get(any(), anyLong(), any());
+    }
+
     @Test
     void getContactById_Failure_InvalidIdentifierFormat() {
 
@@ -477,21 +561,75 @@ class ContactServiceTest {
     }
 
     @Test
-    void getContactById_Failure_UnauthorizedAccess() {
-
-        String expectedError = "Unauthorized access to this contact";
+    void getContactById_Failure_ContactOwnedByAnotherUser() {
 
-        when(userService.loadUserByUsername(TEST_EMAIL)).thenReturn(testSecurityUserEmail);
+        String expectedError = "Contact not found";
 
-        testContact.setUser(testUserPhone);
+        when(userService.loadUserByUsername(TEST_PHONE)).thenReturn(testSecurityUserPhone);
+        testContact.setUser(testUserEmail);
         when(contactRepository.findById(1L)).thenReturn(Optional.of(testContact));
 
-        UnauthorizedAccessException exception = assertThrows(
-                UnauthorizedAccessException.class,
-                () -> contactService.getContactById(TEST_EMAIL, 1L)
+        ResourceNotFoundException exception = assertThrows(
+                ResourceNotFoundException.class,
+                () -> contactService.getContactById(TEST_PHONE, 1L)
         );
 
         assertEquals(expectedError, exception.getMessage());
+        contactMapperMockedStatic.verifyNoInteractions();
+    }
+
+    @Test
+    void getContactsByIds_Success_ReportsMissingIdsSeparately() {
+
+        when(userService.loadUserByUsername(TEST_EMAIL)).thenReturn(testSecurityUserEmail);
+        when(contactRepository.findAllWithEmailsByIdInAndUserId(Set.of(2L, 99L, 1L), 1L))
+                .thenReturn(List.of(testContact, testContact2));
+        contactMapperMockedStatic.when(() -> ContactMapper.toDTO(testContact)).thenReturn(testContactDTO);
+        contactMapperMockedStatic.when(() -> ContactMapper.toDTO(testContact2)).thenReturn(testContactDTO2);
+
+        ContactLookupResponseDTO result = contactService.getContactsByIds(TEST_EMAIL, List.of(2L, 99L, 1L, 2L));
+
+        assertEquals(List.of(testContactDTO2, testContactDTO), result.getContacts());
+        assertEquals(List.of(99L), result.getNotFound());
+        verify(contactRepository).fetchPhones(List.of(testContact, testContact2));
+        verify(contactRepository, never()).findById(any());
+    }
+
+    @Test
+    void getContactsByIds_NoneOwned_SkipsChildFetch() {
+
+        when(userService.loadUserByUsername(TEST_PHONE)).thenReturn(testSecurityUserPhone);
+        when(contactRepository.findAllWithEmailsByIdInAndUserId(Set.of(1L), 2L)).thenReturn(List.of());
+
+        ContactLookupResponseDTO result = contactService.getContactsByIds(TEST_PHONE, List.of(1L));
+
+        assertTrue(result.getContacts().isEmpty());
+        assertEquals(List.of(1L), result.getNotFound());
+        verify(contactRepository, never()).fetchPhones(any());
+    }
+
+    @Test
+    void getContactsByIds_EmptyIds_ReturnsEmptyWithoutQuerying() {
+
+        ContactLookupResponseDTO result = contactService.getContactsByIds(TEST_EMAIL, List.of());
+
+        assertTrue(result.getContacts().isEmpty());
+        assertTrue(result.getNotFound().isEmpty());
+        verifyNoInteractions(userService, contactRepository);
+    }
+
+    @Test
+    void getContactsByIds_Failure_TooManyIds() {
+
+        List<Long> ids = LongStream.rangeClosed(1, 1001).boxed().toList();
+
+        RequestLimitExceededException exception = assertThrows(
+                RequestLimitExceededException.class,
+                () -> contactService.getContactsByIds(TEST_EMAIL, ids)
+        );
+
+        assertEquals("A lookup cannot request more than 1000 contacts.", exception.getMessage());
+        verifyNoInteractions(contactRepository);
     }
 
     @Test
@@ -500,11 +638,12 @@ class ContactServiceTest {
                 Collections.emptyList(), Collections.emptyList());
 
         when(userService.loadUserByUsername(TEST_EMAIL)).thenReturn(testSecurityUserEmail);
-        when(contactRepository.findById(1L)).thenReturn(Optional.of(existingContact));
+        when(contactRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(existingContact));
 
         when(contactRepository.existsByUserAndFirstNameAndLastName(testUserEmail,
                 contactToUpdate.getFirstName(), contactToUpdate.getLastName())).thenReturn(false);
 
+        when(contactSyncService.reserveSequences(1L, 1)).thenReturn(12L);
         when(contactRepository.save(any(Contact.class))).thenReturn(existingContact);
 
         contactMapperMockedStatic.when(() -> ContactMapper.toDTO(existingContact)).thenReturn(updatedContactDTO);
@@ -515,8 +654,10 @@ class ContactServiceTest {
         assertEquals(1L, result.getId());
         assertEquals(contactToUpdate.getFirstName(), result.getFirstName());
         assertEquals(contactToUpdate.getTitle(), result.getTitle());
+        assertEquals(12L, existingContact.getChangeSequence());
 
         verify(contactRepository).save(existingContact);
+        verify(eventPublisher).publishEvent(any(ContactChangedEvent.class));
     }
 
     @Test
@@ -529,7 +670,7 @@ class ContactServiceTest {
 
         when(userService.loadUserByUsername(TEST_EMAIL)).thenReturn(testSecurityUserEmail);
 
-        when(contactRepository.findById(1L)).thenReturn(Optional.of(existingContact));
+        when(contactRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(existingContact));
 
         when(contactRepository.save(any(Contact.class))).thenReturn(existingContact);
 
@@ -600,7 +741,7 @@ class ContactServiceTest {
         });
 
         when(userService.loadUserByUsername(TEST_EMAIL)).thenReturn(testSecurityUserEmail);
-        when(contactRepository.findById(1L)).thenReturn(Optional.of(existingContact));
+        when(contactRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(existingContact));
         when(contactRepository.save(any(Contact.class))).thenReturn(existingContact);
 
         ContactDTO updatedDTOMock = new ContactDTO(1L, "Old", "Name", "New Title",
@@ -663,7 +804,7 @@ class ContactServiceTest {
         String expectedError = "Contact not found!";
 
         when(userService.loadUserByUsername(TEST_EMAIL)).thenReturn(testSecurityUserEmail);
-        when(contactRepository.findById(99L)).thenReturn(Optional.empty());
+        when(contactRepository.findByIdAndUserId(99L, 1L)).thenReturn(Optional.empty());
 
         ResourceNotFoundException exception = assertThrows(
                 ResourceNotFoundException.class,
@@ -674,25 +815,23 @@ class ContactServiceTest {
     }
 
     @Test
-    void updateContact_Failure_UnauthorizedAccess() {
+    void updateContact_Failure_ContactOwnedByAnotherUser() {
 
         ContactDTO contactDTOToUpdate = new ContactDTO(1L, "Old", "Name", "New Title",
                 Collections.emptyList(), Collections.emptyList());
 
-        String expectedError = "Unauthorized access to this contact";
-
-        when(userService.loadUserByUsername(TEST_EMAIL)).thenReturn(testSecurityUserEmail);
-        when(contactRepository.findById(1L)).thenReturn(Optional.of(existingContact));
+        String expectedError = "Contact not found!";
 
-        existingContact.setUser(testUserPhone);
-        when(contactRepository.findById(1L)).thenReturn(Optional.of(existingContact));
+        when(userService.loadUserByUsername(TEST_PHONE)).thenReturn(testSecurityUserPhone);
+        when(contactRepository.findByIdAndUserId(1L, 2L)).thenReturn(Optional.empty());
 
-        UnauthorizedAccessException exception = assertThrows(
-                UnauthorizedAccessException.class,
-                () -> contactService.updateContact(TEST_EMAIL, 1L, contactDTOToUpdate)
+        ResourceNotFoundException exception = assertThrows(
+                ResourceNotFoundException.class,
+                () -> contactService.updateContact(TEST_PHONE, 1L, contactDTOToUpdate)
         );
 
         assertEquals(expectedError, exception.getMessage());
+        verify(contactRepository, never()).save(any());
     }
 
     @Test
@@ -704,7 +843,7 @@ class ContactServiceTest {
         String expectedError = "A contact with this name already exists for your account.";
 
         when(userService.loadUserByUsername(TEST_EMAIL)).thenReturn(testSecurityUserEmail);
-        when(contactRepository.findById(1L)).thenReturn(Optional.of(existingContact));
+        when(contactRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(existingContact));
         when(contactRepository.existsByUserAndFirstNameAndLastName(testUserEmail,
                 contactToUpdate.getFirstName(), contactToUpdate.getLastName())).thenReturn(true);
 
@@ -720,14 +859,25 @@ class ContactServiceTest {
     void deleteContact_Success() {
 
         when(userService.loadUserByUsername(TEST_EMAIL)).thenReturn(testSecurityUserEmail);
-        when(contactRepository.findById(1L)).thenReturn(Optional.of(existingContact));
-
-        doNothing().when(contactRepository).delete(existingContact);
+        when(contactRepository.deleteByIdAndUserId(1L, 1L)).thenReturn(1);
+        when(contactSyncService.reserveSequences(1L, 1)).thenReturn(4L);
 
         boolean result = contactService.deleteContact(TEST_EMAIL, 1L);
 
         assertTrue(result);
-        verify(contactRepository).delete(existingContact);
+        InOrder locks = inOrder(contactSyncService, contactRepository);
+        locks.verify(contactSyncService).reserveSequences(1L, 1);
+        locks.verify(contactRepository).deleteByIdAndUserId(1L, 1L);
+        verify(contactSyncService).recordDeletions(1L, List.of(1L), 4L);
+        verify(contactRepository, never()).findById(any());
+        verify(contactRepository, never()).delete(any());
+
+        ArgumentCaptor<ContactChangedEvent> event = ArgumentCaptor.forClass(ContactChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(ContactChangeType.DELETED, event.getValue().type());
+        assertEquals(1L, event.getValue().contactId());
+        assertEquals(4L, event.getValue().sequence());
+        assertNull(event.getValue().contact());
     }
 
     @Test
@@ -766,7 +916,7 @@ class ContactServiceTest {
         String expectedError = "Contact not found.";
 
         when(userService.loadUserByUsername(TEST_EMAIL)).thenReturn(testSecurityUserEmail);
-        when(contactRepository.findById(99L)).thenReturn(Optional.empty());
+        when(contactRepository.deleteByIdAndUserId(99L, 1L)).thenReturn(0);
 
         ResourceNotFoundException exception = assertThrows(
                 ResourceNotFoundException.class,
@@ -774,20 +924,21 @@ class ContactServiceTest {
         );
 
         assertEquals(expectedError, exception.getMessage());
+        verify(contactSyncService, never()).recordDeletions(any(), any(), anyLong());
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
-    void deleteContact_Failure_UnauthorizedAccess() {
+    void deleteContact_Failure_ContactOwnedByAnotherUser() {
 
-        String expectedError = "Unauthorized access to this contact.";
+        String expectedError = "Contact not found.";
 
-        when(userService.loadUserByUsername(TEST_EMAIL)).thenReturn(testSecurityUserEmail);
-        existingContact.setUser(testUserPhone);
-        when(contactRepository.findById(1L)).thenReturn(Optional.of(existingContact));
+        when(userService.loadUserByUsername(TEST_PHONE)).thenReturn(testSecurityUserPhone);
+        when(contactRepository.deleteByIdAndUserId(1L, 2L)).thenReturn(0);
 
-        UnauthorizedAccessException exception = assertThrows(
-                UnauthorizedAccessException.class,
-                () -> contactService.deleteContact(TEST_EMAIL, 1L)
+        ResourceNotFoundException exception = assertThrows(
+                ResourceNotFoundException.class,
+                () -> contactService.deleteContact(TEST_PHONE, 1L)
         );
 
         assertEquals(expectedError, exception.getMessage());
@@ -0,0 +1,271 @@
+package com.hasnain.cms.service;
+
+import com.hasnain.cms.dto.ContactChangeDTO;
+import com.hasnain.cms.dto.ContactChangesResponseDTO;
+import com.hasnain.cms.entity.Contact;
+import com.hasnain.cms.entity.ContactEmail;
+import com.hasnain.cms.entity.ContactTombstone;
+import com.hasnain.cms.entity.User;
+import com.hasnain.cms.entity.UserChangeSequence;
+import com.hasnain.cms.event.ContactChangeType;
+import com.hasnain.cms.exception.InvalidSyncCursorException;
+import com.hasnain.cms.exception.SyncCursorExpiredException;
+import com.hasnain.cms.repository.ContactRepository;
+import com.hasnain.cms.repository.ContactTombstoneRepository;
+import com.hasnain.cms.repository.UserChangeSequenceRepository;
+import com.hasnain.cms.repository.UserRepository;
+import com.hasnain.cms.security.SecurityUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContactSyncServiceTest {
+
+    private static final String TEST_EMAIL = "user@test.com";
+
+    @Mock
+    private ContactRepository contactRepository;
+
+    @Mock
+    private ContactTombstoneRepository contactTombstoneRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserChangeSequenceRepository userChangeSequenceRepository;
+
+    @Mock
+    private UserService userService;
+
+    @InjectMocks
+    private ContactSyncService contactSyncService;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setUserId(1L);
+        testUser.setEmail(TEST_EMAIL);
+    }
+
+    private static Contact contact(long id, long changeSequence, long createdSequence) {
+        Contact contact = new Contact();
+        contact.setId(id);
+        contact.setFirstName("Contact" + id);
+        contact.setChangeSequence(changeSequence);
+        contact.setCreatedSequence(createdSequence);
+        ContactEmail email = new ContactEmail();
+        email.setEmail(id + "@test.com");
+        email.setContact(contact);
+        contact.getEmails().add(email);
+        return contact;
+    }
+
+    private static ContactTombstone tombstone(long contactId, long changeSequence) {
+        return new ContactTombstone(null, 1L, contactId, changeSequence, 0L);
+    }
+
+    @Test
+    void reserveSequences_AdvancesUserSequenceAndReturnsFirstReserved() {
+
+        when(userChangeSequenceRepository.advance(1L, 3)).thenReturn(1);
+        when(userChangeSequenceRepository.findChangeSequence(1L)).thenReturn(Optional.of(15L));
+
+        assertEquals(13L, contactSyncService.reserveSequences(1L, 3));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void reserveSequences_FirstChange_CreatesSequenceAfterHighestIssued() {
+
+        when(userChangeSequenceRepository.advance(1L, 2)).thenReturn(0);
+        when(userChangeSequenceRepository.findHighestIssuedSequence(1L)).thenReturn(7L);
+        when(userChangeSequenceRepository.findChangeSequence(1L)).thenReturn(Optional.of(9L));
+
+        assertEquals(8L, contactSyncService.reserveSequences(1L, 2));
+        verify(userRepository).findLockedByUserId(1L);
+        verify(userChangeSequenceRepository).saveAndFlush(new UserChangeSequence(1L, 9L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recordDeletions_SavesOneTombstonePerContactWithConsecutiveSequences() {
+
+        contactSyncService.recordDeletions(1L, List.of(5L, 6L), 20L);
+
+        ArgumentCaptor<List<ContactTombstone>> saved = ArgumentCaptor.forClass(List.class);
+        verify(contactTombstoneRepository).saveAll(saved.capture());
+        assertEquals(List.of(5L, 6L), saved.getValue().stream().map(ContactTombstone::getContactId).toList());
+        assertEquals(List.of(20L, 21L), saved.getValue().stream().map(ContactTombstone::getChangeSequence).toList());
+    }
+
+    @Test
+    void getChanges_AlreadyInSync_OnlyLooksUpUserAndSequence() {
+
+        when(userService.loadUserByUsername(TEST_EMAIL)).thenReturn(new SecurityUser(testUser));
+        when(userChangeSequenceRepository.findChangeSequence(1L)).thenReturn(Optional.of(10L));
+
+        ContactChangesResponseDTO response = contactSyncService.getChanges(TEST_EMAIL, "10", 100);
+
+        assertTrue(response.getChanges().isEmpty());
+        assertEquals("10", response.getCursor());
+        assertFalse(response.isHasMore());
+        verifyNoInteractions(contactRepository, contactTombstoneRepository);
+    }
+
+    @Test
+    void getChanges_MergesContactsAndTombstonesInSequenceOrder() {
+
+        Contact created = contact(3L, 6L, 6L);
+        Contact updated = contact(2L, 8L, 1L);
+        when(userService.loadUserByUsername(TEST_EMAIL)).thenReturn(new SecurityUser(testUser));
+        when(userChangeSequenceRepository.findChangeSequence(1L)).thenReturn(Optional.of(10L));
+        when(contactRepository.findChangedSince(1L, 5L, Long.MAX_VALUE, PageRequest.of(0, 101)))
+                .thenReturn(List.of(created, updated));
+        when(contactTombstoneRepository.findByUserIdAndChangeSequenceGreaterThanOrderByChangeSequence(1L, 5L,
+                PageRequest.of(0, 101))).thenReturn(List.of(tombstone(9L, 7L)));
+
+        ContactChangesResponseDTO response = contactSyncService.getChanges(TEST_EMAIL, "5", 100);
+
+        assertEquals(List.of(6L, 7L, 8L), response.getChanges().stream().map(ContactChangeDTO::getSequence).toList());
+        assertEquals(ContactChangeType.CREATED, response.getChanges().get(0).getType());
+        assertEquals("Contact3", response.getChanges().get(0).getContact().getFirstName());
+        assertEquals(ContactChangeType.DELETED, response.getChanges().get(1).getType());
+        assertEquals(9L, response.getChanges().get(1).getId());
+        assertNull(response.getChanges().get(1).getContact());
+        assertEquals(ContactChangeType.UPDATED, response.getChanges().get(2).getType());
+        assertEquals("10", response.getCursor());
+        assertFalse(response.isHasMore());
+        verify(contactRepository).fetchEmails(List.of(created, updated));
+        verify(contactRepository).fetchPhones(List.of(created, updated));
+    }
+
+    @Test
+    void getChanges_MoreThanOnePage_ReturnsCursorOfLastChange() {
+
+        when(userService.loadUserByUsername(TEST_EMAIL)).thenReturn(new SecurityUser(testUser));
+        when(userChangeSequenceRepository.findChangeSequence(1L)).thenReturn(Optional.of(10L));
+        when(contactRepository.findChangedSince(1L, 5L, Long.MAX_VALUE, PageRequest.of(0, 3)))
+                .thenReturn(List.of(contact(3L, 6L, 6L), contact(4L, 8L, 8L)));
+        when(contactTombstoneRepository.findByUserIdAndChangeSequenceGreaterThanOrderByChangeSequence(1L, 5L,
+                PageRequest.of(0, 3))).thenReturn(List.of(tombstone(9L, 7L)));
+
+        ContactChangesResponseDTO response = contactSyncService.getChanges(TEST_EMAIL, "5", 2);
+
+        assertEquals(2, response.getChanges().size());
+        assertEquals("7", response.getCursor());
+        assertTrue(response.isHasMore());
+    }
+
+    @Test
+    void getChanges_UntrackedContacts_PagesByIdWithinSequenceZero() {
+
+        when(userService.loadUserByUsername(TEST_EMAIL)).thenReturn(new SecurityUser(testUser));
+        when(userChangeSequenceRepository.findChangeSequence(1L)).thenReturn(Optional.empty());
+        when(contactRepository.findChangedSince(1L, 0L, -1L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(contact(3L, 0L, 0L), contact(4L, 0L, 0L)));
+
+        ContactChangesResponseDTO first = contactSyncService.getChanges(TEST_EMAIL, null, 1);
+
+        assertEquals(ContactChangeType.CREATED, first.getChanges().get(0).getType());
+        assertEquals("0.3", first.getCursor());
+        assertTrue(first.isHasMore());
+
+        when(contactRepository.findChangedSince(1L, 0L, 3L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(contact(4L, 0L, 0L)));
+
+        ContactChangesResponseDTO second = contactSyncService.getChanges(TEST_EMAIL, "0.3", 1);
+
+        assertEquals(4L, second.getChanges().get(0).getId());
+        assertEquals("0.4", second.getCursor());
+        assertFalse(second.isHasMore());
+    }
+
+    @Test
+    void getChanges_LimitAboveMaximum_IsCapped() {
+
+        when(userService.loadUserByUsername(TEST_EMAIL)).thenReturn(new SecurityUser(testUser));
+        when(userChangeSequenceRepository.findChangeSequence(1L)).thenReturn(Optional.of(10L));
+
+        contactSyncService.getChanges(TEST_EMAIL, "5", 1_000_000);
+
+        verify(contactRepository).findChangedSince(1L, 5L, Long.MAX_VALUE, PageRequest.of(0, 501));
+        verify(contactRepository, never()).fetchEmails(any());
+    }
+
+    @Test
+    void pruneTombstones_RaisesPrunedSequenceAndDeletesUpToIt() {
+
+        when(userChangeSequenceRepository.advance(1L, 0)).thenReturn(1);
+        when(userChangeSequenceRepository.findChangeSequence(1L)).thenReturn(Optional.of(20L));
+        when(contactTombstoneRepository.findLastSequenceDeletedBefore(1L, 1000L)).thenReturn(Optional.of(12L));
+        when(contactTombstoneRepository.deleteUpToSequence(1L, 12L)).thenReturn(3);
+
+        assertEquals(3, contactSyncService.pruneTombstones(1L, 1000L));
+        InOrder order = inOrder(userChangeSequenceRepository, contactTombstoneRepository);
+        order.verify(userChangeSequenceRepository).advance(1L, 0);
+        order.verify(userChangeSequenceRepository).raisePrunedSequence(1L, 12L);
+        order.verify(contactTombstoneRepository).deleteUpToSequence(1L, 12L);
+    }
+
+    @Test
+    void pruneTombstones_NothingOldEnough_LeavesPrunedSequence() {
+
+        when(userChangeSequenceRepository.advance(1L, 0)).thenReturn(1);
+        when(userChangeSequenceRepository.findChangeSequence(1L)).thenReturn(Optional.of(20L));
+        when(contactTombstoneRepository.findLastSequenceDeletedBefore(1L, 1000L)).thenReturn(Optional.empty());
+
+        assertEquals(0, contactSyncService.pruneTombstones(1L, 1000L));
+        verify(userChangeSequenceRepository, never()).raisePrunedSequence(any(), anyLong());
+        verify(contactTombstoneRepository, never()).deleteUpToSequence(any(), anyLong());
+    }
+
+    @Test
+    void getChanges_CursorAtPrunedSequence_ServesChanges() {
+
+        when(userService.loadUserByUsername(TEST_EMAIL)).thenReturn(new SecurityUser(testUser));
+        when(userChangeSequenceRepository.findChangeSequence(1L)).thenReturn(Optional.of(10L));
+        when(userChangeSequenceRepository.findPrunedSequence(1L)).thenReturn(Optional.of(5L));
+
+        assertEquals("10", contactSyncService.getChanges(TEST_EMAIL, "5", 10).getCursor());
+        assertEquals("10", contactSyncService.getChanges(TEST_EMAIL, "0.3", 10).getCursor());
+    }
+
+    @Test
+    void getChanges_Failure_CursorOlderThanPrunedSequence() {
+
+        when(userService.loadUserByUsername(TEST_EMAIL)).thenReturn(new SecurityUser(testUser));
+        when(userChangeSequenceRepository.findChangeSequence(1L)).thenReturn(Optional.of(10L));
+        when(userChangeSequenceRepository.findPrunedSequence(1L)).thenReturn(Optional.of(5L));
+
+        assertThrows(SyncCursorExpiredException.class, () -> contactSyncService.getChanges(TEST_EMAIL, "4", 10));
+        verifyNoInteractions(contactRepository, contactTombstoneRepository);
+    }
+
+    @Test
+    void getChanges_Failure_InvalidCursor() {
+
+        assertThrows(InvalidSyncCursorException.class, () -> contactSyncService.getChanges(TEST_EMAIL, "abc", 10));
+        assertThrows(InvalidSyncCursorException.class, () -> contactSyncService.getChanges(TEST_EMAIL, "-4", 10));
+        assertThrows(InvalidSyncCursorException.class, () -> contactSyncService.getChanges(TEST_EMAIL, "7.3", 10));
+        verifyNoInteractions(userService, contactRepository);
+        verifyNoInteractions(userChangeSequenceRepository);
+    }
+}
@@ -0,0 +1,130 @@
+package com.hasnain.cms.service;
+
+import com.hasnain.cms.entity.Contact;
+import com.hasnain.cms.entity.ContactEmail;
+import com.hasnain.cms.entity.User;
+import com.hasnain.cms.repository.ContactRepository;
+import com.hasnain.cms.repository.ContactTombstoneRepository;
+import com.hasnain.cms.repository.UserChangeSequenceRepository;
+import com.hasnain.cms.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Contact writes against the second-level cache as configured for the application: advancing a user's change
+ * sequence must not evict the cached user or the cached lookup that every authenticated request makes.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ContactSyncService.class)
+@ImportAutoConfiguration(PropertyPlaceholderAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.autoconfigure.exclude=",
+        "spring.datasource.url=jdbc:h2:mem:user-cache;MODE=MySQL;NON_KEYWORDS=USER",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+        "spring.jpa.properties.hibernate.cache.region.factory_class=jcache",
+        "spring.jpa.properties.hibernate.javax.cache.provider=org.ehcache.jsr107.EhcacheCachingProvider",
+        "spring.jpa.properties.hibernate.javax.cache.uri=ehcache.xml",
+        "spring.jpa.properties.hibernate.javax.cache.missing_cache_strategy=fail",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+class ContactSyncServiceUserCacheTest {
+
+    private static final String TEST_EMAIL = "cached@test.com";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserChangeSequenceRepository userChangeSequenceRepository;
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private ContactTombstoneRepository contactTombstoneRepository;
+
+    @Autowired
+    private ContactSyncService contactSyncService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private UserService userService;
+
+    private User user;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+
+        contactRepository.deleteAllInBatch();
+        contactTombstoneRepository.deleteAllInBatch();
+        userChangeSequenceRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        entityManagerFactory.getCache().evictAll();
+        User newUser = new User();
+        newUser.setEmail(TEST_EMAIL);
+        newUser.setPassword("password");
+        user = userRepository.save(newUser);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private void writeContact(String firstName) {
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            long sequence = contactSyncService.reserveSequences(user.getUserId(), 1);
+            Contact contact = new Contact();
+            contact.setFirstName(firstName);
+            contact.setUser(user);
+            contact.setChangeSequence(sequence);
+            contact.setCreatedSequence(sequence);
+            ContactEmail email = new ContactEmail();
+            email.setEmail(firstName.toLowerCase() + "@example.com");
+            email.setContact(contact);
+            contact.getEmails().add(email);
+            contactRepository.save(contact);
+        });
+    }
+
+    @Test
+    void contactWrites_LeaveCachedUserAndLookupCached() {
+
+        userRepository.findByEmail(TEST_EMAIL);
+        long queryHits = statistics.getQueryCacheHitCount();
+        long userMisses = statistics.getCacheRegionStatistics("users").getMissCount();
+
+        // The first write creates the user's sequence row, the second advances it.
+        writeContact("Ada");
+        writeContact("Alan");
+
+        assertTrue(entityManagerFactory.getCache().contains(User.class, user.getUserId()));
+        assertEquals(user.getUserId(), userRepository.findByEmail(TEST_EMAIL).orElseThrow().getUserId());
+        assertEquals(queryHits + 1, statistics.getQueryCacheHitCount());
+        assertEquals(userMisses, statistics.getCacheRegionStatistics("users").getMissCount());
+        assertEquals(2, contactSyncService.currentSequence(user.getUserId()));
+    }
+}
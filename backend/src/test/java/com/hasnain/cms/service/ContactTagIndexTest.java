@@ -0,0 +1,168 @@
+package com.hasnain.cms.service;
+
+import com.hasnain.cms.dto.ContactDTO;
+import com.hasnain.cms.event.ContactChangedEvent;
+import com.hasnain.cms.event.ContactTagsChangedEvent;
+import com.hasnain.cms.repository.ContactRepository;
+import com.hasnain.cms.repository.ContactTagRepository;
+import com.hasnain.cms.repository.ContactTagView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContactTagIndexTest {
+
+    @Mock
+    private ContactRepository contactRepository;
+
+    @Mock
+    private ContactTagRepository contactTagRepository;
+
+    @Mock
+    private ContactSyncService contactSyncService;
+
+    private ContactTagIndex contactTagIndex;
+
+    private static ContactTagView tag(long contactId, String name) {
+        return new ContactTagView() {
+            @Override
+            public Long getContactId() {
+                return contactId;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+
+    @BeforeEach
+    void setUp() {
+        contactTagIndex = new ContactTagIndex(contactRepository, contactTagRepository, contactSyncService, 1_000, 30,
+                10);
+        lenient().when(contactSyncService.currentSequence(1L)).thenReturn(19L);
+        lenient().when(contactRepository.findIdsByUserId(1L)).thenReturn(List.of(10L, 11L, 12L, 13L, 14L));
+        lenient().when(contactTagRepository.findAllByUserId(1L)).thenReturn(List.of(
+                tag(10L, "customer"), tag(10L, "vip"),
+                tag(11L, "customer"), tag(11L, "emea"),
+                tag(12L, "vendor"), tag(12L, "emea"),
+                tag(13L, "customer"), tag(13L, "vip"), tag(13L, "emea")));
+    }
+
+    private List<Long> filter(Set<String> allOf, Set<String> anyOf, Set<String> noneOf) {
+        return contactTagIndex.filter(1L, allOf, anyOf, noneOf, 0, 100).contactIds();
+    }
+
+    @Test
+    void filter_CombinesAllAnyAndNone() {
+
+        assertEquals(List.of(10L, 13L), filter(Set.of("customer", "vip"), Set.of(), Set.of()));
+        assertEquals(List.of(10L, 12L, 13L), filter(Set.of(), Set.of("vip", "vendor"), Set.of()));
+        assertEquals(List.of(10L), filter(Set.of("customer"), Set.of(), Set.of("emea")));
+        assertEquals(List.of(11L, 13L), filter(Set.of("customer"), Set.of("emea", "vendor"), Set.of("unknown")));
+        assertEquals(List.of(14L), filter(Set.of(), Set.of(), Set.of("customer", "vendor", "emea")));
+        assertEquals(List.of(), filter(Set.of("customer", "unknown"), Set.of(), Set.of()));
+    }
+
+    @Test
+    void filter_PagesByRankAndReportsTotal() {
+
+        ContactTagIndex.Page page = contactTagIndex.filter(1L, Set.of(), Set.of("customer", "vendor"), Set.of(), 2,
+                2);
+
+        assertEquals(List.of(12L, 13L), page.contactIds());
+        assertEquals(4, page.total());
+        assertTrue(contactTagIndex.filter(1L, Set.of("customer"), Set.of(), Set.of(), 3, 2).contactIds().isEmpty());
+    }
+
+    @Test
+    void filter_BuildsIndexOncePerUser() {
+
+        filter(Set.of("vip"), Set.of(), Set.of());
+        filter(Set.of("emea"), Set.of(), Set.of());
+        contactTagIndex.tagCounts(1L);
+
+        verify(contactRepository, times(1)).findIdsByUserId(1L);
+        verify(contactTagRepository, times(1)).findAllByUserId(1L);
+    }
+
+    @Test
+    void events_KeepIndexUpToDate() {
+
+        assertEquals(Map.of("customer", 3, "emea", 3, "vendor", 1, "vip", 2), contactTagIndex.tagCounts(1L));
+
+        contactTagIndex.onContactChanged(ContactChangedEvent.created(1L, 20L, new ContactDTO(15L, "New", null, null,
+                List.of(), List.of())));
+        contactTagIndex.onContactTagsChanged(new ContactTagsChangedEvent(1L, 15L, Set.of("vip", "prospect")));
+        contactTagIndex.onContactTagsChanged(new ContactTagsChangedEvent(1L, 12L, Set.of("emea")));
+        contactTagIndex.onContactChanged(ContactChangedEvent.deleted(1L, 21L, 10L));
+        contactTagIndex.onContactChanged(ContactChangedEvent.deleted(2L, 5L, 11L));
+        when(contactSyncService.currentSequence(1L)).thenReturn(21L);
+
+        assertEquals(Map.of("customer", 2, "emea", 3, "prospect", 1, "vip", 2), contactTagIndex.tagCounts(1L));
+        assertEquals(List.of(13L, 15L), filter(Set.of("vip"), Set.of(), Set.of()));
+        assertEquals(List.of(11L, 12L, 13L), filter(Set.of("emea"), Set.of(), Set.of()));
+        assertEquals(List.of(14L), filter(Set.of(), Set.of(), Set.of("customer", "emea", "vip")));
+        verify(contactRepository, times(1)).findIdsByUserId(1L);
+    }
+
+    @Test
+    void filter_IndexBehindUsersSequence_IsRebuilt() {
+
+        assertEquals(List.of(10L, 13L), filter(Set.of("vip"), Set.of(), Set.of()));
+
+        // Sequence 20 was committed on another instance: no event here, so the index no longer matches the database.
+        when(contactSyncService.currentSequence(1L)).thenReturn(20L);
+        when(contactRepository.findIdsByUserId(1L)).thenReturn(List.of(10L, 11L, 12L, 13L, 14L, 15L));
+        when(contactTagRepository.findAllByUserId(1L)).thenReturn(List.of(tag(10L, "vip"), tag(15L, "vip")));
+
+        assertEquals(List.of(10L, 15L), filter(Set.of("vip"), Set.of(), Set.of()));
+        assertEquals(List.of(10L, 15L), filter(Set.of("vip"), Set.of(), Set.of()));
+        verify(contactRepository, times(2)).findIdsByUserId(1L);
+    }
+
+    @Test
+    void events_SkippingASequence_LeaveIndexToBeRebuilt() {
+
+        contactTagIndex.tagCounts(1L);
+
+        // Sequence 20 was another instance's; 21 is applied but cannot make the index current.
+        contactTagIndex.onContactChanged(ContactChangedEvent.updated(1L, 21L, new ContactDTO(10L, "Updated", null,
+                null, List.of(), List.of())));
+        when(contactSyncService.currentSequence(1L)).thenReturn(21L);
+        contactTagIndex.tagCounts(1L);
+
+        verify(contactRepository, times(2)).findIdsByUserId(1L);
+    }
+
+    @Test
+    void events_BeforeIndexIsBuilt_AreLeftToTheBuild() {
+
+        contactTagIndex.onContactTagsChanged(new ContactTagsChangedEvent(1L, 14L, Set.of("vip")));
+
+        verifyNoInteractions(contactRepository, contactTagRepository);
+        assertEquals(List.of(10L, 13L), filter(Set.of("vip"), Set.of(), Set.of()));
+    }
+
+    @Test
+    void filter_FailedBuild_IsRetriedOnNextRequest() {
+
+        when(contactRepository.findIdsByUserId(2L)).thenThrow(new IllegalStateException("database down"))
+                .thenReturn(List.of(1L));
+        when(contactTagRepository.findAllByUserId(2L)).thenReturn(List.of(tag(1L, "vip")));
+
+        assertThrows(IllegalStateException.class, () -> contactTagIndex.tagCounts(2L));
+        assertEquals(Map.of("vip", 1), contactTagIndex.tagCounts(2L));
+    }
+}
@@ -0,0 +1,223 @@
+package com.hasnain.cms.service;
+
+import com.hasnain.cms.dto.ContactDTO;
+import com.hasnain.cms.dto.ContactLookupResponseDTO;
+import com.hasnain.cms.dto.TagCountDTO;
+import com.hasnain.cms.entity.Contact;
+import com.hasnain.cms.entity.ContactTag;
+import com.hasnain.cms.entity.User;
+import com.hasnain.cms.event.ContactTagsChangedEvent;
+import com.hasnain.cms.exception.InvalidTagException;
+import com.hasnain.cms.exception.RequestLimitExceededException;
+import com.hasnain.cms.exception.ResourceNotFoundException;
+import com.hasnain.cms.repository.ContactRepository;
+import com.hasnain.cms.repository.ContactTagRepository;
+import com.hasnain.cms.security.SecurityUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContactTagServiceTest {
+
+    private static final String TEST_EMAIL = "user@test.com";
+
+    @Mock
+    private ContactRepository contactRepository;
+
+    @Mock
+    private ContactTagRepository contactTagRepository;
+
+    @Mock
+    private ContactTagIndex contactTagIndex;
+
+    @Mock
+    private ContactService contactService;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private ContactTagService contactTagService;
+
+    private User testUser;
+
+    private Contact testContact;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setUserId(1L);
+        testUser.setEmail(TEST_EMAIL);
+        testContact = new Contact();
+        testContact.setId(5L);
+        testContact.setUser(testUser);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void setTags_NormalizesReplacesAndPublishesEvent() {
+
+        when(userService.loadUserByUsername(TEST_EMAIL)).thenReturn(new SecurityUser(testUser));
+        when(contactRepository.findByIdAndUserId(5L, 1L)).thenReturn(Optional.of(testContact));
+
+        List<String> tags = contactTagService.setTags(TEST_EMAIL, 5L, List.of(" VIP ", "Key  Account", "vip"));
+
+        assertEquals(List.of("key account", "vip"), tags);
+        verify(contactTagRepository).deleteByContactId(5L);
+        ArgumentCaptor<List<ContactTag>> saved = ArgumentCaptor.forClass(List.class);
+        verify(contactTagRepository).saveAll(saved.capture());
+        assertEquals(List.of("key account", "vip"), saved.getValue().stream().map(ContactTag::getName).toList());
+        assertSame(testContact, saved.getValue().get(0).getContact());
+        verify(eventPublisher).publishEvent(new ContactTagsChangedEvent(1L, 5L, Set.of("vip", "key account")));
+    }
+
+    @Test
+    void setTags_EmptyList_ClearsTags() {
+
+        when(userService.loadUserByUsername(TEST_EMAIL)).thenReturn(new SecurityUser(testUser));
+        when(contactRepository.findByIdAndUserId(5L, 1L)).thenReturn(Optional.of(testContact));
+
+        assertTrue(contactTagService.setTags(TEST_EMAIL, 5L, List.of()).isEmpty());
+        verify(contactTagRepository).deleteByContactId(5L);
+        verify(eventPublisher).publishEvent(new ContactTagsChangedEvent(1L, 5L, Set.of()));
+    }
+
+    @Test
+    void setTags_Failure_BlankOrTooLongTag() {
+
+        assertThrows(InvalidTagException.class, () -> contactTagService.setTags(TEST_EMAIL, 5L, List.of("  ")));
+        assertThrows(InvalidTagException.class,
+                () -> contactTagService.setTags(TEST_EMAIL, 5L, List.of("x".repeat(51))));
+        verifyNoInteractions(contactTagRepository, eventPublisher);
+    }
+
+    @Test
+    void setTags_Failure_TooManyTags() {
+
+        List<String> tags = IntStream.range(0, 21).mapToObj(i -> "tag" + i).toList();
+
+        assertThrows(RequestLimitExceededException.class, () -> contactTagService.setTags(TEST_EMAIL, 5L, tags));
+        verifyNoInteractions(contactTagRepository, eventPublisher);
+    }
+
+    @Test
+    void setTags_Failure_ContactNotFound() {
+
+        when(userService.loadUserByUsername(TEST_EMAIL)).thenReturn(new SecurityUser(testUser));
+        when(contactRepository.findByIdAndUserId(5L, 1L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> contactTagService.setTags(TEST_EMAIL, 5L, List.of("vip")));
+        verify(contactTagRepository, never()).deleteByContactId(anyLong());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void getTags_ReturnsTagsOfOwnedContact() {
+
+        when(userService.loadUserByUsername(TEST_EMAIL)).thenReturn(new SecurityUser(testUser));
+        when(contactRepository.findByIdAndUserId(5L, 1L)).thenReturn(Optional.of(testContact));
+        when(contactTagRepository.findNamesByContactId(5L)).thenReturn(List.of("customer", "vip"));
+
+        assertEquals(List.of("customer", "vip"), contactTagService.getTags(TEST_EMAIL, 5L));
+    }
+
+    @Test
+    void filterContacts_LoadsOnlyTheMatchingPage() {
+
+        ContactDTO contact = new ContactDTO(13L, "Match", null, null, List.of(), List.of());
+        when(userService.loadUserByUsername(TEST_EMAIL)).thenReturn(new SecurityUser(testUser));
+        when(contactTagIndex.filter(1L, Set.of("vip"), Set.of("emea", "apac"), Set.of("vendor"), 20, 10))
+                .thenReturn(new ContactTagIndex.Page(List.of(13L), 21));
+        when(contactService.getContactsByIds(TEST_EMAIL, List.of(13L)))
+                .thenReturn(new ContactLookupResponseDTO(List.of(contact), List.of()));
+
+        List<ContactDTO> result = contactTagService.filterContacts(TEST_EMAIL, List.of("VIP"),
+                List.of("emea", "APAC"), List.of("vendor"), 2, 10);
+
+        assertEquals(List.of(contact), result);
+    }
+
+    @Test
+    void filterContacts_PageLargerThanLookupLimit_LoadsContactsInSlices() {
+
+        List<Long> ids = LongStream.rangeClosed(1, 2500).boxed().toList();
+        when(userService.loadUserByUsername(TEST_EMAIL)).thenReturn(new SecurityUser(testUser));
+        when(contactTagIndex.filter(1L, Set.of("vip"), Set.of(), Set.of(), 0, 2500))
+                .thenReturn(new ContactTagIndex.Page(ids, 2500));
+        when(contactService.getContactsByIds(eq(TEST_EMAIL), anyList())).thenAnswer(invocation -> {
+            List<Long> slice = invocation.getArgument(1);
+            assertTrue(slice.size() <= 1000);
+            return new ContactLookupResponseDTO(slice.stream()
+                    .map(id -> new ContactDTO(id, "Match", null, null, List.of(), List.of())).toList(), List.of());
+        });
+
+        List<ContactDTO> result = contactTagService.filterContacts(TEST_EMAIL, List.of("vip"), null, null, 0, 2500);
+
+        assertEquals(ids, result.stream().map(ContactDTO::getId).toList());
+        verify(contactService, times(3)).getContactsByIds(eq(TEST_EMAIL), anyList());
+    }
+
+    @Test
+    void filterContacts_EmptyPage_SkipsContactQuery() {
+
+        when(userService.loadUserByUsername(TEST_EMAIL)).thenReturn(new SecurityUser(testUser));
+        when(contactTagIndex.filter(1L, Set.of("vip"), Set.of(), Set.of(), 0, 10))
+                .thenReturn(new ContactTagIndex.Page(List.of(), 0));
+
+        assertTrue(contactTagService.filterContacts(TEST_EMAIL, List.of("vip"), null, null, 0, 10).isEmpty());
+        verifyNoInteractions(contactService);
+    }
+
+    @Test
+    void filterContacts_Failure_NoTags() {
+
+        assertThrows(InvalidTagException.class,
+                () -> contactTagService.filterContacts(TEST_EMAIL, null, Collections.emptyList(), null, 0, 10));
+        verifyNoInteractions(contactTagIndex);
+    }
+
+    @Test
+    void filterContacts_Failure_TooManyTags() {
+
+        List<String> tags = IntStream.range(0, 21).mapToObj(i -> "tag" + i).toList();
+
+        assertThrows(RequestLimitExceededException.class,
+                () -> contactTagService.filterContacts(TEST_EMAIL, tags, null, null, 0, 10));
+        verify(contactTagIndex, never()).filter(anyLong(), any(), any(), any(), anyLong(), anyInt());
+    }
+
+    @Test
+    void getTagCounts_ReturnsCountsFromIndex() {
+
+        when(userService.loadUserByUsername(TEST_EMAIL)).thenReturn(new SecurityUser(testUser));
+        when(contactTagIndex.tagCounts(1L)).thenReturn(Map.of("vip", 2));
+
+        assertEquals(List.of(new TagCountDTO("vip", 2)), contactTagService.getTagCounts(TEST_EMAIL));
+    }
+}
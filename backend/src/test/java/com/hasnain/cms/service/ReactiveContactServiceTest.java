@@ -0,0 +1,112 @@
+package com.hasnain.cms.service;
+
+import com.hasnain.cms.dto.ContactDTO;
+import com.hasnain.cms.dto.ContactEmailDTO;
+import com.hasnain.cms.dto.ContactPhoneDTO;
+import com.hasnain.cms.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.TestPropertySource;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataR2dbcTest
+@Import(ReactiveContactService.class)
+@TestPropertySource(properties = "contacts.reactive.stream-batch-size=2")
+class ReactiveContactServiceTest {
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private ReactiveContactService reactiveContactService;
+
+    @BeforeEach
+    void setUp() {
+
+        Flux.just(
+                        "DROP TABLE IF EXISTS contact_emails",
+                        "DROP TABLE IF EXISTS contact_phones",
+                        "DROP TABLE IF EXISTS contacts",
+                        "CREATE TABLE contacts (id BIGINT PRIMARY KEY, first_name VARCHAR(255) NOT NULL, "
+                                + "last_name VARCHAR(255), title VARCHAR(255), user_id BIGINT NOT NULL)",
+                        "CREATE TABLE contact_emails (id BIGINT PRIMARY KEY, label VARCHAR(255), "
+                                + "email VARCHAR(255) NOT NULL, contact_id BIGINT)",
+                        "CREATE TABLE contact_phones (id BIGINT PRIMARY KEY, label VARCHAR(255), "
+                                + "phone_number VARCHAR(255) NOT NULL, contact_id BIGINT)",
+                        "INSERT INTO contacts VALUES (1, 'Ada', 'Lovelace', 'Countess', 1), "
+                                + "(2, 'Alan', 'Turing', NULL, 1), (3, 'Grace', 'Hopper', NULL, 1), "
+                                + "(4, 'Edsger', 'Dijkstra', NULL, 1), (5, 'Ada', 'Other', NULL, 2), "
+                                + "(6, '100%', 'Real', NULL, 1)",
+                        "INSERT INTO contact_emails VALUES (1, 'work', 'ada@example.com', 1), "
+                                + "(2, 'home', 'ada@home.example.com', 1), (3, 'work', 'grace@example.com', 3)",
+                        "INSERT INTO contact_phones VALUES (1, 'mobile', '03001234567', 2)")
+                .concatMap(sql -> databaseClient.sql(sql).then())
+                .blockLast();
+    }
+
+    @Test
+    void getUserContacts_PagesOwnContactsWithDetails() {
+
+        List<ContactDTO> contacts = reactiveContactService.getUserContacts(1L, null, 0, 2).collectList().block();
+
+        assertEquals(List.of(
+                new ContactDTO(1L, "Ada", "Lovelace", "Countess",
+                        List.of(new ContactEmailDTO(1L, "work", "ada@example.com"),
+                                new ContactEmailDTO(2L, "home", "ada@home.example.com")), List.of()),
+                new ContactDTO(2L, "Alan", "Turing", null, List.of(),
+                        List.of(new ContactPhoneDTO(1L, "mobile", "03001234567")))), contacts);
+        assertEquals(List.of(3L, 4L), reactiveContactService.getUserContacts(1L, null, 1, 2)
+                .map(ContactDTO::getId).collectList().block());
+    }
+
+    @Test
+    void getUserContacts_SearchesNamesCaseInsensitively() {
+
+        StepVerifier.create(reactiveContactService.getUserContacts(1L, "AD", 0, 10).map(ContactDTO::getId))
+                .expectNext(1L)
+                .verifyComplete();
+        StepVerifier.create(reactiveContactService.getUserContacts(1L, "%", 0, 10).map(ContactDTO::getId))
+                .expectNext(6L)
+                .verifyComplete();
+        StepVerifier.create(reactiveContactService.getUserContacts(1L, "nobody", 0, 10)).verifyComplete();
+    }
+
+    @Test
+    void streamUserContacts_EmitsEveryContactInBatches() {
+
+        StepVerifier.create(reactiveContactService.streamUserContacts(1L, null), 1)
+                .assertNext(contact -> assertEquals(2, contact.getEmails().size()))
+                .thenRequest(4)
+                .expectNextMatches(contact -> contact.getId() == 2L && contact.getPhones().size() == 1)
+                .expectNextMatches(contact -> contact.getId() == 3L && contact.getEmails().size() == 1)
+                .expectNextMatches(contact -> contact.getId() == 4L)
+                .expectNextMatches(contact -> contact.getId() == 6L)
+                .verifyComplete();
+    }
+
+    @Test
+    void getContactById_ReturnsOwnContact() {
+
+        StepVerifier.create(reactiveContactService.getContactById(1L, 3L))
+                .expectNext(new ContactDTO(3L, "Grace", "Hopper", null,
+                        List.of(new ContactEmailDTO(3L, "work", "grace@example.com")), List.of()))
+                .verifyComplete();
+    }
+
+    @Test
+    void getContactById_Failure_OtherUsersContact() {
+
+        StepVerifier.create(reactiveContactService.getContactById(1L, 5L))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+    }
+}
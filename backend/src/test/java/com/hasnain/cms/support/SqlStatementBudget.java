@@ -0,0 +1,28 @@
+package com.hasnain.cms.support;
+
+import com.hasnain.cms.config.SqlStatementCounter;
+import org.junit.jupiter.api.function.ThrowingSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Holds code under test to an exact number of SQL statements, so an extra lazy load fails the test instead of
+ * slipping into production. Counts statements on the calling thread, which includes MockMvc requests, through the
+ * {@code SqlStatementMonitor} proxy. The data source in the test context must therefore be proxied by it.
+ */
+public final class SqlStatementBudget {
+
+    private SqlStatementBudget() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated.");
+    }
+
+    public static <T> T assertStatements(int expected, ThrowingSupplier<T> action) throws Throwable {
+
+        try (SqlStatementCounter counter = SqlStatementCounter.start()) {
+            T result = action.get();
+            assertEquals(expected, counter.getStatements(),
+                    () -> "Unexpected number of SQL statements, ran: " + counter.getShapes());
+            return result;
+        }
+    }
+}
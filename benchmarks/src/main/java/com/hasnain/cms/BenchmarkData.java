@@ -0,0 +1,37 @@
+package com.hasnain.cms;
+
+import com.hasnain.cms.dto.ContactDTO;
+import com.hasnain.cms.dto.ContactEmailDTO;
+import com.hasnain.cms.dto.ContactPhoneDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * Deterministic contacts shaped like real ones, shared by the benchmarks.
+ */
+public final class BenchmarkData {
+
+    private BenchmarkData() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated.");
+    }
+
+    public static ContactDTO contact(long id, int emailsAndPhones) {
+
+        List<ContactEmailDTO> emails = new ArrayList<>(emailsAndPhones);
+        List<ContactPhoneDTO> phones = new ArrayList<>(emailsAndPhones);
+        IntStream.range(0, emailsAndPhones).forEach(i -> {
+            emails.add(new ContactEmailDTO(id * 10 + i, i == 0 ? "work" : "other",
+                    "contact" + id + "." + i + "@example.com"));
+            phones.add(new ContactPhoneDTO(id * 10 + i, i == 0 ? "mobile" : "home",
+                    String.format("+92-300-%07d", id * 10 + i)));
+        });
+        return new ContactDTO(id, "First" + id, "Last" + id, "Account Manager", emails, phones);
+    }
+
+    public static List<ContactDTO> page(int size) {
+        return LongStream.rangeClosed(1, size).mapToObj(id -> contact(id, 2)).toList();
+    }
+}
@@ -0,0 +1,104 @@
+package com.hasnain.cms.config;
+
+import com.hasnain.cms.BenchmarkData;
+import com.hasnain.cms.dto.ContactDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The negotiated response formats, through the same message converters the API uses: encoding a 1,000-contact page
+ * and decoding a single contact (the only thing the API reads). Encoded sizes are printed during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContactFormatBenchmark {
+
+    private static final Type PAGE_TYPE = new ParameterizedTypeReference<List<ContactDTO>>() {
+    }.getType();
+
+    @Param({"json", "cbor", "smile", "protobuf"})
+    private String format;
+
+    private GenericHttpMessageConverter<Object> converter;
+
+    private MediaType mediaType;
+
+    private List<ContactDTO> page;
+
+    private ContactDTO contact;
+
+    private byte[] encodedContact;
+
+    @Setup
+    public void setUp() throws IOException {
+
+        switch (format) {
+            case "json" -> {
+                converter = new MappingJackson2HttpMessageConverter();
+                mediaType = MediaType.APPLICATION_JSON;
+            }
+            case "cbor" -> {
+                converter = new MappingJackson2CborHttpMessageConverter();
+                mediaType = MediaType.APPLICATION_CBOR;
+            }
+            case "smile" -> {
+                converter = new MappingJackson2SmileHttpMessageConverter();
+                mediaType = MediaType.parseMediaType(WebConfig.APPLICATION_SMILE_VALUE);
+            }
+            case "protobuf" -> {
+                converter = new ContactProtobufHttpMessageConverter();
+                mediaType = ContactProtobufHttpMessageConverter.APPLICATION_PROTOBUF;
+            }
+            default -> throw new IllegalArgumentException("Unknown format " + format);
+        }
+        page = BenchmarkData.page(1000);
+        contact = BenchmarkData.contact(42, 2);
+        encodedContact = encode(contact, ContactDTO.class).getBodyAsBytes();
+        System.out.printf("%n%s: 1,000-contact page is %,d bytes, one contact is %,d bytes%n", format,
+                encodePage().getBodyAsBytes().length, encodedContact.length);
+    }
+
+    @Benchmark
+    public MockHttpOutputMessage encodePage() throws IOException {
+        return encode(page, PAGE_TYPE);
+    }
+
+    @Benchmark
+    public Object decodeContact() throws IOException {
+        MockHttpInputMessage input = new MockHttpInputMessage(encodedContact);
+        input.getHeaders().setContentType(mediaType);
+        return converter.read(ContactDTO.class, null, input);
+    }
+
+    private MockHttpOutputMessage encode(Object body, Type type) throws IOException {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(body, type, mediaType, output);
+        return output;
+    }
+}
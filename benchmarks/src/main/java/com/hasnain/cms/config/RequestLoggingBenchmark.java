@@ -0,0 +1,110 @@
+package com.hasnain.cms.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.util.Duration;
+import net.logstash.logback.appender.LoggingEventAsyncDisruptorAppender;
+import net.logstash.logback.encoder.LogstashEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request-thread cost of the two INFO lines a contact list request logs, from four threads, with JSON written to a
+ * discarding stream:
+ * <ul>
+ *     <li>{@code off}: INFO disabled, the floor</li>
+ *     <li>{@code sync}: encoded and written on the calling thread, as before asynchronous logging</li>
+ *     <li>{@code async}: published to the ring buffer as {@code logback-spring.xml} configures it; when the writer
+ *     falls behind, events are dropped rather than waited for</li>
+ *     <li>{@code sampled}: {@code async} behind {@link LogSamplingTurboFilter} with the default budget</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class RequestLoggingBenchmark {
+
+    @Param({"off", "sync", "async", "sampled"})
+    private String mode;
+
+    private final List<String> contacts = List.of("Hasnain", "John");
+
+    private LoggerContext context;
+
+    private Logger logger;
+
+    @Setup
+    public void setUp() {
+
+        context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        LogstashEncoder encoder = new LogstashEncoder();
+        encoder.setContext(context);
+        encoder.start();
+        OutputStreamAppender<ILoggingEvent> sink = new OutputStreamAppender<>();
+        sink.setContext(context);
+        sink.setEncoder(encoder);
+        sink.setOutputStream(OutputStream.nullOutputStream());
+        sink.start();
+
+        Appender<ILoggingEvent> appender = sink;
+        if (!mode.equals("sync") && !mode.equals("off")) {
+            LoggingEventAsyncDisruptorAppender async = new LoggingEventAsyncDisruptorAppender();
+            async.setContext(context);
+            async.setRingBufferSize(8192);
+            async.setAppendTimeout(Duration.buildByMilliseconds(0));
+            async.addAppender(sink);
+            async.start();
+            appender = async;
+        }
+        if (mode.equals("sampled")) {
+            LogSamplingTurboFilter sampling = new LogSamplingTurboFilter();
+            sampling.setLoggers("com.hasnain.cms.controller,com.hasnain.cms.service");
+            sampling.setContext(context);
+            sampling.start();
+            context.addTurboFilter(sampling);
+        }
+
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(mode.equals("off") ? Level.WARN : Level.INFO);
+        root.addAppender(appender);
+        logger = context.getLogger("com.hasnain.cms.controller.ContactController");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.stop();
+    }
+
+    @Benchmark
+    public void listRequest() {
+        logger.info("User '{}' requesting contacts list. Search: '{}' Page: {}, Size: {}", "jane.doe@example.com",
+                "Has", 0, 10);
+        logger.info("User '{}' successfully retrieved {} contacts (Page: {}, Search: '{}').", "jane.doe@example.com",
+                contacts.size(), 0, "Has");
+    }
+}
@@ -0,0 +1,96 @@
+package com.hasnain.cms.exception;
+
+import com.hasnain.cms.dto.ContactDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import java.sql.SQLTransientConnectionException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Error responses. The prebuilt-exception benchmarks measure the handler alone; {@code throwAndHandleNotFound} adds
+ * creating the exception, stack trace included, as a failing lookup does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GlobalExceptionHandlerBenchmark {
+
+    private GlobalExceptionHandler handler;
+
+    private ResourceNotFoundException notFound;
+
+    private MethodArgumentNotValidException invalid;
+
+    private CannotCreateTransactionException poolExhausted;
+
+    private IllegalStateException unexpected;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+
+        handler = new GlobalExceptionHandler(new SimpleMeterRegistry());
+        notFound = new ResourceNotFoundException("Contact not found with ID: 42");
+
+        ContactDTO contact = new ContactDTO();
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(contact, "contactDTO");
+        bindingResult.addError(new FieldError("contactDTO", "firstName", "First name is required"));
+        bindingResult.addError(new FieldError("contactDTO", "emails[0].email", "must be a well-formed email address"));
+        MethodParameter parameter = new MethodParameter(
+                GlobalExceptionHandlerBenchmark.class.getDeclaredMethod("createContact", ContactDTO.class), 0);
+        invalid = new MethodArgumentNotValidException(parameter, bindingResult);
+
+        poolExhausted = new CannotCreateTransactionException("Could not open JPA EntityManager for transaction",
+                new SQLTransientConnectionException("cms - Connection is not available, request timed out"));
+        unexpected = new IllegalStateException("boom");
+    }
+
+    // Stands in for the controller method whose argument failed validation.
+    @SuppressWarnings("unused")
+    private void createContact(ContactDTO contactDTO) {
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, String>> notFound() {
+        return handler.handleResourceNotFound(notFound);
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, String>> throwAndHandleNotFound() {
+        return handler.handleResourceNotFound(new ResourceNotFoundException("Contact not found with ID: 42"));
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, String>> validationFailure() {
+        return handler.handleValidationExceptions(invalid);
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, String>> databaseBusy() {
+        return handler.handleDatabaseUnavailable(poolExhausted);
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, String>> unexpectedError() {
+        return handler.handleRuntimeExceptions(unexpected);
+    }
+}
@@ -0,0 +1,71 @@
+package com.hasnain.cms.journal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hasnain.cms.BenchmarkData;
+import com.hasnain.cms.event.ContactChangedEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sustained append throughput of the change journal from four producer threads, per fsync policy. Appends only
+ * queue the event, but once the ring buffer fills producers are held to the writer's pace, so over an iteration this
+ * measures what the disk path can absorb.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class ContactChangeJournalBenchmark {
+
+    @Param({"ALWAYS", "INTERVAL", "NEVER"})
+    private FsyncPolicy fsyncPolicy;
+
+    private Path directory;
+
+    private ContactChangeJournal journal;
+
+    private ContactChangedEvent event;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("journal-benchmark");
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        journal = new ContactChangeJournal(new ContactChangeJournal.Settings(directory, 64 * 1024 * 1024, 8192,
+                fsyncPolicy, Duration.ofMillis(50), 4, Duration.ofHours(1)), objectMapper);
+        journal.start();
+        event = ContactChangedEvent.updated(1L, 1, BenchmarkData.contact(42, 2));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        journal.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public void append() {
+        journal.append(event);
+    }
+}
@@ -0,0 +1,51 @@
+package com.hasnain.cms.mapper;
+
+import com.hasnain.cms.BenchmarkData;
+import com.hasnain.cms.dto.ContactDTO;
+import com.hasnain.cms.entity.Contact;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContactMapperBenchmark {
+
+    // Emails and phones per contact.
+    @Param({"0", "2", "10"})
+    private int details;
+
+    private ContactDTO dto;
+
+    private Contact entity;
+
+    @Setup
+    public void setUp() {
+        dto = BenchmarkData.contact(42, details);
+        entity = ContactMapper.toEntity(dto);
+    }
+
+    @Benchmark
+    public ContactDTO toDTO() {
+        return ContactMapper.toDTO(entity);
+    }
+
+    @Benchmark
+    public Contact toEntity() {
+        return ContactMapper.toEntity(dto);
+    }
+}
@@ -0,0 +1,56 @@
+package com.hasnain.cms.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hasnain.cms.BenchmarkData;
+import com.hasnain.cms.entity.Contact;
+import com.hasnain.cms.mapper.ContactMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A contact detail view served from {@link ContactJsonCache} against mapping and serializing the entity per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContactJsonCacheBenchmark {
+
+    private ObjectMapper objectMapper;
+
+    private ContactJsonCache cache;
+
+    private Contact contact;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        cache = new ContactJsonCache(objectMapper, 64 * 1024 * 1024);
+        contact = ContactMapper.toEntity(BenchmarkData.contact(42, 2));
+        cache.get(42L, 1, () -> ContactMapper.toDTO(contact));
+    }
+
+    @Benchmark
+    public byte[] cachedJson() {
+        return cache.get(42L, 1, () -> ContactMapper.toDTO(contact));
+    }
+
+    @Benchmark
+    public byte[] mapAndSerialize() throws IOException {
+        return objectMapper.writeValueAsBytes(ContactMapper.toDTO(contact));
+    }
+}
@@ -0,0 +1,39 @@
+package com.hasnain.cms.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The identifier checks run on every registration and login.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserServiceValidationBenchmark {
+
+    @Param({"jane.doe+work@example.com", "+92-300-1234567", "not an identifier"})
+    private String identifier;
+
+    @Benchmark
+    public boolean isValidEmail() {
+        return UserService.isValidEmail(identifier);
+    }
+
+    @Benchmark
+    public boolean isValidPhone() {
+        return UserService.isValidPhone(identifier);
+    }
+}
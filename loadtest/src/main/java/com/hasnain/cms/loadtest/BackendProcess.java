@@ -0,0 +1,165 @@
+package com.hasnain.cms.loadtest;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The backend started as a separate process on the embedded profile, on a free local port, with its database and
+ * journal under a work directory and its output in a log file there. Either a runnable jar, started with this JVM's
+ * {@code java}, or a native executable.
+ */
+final class BackendProcess implements AutoCloseable {
+
+    // Signs nothing that leaves these runs.
+    private static final String JWT_SECRET_KEY = "c3RhcnR1cC1iZW5jaG1hcmstcnVuLW9ubHktbm90LWEtc2VjcmV0";
+
+    private static final HttpClient CLIENT = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+    private final String name;
+
+    private final Process process;
+
+    private final long launched;
+
+    private final Path log;
+
+    private final URI baseUri;
+
+    private BackendProcess(String name, Process process, long launched, Path log, int port) {
+        this.name = name;
+        this.process = process;
+        this.launched = launched;
+        this.log = log;
+        this.baseUri = URI.create("http://localhost:" + port);
+    }
+
+    /**
+     * Launches {@code executable}: a {@code .jar} with {@code jvmOptions}, anything else as a native executable, which
+     * ignores them. {@code arguments} come after the embedded profile's settings and can override them.
+     */
+    static BackendProcess start(String name, Path executable, List<String> jvmOptions, List<String> arguments,
+                                Path work, Path directory) throws IOException {
+
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        if (executable.getFileName().toString().endsWith(".jar")) {
+            command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+            command.addAll(jvmOptions);
+            command.addAll(List.of("-jar", executable.toString()));
+        } else {
+            command.add(executable.toString());
+        }
+        command.addAll(List.of(
+                "--spring.profiles.active=embedded",
+                "--server.port=" + port,
+                "--contacts.embedded.directory=" + work.resolve("db"),
+                "--contacts.journal.directory=" + work.resolve("journal"),
+                "--jwt.secret-key=" + JWT_SECRET_KEY));
+        command.addAll(arguments);
+
+        Files.createDirectories(work);
+        Path log = Files.createTempFile(work, name + "-", ".log");
+        long launched = System.nanoTime();
+        Process process = new ProcessBuilder(command).directory(directory.toFile()).redirectErrorStream(true)
+                .redirectOutput(log.toFile()).start();
+        return new BackendProcess(name, process, launched, log, port);
+    }
+
+    URI baseUri() {
+        return baseUri;
+    }
+
+    /**
+     * Registers {@code identifier} until it succeeds: a request that needs security, validation, Jackson, JPA and the
+     * database. Returns the milliseconds from launch to the successful response.
+     */
+    long awaitRegistration(String identifier, Duration timeout) throws IOException, InterruptedException {
+
+        HttpRequest register = HttpRequest.newBuilder(baseUri.resolve("/api/auth/register"))
+                .timeout(Duration.ofSeconds(5))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"identifier\":\"" + identifier + "\",\"password\":\""
+                        + DataSeeder.PASSWORD + "\"}"))
+                .build();
+        long deadline = launched + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(name + " exited with " + process.exitValue()
+                        + " before serving a request; see " + log);
+            }
+            try {
+                HttpResponse<Void> response = CLIENT.send(register, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() / 100 == 2) {
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - launched);
+                }
+            } catch (ConnectException | HttpTimeoutException notListening) {
+                // Not accepting connections yet.
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException(name + " served no successful request within " + timeout + "; see " + log);
+    }
+
+    /**
+     * Resident set size in MB, now ({@code VmRSS}) or at its highest so far ({@code VmHWM}), from
+     * {@code /proc/<pid>/status}; -1 where there is no {@code /proc}.
+     */
+    double residentMegabytes(boolean peak) throws IOException {
+
+        long kilobytes = status(peak ? "VmHWM:" : "VmRSS:");
+        return kilobytes < 0 ? -1 : kilobytes / 1024.0;
+    }
+
+    /**
+     * Live threads of the process ({@code Threads}), from {@code /proc/<pid>/status}; -1 where there is no
+     * {@code /proc}. Virtual threads are not counted, only the carriers they run on.
+     */
+    long threads() throws IOException {
+        return status("Threads:");
+    }
+
+    private long status(String field) throws IOException {
+
+        Path status = Path.of("/proc", Long.toString(process.pid()), "status");
+        if (!Files.isReadable(status)) {
+            return -1;
+        }
+        for (String line : Files.readAllLines(status)) {
+            if (line.startsWith(field)) {
+                // VmRSS:     123456 kB
+                return Long.parseLong(line.substring(field.length()).replace("kB", "").strip());
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Asks the backend to shut down, which closes the database cleanly, and waits for it to exit.
+     */
+    @Override
+    public void close() throws InterruptedException {
+
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.hasnain.cms.loadtest;
+
+import com.hasnain.cms.dto.ContactDTO;
+import com.hasnain.cms.dto.ContactEmailDTO;
+import com.hasnain.cms.dto.ContactPhoneDTO;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Seeds users and their contacts with batched JDBC inserts, bypassing the API. Ids are assigned here so that user
+ * {@code u} (1-based) owns contacts {@code (u - 1) * contactsPerUser + 1} to {@code u * contactsPerUser}; the user
+ * identity column and the contact id sequences are moved past them afterwards so the API keeps numbering from there.
+ */
+final class DataSeeder {
+
+    static final String PASSWORD = "LoadTest-Password-1";
+
+    private static final int BATCH_SIZE = 1000;
+
+    // The entities' allocationSize: Hibernate hands out the block of ids ending at the value the sequence returns.
+    private static final int ID_ALLOCATION_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final List<Object[]> contacts = new ArrayList<>(BATCH_SIZE);
+
+    private final List<Object[]> emails = new ArrayList<>(BATCH_SIZE);
+
+    private final List<Object[]> phones = new ArrayList<>(BATCH_SIZE);
+
+    private long nextEmailId = 1;
+
+    private long nextPhoneId = 1;
+
+    DataSeeder(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    static String email(int user) {
+        return "user" + user + "@loadtest.local";
+    }
+
+    static long firstContactId(int user, int contactsPerUser) {
+        return (long) (user - 1) * contactsPerUser + 1;
+    }
+
+    void seed(int users, int contactsPerUser, String passwordHash, RandomGenerator random) {
+
+        // Every user gets the same password, so it is hashed once instead of once per user.
+        List<Object[]> userRows = new ArrayList<>(users);
+        List<Object[]> sequenceRows = new ArrayList<>(users);
+        for (int user = 1; user <= users; user++) {
+            userRows.add(new Object[]{user, email(user), passwordHash});
+            sequenceRows.add(new Object[]{user, contactsPerUser});
+        }
+        for (int from = 0; from < users; from += BATCH_SIZE) {
+            int to = Math.min(users, from + BATCH_SIZE);
+            jdbcTemplate.batchUpdate("INSERT INTO User (user_id, email, password) VALUES (?, ?, ?)",
+                    userRows.subList(from, to));
+            jdbcTemplate.batchUpdate("INSERT INTO user_change_sequence (user_id, change_sequence) VALUES (?, ?)",
+                    sequenceRows.subList(from, to));
+        }
+
+        SyntheticData data = new SyntheticData(random, 1);
+        for (int user = 1; user <= users; user++) {
+            long contactId = firstContactId(user, contactsPerUser);
+            for (int sequence = 1; sequence <= contactsPerUser; sequence++, contactId++) {
+                add(user, contactId, sequence, data.contact());
+            }
+        }
+        flush();
+
+        long nextContactId = (long) users * contactsPerUser + 1;
+        jdbcTemplate.execute("ALTER TABLE User ALTER COLUMN user_id RESTART WITH " + (users + 1));
+        restartSequence("contacts_seq", nextContactId);
+        restartSequence("contact_emails_seq", nextEmailId);
+        restartSequence("contact_phones_seq", nextPhoneId);
+    }
+
+    private void restartSequence(String sequence, long nextId) {
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (nextId + ID_ALLOCATION_SIZE - 1));
+    }
+
+    private void add(int user, long contactId, int sequence, ContactDTO contact) {
+
+        contacts.add(new Object[]{contactId, contact.getFirstName(), contact.getLastName(), contact.getTitle(),
+                sequence, sequence, user});
+        for (ContactEmailDTO email : contact.getEmails()) {
+            emails.add(new Object[]{nextEmailId++, email.getLabel(), email.getEmail(), contactId});
+        }
+        for (ContactPhoneDTO phone : contact.getPhones()) {
+            phones.add(new Object[]{nextPhoneId++, phone.getLabel(), phone.getPhoneNumber(), contactId});
+        }
+        if (contacts.size() >= BATCH_SIZE) {
+            flush();
+        }
+    }
+
+    private void flush() {
+
+        jdbcTemplate.batchUpdate("INSERT INTO contacts (id, first_name, last_name, title, change_sequence, "
+                + "created_sequence, user_id) VALUES (?, ?, ?, ?, ?, ?, ?)", contacts);
+        jdbcTemplate.batchUpdate("INSERT INTO contact_emails (id, label, email, contact_id) VALUES (?, ?, ?, ?)",
+                emails);
+        jdbcTemplate.batchUpdate("INSERT INTO contact_phones (id, label, phone_number, contact_id) VALUES (?, ?, ?, ?)",
+                phones);
+        contacts.clear();
+        emails.clear();
+        phones.clear();
+    }
+}
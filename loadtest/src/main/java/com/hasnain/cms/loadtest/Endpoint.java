@@ -0,0 +1,42 @@
+package com.hasnain.cms.loadtest;
+
+/**
+ * The request types the load generator mixes, named as they appear in the mix option and the report.
+ */
+public enum Endpoint {
+
+    LOGIN("login", "POST /api/auth/login"),
+    LIST("list", "GET /api/contacts"),
+    SEARCH("search", "GET /api/contacts?search"),
+    DETAIL("detail", "GET /api/contacts/{id}"),
+    CREATE("create", "POST /api/contacts"),
+    UPDATE("update", "PUT /api/contacts/{id}"),
+    DELETE("delete", "DELETE /api/contacts/{id}");
+
+    private final String key;
+
+    private final String route;
+
+    Endpoint(String key, String route) {
+        this.key = key;
+        this.route = route;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    public static Endpoint fromKey(String key) {
+
+        for (Endpoint endpoint : values()) {
+            if (endpoint.key.equals(key)) {
+                return endpoint;
+            }
+        }
+        throw new IllegalArgumentException("Unknown endpoint '" + key + "' in mix.");
+    }
+}
@@ -0,0 +1,340 @@
+package com.hasnain.cms.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongFunction;
+
+/**
+ * Open-loop load: requests start on a fixed schedule whether or not earlier ones have answered, the way independent
+ * clients arrive. Each request's latency is measured from the moment it was scheduled to start, not from when it
+ * was actually sent, so time spent queued behind a slow server is counted instead of hidden (coordinated omission).
+ * <p>
+ * One thread schedules; responses are handled on the HTTP client's executor, so no thread waits on a response.
+ * <p>
+ * {@link #runClients} instead keeps a fixed number of clients busy, each sending its next request as soon as the last
+ * one answers. That measures how many concurrent connections the server sustains rather than its latency at a rate.
+ */
+final class LoadGenerator {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final long REQUEST_TIMEOUT_MICROS = TimeUnit.NANOSECONDS.toMicros(REQUEST_TIMEOUT.toNanos());
+
+    // Latencies are recorded in microseconds, up to a minute.
+    private static final long HIGHEST_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private static final Runnable NOTHING = () -> {
+    };
+
+    static final class Stats {
+
+        final Histogram latencyMicros = new ConcurrentHistogram(HIGHEST_LATENCY_MICROS, 3);
+
+        final LongAdder errors = new LongAdder();
+
+        final LongAdder dropped = new LongAdder();
+    }
+
+    // A logged-in seeded user and the contacts it still owns.
+    private static final class Session {
+
+        final String token;
+
+        final List<Long> contactIds = new ArrayList<>();
+
+        Session(String token, long firstContactId, int contacts) {
+            this.token = token;
+            for (long id = firstContactId; id < firstContactId + contacts; id++) {
+                contactIds.add(id);
+            }
+        }
+
+        synchronized Long anyContact(SplittableRandom random) {
+            return contactIds.isEmpty() ? null : contactIds.get(random.nextInt(contactIds.size()));
+        }
+
+        synchronized Long takeContact(SplittableRandom random) {
+
+            if (contactIds.isEmpty()) {
+                return null;
+            }
+            int index = random.nextInt(contactIds.size());
+            Long id = contactIds.get(index);
+            contactIds.set(index, contactIds.get(contactIds.size() - 1));
+            contactIds.remove(contactIds.size() - 1);
+            return id;
+        }
+
+        synchronized void addContact(long id) {
+            contactIds.add(id);
+        }
+    }
+
+    private final HttpClient client;
+
+    private final URI baseUri;
+
+    private final ObjectMapper objectMapper;
+
+    private final LoadTestSettings settings;
+
+    private final SplittableRandom random;
+
+    private final SyntheticData data;
+
+    private final List<Session> sessions = new ArrayList<>();
+
+    private final Map<Endpoint, Stats> stats = new EnumMap<>(Endpoint.class);
+
+    private final Endpoint[] endpoints;
+
+    private final int[] cumulativeWeights;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    LoadGenerator(HttpClient client, URI baseUri, ObjectMapper objectMapper, LoadTestSettings settings) {
+
+        this.client = client;
+        this.baseUri = baseUri;
+        this.objectMapper = objectMapper;
+        this.settings = settings;
+        this.random = new SplittableRandom(settings.randomSeed());
+        this.data = new SyntheticData(new SplittableRandom(settings.randomSeed() + 1),
+                (long) settings.users() * settings.contactsPerUser() + 1);
+        this.endpoints = settings.mix().keySet().toArray(Endpoint[]::new);
+        this.cumulativeWeights = new int[endpoints.length];
+        int total = 0;
+        for (int i = 0; i < endpoints.length; i++) {
+            total += settings.mix().get(endpoints[i]);
+            cumulativeWeights[i] = total;
+            stats.put(endpoints[i], new Stats());
+        }
+    }
+
+    /**
+     * Logs the first {@code sessions} seeded users in, one after another, before any load starts.
+     */
+    void logIn() throws Exception {
+
+        for (int user = 1; user <= settings.sessions(); user++) {
+            HttpResponse<byte[]> response = client.send(login(user), HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Login of seeded user " + user + " failed with HTTP "
+                        + response.statusCode() + ".");
+            }
+            String token = objectMapper.readTree(response.body()).get("token").asText();
+            sessions.add(new Session(token, DataSeeder.firstContactId(user, settings.contactsPerUser()),
+                    settings.contactsPerUser()));
+        }
+    }
+
+    /**
+     * Runs the warmup and the measured period, then waits for outstanding responses. Returns the measured
+     * statistics per endpoint.
+     */
+    Map<Endpoint, Stats> run() throws InterruptedException {
+
+        long start = System.nanoTime();
+        long measureFrom = start + settings.warmup().toNanos();
+        long end = measureFrom + settings.duration().toNanos();
+
+        for (long request = 0; ; request++) {
+            // Computed from the start each time, so rounding never makes the schedule drift.
+            long intended = start + request * 1_000_000_000L / settings.rate();
+            if (intended >= end) {
+                break;
+            }
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            send(intended, intended >= measureFrom);
+        }
+
+        long drainDeadline = System.nanoTime() + REQUEST_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+        return stats;
+    }
+
+    /**
+     * Keeps {@code clients} requests outstanding through the warmup and the measured period, then waits for the last
+     * responses. Latency is measured from each send. Returns the measured statistics per endpoint.
+     */
+    Map<Endpoint, Stats> runClients(int clients) throws InterruptedException {
+
+        long start = System.nanoTime();
+        long measureFrom = start + settings.warmup().toNanos();
+        long end = measureFrom + settings.duration().toNanos();
+        CountDownLatch finished = new CountDownLatch(clients);
+        for (int i = 0; i < clients; i++) {
+            nextFromClient(measureFrom, end, finished);
+        }
+        finished.await(end - System.nanoTime() + REQUEST_TIMEOUT.toNanos(), TimeUnit.NANOSECONDS);
+        return stats;
+    }
+
+    private void nextFromClient(long measureFrom, long end, CountDownLatch finished) {
+
+        long now = System.nanoTime();
+        if (now >= end) {
+            finished.countDown();
+            return;
+        }
+        // Handed to the executor, so a request that fails at once does not send the next one on the same stack.
+        dispatch(nextEndpoint(), now, now >= measureFrom, () -> client.executor().orElseThrow()
+                .execute(() -> nextFromClient(measureFrom, end, finished)));
+    }
+
+    private void send(long intended, boolean measured) {
+
+        Endpoint endpoint = nextEndpoint();
+        if (inFlight.get() >= settings.maxInFlight()) {
+            if (measured) {
+                // Never sent, as if the client had given up on it: recorded at the request timeout and as an error,
+                // so the percentiles show what a saturated server did to this arrival instead of leaving it out.
+                Stats endpointStats = stats.get(endpoint);
+                endpointStats.dropped.increment();
+                endpointStats.errors.increment();
+                endpointStats.latencyMicros.recordValue(REQUEST_TIMEOUT_MICROS);
+            }
+            return;
+        }
+        dispatch(endpoint, intended, measured, NOTHING);
+    }
+
+    private void dispatch(Endpoint endpoint, long intended, boolean measured, Runnable then) {
+
+        Session session;
+        HttpRequest request;
+        Stats endpointStats;
+        // Clients build their requests on the executor's threads; the random sources are not thread safe.
+        synchronized (this) {
+            session = sessions.get(random.nextInt(sessions.size()));
+            request = request(endpoint, session);
+            if (request == null) {
+                // The session has no contacts left to read, change or delete; replenish it instead.
+                endpoint = Endpoint.CREATE;
+                request = request(endpoint, session);
+            }
+            endpointStats = stats.computeIfAbsent(endpoint, unused -> new Stats());
+        }
+
+        Endpoint sent = endpoint;
+        Stats sentStats = endpointStats;
+        inFlight.incrementAndGet();
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()).whenComplete((response, failure) -> {
+            long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended);
+            inFlight.decrementAndGet();
+            if (sent == Endpoint.CREATE && failure == null && response.statusCode() < 300) {
+                rememberCreated(session, response.body());
+            }
+            if (measured) {
+                sentStats.latencyMicros.recordValue(Math.min(latencyMicros, HIGHEST_LATENCY_MICROS));
+                if (failure != null || response.statusCode() >= 400) {
+                    sentStats.errors.increment();
+                }
+            }
+            then.run();
+        });
+    }
+
+    private synchronized Endpoint nextEndpoint() {
+
+        int roll = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return endpoints[i];
+            }
+        }
+        return endpoints[endpoints.length - 1];
+    }
+
+    private HttpRequest request(Endpoint endpoint, Session session) {
+
+        return switch (endpoint) {
+            case LOGIN -> login(1 + random.nextInt(settings.users()));
+            case LIST -> authorized(session, "/api/contacts?page="
+                    + random.nextInt(Math.max(1, settings.contactsPerUser() / 10)) + "&size=10").GET().build();
+            case SEARCH -> authorized(session, "/api/contacts?search="
+                    + URLEncoder.encode(data.searchTerm(), StandardCharsets.UTF_8) + "&page=0&size=10").GET().build();
+            case DETAIL -> withContact(session.anyContact(random),
+                    id -> authorized(session, "/api/contacts/" + id).GET().build());
+            case CREATE -> authorized(session, "/api/contacts")
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(json(data.contact())))
+                    .build();
+            case UPDATE -> withContact(session.anyContact(random), id -> authorized(session, "/api/contacts/" + id)
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofByteArray(json(data.contact())))
+                    .build());
+            case DELETE -> withContact(session.takeContact(random),
+                    id -> authorized(session, "/api/contacts/" + id).DELETE().build());
+        };
+    }
+
+    private static HttpRequest withContact(Long id, LongFunction<HttpRequest> request) {
+        return id == null ? null : request.apply(id);
+    }
+
+    private HttpRequest login(int user) {
+
+        return HttpRequest.newBuilder(baseUri.resolve("/api/auth/login"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(json(Map.of(
+                        "identifier", DataSeeder.email(user), "password", DataSeeder.PASSWORD))))
+                .build();
+    }
+
+    private HttpRequest.Builder authorized(Session session, String path) {
+
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + session.token);
+    }
+
+    private void rememberCreated(Session session, byte[] body) {
+
+        try {
+            JsonNode id = objectMapper.readTree(body).get("id");
+            if (id != null) {
+                session.addContact(id.asLong());
+            }
+        } catch (IOException exception) {
+            // Not a contact; nothing to remember.
+        }
+    }
+
+    private byte[] json(Object value) {
+
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException exception) {
+            throw new IllegalStateException("Failed to serialize a request body.", exception);
+        }
+    }
+}
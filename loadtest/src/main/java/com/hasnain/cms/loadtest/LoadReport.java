@@ -0,0 +1,76 @@
+package com.hasnain.cms.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Throughput and latency percentiles per endpoint, plus an {@code all} row, as a console table and as JSON.
+ * Latencies are in milliseconds and include the time a request waited for its turn behind slower ones. Requests,
+ * errors and percentiles include dropped arrivals at the request timeout; throughput counts only the requests sent.
+ *
+ * @param settings  the options of the run
+ * @param executor  what completed the HTTP client's responses, virtual or platform threads
+ * @param endpoints one row per endpoint in the mix, then the {@code all} row
+ */
+public record LoadReport(LoadTestSettings settings, String executor, List<Row> endpoints) {
+
+    public record Row(String endpoint, String route, long requests, long errors, long dropped, double throughput,
+                      double p50, double p99, double p999, double max) {
+    }
+
+    static LoadReport of(LoadTestSettings settings, String executor, Map<Endpoint, LoadGenerator.Stats> stats) {
+
+        double seconds = settings.duration().toNanos() / 1e9;
+        List<Row> rows = new ArrayList<>();
+        Histogram all = new Histogram(3);
+        long allErrors = 0;
+        long allDropped = 0;
+        for (Map.Entry<Endpoint, LoadGenerator.Stats> entry : stats.entrySet()) {
+            LoadGenerator.Stats endpointStats = entry.getValue();
+            Histogram latency = endpointStats.latencyMicros.copy();
+            all.add(latency);
+            allErrors += endpointStats.errors.sum();
+            allDropped += endpointStats.dropped.sum();
+            rows.add(row(entry.getKey().getKey(), entry.getKey().getRoute(), latency, endpointStats.errors.sum(),
+                    endpointStats.dropped.sum(), seconds));
+        }
+        rows.add(row("all", "", all, allErrors, allDropped, seconds));
+        return new LoadReport(settings, executor, rows);
+    }
+
+    private static Row row(String endpoint, String route, Histogram latency, long errors, long dropped,
+                           double seconds) {
+
+        return new Row(endpoint, route, latency.getTotalCount(), errors, dropped,
+                (latency.getTotalCount() - dropped) / seconds, millis(latency.getValueAtPercentile(50)),
+                millis(latency.getValueAtPercentile(99)), millis(latency.getValueAtPercentile(99.9)),
+                millis(latency.getMaxValue()));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    void print(PrintStream out) {
+
+        out.printf("%nOpen-loop load at %d req/s for %ds after %ds warmup, %d users x %d contacts, %d sessions, %s%n%n",
+                settings.rate(), settings.duration().toSeconds(), settings.warmup().toSeconds(), settings.users(),
+                settings.contactsPerUser(), settings.sessions(), executor);
+        out.printf("%-8s %9s %7s %8s %10s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "dropped", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Row row : endpoints) {
+            out.printf("%-8s %9d %7d %8d %10.1f %9.2f %9.2f %9.2f %9.2f%n", row.endpoint(), row.requests(),
+                    row.errors(), row.dropped(), row.throughput(), row.p50(), row.p99(), row.p999(), row.max());
+        }
+    }
+
+    void write(ObjectMapper objectMapper) throws IOException {
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(settings.report().toFile(), this);
+    }
+}
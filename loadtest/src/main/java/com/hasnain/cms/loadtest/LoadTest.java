@@ -0,0 +1,116 @@
+package com.hasnain.cms.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.hasnain.cms.CMSApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Boots the backend on a random local port against an in-memory H2 database, seeds it, drives open-loop load through
+ * the HTTP API and reports throughput and latency percentiles per endpoint. Nothing leaves localhost.
+ * <p>
+ * Options are listed on {@link LoadTestSettings}. Runs through the {@code loadtest} Maven profile, see the README.
+ */
+public final class LoadTest {
+
+    private static final String H2_OPTIONS = "MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1";
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        LoadTestSettings settings = LoadTestSettings.parse(args);
+        Path journal = Files.createTempDirectory("cms-loadtest-journal");
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS);
+
+        try (ConfigurableApplicationContext backend = startBackend(settings, journal)) {
+            int port = ((WebServerApplicationContext) backend).getWebServer().getPort();
+
+            long seedStart = System.nanoTime();
+            new DataSeeder(backend.getBean(DataSource.class)).seed(settings.users(), settings.contactsPerUser(),
+                    backend.getBean(PasswordEncoder.class).encode(DataSeeder.PASSWORD),
+                    new SplittableRandom(settings.randomSeed()));
+            System.out.printf("Seeded %d users with %d contacts each in %d ms.%n", settings.users(),
+                    settings.contactsPerUser(), Duration.ofNanos(System.nanoTime() - seedStart).toMillis());
+
+            ExecutorService executor = newExecutor();
+            String executorName = executor.getClass().getSimpleName().contains("ThreadPerTask")
+                    ? "virtual-thread client" : "platform-thread client";
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(executor)
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            try {
+                LoadGenerator generator = new LoadGenerator(client, URI.create("http://localhost:" + port),
+                        objectMapper, settings);
+                generator.logIn();
+                System.out.printf("Logged in %d sessions; %ds warmup, then %ds measured.%n", settings.sessions(),
+                        settings.warmup().toSeconds(), settings.duration().toSeconds());
+
+                LoadReport report = LoadReport.of(settings, executorName, generator.run());
+                report.print(System.out);
+                report.write(objectMapper);
+                System.out.printf("%nReport written to %s%n", settings.report().toAbsolutePath());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+        // Backend threads that outlive the context (journal, schedulers) must not keep the run alive.
+        System.exit(0);
+    }
+
+    private static ConfigurableApplicationContext startBackend(LoadTestSettings settings, Path journal) {
+
+        byte[] jwtKey = new byte[32];
+        new SecureRandom().nextBytes(jwtKey);
+        // Built directly rather than through CMSApplication.main, which needs a .env file.
+        return new SpringApplicationBuilder(CMSApplication.class).run(
+                "--server.port=0",
+                "--spring.profiles.active=" + settings.profiles(),
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;" + H2_OPTIONS,
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.r2dbc.url=r2dbc:h2:mem:///loadtest?options=" + H2_OPTIONS,
+                "--spring.r2dbc.username=sa",
+                "--spring.r2dbc.password=",
+                "--jwt.secret-key=" + Base64.getEncoder().encodeToString(jwtKey),
+                "--jwt.expiration-ms=3600000",
+                "--contacts.journal.enabled=true",
+                "--contacts.journal.directory=" + journal);
+    }
+
+    // The module targets Java 17; on 21 and later the client completes responses on virtual threads.
+    static ExecutorService newExecutor() {
+
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException unavailable) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "loadtest-client");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
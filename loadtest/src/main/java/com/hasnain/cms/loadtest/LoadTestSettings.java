@@ -0,0 +1,100 @@
+package com.hasnain.cms.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Options of a load test run, given as {@code --name=value} arguments. Anything not given takes the default below.
+ *
+ * @param users           users to seed
+ * @param contactsPerUser contacts to seed per user
+ * @param sessions        seeded users that log in up front and send the non-login requests
+ * @param rate            requests started per second, whatever the response times
+ * @param warmup          load before measuring starts
+ * @param duration        measured load
+ * @param mix             relative weight of each endpoint
+ * @param maxInFlight     outstanding requests after which new ones are dropped instead of sent, and recorded as
+ *                        errors at the request timeout
+ * @param profiles        Spring profiles for the backend, e.g. {@code virtual-threads}
+ * @param randomSeed      seed for the synthetic data and the request mix
+ * @param report          where the JSON report is written
+ */
+public record LoadTestSettings(int users, int contactsPerUser, int sessions, int rate, Duration warmup,
+                               Duration duration, Map<Endpoint, Integer> mix, int maxInFlight, String profiles,
+                               long randomSeed, Path report) {
+
+    private static final String DEFAULT_MIX = "login:2,list:35,search:20,detail:25,create:6,update:8,delete:4";
+
+    private static final Set<String> OPTIONS = Set.of("users", "contacts", "sessions", "rate", "warmup",
+            "duration", "mix", "max-in-flight", "profiles", "seed", "report");
+
+    public static LoadTestSettings parse(String... args) {
+
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.isBlank()) {
+                continue;
+            }
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got '" + arg + "'.");
+            }
+            String name = arg.substring(2, separator);
+            if (!OPTIONS.contains(name)) {
+                throw new IllegalArgumentException("Unknown option '--" + name + "'. Known options: " + OPTIONS);
+            }
+            options.put(name, arg.substring(separator + 1));
+        }
+
+        LoadTestSettings settings = new LoadTestSettings(
+                Integer.parseInt(options.getOrDefault("users", "200")),
+                Integer.parseInt(options.getOrDefault("contacts", "100")),
+                Integer.parseInt(options.getOrDefault("sessions", "50")),
+                Integer.parseInt(options.getOrDefault("rate", "200")),
+                parseDuration(options.getOrDefault("warmup", "15s")),
+                parseDuration(options.getOrDefault("duration", "60s")),
+                parseMix(options.getOrDefault("mix", DEFAULT_MIX)),
+                Integer.parseInt(options.getOrDefault("max-in-flight", "10000")),
+                options.getOrDefault("profiles", ""),
+                Long.parseLong(options.getOrDefault("seed", "42")),
+                Path.of(options.getOrDefault("report", "loadtest-report.json")));
+        if (settings.sessions() > settings.users() || settings.users() < 1 || settings.rate() < 1) {
+            throw new IllegalArgumentException("Need at least one user, sessions <= users and a positive rate.");
+        }
+        return settings;
+    }
+
+    // 90s, 2m or 500ms.
+    private static Duration parseDuration(String value) {
+
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        long amount = Long.parseLong(value.substring(0, value.length() - 1));
+        return switch (value.charAt(value.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            default -> throw new IllegalArgumentException("Durations look like 500ms, 90s or 2m, got '" + value + "'.");
+        };
+    }
+
+    private static Map<Endpoint, Integer> parseMix(String value) {
+
+        Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.strip().split(":");
+            int weight = Integer.parseInt(parts[1]);
+            if (weight > 0) {
+                mix.put(Endpoint.fromKey(parts[0]), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("The mix needs at least one endpoint with a positive weight.");
+        }
+        return mix;
+    }
+}
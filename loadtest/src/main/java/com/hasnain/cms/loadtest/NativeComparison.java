@@ -0,0 +1,217 @@
+package com.hasnain.cms.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Stream;
+
+/**
+ * Compares the backend's native executable with its runnable jar on the same data: time from launch to the first
+ * successful request, resident memory after starting, after load and at its peak, and throughput and latency under the
+ * open-loop load of {@link LoadTest}, after its warmup.
+ * <p>
+ * The data is seeded once. A first start creates the schema, {@link DataSeeder} fills it over JDBC while no backend
+ * runs, and each target then starts {@code --starts} times on its own copy and takes the load on the last start.
+ * The load is open loop, so at a rate both targets keep up with, their throughput is the rate and the difference
+ * shows in latency and memory; raise {@code --rate} until one falls behind in errors, drops or p99.
+ * <p>
+ * Options, as {@code --name=value}: {@code backend}, the directory holding {@code cms-*-exec.jar} and the {@code cms}
+ * executable ({@code backend/target}), {@code targets} ({@code jvm,native}; a missing one is skipped), {@code starts}
+ * (3), {@code timeout} in seconds (120) and {@code output} ({@code native-comparison.json}). Any other option sets the
+ * load, as listed on {@link LoadTestSettings}.
+ */
+public final class NativeComparison {
+
+    private static final Set<String> OPTIONS = Set.of("backend", "targets", "starts", "timeout", "output");
+
+    private static final String H2_OPTIONS = "MODE=MySQL;NON_KEYWORDS=USER";
+
+    /**
+     * A build of the backend: {@code jvm} for the runnable jar, {@code native} for the executable.
+     */
+    record Target(String name, Path executable) {
+    }
+
+    /**
+     * One target's startup times in milliseconds, resident memory in MB and the load results, with the {@code all}
+     * row's throughput, percentiles and errors copied to the top.
+     */
+    public record Result(String target, List<Long> startupMillis, long startupMedian, double rssAfterStartMb,
+                         double rssAfterLoadMb, double peakRssMb, double throughput, double p50, double p99,
+                         long errors, LoadReport load) {
+    }
+
+    private final LoadTestSettings settings;
+
+    private final int starts;
+
+    private final Duration timeout;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS);
+
+    private NativeComparison(LoadTestSettings settings, int starts, Duration timeout) {
+        this.settings = settings;
+        this.starts = starts;
+        this.timeout = timeout;
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        List<String> own = new ArrayList<>();
+        List<String> load = new ArrayList<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            boolean isOwn = arg.startsWith("--") && separator > 0 && OPTIONS.contains(arg.substring(2, separator));
+            (isOwn ? own : load).add(arg);
+        }
+        Map<String, String> options = Options.parse(OPTIONS, own.toArray(String[]::new));
+        Path backend = Path.of(options.getOrDefault("backend", "backend/target")).toAbsolutePath();
+        NativeComparison comparison = new NativeComparison(LoadTestSettings.parse(load.toArray(String[]::new)),
+                Integer.parseInt(options.getOrDefault("starts", "3")),
+                Duration.ofSeconds(Long.parseLong(options.getOrDefault("timeout", "120"))));
+
+        List<Target> targets = new ArrayList<>();
+        for (String name : options.getOrDefault("targets", "jvm,native").split(",")) {
+            Path executable = switch (name) {
+                case "jvm" -> runnableJar(backend);
+                case "native" -> backend.resolve("cms");
+                default -> throw new IllegalArgumentException("Unknown target '" + name + "'. Known: jvm, native");
+            };
+            if (executable == null || !Files.isRegularFile(executable)) {
+                System.out.printf("Skipping %s: not built in %s.%n", name, backend);
+                continue;
+            }
+            targets.add(new Target(name, executable));
+        }
+        if (targets.isEmpty()) {
+            throw new IllegalArgumentException("Nothing to compare in " + backend + "; build the backend first.");
+        }
+
+        Path work = Files.createTempDirectory("cms-native-comparison");
+        Path seeded = work.resolve("seeded");
+        seed(comparison.settings, targets.get(0).executable(), seeded, comparison.timeout);
+        List<Result> results = new ArrayList<>();
+        for (Target target : targets) {
+            Path directory = work.resolve(target.name());
+            copy(seeded.resolve("db"), directory.resolve("db"));
+            results.add(comparison.measure(target, directory));
+        }
+
+        System.out.printf("%nStartup median of %d, resident memory, and load at %d req/s for %ds after %ds warmup%n%n",
+                comparison.starts, comparison.settings.rate(), comparison.settings.duration().toSeconds(),
+                comparison.settings.warmup().toSeconds());
+        System.out.printf("%-8s %9s %10s %10s %10s %9s %8s %8s %7s%n", "target", "start ms", "RSS start",
+                "RSS load", "RSS peak", "req/s", "p50 ms", "p99 ms", "errors");
+        for (Result result : results) {
+            System.out.printf("%-8s %9d %10.1f %10.1f %10.1f %9.1f %8.2f %8.2f %7d%n", result.target(),
+                    result.startupMedian(), result.rssAfterStartMb(), result.rssAfterLoadMb(), result.peakRssMb(),
+                    result.throughput(), result.p50(), result.p99(), result.errors());
+        }
+        Path output = Path.of(options.getOrDefault("output", "native-comparison.json"));
+        comparison.objectMapper.writerWithDefaultPrettyPrinter().writeValue(output.toFile(), results);
+        System.out.printf("%nReport written to %s%n", output.toAbsolutePath());
+    }
+
+    static Path runnableJar(Path backend) throws IOException {
+
+        if (!Files.isDirectory(backend)) {
+            return null;
+        }
+        try (Stream<Path> files = Files.list(backend)) {
+            return files.filter(file -> file.getFileName().toString().endsWith("-exec.jar")).findFirst().orElse(null);
+        }
+    }
+
+    // Lets the backend create the schema, then replaces the user it registered with the seeded ones.
+    static void seed(LoadTestSettings settings, Path executable, Path directory, Duration timeout) throws Exception {
+
+        try (BackendProcess backend = BackendProcess.start("schema", executable, List.of(), List.of(), directory,
+                directory)) {
+            backend.awaitRegistration("schema@loadtest.local", timeout);
+        }
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:file:" + directory.resolve("db").resolve("cms") + ";" + H2_OPTIONS, "sa", "");
+        new JdbcTemplate(dataSource).update("DELETE FROM User");
+        long seedStart = System.nanoTime();
+        new DataSeeder(dataSource).seed(settings.users(), settings.contactsPerUser(),
+                new BCryptPasswordEncoder().encode(DataSeeder.PASSWORD), new SplittableRandom(settings.randomSeed()));
+        System.out.printf("Seeded %d users with %d contacts each in %d ms.%n", settings.users(),
+                settings.contactsPerUser(), Duration.ofNanos(System.nanoTime() - seedStart).toMillis());
+    }
+
+    private Result measure(Target target, Path directory) throws Exception {
+
+        List<Long> millis = new ArrayList<>(starts);
+        for (int start = 1; start < starts; start++) {
+            try (BackendProcess backend = launch(target, directory)) {
+                millis.add(backend.awaitRegistration(target.name() + start + "@loadtest.local", timeout));
+            }
+        }
+        try (BackendProcess backend = launch(target, directory)) {
+            millis.add(backend.awaitRegistration(target.name() + starts + "@loadtest.local", timeout));
+            System.out.printf("%s: started in %s ms%n", target.name(), millis);
+            double rssAfterStart = backend.residentMegabytes(false);
+
+            ExecutorService executor = LoadTest.newExecutor();
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(executor)
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            try {
+                LoadGenerator generator = new LoadGenerator(client, backend.baseUri(), objectMapper, settings);
+                generator.logIn();
+                LoadReport report = LoadReport.of(settings, target.name(), generator.run());
+                report.print(System.out);
+                LoadReport.Row all = report.endpoints().get(report.endpoints().size() - 1);
+                long[] sorted = millis.stream().mapToLong(Long::longValue).sorted().toArray();
+                return new Result(target.name(), millis, sorted[sorted.length / 2], rssAfterStart,
+                        backend.residentMegabytes(false), backend.residentMegabytes(true), all.throughput(),
+                        all.p50(), all.p99(), all.errors(), report);
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    // Extra profiles only take effect on the jar: the native executable's beans were fixed when it was built.
+    private BackendProcess launch(Target target, Path directory) throws IOException {
+
+        List<String> arguments = settings.profiles().isBlank() ? List.of()
+                : List.of("--spring.profiles.active=embedded," + settings.profiles());
+        return BackendProcess.start(target.name(), target.executable(), List.of(), arguments, directory, directory);
+    }
+
+    static void copy(Path from, Path to) throws IOException {
+
+        Files.createDirectories(to.getParent());
+        try (Stream<Path> files = Files.walk(from)) {
+            files.forEach(file -> {
+                try {
+                    Files.copy(file, to.resolve(from.relativize(file).toString()));
+                } catch (IOException exception) {
+                    throw new UncheckedIOException(exception);
+                }
+            });
+        }
+    }
+}
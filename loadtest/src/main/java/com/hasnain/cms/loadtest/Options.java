@@ -0,0 +1,30 @@
+package com.hasnain.cms.loadtest;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@code --name=value} arguments of the harness mains. Blank arguments, left by an empty Maven property, are skipped.
+ */
+final class Options {
+
+    private Options() {
+    }
+
+    static Map<String, String> parse(Set<String> known, String... args) {
+
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.isBlank()) {
+                continue;
+            }
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0 || !known.contains(arg.substring(2, separator))) {
+                throw new IllegalArgumentException("Unknown option '" + arg + "'. Known options: " + known);
+            }
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+}
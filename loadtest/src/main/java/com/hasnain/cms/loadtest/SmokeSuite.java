@@ -0,0 +1,277 @@
+package com.hasnain.cms.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Black-box checks of the API against a backend started as a separate process on the embedded profile: the native
+ * executable built by the backend's {@code native} profile, or a runnable jar for comparison. The checks go through
+ * what a native image is most likely to break, everything reached by reflection, proxies or classpath resources:
+ * BCrypt and jjwt, JSON binding and validation, Hibernate with lazy associations and the second-level cache, the JSON
+ * detail cache, CBOR and protobuf, tags, the sync feed, the reactive API over R2DBC, password change and the actuator.
+ * <p>
+ * Options, as {@code --name=value}: {@code app}, the executable or {@code .jar} ({@code backend/target/cms}), and
+ * {@code timeout} for the start in seconds (120). Every check runs; the exit status is 1 if any failed.
+ */
+public final class SmokeSuite {
+
+    private static final Set<String> OPTIONS = Set.of("app", "timeout");
+
+    private static final String IDENTIFIER = "smoke@loadtest.local";
+
+    private static final String NEW_PASSWORD = "Smoke-Password-2";
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    @FunctionalInterface
+    private interface Check {
+
+        void run() throws Exception;
+    }
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final URI baseUri;
+
+    private final List<String> failures = new ArrayList<>();
+
+    private int passed;
+
+    private String token;
+
+    private long contactId;
+
+    private SmokeSuite(URI baseUri) {
+        this.baseUri = baseUri;
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        Map<String, String> options = Options.parse(OPTIONS, args);
+        Path app = Path.of(options.getOrDefault("app", "backend/target/cms")).toAbsolutePath();
+        if (!Files.isRegularFile(app)) {
+            throw new IllegalArgumentException("No backend at " + app + "; build it with -Pnative first, or pass a "
+                    + "runnable jar with --app.");
+        }
+        Duration timeout = Duration.ofSeconds(Long.parseLong(options.getOrDefault("timeout", "120")));
+
+        Path work = Files.createTempDirectory("cms-smoke");
+        List<String> failures;
+        try (BackendProcess backend = BackendProcess.start("smoke", app, List.of(), List.of(), work, work)) {
+            System.out.printf("Started %s in %d ms.%n", app.getFileName(),
+                    backend.awaitRegistration("startup@loadtest.local", timeout));
+            failures = run(backend.baseUri());
+        }
+        System.exit(failures.isEmpty() ? 0 : 1);
+    }
+
+    /**
+     * Runs every check against a backend with no user {@value #IDENTIFIER} yet. Returns the failed checks.
+     */
+    static List<String> run(URI baseUri) {
+
+        SmokeSuite suite = new SmokeSuite(baseUri);
+        suite.runAll();
+        System.out.printf("%n%d passed, %d failed%n", suite.passed, suite.failures.size());
+        suite.failures.forEach(failure -> System.out.println("  " + failure));
+        return suite.failures;
+    }
+
+    private void runAll() {
+
+        check("register", () -> expect(post("/api/auth/register", Map.of("identifier", IDENTIFIER,
+                "password", DataSeeder.PASSWORD)), 200));
+        check("register again is a conflict", () -> expect(post("/api/auth/register", Map.of(
+                "identifier", IDENTIFIER, "password", DataSeeder.PASSWORD)), 409));
+        check("login", () -> token = text(json(expect(post("/api/auth/login", Map.of("identifier", IDENTIFIER,
+                "password", DataSeeder.PASSWORD)), 200)), "token"));
+        check("login with a wrong password is refused", () -> expect(post("/api/auth/login", Map.of(
+                "identifier", IDENTIFIER, "password", "wrong")), 401));
+        check("no token is refused", () -> expectRefused(send(HttpRequest.newBuilder(uri("/api/contacts")).GET(),
+                false)));
+
+        check("create contact", () -> contactId = json(expect(post("/api/contacts", contact("Smoke")), 200))
+                .get("id").asLong());
+        check("contact detail as JSON", () -> expectField(expect(get("/api/contacts/" + contactId, "application/json"),
+                200), "firstName", "Ada"));
+        check("contact detail again, from the caches", () -> expectField(expect(get("/api/contacts/" + contactId,
+                "application/json"), 200), "lastName", "Smoke"));
+        check("contact detail as CBOR", () -> expectBody(get("/api/contacts/" + contactId, "application/cbor")));
+        check("contact detail as protobuf", () -> expectBody(get("/api/contacts/" + contactId,
+                "application/x-protobuf")));
+        check("list contacts", () -> expectContains(expect(get("/api/contacts?page=0&size=10", null), 200)));
+        check("search contacts", () -> expectContains(expect(get("/api/contacts?search=smok", null), 200)));
+        check("update contact", () -> expectField(expect(send(authorized("/api/contacts/" + contactId)
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(bytes(contact("Updated")))), true), 200),
+                "lastName", "Updated"));
+        check("set tags", () -> expect(send(authorized("/api/contacts/" + contactId + "/tags")
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(bytes(Map.of("tags", List.of("smoke"))))), true), 200));
+        check("list by tag", () -> expectContains(expect(get("/api/contacts/tagged?any=smoke", null), 200)));
+        check("change feed", () -> {
+            if (json(expect(get("/api/contacts/changes?since=0", null), 200)).get("changes").isEmpty()) {
+                throw new IllegalStateException("no changes since 0");
+            }
+        });
+        check("reactive list", () -> expectContains(expect(get("/api/reactive/contacts", null), 200)));
+        check("reactive detail", () -> expectField(expect(get("/api/reactive/contacts/" + contactId, null), 200),
+                "lastName", "Updated"));
+        check("invalid contact is a 400 naming the field", () -> {
+            JsonNode errors = json(expect(post("/api/contacts", Map.of("firstName", "", "phones", List.of())), 400));
+            if (!errors.has("firstName")) {
+                throw new IllegalStateException("no firstName error in " + errors);
+            }
+        });
+        check("delete contact", () -> expect(send(authorized("/api/contacts/" + contactId).DELETE(), true), 200));
+        check("deleted contact is not found", () -> expect(get("/api/contacts/" + contactId, "application/json"),
+                404));
+
+        check("change password", () -> expect(send(authorized("/api/auth/change-password")
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(bytes(Map.of("oldPassword", DataSeeder.PASSWORD,
+                        "newPassword", NEW_PASSWORD)))), true), 200));
+        check("login with the new password", () -> expect(post("/api/auth/login", Map.of("identifier", IDENTIFIER,
+                "password", NEW_PASSWORD)), 200));
+        check("health", () -> expectField(expect(get("/actuator/health", null), 200), "status", "UP"));
+        check("prometheus", () -> {
+            String metrics = new String(expect(send(HttpRequest.newBuilder(uri("/actuator/prometheus")).GET(), false),
+                    200).body(), StandardCharsets.UTF_8);
+            if (!metrics.contains("http_server_requests")) {
+                throw new IllegalStateException("no http_server_requests metrics");
+            }
+        });
+    }
+
+    private void check(String name, Check check) {
+
+        try {
+            check.run();
+            passed++;
+            System.out.println("PASS " + name);
+        } catch (Exception | AssertionError failure) {
+            failures.add(name + ": " + failure.getMessage());
+            System.out.println("FAIL " + name + ": " + failure.getMessage());
+        }
+    }
+
+    private static Map<String, Object> contact(String lastName) {
+
+        return Map.of("firstName", "Ada", "lastName", lastName, "title", "Engineer",
+                "emails", List.of(Map.of("label", "work", "email", "ada@smoke.local")),
+                "phones", List.of(Map.of("label", "mobile", "phoneNumber", "03001234567")));
+    }
+
+    private URI uri(String path) {
+        return baseUri.resolve(path);
+    }
+
+    private HttpRequest.Builder authorized(String path) {
+        return HttpRequest.newBuilder(uri(path)).header("Authorization", "Bearer " + token);
+    }
+
+    private HttpResponse<byte[]> get(String path, String accept) throws IOException, InterruptedException {
+
+        HttpRequest.Builder request = authorized(path).GET();
+        if (accept != null) {
+            request.header("Accept", accept);
+        }
+        return send(request, true);
+    }
+
+    // Login and registration are anonymous; everything else carries the token.
+    private HttpResponse<byte[]> post(String path, Object body) throws IOException, InterruptedException {
+
+        boolean anonymous = path.startsWith("/api/auth/");
+        HttpRequest.Builder request = (anonymous ? HttpRequest.newBuilder(uri(path)) : authorized(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(bytes(body)));
+        return send(request, !anonymous);
+    }
+
+    private HttpResponse<byte[]> send(HttpRequest.Builder request, boolean needsToken)
+            throws IOException, InterruptedException {
+
+        if (needsToken && token == null) {
+            throw new IllegalStateException("not logged in");
+        }
+        return client.send(request.timeout(REQUEST_TIMEOUT).build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static HttpResponse<byte[]> expect(HttpResponse<byte[]> response, int status) {
+
+        if (response.statusCode() != status) {
+            String body = new String(response.body(), StandardCharsets.UTF_8);
+            throw new IllegalStateException("expected HTTP " + status + ", got " + response.statusCode() + ": "
+                    + body.substring(0, Math.min(200, body.length())));
+        }
+        return response;
+    }
+
+    // Spring Security answers a missing token with 403 unless an entry point says otherwise.
+    private static void expectRefused(HttpResponse<byte[]> response) {
+
+        if (response.statusCode() != 401 && response.statusCode() != 403) {
+            throw new IllegalStateException("expected HTTP 401 or 403, got " + response.statusCode());
+        }
+    }
+
+    private static void expectBody(HttpResponse<byte[]> response) {
+
+        expect(response, 200);
+        if (response.body().length == 0) {
+            throw new IllegalStateException("empty body");
+        }
+    }
+
+    private void expectField(HttpResponse<byte[]> response, String field, String value) throws IOException {
+
+        String actual = text(json(response), field);
+        if (!value.equals(actual)) {
+            throw new IllegalStateException("expected " + field + " '" + value + "', got '" + actual + "'");
+        }
+    }
+
+    private void expectContains(HttpResponse<byte[]> response) throws IOException {
+
+        for (JsonNode contact : json(response)) {
+            if (contact.path("id").asLong() == contactId) {
+                return;
+            }
+        }
+        throw new IllegalStateException("contact " + contactId + " missing from the response");
+    }
+
+    private JsonNode json(HttpResponse<byte[]> response) throws IOException {
+        return objectMapper.readTree(response.body());
+    }
+
+    private static String text(JsonNode node, String field) {
+
+        JsonNode value = node.get(field);
+        if (value == null) {
+            throw new IllegalStateException("no " + field + " in " + node);
+        }
+        return value.asText();
+    }
+
+    private byte[] bytes(Object value) throws IOException {
+        return objectMapper.writeValueAsBytes(value);
+    }
+}
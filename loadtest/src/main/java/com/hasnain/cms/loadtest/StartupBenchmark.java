@@ -0,0 +1,136 @@
+package com.hasnain.cms.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Starts the backend in separate JVMs, one configuration at a time, and measures the time from launching the process
+ * to the first successful API request: a user registration, which needs security, validation, Jackson, JPA and the
+ * database. Each configuration gets an untimed first start, which also creates the schema, then {@code --runs} timed
+ * ones against the same embedded database.
+ * <p>
+ * Runs against the jar extracted by the backend's {@code aot-cds} profile; configurations whose archive is missing are
+ * skipped. Options, as {@code --name=value}: {@code app} (the extracted directory), {@code runs} (5),
+ * {@code configs} (all of {@link #CONFIGURATIONS}, by name), {@code timeout} in seconds (120) and {@code report}
+ * ({@code startup-report.json}).
+ */
+public final class StartupBenchmark {
+
+    private static final String ARCHIVE = "application.jsa";
+
+    private static final String LAZY = "--spring.main.lazy-initialization=true";
+
+    private static final String AOT = "-Dspring.aot.enabled=true";
+
+    private static final String CDS = "-XX:SharedArchiveFile=" + ARCHIVE;
+
+    /**
+     * A way of starting the backend: extra JVM options and application arguments.
+     */
+    record Configuration(String name, List<String> jvmOptions, List<String> arguments) {
+    }
+
+    static final List<Configuration> CONFIGURATIONS = List.of(
+            new Configuration("default", List.of(), List.of()),
+            new Configuration("lazy", List.of(), List.of(LAZY)),
+            new Configuration("aot", List.of(AOT), List.of()),
+            new Configuration("cds", List.of(CDS), List.of()),
+            new Configuration("aot-cds", List.of(AOT, CDS), List.of()),
+            new Configuration("aot-cds-lazy", List.of(AOT, CDS), List.of(LAZY)));
+
+    private static final Set<String> OPTIONS = Set.of("app", "runs", "configs", "timeout", "report");
+
+    /**
+     * Startup times of one configuration, in milliseconds.
+     */
+    public record Result(String configuration, List<Long> millis, long min, long median, long max) {
+
+        static Result of(String configuration, List<Long> millis) {
+
+            List<Long> sorted = millis.stream().sorted().toList();
+            return new Result(configuration, millis, sorted.get(0), sorted.get(sorted.size() / 2),
+                    sorted.get(sorted.size() - 1));
+        }
+    }
+
+    private final Path app;
+
+    private final Path jar;
+
+    private final Duration timeout;
+
+    private StartupBenchmark(Path app, Duration timeout) throws IOException {
+
+        this.app = app;
+        this.timeout = timeout;
+        try (var files = Files.list(app)) {
+            this.jar = files.filter(file -> file.getFileName().toString().endsWith("-exec.jar")).findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("No extracted *-exec.jar in " + app
+                            + "; build the backend with -Paot-cds first."));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        Map<String, String> options = Options.parse(OPTIONS, args);
+        Path app = Path.of(options.getOrDefault("app", "backend/target/cds")).toAbsolutePath();
+        int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        List<String> names = Arrays.asList(options.getOrDefault("configs",
+                CONFIGURATIONS.stream().map(Configuration::name).collect(Collectors.joining(","))).split(","));
+        StartupBenchmark benchmark = new StartupBenchmark(app,
+                Duration.ofSeconds(Long.parseLong(options.getOrDefault("timeout", "120"))));
+
+        List<Result> results = new ArrayList<>();
+        for (String name : names) {
+            Configuration configuration = CONFIGURATIONS.stream().filter(known -> known.name().equals(name))
+                    .findFirst().orElseThrow(() -> new IllegalArgumentException("Unknown configuration '" + name
+                            + "'. Known: " + CONFIGURATIONS.stream().map(Configuration::name).toList()));
+            if (configuration.jvmOptions().contains(CDS) && !Files.exists(app.resolve(ARCHIVE))) {
+                System.out.printf("Skipping %s: no %s in %s.%n", name, ARCHIVE, app);
+                continue;
+            }
+            results.add(benchmark.measure(configuration, runs));
+        }
+
+        System.out.printf("%nTime to first successful request, %d runs each, ms%n%n", runs);
+        System.out.printf("%-14s %8s %8s %8s%n", "configuration", "min", "median", "max");
+        for (Result result : results) {
+            System.out.printf("%-14s %8d %8d %8d%n", result.configuration(), result.min(), result.median(),
+                    result.max());
+        }
+        Path report = Path.of(options.getOrDefault("report", "startup-report.json"));
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(report.toFile(), results);
+        System.out.printf("%nReport written to %s%n", report.toAbsolutePath());
+    }
+
+    private Result measure(Configuration configuration, int runs) throws Exception {
+
+        Path work = Files.createTempDirectory("cms-startup-" + configuration.name());
+        start(configuration, work, 0);
+        List<Long> millis = new ArrayList<>(runs);
+        for (int run = 1; run <= runs; run++) {
+            millis.add(start(configuration, work, run));
+        }
+        System.out.printf("%s: %s ms%n", configuration.name(), millis);
+        return Result.of(configuration.name(), millis);
+    }
+
+    // One start; returns milliseconds from launch to the first 2xx registration.
+    private long start(Configuration configuration, Path work, int run) throws Exception {
+
+        try (BackendProcess backend = BackendProcess.start(configuration.name(), jar, configuration.jvmOptions(),
+                configuration.arguments(), work, app)) {
+            return backend.awaitRegistration("startup" + run + "@loadtest.local", timeout);
+        }
+    }
+}
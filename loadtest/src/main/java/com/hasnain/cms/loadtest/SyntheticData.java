@@ -0,0 +1,119 @@
+package com.hasnain.cms.loadtest;
+
+import com.hasnain.cms.dto.ContactDTO;
+import com.hasnain.cms.dto.ContactEmailDTO;
+import com.hasnain.cms.dto.ContactPhoneDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.random.RandomGenerator;
+
+/**
+ * Contacts that look like the ones users keep: a few names are far more common than the rest, most contacts have
+ * one email and one phone, some have none or several, and phone numbers use both Pakistani mobile formats the API
+ * accepts. The API refuses two contacts with the same name for one user, so every last name ends in a sequence
+ * number; instances that feed the same database must start from different sequences.
+ */
+final class SyntheticData {
+
+    private static final String[] FIRST_NAMES = {
+            "Muhammad", "Ali", "Ahmed", "Fatima", "Ayesha", "Hassan", "Hussain", "Zainab", "Omar", "Sara", "Bilal",
+            "Hina", "Usman", "Maryam", "Hamza", "Sana", "Imran", "Amna", "Kashif", "Nida", "John", "Emma", "James",
+            "Olivia", "David", "Sophia", "Daniel", "Mia", "Michael", "Isabella", "Hasnain", "Rabia", "Tariq", "Saima",
+            "Faisal", "Mehwish", "Adeel", "Iqra", "Waqar", "Noor"};
+
+    private static final String[] LAST_NAMES = {
+            "Khan", "Ahmed", "Ali", "Hussain", "Malik", "Sheikh", "Butt", "Qureshi", "Chaudhry", "Raza", "Siddiqui",
+            "Iqbal", "Akhtar", "Javed", "Aslam", "Smith", "Johnson", "Williams", "Brown", "Jones", "Mirza", "Abbasi",
+            "Baig", "Rana", "Shah", "Hashmi", "Zaidi", "Farooq", "Nawaz", "Anwar"};
+
+    private static final String[] TITLES = {
+            "Account Manager", "Software Engineer", "Sales Lead", "Doctor", "Accountant", "Consultant", "Teacher",
+            "Director", "Student", "Designer"};
+
+    private static final String[] DOMAINS = {
+            "gmail.com", "gmail.com", "gmail.com", "gmail.com", "outlook.com", "outlook.com", "yahoo.com",
+            "hotmail.com", "company.pk", "example.org"};
+
+    private static final String[] EMAIL_LABELS = {"personal", "work", "other"};
+
+    private static final String[] PHONE_LABELS = {"mobile", "home", "work"};
+
+    private final RandomGenerator random;
+
+    private long sequence;
+
+    SyntheticData(RandomGenerator random, long firstSequence) {
+        this.random = random;
+        this.sequence = firstSequence;
+    }
+
+    /**
+     * A new contact without ids, as a client would send it.
+     */
+    ContactDTO contact() {
+
+        String firstName = skewed(FIRST_NAMES);
+        String lastName = skewed(LAST_NAMES) + " " + sequence++;
+        String title = random.nextInt(3) == 0 ? TITLES[random.nextInt(TITLES.length)] : null;
+
+        int emailCount = pick(15, 60, 20, 5);
+        List<ContactEmailDTO> emails = new ArrayList<>(emailCount);
+        for (int i = 0; i < emailCount; i++) {
+            emails.add(new ContactEmailDTO(null, EMAIL_LABELS[Math.min(i, EMAIL_LABELS.length - 1)],
+                    email(firstName, lastName)));
+        }
+        int phoneCount = pick(10, 65, 25);
+        List<ContactPhoneDTO> phones = new ArrayList<>(phoneCount);
+        for (int i = 0; i < phoneCount; i++) {
+            phones.add(new ContactPhoneDTO(null, PHONE_LABELS[Math.min(i, PHONE_LABELS.length - 1)], phone()));
+        }
+        return new ContactDTO(null, firstName, lastName, title, emails, phones);
+    }
+
+    /**
+     * A search term a user would type: the start of a common name.
+     */
+    String searchTerm() {
+
+        String name = random.nextBoolean() ? skewed(FIRST_NAMES) : skewed(LAST_NAMES);
+        return name.substring(0, Math.min(name.length(), 2 + random.nextInt(3)));
+    }
+
+    private String email(String firstName, String lastName) {
+
+        String local = firstName.toLowerCase(Locale.ROOT)
+                + "." + lastName.substring(0, lastName.indexOf(' ')).toLowerCase(Locale.ROOT)
+                + (random.nextBoolean() ? String.valueOf(random.nextInt(1000)) : "");
+        return local + "@" + DOMAINS[random.nextInt(DOMAINS.length)];
+    }
+
+    private String phone() {
+
+        // Operator prefixes 300-349, the lower ones more common.
+        int prefix = 300 + (int) (50 * Math.pow(random.nextDouble(), 1.5));
+        int subscriber = random.nextInt(10_000_000);
+        return random.nextInt(4) == 0
+                ? String.format("+92-%d-%07d", prefix, subscriber)
+                : String.format("0%d%07d", prefix, subscriber);
+    }
+
+    // Index drawn with a heavy skew towards the start of the array, so the first names are the common ones.
+    private String skewed(String[] values) {
+        return values[(int) (values.length * Math.pow(random.nextDouble(), 2.5))];
+    }
+
+    // Index drawn by percentage weights.
+    private int pick(int... weights) {
+
+        int roll = random.nextInt(100);
+        for (int i = 0; i < weights.length; i++) {
+            roll -= weights[i];
+            if (roll < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+}
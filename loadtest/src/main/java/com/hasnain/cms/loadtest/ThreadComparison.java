@@ -0,0 +1,161 @@
+package com.hasnain.cms.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares request handling on platform threads with the {@code virtual-threads} profile, on the backend's runnable jar
+ * and the same seeded data. For each mode and each client count, a fresh copy of the data is started and that many
+ * closed-loop clients (see {@link LoadGenerator#runClients}) send the load test's mix through its warmup and measured
+ * period. Throughput, latency percentiles, errors, peak resident memory and peak thread count are reported per run.
+ * <p>
+ * Every client holds its own connection, so the default 10000 clients need some 20000 open files between the client
+ * and the backend; raise {@code ulimit -n} first. The backend runs on this JVM's {@code java}, so the virtual mode
+ * needs Java 21 or later and is skipped otherwise.
+ * <p>
+ * Options, as {@code --name=value}: {@code backend}, the directory holding {@code cms-*-exec.jar}
+ * ({@code backend/target}), {@code modes} ({@code platform,virtual}), {@code clients} ({@code 1000,5000,10000}),
+ * {@code timeout} in seconds (120) and {@code output} ({@code thread-comparison.json}). Any other option sets the
+ * data and the mix, as listed on {@link LoadTestSettings}; {@code rate} and {@code max-in-flight} do not apply.
+ */
+public final class ThreadComparison {
+
+    private static final Set<String> OPTIONS = Set.of("backend", "modes", "clients", "timeout", "output");
+
+    /**
+     * One run: the mode, the client count, the {@code all} row's throughput, percentiles and errors, and the backend's
+     * peak resident memory in MB and peak live threads.
+     */
+    public record Result(String mode, int clients, double throughput, double p50, double p99, double p999,
+                         long errors, double peakRssMb, long peakThreads, LoadReport load) {
+    }
+
+    private final LoadTestSettings settings;
+
+    private final Duration timeout;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS);
+
+    private ThreadComparison(LoadTestSettings settings, Duration timeout) {
+        this.settings = settings;
+        this.timeout = timeout;
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        List<String> own = new ArrayList<>();
+        List<String> load = new ArrayList<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            boolean isOwn = arg.startsWith("--") && separator > 0 && OPTIONS.contains(arg.substring(2, separator));
+            (isOwn ? own : load).add(arg);
+        }
+        Map<String, String> options = Options.parse(OPTIONS, own.toArray(String[]::new));
+        Path backend = Path.of(options.getOrDefault("backend", "backend/target")).toAbsolutePath();
+        Path jar = NativeComparison.runnableJar(backend);
+        if (jar == null) {
+            throw new IllegalArgumentException("No runnable jar in " + backend + "; build the backend first.");
+        }
+        ThreadComparison comparison = new ThreadComparison(LoadTestSettings.parse(load.toArray(String[]::new)),
+                Duration.ofSeconds(Long.parseLong(options.getOrDefault("timeout", "120"))));
+
+        List<String> modes = new ArrayList<>();
+        for (String mode : options.getOrDefault("modes", "platform,virtual").split(",")) {
+            if (!mode.equals("platform") && !mode.equals("virtual")) {
+                throw new IllegalArgumentException("Unknown mode '" + mode + "'. Known: platform, virtual");
+            }
+            if (mode.equals("virtual") && Runtime.version().feature() < 21) {
+                System.out.printf("Skipping virtual: needs Java 21 or later, running on %s.%n", Runtime.version());
+                continue;
+            }
+            modes.add(mode);
+        }
+        List<Integer> clientCounts = new ArrayList<>();
+        for (String clients : options.getOrDefault("clients", "1000,5000,10000").split(",")) {
+            clientCounts.add(Integer.parseInt(clients.strip()));
+        }
+
+        Path work = Files.createTempDirectory("cms-thread-comparison");
+        Path seeded = work.resolve("seeded");
+        NativeComparison.seed(comparison.settings, jar, seeded, comparison.timeout);
+        List<Result> results = new ArrayList<>();
+        for (int clients : clientCounts) {
+            for (String mode : modes) {
+                Path directory = work.resolve(mode + "-" + clients);
+                NativeComparison.copy(seeded.resolve("db"), directory.resolve("db"));
+                results.add(comparison.measure(jar, mode, clients, directory));
+            }
+        }
+
+        System.out.printf("%nClosed-loop clients for %ds after %ds warmup, %d users x %d contacts, %d sessions%n%n",
+                comparison.settings.duration().toSeconds(), comparison.settings.warmup().toSeconds(),
+                comparison.settings.users(), comparison.settings.contactsPerUser(), comparison.settings.sessions());
+        System.out.printf("%-9s %8s %9s %8s %8s %9s %8s %9s %8s%n", "mode", "clients", "req/s", "p50 ms", "p99 ms",
+                "p99.9 ms", "errors", "RSS peak", "threads");
+        for (Result result : results) {
+            System.out.printf("%-9s %8d %9.1f %8.2f %8.2f %9.2f %8d %9.1f %8d%n", result.mode(), result.clients(),
+                    result.throughput(), result.p50(), result.p99(), result.p999(), result.errors(),
+                    result.peakRssMb(), result.peakThreads());
+        }
+        Path output = Path.of(options.getOrDefault("output", "thread-comparison.json"));
+        comparison.objectMapper.writerWithDefaultPrettyPrinter().writeValue(output.toFile(), results);
+        System.out.printf("%nReport written to %s%n", output.toAbsolutePath());
+    }
+
+    private Result measure(Path jar, String mode, int clients, Path directory) throws Exception {
+
+        String profiles = "embedded" + (mode.equals("virtual") ? ",virtual-threads" : "")
+                + (settings.profiles().isBlank() ? "" : "," + settings.profiles());
+        try (BackendProcess backend = BackendProcess.start(mode + "-" + clients, jar, List.of(),
+                List.of("--spring.profiles.active=" + profiles), directory, directory)) {
+            backend.awaitRegistration(mode + clients + "@loadtest.local", timeout);
+            System.out.printf("%s with %d clients: started, running %ds warmup and %ds measured.%n", mode, clients,
+                    settings.warmup().toSeconds(), settings.duration().toSeconds());
+
+            AtomicLong peakThreads = new AtomicLong(backend.threads());
+            ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+            sampler.scheduleAtFixedRate(() -> {
+                try {
+                    peakThreads.accumulateAndGet(backend.threads(), Math::max);
+                } catch (IOException exception) {
+                    // The backend exited; the run reports its errors.
+                }
+            }, 1, 1, TimeUnit.SECONDS);
+            ExecutorService executor = LoadTest.newExecutor();
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(executor)
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            try {
+                LoadGenerator generator = new LoadGenerator(client, backend.baseUri(), objectMapper, settings);
+                generator.logIn();
+                LoadReport report = LoadReport.of(settings, mode, generator.runClients(clients));
+                LoadReport.Row all = report.endpoints().get(report.endpoints().size() - 1);
+                return new Result(mode, clients, all.throughput(), all.p50(), all.p99(), all.p999(), all.errors(),
+                        backend.residentMegabytes(true), peakThreads.get(), report);
+            } finally {
+                sampler.shutdownNow();
+                executor.shutdownNow();
+            }
+        }
+    }
+}